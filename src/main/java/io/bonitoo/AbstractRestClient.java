@@ -23,7 +23,11 @@
 package io.bonitoo;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nonnull;
@@ -33,9 +37,11 @@ import io.bonitoo.core.InfluxException;
 import io.bonitoo.core.Preconditions;
 
 import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
 import okhttp3.RequestBody;
 import org.json.JSONObject;
 import retrofit2.Call;
+import retrofit2.Callback;
 import retrofit2.Response;
 
 /**
@@ -47,6 +53,11 @@ public abstract class AbstractRestClient {
 
     private static final MediaType CONTENT_TYPE_JSON = MediaType.parse("application/json");
 
+    /**
+     * The wait for one round of warm-up requests if the HTTP client has not any timeout (milliseconds).
+     */
+    private static final long DEFAULT_WARM_UP_TIMEOUT = 30_000;
+
     @Nonnull
     protected RequestBody createBody(@Nonnull final JSONObject json) {
 
@@ -64,6 +75,14 @@ public abstract class AbstractRestClient {
         return RequestBody.create(CONTENT_TYPE_JSON, content);
     }
 
+    @Nonnull
+    protected RequestBody createBody(@Nonnull final byte[] content) {
+
+        Objects.requireNonNull(content, "content is required");
+
+        return RequestBody.create(CONTENT_TYPE_JSON, content);
+    }
+
     protected <T> T execute(@Nonnull final Call<T> call) throws InfluxException {
         return execute(call, null);
     }
@@ -96,4 +115,86 @@ public abstract class AbstractRestClient {
             throw InfluxException.fromCause(e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Execute the calls concurrently to establish the pooled connections.
+     * <p>
+     * The dispatcher of HTTP client executes at most {@link okhttp3.Dispatcher#getMaxRequestsPerHost()} calls
+     * to the host concurrently, the rest waits in the queue for the next round. The wait for each round is bounded
+     * by the connect, write and read timeout of HTTP client, the not finished calls are cancelled.
+     *
+     * @param calls        the lightweight calls (ping, health)
+     * @param okHttpClient the HTTP client that executes the calls
+     * @return {@link Boolean#TRUE} if all calls succeed otherwise {@link Boolean#FALSE}
+     */
+    @Nonnull
+    protected Boolean warmUp(@Nonnull final List<? extends Call<?>> calls, @Nonnull final OkHttpClient okHttpClient) {
+
+        Objects.requireNonNull(calls, "calls are required");
+        Objects.requireNonNull(okHttpClient, "OkHttpClient is required");
+
+        CountDownLatch latch = new CountDownLatch(calls.size());
+        AtomicBoolean success = new AtomicBoolean(true);
+
+        calls.forEach(call -> enqueueWarmUp(call, latch, success));
+
+        long roundTimeout = (long) okHttpClient.connectTimeoutMillis()
+                + okHttpClient.writeTimeoutMillis()
+                + okHttpClient.readTimeoutMillis();
+        if (roundTimeout == 0) {
+            roundTimeout = DEFAULT_WARM_UP_TIMEOUT;
+        }
+        int maxRequestsPerHost = Math.max(1, okHttpClient.dispatcher().getMaxRequestsPerHost());
+        long rounds = (calls.size() + maxRequestsPerHost - 1) / maxRequestsPerHost;
+
+        try {
+            if (!latch.await(roundTimeout * rounds, TimeUnit.MILLISECONDS)) {
+
+                LOG.log(Level.WARNING, "The warm-up requests were not finished in {0} ms",
+                        roundTimeout * rounds);
+
+                calls.forEach(Call::cancel);
+
+                return false;
+            }
+        } catch (InterruptedException e) {
+            calls.forEach(Call::cancel);
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        return success.get();
+    }
+
+    private <T> void enqueueWarmUp(@Nonnull final Call<T> call,
+                                   @Nonnull final CountDownLatch latch,
+                                   @Nonnull final AtomicBoolean success) {
+
+        call.enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(@Nonnull final Call<T> call, @Nonnull final Response<T> response) {
+
+                if (!response.isSuccessful()) {
+                    LOG.log(Level.WARNING, "The warm-up request failed: {0}", response.code());
+                    success.set(false);
+                }
+
+                latch.countDown();
+            }
+
+            @Override
+            public void onFailure(@Nonnull final Call<T> call, @Nonnull final Throwable throwable) {
+
+                //
+                // Cancelled by timeout of warm-up => already reported
+                //
+                if (!call.isCanceled()) {
+                    LOG.log(Level.WARNING, "The warm-up request failed", throwable);
+                }
+                success.set(false);
+
+                latch.countDown();
+            }
+        });
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import io.bonitoo.core.event.AbstractInfluxEvent;
+import io.bonitoo.core.event.CircuitBreakerEvent;
+import io.bonitoo.core.option.CircuitBreakerOptions;
+
+/**
+ * The circuit breaker of the requests to one server. The outcome of recent calls is recorded in the count-based
+ * sliding window.
+ *
+ * @see CircuitBreakerOptions
+ */
+@ThreadSafe
+public final class CircuitBreaker {
+
+    /**
+     * The state of circuit breaker.
+     */
+    public enum State {
+
+        /**
+         * The requests are permitted.
+         */
+        CLOSED,
+
+        /**
+         * The requests are rejected.
+         */
+        OPEN,
+
+        /**
+         * The limited number of probe requests is permitted.
+         */
+        HALF_OPEN
+    }
+
+    private static final byte FAILURE = 1;
+    private static final byte SLOW = 2;
+
+    private final String endpoint;
+    private final CircuitBreakerOptions options;
+    private final Consumer<AbstractInfluxEvent> listener;
+    private final LongSupplier clock;
+    private final long slowCallDuration;
+    private final long openDuration;
+
+    @GuardedBy("this")
+    private State state = State.CLOSED;
+    @GuardedBy("this")
+    private final byte[] window;
+    @GuardedBy("this")
+    private int windowIndex;
+    @GuardedBy("this")
+    private int windowCount;
+    @GuardedBy("this")
+    private int failures;
+    @GuardedBy("this")
+    private int slowCalls;
+    @GuardedBy("this")
+    private long openedAt;
+    @GuardedBy("this")
+    private int halfOpenPermits;
+    @GuardedBy("this")
+    private int halfOpenResults;
+
+    CircuitBreaker(@Nonnull final String endpoint,
+                   @Nonnull final CircuitBreakerOptions options,
+                   @Nonnull final Consumer<AbstractInfluxEvent> listener) {
+
+        this(endpoint, options, listener, System::nanoTime);
+    }
+
+    CircuitBreaker(@Nonnull final String endpoint,
+                   @Nonnull final CircuitBreakerOptions options,
+                   @Nonnull final Consumer<AbstractInfluxEvent> listener,
+                   @Nonnull final LongSupplier clock) {
+
+        Objects.requireNonNull(endpoint, "endpoint is required");
+        Objects.requireNonNull(options, "CircuitBreakerOptions are required");
+        Objects.requireNonNull(listener, "listener is required");
+        Objects.requireNonNull(clock, "clock is required");
+
+        this.endpoint = endpoint;
+        this.options = options;
+        this.listener = listener;
+        this.clock = clock;
+        this.slowCallDuration = TimeUnit.MILLISECONDS.toNanos(options.getSlowCallDuration());
+        this.openDuration = TimeUnit.MILLISECONDS.toNanos(options.getOpenDuration());
+        this.window = new byte[options.getWindowSize()];
+    }
+
+    /**
+     * @return the server endpoint ({@code scheme://host:port})
+     */
+    @Nonnull
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return the current state
+     */
+    @Nonnull
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Acquire the permission to execute the call.
+     *
+     * @return {@code true} if the call is permitted
+     */
+    boolean tryAcquire() {
+
+        CircuitBreakerEvent event = null;
+        boolean permitted;
+
+        synchronized (this) {
+
+            if (state == State.OPEN && clock.getAsLong() - openedAt >= openDuration) {
+                event = transition(State.HALF_OPEN);
+            }
+
+            switch (state) {
+                case CLOSED:
+                    permitted = true;
+                    break;
+                case HALF_OPEN:
+                    permitted = halfOpenPermits > 0;
+                    if (permitted) {
+                        halfOpenPermits--;
+                    }
+                    break;
+                default:
+                    permitted = false;
+            }
+        }
+
+        publish(event);
+
+        return permitted;
+    }
+
+    /**
+     * Release the permission of the call that was not executed or was cancelled.
+     */
+    synchronized void release() {
+
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits = Math.min(halfOpenPermits + 1, options.getHalfOpenCalls() - halfOpenResults);
+        }
+    }
+
+    /**
+     * Record the outcome of the call.
+     *
+     * @param failure  {@code true} if the call failed
+     * @param duration the duration of call in nanoseconds
+     */
+    void onResult(final boolean failure, final long duration) {
+
+        CircuitBreakerEvent event = null;
+
+        synchronized (this) {
+
+            //
+            // The calls started before opening
+            //
+            if (state == State.OPEN) {
+                return;
+            }
+
+            byte outcome = 0;
+            if (failure) {
+                outcome |= FAILURE;
+            }
+            if (duration >= slowCallDuration) {
+                outcome |= SLOW;
+            }
+            record(outcome);
+
+            if (state == State.HALF_OPEN) {
+                halfOpenResults++;
+                if (halfOpenResults >= options.getHalfOpenCalls()) {
+                    event = transition(isThresholdExceeded() ? State.OPEN : State.CLOSED);
+                }
+            } else if (windowCount >= options.getMinimumCalls() && isThresholdExceeded()) {
+                event = transition(State.OPEN);
+            }
+        }
+
+        publish(event);
+    }
+
+    @GuardedBy("this")
+    private void record(final byte outcome) {
+
+        if (windowCount == window.length) {
+            byte evicted = window[windowIndex];
+            if ((evicted & FAILURE) != 0) {
+                failures--;
+            }
+            if ((evicted & SLOW) != 0) {
+                slowCalls--;
+            }
+        } else {
+            windowCount++;
+        }
+
+        window[windowIndex] = outcome;
+        windowIndex = (windowIndex + 1) % window.length;
+
+        if ((outcome & FAILURE) != 0) {
+            failures++;
+        }
+        if ((outcome & SLOW) != 0) {
+            slowCalls++;
+        }
+    }
+
+    @GuardedBy("this")
+    private boolean isThresholdExceeded() {
+
+        return (double) failures / windowCount >= options.getFailureRateThreshold()
+                || (double) slowCalls / windowCount >= options.getSlowCallRateThreshold();
+    }
+
+    @GuardedBy("this")
+    @Nonnull
+    private CircuitBreakerEvent transition(@Nonnull final State to) {
+
+        State from = state;
+
+        state = to;
+        windowIndex = 0;
+        windowCount = 0;
+        failures = 0;
+        slowCalls = 0;
+
+        if (to == State.OPEN) {
+            openedAt = clock.getAsLong();
+        } else if (to == State.HALF_OPEN) {
+            halfOpenPermits = options.getHalfOpenCalls();
+            halfOpenResults = 0;
+        }
+
+        return new CircuitBreakerEvent(endpoint, from, to);
+    }
+
+    private void publish(@Nullable final CircuitBreakerEvent event) {
+
+        if (event != null) {
+            listener.accept(event);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+/**
+ * The runtime shared by the Flux and Platform clients. The runtime owns the HTTP core - connection pool,
+ * dispatcher threads, TLS sessions and response cache. The clients created with the same runtime derive
+ * their HTTP client from the core, so the sockets and threads are not multiplied by the count of clients
+ * (per tenant clients).
+ * <p>
+ * The default values:
+ * <ul>
+ * <li>maxIdleConnections = 5</li>
+ * <li>keepAlive = 300 000 ms</li>
+ * <li>maxRequests = 64</li>
+ * <li>maxRequestsPerHost = 5</li>
+ * </ul>
+ * <p>
+ * The runtime is not closed by the clients, call {@link #close()} after all clients are disposed.
+ *
+ * @see io.bonitoo.flux.option.FluxConnectionOptions.Builder#runtime(ClientRuntime)
+ * @see io.bonitoo.platform.option.PlatformOptions.Builder#runtime(ClientRuntime)
+ */
+@ThreadSafe
+public final class ClientRuntime implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(ClientRuntime.class.getName());
+
+    private static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+    private static final int DEFAULT_KEEP_ALIVE = 300_000;
+    private static final int DEFAULT_MAX_REQUESTS = 64;
+    private static final int DEFAULT_MAX_REQUESTS_PER_HOST = 5;
+
+    private final int maxIdleConnections;
+    private final int keepAlive;
+    private final int maxRequests;
+    private final int maxRequestsPerHost;
+
+    private final OkHttpClient core;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    private ClientRuntime(@Nonnull final Builder builder) {
+
+        Objects.requireNonNull(builder, "ClientRuntime.Builder is required");
+
+        maxIdleConnections = builder.maxIdleConnections;
+        keepAlive = builder.keepAlive;
+        maxRequests = builder.maxRequests;
+        maxRequestsPerHost = builder.maxRequestsPerHost;
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
+        OkHttpClient.Builder coreBuilder = builder.okHttpClient
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAlive, TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher);
+
+        if (builder.cache != null) {
+            coreBuilder.cache(builder.cache);
+        }
+
+        core = coreBuilder.build();
+    }
+
+    /**
+     * Creates a runtime with default configuration.
+     *
+     * @return the runtime
+     */
+    @Nonnull
+    public static ClientRuntime create() {
+        return builder().build();
+    }
+
+    /**
+     * Creates a builder instance.
+     *
+     * @return a builder
+     */
+    @Nonnull
+    public static ClientRuntime.Builder builder() {
+        return new ClientRuntime.Builder();
+    }
+
+    /**
+     * Derive the HTTP client builder from the shared core. The derived clients share the connection pool,
+     * dispatcher and cache, the interceptors added to the builder are applied only to the derived client.
+     *
+     * @return the HTTP client builder
+     * @throws IllegalStateException if the runtime is already closed
+     */
+    @Nonnull
+    public OkHttpClient.Builder newClientBuilder() {
+
+        if (closed.get()) {
+            throw new IllegalStateException("The ClientRuntime is already closed.");
+        }
+
+        return core.newBuilder();
+    }
+
+    /**
+     * @return the maximum number of idle connections in the pool
+     * @see Builder#maxIdleConnections(int)
+     */
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    /**
+     * @return the time to keep the idle connection in the pool (milliseconds)
+     * @see Builder#keepAlive(int)
+     */
+    public int getKeepAlive() {
+        return keepAlive;
+    }
+
+    /**
+     * @return the maximum number of requests to execute concurrently
+     * @see Builder#maxRequests(int)
+     */
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    /**
+     * @return the maximum number of requests for each host to execute concurrently
+     * @see Builder#maxRequestsPerHost(int)
+     */
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    /**
+     * @return the number of open connections in the pool
+     */
+    public int getConnectionCount() {
+        return core.connectionPool().connectionCount();
+    }
+
+    /**
+     * @return the number of idle connections in the pool
+     */
+    public int getIdleConnectionCount() {
+        return core.connectionPool().idleConnectionCount();
+    }
+
+    /**
+     * @return {@code true} if the runtime is closed
+     */
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * Release the shared resources - cancel the running requests, shutdown the dispatcher threads,
+     * close the pooled connections and the cache.
+     */
+    @Override
+    public void close() {
+
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        core.dispatcher().cancelAll();
+        core.dispatcher().executorService().shutdown();
+        core.connectionPool().evictAll();
+
+        Cache cache = core.cache();
+        if (cache != null) {
+            try {
+                cache.close();
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "The HTTP cache wasn't closed", e);
+            }
+        }
+    }
+
+    /**
+     * A builder for {@code ClientRuntime}.
+     */
+    @NotThreadSafe
+    public static class Builder {
+
+        private int maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+        private int keepAlive = DEFAULT_KEEP_ALIVE;
+        private int maxRequests = DEFAULT_MAX_REQUESTS;
+        private int maxRequestsPerHost = DEFAULT_MAX_REQUESTS_PER_HOST;
+        private Cache cache;
+        private OkHttpClient.Builder okHttpClient = new OkHttpClient.Builder();
+
+        /**
+         * Set the maximum number of idle connections kept in the pool.
+         *
+         * @param maxIdleConnections the maximum number of idle connections. Default 5.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder maxIdleConnections(final int maxIdleConnections) {
+            Preconditions.checkNotNegativeNumber(maxIdleConnections, "maxIdleConnections");
+            this.maxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        /**
+         * Set the time to keep the idle connection in the pool.
+         *
+         * @param keepAlive the time in milliseconds. Default 300 000 ms.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder keepAlive(final int keepAlive) {
+            Preconditions.checkPositiveNumber(keepAlive, "keepAlive");
+            this.keepAlive = keepAlive;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of requests to execute concurrently. The above requests wait in the queue.
+         *
+         * @param maxRequests the maximum number of requests. Default 64.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder maxRequests(final int maxRequests) {
+            Preconditions.checkPositiveNumber(maxRequests, "maxRequests");
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of requests for each host to execute concurrently.
+         *
+         * @param maxRequestsPerHost the maximum number of requests for each host. Default 5.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder maxRequestsPerHost(final int maxRequestsPerHost) {
+            Preconditions.checkPositiveNumber(maxRequestsPerHost, "maxRequestsPerHost");
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * Set the shared response cache.
+         *
+         * @param cache the response cache, {@code null} disable the cache
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder cache(@Nullable final Cache cache) {
+            this.cache = cache;
+            return this;
+        }
+
+        /**
+         * Set the HTTP client used as a base of the core. The connection pool and dispatcher of the base
+         * are replaced by the runtime ones.
+         *
+         * @param okHttpClient the HTTP client to use.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder okHttpClient(@Nonnull final OkHttpClient.Builder okHttpClient) {
+            Objects.requireNonNull(okHttpClient, "OkHttpClient.Builder is required");
+            this.okHttpClient = okHttpClient;
+            return this;
+        }
+
+        /**
+         * Build an instance of ClientRuntime.
+         *
+         * @return {@link ClientRuntime}
+         */
+        @Nonnull
+        public ClientRuntime build() {
+            return new ClientRuntime(this);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import javax.annotation.Nonnull;
+
+/**
+ * The codec used to compress the body of HTTP request. The implementation has to be thread safe,
+ * the codec is shared by all requests of client.
+ *
+ * @see GzipRequestInterceptor#setCodec(CompressionCodec)
+ */
+public interface CompressionCodec {
+
+    /**
+     * @return the value of {@code Content-Encoding} header that corresponds to the codec
+     */
+    @Nonnull
+    String getContentEncoding();
+
+    /**
+     * Wrap the output by the compressing stream. The closing of returned stream finish the compression
+     * and closes the {@code output}.
+     *
+     * @param output the output for the compressed data
+     * @return the stream that compress all written data into {@code output}
+     * @throws IOException if the compressing stream could not be created
+     */
+    @Nonnull
+    OutputStream compress(@Nonnull final OutputStream output) throws IOException;
+}
@@ -0,0 +1,171 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import io.bonitoo.core.event.AbstractInfluxEvent;
+import io.bonitoo.core.event.ConcurrencyLimitEvent;
+import io.bonitoo.core.option.ConcurrencyLimitOptions;
+
+/**
+ * The adaptive limit of concurrent requests to one server (gradient algorithm).
+ * <p>
+ * The limit is multiplied by the gradient {@code tolerance * longRtt / rtt} clamped to [0.5, 1]
+ * and increased by the queue allowance {@code sqrt(limit)}. The long-term response time is the moving
+ * average of the successful calls. The failed calls decrease the limit by 10%.
+ *
+ * @see ConcurrencyLimitOptions
+ */
+@ThreadSafe
+final class ConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double LONG_RTT_WINDOW = 600;
+
+    /**
+     * The recent response times are significantly lower => the server recovered from the long overload.
+     */
+    private static final double RECOVERY_RATIO = 2;
+    private static final double RECOVERY_DECAY = 0.95;
+
+    private final String endpoint;
+    private final ConcurrencyLimitOptions options;
+    private final Consumer<AbstractInfluxEvent> listener;
+
+    @GuardedBy("this")
+    private double limit;
+    @GuardedBy("this")
+    private int inFlight;
+    @GuardedBy("this")
+    private double longRtt;
+
+    ConcurrencyLimiter(@Nonnull final String endpoint,
+                       @Nonnull final ConcurrencyLimitOptions options,
+                       @Nonnull final Consumer<AbstractInfluxEvent> listener) {
+
+        Objects.requireNonNull(endpoint, "endpoint is required");
+        Objects.requireNonNull(options, "ConcurrencyLimitOptions are required");
+        Objects.requireNonNull(listener, "listener is required");
+
+        this.endpoint = endpoint;
+        this.options = options;
+        this.listener = listener;
+        this.limit = options.getInitialLimit();
+    }
+
+    /**
+     * @return the current limit of concurrent requests
+     */
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return the count of requests in flight
+     */
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Acquire the permission to execute the call.
+     *
+     * @return {@code true} if the count of requests in flight is under the limit
+     */
+    synchronized boolean tryAcquire() {
+
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+
+        inFlight++;
+
+        return true;
+    }
+
+    /**
+     * Release the permission of the call without the sample (cancelled call).
+     */
+    synchronized void release() {
+        inFlight--;
+    }
+
+    /**
+     * Release the permission and adjust the limit by the outcome of call.
+     *
+     * @param rtt     the response time in nanoseconds
+     * @param dropped {@code true} if the call failed
+     */
+    void onResult(final long rtt, final boolean dropped) {
+
+        ConcurrencyLimitEvent event = null;
+
+        synchronized (this) {
+
+            int sampleInFlight = inFlight;
+            inFlight--;
+
+            double newLimit;
+            if (dropped) {
+                newLimit = limit * BACKOFF_RATIO;
+            } else {
+
+                double sample = Math.max(1, rtt);
+
+                longRtt = longRtt == 0 ? sample : longRtt + (sample - longRtt) / LONG_RTT_WINDOW;
+                if (longRtt / sample > RECOVERY_RATIO) {
+                    longRtt *= RECOVERY_DECAY;
+                }
+
+                //
+                // The limit isn't used => don't grow
+                //
+                if (sampleInFlight < limit / 2) {
+                    return;
+                }
+
+                double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, options.getTolerance() * longRtt / sample));
+                newLimit = limit * gradient + Math.sqrt(limit);
+            }
+
+            newLimit = limit * (1 - options.getSmoothing()) + newLimit * options.getSmoothing();
+            newLimit = Math.max(options.getMinLimit(), Math.min(options.getMaxLimit(), newLimit));
+
+            if ((int) newLimit != (int) limit) {
+                event = new ConcurrencyLimitEvent(endpoint, (int) limit, (int) newLimit);
+            }
+
+            limit = newLimit;
+        }
+
+        if (event != null) {
+            listener.accept(event);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * The GZIP codec with configurable compression level.
+ * <p>
+ * The lower levels are significantly faster with slightly worse ratio, the repetitive
+ * InfluxDB Line Protocol is well compressed even by the fastest level.
+ */
+@ThreadSafe
+public final class GzipCodec implements CompressionCodec {
+
+    /**
+     * The GZIP codec with default compression level.
+     */
+    public static final GzipCodec DEFAULT = new GzipCodec(Deflater.DEFAULT_COMPRESSION);
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final int level;
+
+    /**
+     * @param level the compression level {@code 0-9} or {@link Deflater#DEFAULT_COMPRESSION}
+     */
+    public GzipCodec(final int level) {
+
+        if ((level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)
+                && level != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("Expecting a compression level in range 0-9 or -1 for level: " + level);
+        }
+
+        this.level = level;
+    }
+
+    /**
+     * @return the compression level
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    @Nonnull
+    @Override
+    public String getContentEncoding() {
+        return "gzip";
+    }
+
+    @Nonnull
+    @Override
+    public OutputStream compress(@Nonnull final OutputStream output) throws IOException {
+
+        return new GZIPOutputStream(output, BUFFER_SIZE) {
+            {
+                def.setLevel(level);
+            }
+        };
+    }
+}
@@ -23,8 +23,10 @@
 package io.bonitoo.core;
 
 import java.io.IOException;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import okhttp3.HttpUrl;
@@ -34,12 +36,14 @@ import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 import okio.BufferedSink;
-import okio.GzipSink;
 import okio.Okio;
 
 /**
  * Implementation of a intercepter to compress http's body using GZIP.
  * <p>
+ * The compression is pluggable by {@link CompressionCodec} and could be skipped for small bodies
+ * by {@link #setThreshold(long)}.
+ * <p>
  * Copied from InfluxDB Java - <a href="https://github.com/influxdata/influxdb-java/">thanks</a>
  *
  * @author fujian1115 [at] gmail.com
@@ -50,6 +54,9 @@ public final class GzipRequestInterceptor implements Interceptor {
 
     private AtomicBoolean enabled = new AtomicBoolean(false);
 
+    private volatile CompressionCodec codec = GzipCodec.DEFAULT;
+    private volatile long threshold = 0;
+
     public GzipRequestInterceptor() {
         this(null);
     }
@@ -75,6 +82,46 @@ public final class GzipRequestInterceptor implements Interceptor {
         enabled.set(false);
     }
 
+    /**
+     * Set the codec used to compress the body.
+     *
+     * @param codec the compression codec, default {@link GzipCodec#DEFAULT}
+     */
+    public void setCodec(@Nonnull final CompressionCodec codec) {
+
+        Objects.requireNonNull(codec, "CompressionCodec is required");
+
+        this.codec = codec;
+    }
+
+    /**
+     * @return the codec used to compress the body
+     */
+    @Nonnull
+    public CompressionCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * Set the minimal size of body to compress. The smaller bodies are sent without compression.
+     * The bodies with unknown length are always compressed.
+     *
+     * @param threshold the minimal size of body in bytes, default {@code 0}
+     */
+    public void setThreshold(final long threshold) {
+
+        Preconditions.checkNotNegativeNumber(threshold, "Compression threshold");
+
+        this.threshold = threshold;
+    }
+
+    /**
+     * @return the minimal size of body to compress
+     */
+    public long getThreshold() {
+        return threshold;
+    }
+
     @Override
     public Response intercept(final Chain chain) throws IOException {
         if (!enabled.get()) {
@@ -87,8 +134,16 @@ public final class GzipRequestInterceptor implements Interceptor {
             return chain.proceed(request);
         }
 
-        Request compressedRequest = request.newBuilder().header("Content-Encoding", "gzip")
-                .method(request.method(), gzip(body)).build();
+        long contentLength = body.contentLength();
+        if (contentLength != -1 && contentLength < threshold) {
+            return chain.proceed(request);
+        }
+
+        CompressionCodec compressionCodec = this.codec;
+
+        Request compressedRequest = request.newBuilder()
+                .header("Content-Encoding", compressionCodec.getContentEncoding())
+                .method(request.method(), compress(body, compressionCodec)).build();
         return chain.proceed(compressedRequest);
     }
 
@@ -101,7 +156,7 @@ public final class GzipRequestInterceptor implements Interceptor {
         return pattern.matcher(url.encodedPath()).matches();
     }
 
-    private RequestBody gzip(final RequestBody body) {
+    private RequestBody compress(final RequestBody body, final CompressionCodec compressionCodec) {
         return new RequestBody() {
             @Override
             public MediaType contentType() {
@@ -115,9 +170,9 @@ public final class GzipRequestInterceptor implements Interceptor {
 
             @Override
             public void writeTo(final BufferedSink sink) throws IOException {
-                BufferedSink gzipSink = Okio.buffer(new GzipSink(sink));
-                body.writeTo(gzipSink);
-                gzipSink.close();
+                BufferedSink compressedSink = Okio.buffer(Okio.sink(compressionCodec.compress(sink.outputStream())));
+                body.writeTo(compressedSink);
+                compressedSink.close();
             }
         };
     }
@@ -0,0 +1,86 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nonnull;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * The HTTP protocol used for communication with InfluxData servers.
+ * <p>
+ * The HTTP/2 multiplexes the concurrent requests over a single connection, so the concurrency of requests
+ * is limited by {@link ClientRuntime.Builder#maxRequestsPerHost(int)} instead of the count of connections.
+ */
+public enum HttpProtocol {
+
+    /**
+     * The HTTP/1.1 only.
+     */
+    HTTP_1_1,
+
+    /**
+     * Prefer HTTP/2 negotiated by TLS (ALPN), fallback to HTTP/1.1.
+     */
+    HTTP_2,
+
+    /**
+     * The HTTP/2 over plaintext connection with prior knowledge (h2c), suitable for local deployments.
+     * The server has to support h2c, there is no fallback to HTTP/1.1.
+     */
+    H2C;
+
+    /**
+     * Configure the protocols of the HTTP client.
+     *
+     * @param okHttpClient the HTTP client builder
+     * @return the HTTP client builder
+     */
+    @Nonnull
+    public OkHttpClient.Builder configure(@Nonnull final OkHttpClient.Builder okHttpClient) {
+
+        return okHttpClient.protocols(getProtocols());
+    }
+
+    /**
+     * @return the protocols that will be used by the HTTP client
+     */
+    @Nonnull
+    public List<Protocol> getProtocols() {
+
+        switch (this) {
+            case HTTP_1_1:
+                return Collections.singletonList(Protocol.HTTP_1_1);
+            case HTTP_2:
+                return Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1);
+            case H2C:
+                return Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE);
+            default:
+                throw new IllegalStateException("Unsupported protocol: " + this);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import io.bonitoo.core.event.AbstractInfluxEvent;
+import io.bonitoo.core.option.CircuitBreakerOptions;
+import io.bonitoo.core.option.ConcurrencyLimitOptions;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Protects the overloaded servers by the circuit breaker and the adaptive concurrency limit.
+ * The state is kept for each server endpoint ({@code scheme://host:port}) and the requests
+ * over the open breaker or the exceeded limit are rejected by {@link RequestRejectedException}.
+ * <p>
+ * The call is finished when the response headers arrive, so the streamed query results don't hold the limit.
+ * The network errors, 5xx and 429 responses are considered as failures.
+ */
+@ThreadSafe
+public final class OverloadProtectionInterceptor implements Interceptor {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int SERVER_ERROR = 500;
+
+    private final CircuitBreakerOptions circuitBreaker;
+    private final ConcurrencyLimitOptions concurrencyLimit;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final Set<Consumer<AbstractInfluxEvent>> listeners = new CopyOnWriteArraySet<>();
+
+    /**
+     * @param circuitBreaker   the configuration of circuit breaker, {@code null} disable the breaker
+     * @param concurrencyLimit the configuration of concurrency limit, {@code null} disable the limit
+     */
+    public OverloadProtectionInterceptor(@Nullable final CircuitBreakerOptions circuitBreaker,
+                                         @Nullable final ConcurrencyLimitOptions concurrencyLimit) {
+
+        this.circuitBreaker = circuitBreaker;
+        this.concurrencyLimit = concurrencyLimit;
+    }
+
+    @Override
+    public Response intercept(@Nonnull final Chain chain) throws IOException {
+
+        Request request = chain.request();
+        Endpoint endpoint = endpoints.computeIfAbsent(toEndpoint(request.url()), Endpoint::new);
+
+        if (endpoint.breaker != null && !endpoint.breaker.tryAcquire()) {
+            throw new RequestRejectedException("The circuit breaker of " + endpoint.url + " is open.");
+        }
+
+        if (endpoint.limiter != null && !endpoint.limiter.tryAcquire()) {
+            if (endpoint.breaker != null) {
+                endpoint.breaker.release();
+            }
+            throw new RequestRejectedException("The concurrency limit of " + endpoint.url
+                    + " is exceeded: " + endpoint.limiter.getLimit());
+        }
+
+        long started = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException | RuntimeException e) {
+
+            if (chain.call().isCanceled()) {
+                endpoint.release();
+            } else {
+                endpoint.onResult(true, System.nanoTime() - started);
+            }
+
+            throw e;
+        }
+
+        boolean failure = response.code() >= SERVER_ERROR || response.code() == TOO_MANY_REQUESTS;
+        endpoint.onResult(failure, System.nanoTime() - started);
+
+        return response;
+    }
+
+    /**
+     * Add the listener of {@link io.bonitoo.core.event.CircuitBreakerEvent}
+     * and {@link io.bonitoo.core.event.ConcurrencyLimitEvent}.
+     *
+     * @param listener the listener
+     */
+    public void addListener(@Nonnull final Consumer<AbstractInfluxEvent> listener) {
+
+        Objects.requireNonNull(listener, "listener is required");
+
+        listeners.add(listener);
+    }
+
+    /**
+     * Remove the listener of events.
+     *
+     * @param listener the listener
+     */
+    public void removeListener(@Nonnull final Consumer<AbstractInfluxEvent> listener) {
+
+        Objects.requireNonNull(listener, "listener is required");
+
+        listeners.remove(listener);
+    }
+
+    /**
+     * @param url the url of server
+     * @return the state of circuit breaker, {@code null} if the breaker is disabled or there wasn't any request
+     */
+    @Nullable
+    public CircuitBreaker.State getCircuitBreakerState(@Nonnull final String url) {
+
+        Endpoint endpoint = getEndpoint(url);
+
+        return endpoint != null && endpoint.breaker != null ? endpoint.breaker.getState() : null;
+    }
+
+    /**
+     * @param url the url of server
+     * @return the current concurrency limit, {@code -1} if the limit is disabled or there wasn't any request
+     */
+    public int getConcurrencyLimit(@Nonnull final String url) {
+
+        Endpoint endpoint = getEndpoint(url);
+
+        return endpoint != null && endpoint.limiter != null ? endpoint.limiter.getLimit() : -1;
+    }
+
+    @Nullable
+    private Endpoint getEndpoint(@Nonnull final String url) {
+
+        Preconditions.checkNonEmptyString(url, "url");
+
+        HttpUrl httpUrl = HttpUrl.parse(url);
+        if (httpUrl == null) {
+            throw new IllegalArgumentException("Expecting a valid url: " + url);
+        }
+
+        return endpoints.get(toEndpoint(httpUrl));
+    }
+
+    @Nonnull
+    private String toEndpoint(@Nonnull final HttpUrl url) {
+        return url.scheme() + "://" + url.host() + ":" + url.port();
+    }
+
+    private void publish(@Nonnull final AbstractInfluxEvent event) {
+        listeners.forEach(listener -> listener.accept(event));
+    }
+
+    private final class Endpoint {
+
+        private final String url;
+        private final CircuitBreaker breaker;
+        private final ConcurrencyLimiter limiter;
+
+        private Endpoint(@Nonnull final String url) {
+
+            this.url = url;
+            this.breaker = circuitBreaker != null
+                    ? new CircuitBreaker(url, circuitBreaker, OverloadProtectionInterceptor.this::publish)
+                    : null;
+            this.limiter = concurrencyLimit != null
+                    ? new ConcurrencyLimiter(url, concurrencyLimit, OverloadProtectionInterceptor.this::publish)
+                    : null;
+        }
+
+        private void release() {
+
+            if (breaker != null) {
+                breaker.release();
+            }
+            if (limiter != null) {
+                limiter.release();
+            }
+        }
+
+        private void onResult(final boolean failure, final long duration) {
+
+            if (breaker != null) {
+                breaker.onResult(failure, duration);
+            }
+            if (limiter != null) {
+                limiter.onResult(duration, failure);
+            }
+        }
+    }
+}
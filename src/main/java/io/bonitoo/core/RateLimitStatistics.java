@@ -0,0 +1,111 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core;
+
+import java.util.StringJoiner;
+import javax.annotation.Nonnull;
+
+/**
+ * The snapshot of statistics of the {@link RateLimiter} for one organization.
+ *
+ * @see RateLimiter#getStatistics(String)
+ */
+public final class RateLimitStatistics {
+
+    private final String organization;
+    private final long permittedRequests;
+    private final long permittedBytes;
+    private final long delayedRequests;
+    private final long rejectedRequests;
+    private final long totalDelay;
+
+    public RateLimitStatistics(@Nonnull final String organization,
+                               final long permittedRequests,
+                               final long permittedBytes,
+                               final long delayedRequests,
+                               final long rejectedRequests,
+                               final long totalDelay) {
+
+        this.organization = organization;
+        this.permittedRequests = permittedRequests;
+        this.permittedBytes = permittedBytes;
+        this.delayedRequests = delayedRequests;
+        this.rejectedRequests = rejectedRequests;
+        this.totalDelay = totalDelay;
+    }
+
+    /**
+     * @return the organization
+     */
+    @Nonnull
+    public String getOrganization() {
+        return organization;
+    }
+
+    /**
+     * @return the number of permitted requests, includes the delayed requests
+     */
+    public long getPermittedRequests() {
+        return permittedRequests;
+    }
+
+    /**
+     * @return the size of permitted request bodies (bytes)
+     */
+    public long getPermittedBytes() {
+        return permittedBytes;
+    }
+
+    /**
+     * @return the number of requests delayed by the {@link io.bonitoo.core.option.RateLimitOptions.Policy#QUEUE}
+     */
+    public long getDelayedRequests() {
+        return delayedRequests;
+    }
+
+    /**
+     * @return the number of rejected requests
+     */
+    public long getRejectedRequests() {
+        return rejectedRequests;
+    }
+
+    /**
+     * @return the sum of delays of the delayed requests (milliseconds)
+     */
+    public long getTotalDelay() {
+        return totalDelay;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", RateLimitStatistics.class.getSimpleName() + "[", "]")
+                .add("organization='" + organization + "'")
+                .add("permittedRequests=" + permittedRequests)
+                .add("permittedBytes=" + permittedBytes)
+                .add("delayedRequests=" + delayedRequests)
+                .add("rejectedRequests=" + rejectedRequests)
+                .add("totalDelay=" + totalDelay)
+                .toString();
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import io.bonitoo.core.option.RateLimitOptions;
+
+/**
+ * The client-side rate limit of requests for each organization (tenant).
+ * <p>
+ * The limiter is shared by the clients configured by
+ * {@link io.bonitoo.flux.option.FluxConnectionOptions.Builder#rateLimiter(RateLimiter)} and
+ * {@link io.bonitoo.platform.option.PlatformOptions.Builder#rateLimiter(RateLimiter)},
+ * so the queries and the writes of one organization are limited together.
+ *
+ * <pre>
+ * RateLimiter limiter = new RateLimiter(RateLimitOptions.builder()
+ *     .requestsPerSecond(50)
+ *     .bytesPerSecond(10 * 1024 * 1024)
+ *     .policy(RateLimitOptions.Policy.QUEUE)
+ *     .build());
+ *
+ * FluxClient fluxClient = FluxClientFactory.connect(FluxConnectionOptions.builder()
+ *     .url("http://localhost:8093")
+ *     .orgID("tenant-1")
+ *     .rateLimiter(limiter)
+ *     .build());
+ * </pre>
+ *
+ * @see RateLimitOptions
+ */
+@ThreadSafe
+public final class RateLimiter {
+
+    private final RateLimitOptions options;
+    private final LongSupplier clock;
+    private final long maxDelay;
+
+    private final Map<String, Tenant> tenants = new ConcurrentHashMap<>();
+
+    /**
+     * @param options the configuration of limit for each organization
+     */
+    public RateLimiter(@Nonnull final RateLimitOptions options) {
+        this(options, System::nanoTime);
+    }
+
+    RateLimiter(@Nonnull final RateLimitOptions options, @Nonnull final LongSupplier clock) {
+
+        Objects.requireNonNull(options, "RateLimitOptions are required");
+        Objects.requireNonNull(clock, "clock is required");
+
+        this.options = options;
+        this.clock = clock;
+        this.maxDelay = TimeUnit.MILLISECONDS.toNanos(options.getMaxDelay());
+    }
+
+    /**
+     * @return the configuration of limit
+     */
+    @Nonnull
+    public RateLimitOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Acquire the permission for the request of organization.
+     * <p>
+     * The method never blocks. The caller is responsible to delay the request by the returned delay.
+     *
+     * @param organization the organization of request
+     * @param bytes        the size of request body
+     * @return the delay of request in nanoseconds, {@code 0} if the request could be executed immediately
+     * @throws RequestRejectedException if the request is over the limit
+     */
+    public long acquire(@Nonnull final String organization, final long bytes) throws RequestRejectedException {
+
+        Preconditions.checkNonEmptyString(organization, "organization");
+        Preconditions.checkNotNegativeNumber(bytes, "bytes");
+
+        return tenants.computeIfAbsent(organization, Tenant::new).acquire(bytes);
+    }
+
+    /**
+     * @param organization the organization
+     * @return the statistics of organization, {@code null} if there wasn't any request
+     */
+    @Nullable
+    public RateLimitStatistics getStatistics(@Nonnull final String organization) {
+
+        Preconditions.checkNonEmptyString(organization, "organization");
+
+        Tenant tenant = tenants.get(organization);
+
+        return tenant != null ? tenant.getStatistics() : null;
+    }
+
+    /**
+     * @return the statistics of all organizations
+     */
+    @Nonnull
+    public Map<String, RateLimitStatistics> getStatistics() {
+
+        Map<String, RateLimitStatistics> statistics = new HashMap<>();
+        tenants.forEach((organization, tenant) -> statistics.put(organization, tenant.getStatistics()));
+
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    private final class Tenant {
+
+        private final String organization;
+        private final TokenBucket requests;
+        private final TokenBucket bytes;
+
+        @GuardedBy("this")
+        private long permittedRequests;
+        @GuardedBy("this")
+        private long permittedBytes;
+        @GuardedBy("this")
+        private long delayedRequests;
+        @GuardedBy("this")
+        private long rejectedRequests;
+        @GuardedBy("this")
+        private long totalDelay;
+
+        private Tenant(@Nonnull final String organization) {
+
+            this.organization = organization;
+
+            long now = clock.getAsLong();
+            this.requests = options.getRequestsPerSecond() > 0
+                    ? new TokenBucket(options.getRequestsPerSecond(), options.getRequestsBurst(), now)
+                    : null;
+            this.bytes = options.getBytesPerSecond() > 0
+                    ? new TokenBucket(options.getBytesPerSecond(), options.getBytesBurst(), now)
+                    : null;
+        }
+
+        private synchronized long acquire(final long size) throws RequestRejectedException {
+
+            long now = clock.getAsLong();
+
+            long delay = Math.max(
+                    requests != null ? requests.delay(1, now) : 0,
+                    bytes != null ? bytes.delay(size, now) : 0);
+
+            if (delay > 0 && (options.getPolicy() == RateLimitOptions.Policy.REJECT || delay > maxDelay)) {
+
+                rejectedRequests++;
+
+                throw new RequestRejectedException("The rate limit of organization " + organization + " is exceeded.");
+            }
+
+            //
+            // Reserve the tokens => the following requests wait for this one
+            //
+            if (requests != null) {
+                requests.take(1);
+            }
+            if (bytes != null) {
+                bytes.take(size);
+            }
+
+            permittedRequests++;
+            permittedBytes += size;
+            if (delay > 0) {
+                delayedRequests++;
+                totalDelay += TimeUnit.NANOSECONDS.toMillis(delay);
+            }
+
+            return delay;
+        }
+
+        @Nonnull
+        private synchronized RateLimitStatistics getStatistics() {
+            return new RateLimitStatistics(organization, permittedRequests, permittedBytes, delayedRequests,
+                    rejectedRequests, totalDelay);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core;
+
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * The token bucket refilled by the constant rate. The tokens could be taken in advance, the following
+ * requests wait for the refill of the debt.
+ */
+@NotThreadSafe
+final class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double capacity;
+
+    private double tokens;
+    private long refilledAt;
+
+    /**
+     * @param tokensPerSecond the refill rate
+     * @param capacity        the maximum number of tokens
+     * @param now             the current time in nanoseconds
+     */
+    TokenBucket(final double tokensPerSecond, final double capacity, final long now) {
+
+        this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = capacity;
+        this.tokens = capacity;
+        this.refilledAt = now;
+    }
+
+    /**
+     * Compute the time to wait for the tokens. The request bigger than the capacity waits only
+     * for the full bucket.
+     *
+     * @param permits the required tokens
+     * @param now     the current time in nanoseconds
+     * @return the delay in nanoseconds, {@code 0} if the tokens are available
+     */
+    long delay(final double permits, final long now) {
+
+        refill(now);
+
+        double required = Math.min(permits, capacity);
+        if (tokens >= required) {
+            return 0;
+        }
+
+        return (long) Math.ceil((required - tokens) / tokensPerNano);
+    }
+
+    /**
+     * Take the tokens. The tokens could go to the debt.
+     *
+     * @param permits the tokens to take
+     */
+    void take(final double permits) {
+        tokens -= permits;
+    }
+
+    private void refill(final long now) {
+
+        if (now > refilledAt) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+        }
+    }
+}
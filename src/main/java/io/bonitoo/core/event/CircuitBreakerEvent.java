@@ -0,0 +1,90 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core.event;
+
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+
+import io.bonitoo.core.CircuitBreaker;
+
+/**
+ * The event is published when the circuit breaker of server changes the state.
+ */
+public class CircuitBreakerEvent extends AbstractInfluxEvent {
+
+    private static final Logger LOG = Logger.getLogger(CircuitBreakerEvent.class.getName());
+
+    private final String endpoint;
+    private final CircuitBreaker.State previousState;
+    private final CircuitBreaker.State state;
+
+    public CircuitBreakerEvent(@Nonnull final String endpoint,
+                               @Nonnull final CircuitBreaker.State previousState,
+                               @Nonnull final CircuitBreaker.State state) {
+
+        Objects.requireNonNull(endpoint, "endpoint is required");
+        Objects.requireNonNull(previousState, "previousState is required");
+        Objects.requireNonNull(state, "state is required");
+
+        this.endpoint = endpoint;
+        this.previousState = previousState;
+        this.state = state;
+    }
+
+    /**
+     * @return the server endpoint ({@code scheme://host:port})
+     */
+    @Nonnull
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return the state before transition
+     */
+    @Nonnull
+    public CircuitBreaker.State getPreviousState() {
+        return previousState;
+    }
+
+    /**
+     * @return the current state
+     */
+    @Nonnull
+    public CircuitBreaker.State getState() {
+        return state;
+    }
+
+    @Override
+    public void logEvent() {
+
+        Level level = state == CircuitBreaker.State.OPEN ? Level.WARNING : Level.INFO;
+
+        if (LOG.isLoggable(level)) {
+            LOG.log(level, "The circuit breaker of {0} changed state from {1} to {2}",
+                    new Object[]{endpoint, previousState, state});
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core.event;
+
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+
+/**
+ * The event is published when the adaptive limit of concurrent requests to server is changed.
+ */
+public class ConcurrencyLimitEvent extends AbstractInfluxEvent {
+
+    private static final Logger LOG = Logger.getLogger(ConcurrencyLimitEvent.class.getName());
+
+    private final String endpoint;
+    private final int previousLimit;
+    private final int limit;
+
+    public ConcurrencyLimitEvent(@Nonnull final String endpoint, final int previousLimit, final int limit) {
+
+        Objects.requireNonNull(endpoint, "endpoint is required");
+
+        this.endpoint = endpoint;
+        this.previousLimit = previousLimit;
+        this.limit = limit;
+    }
+
+    /**
+     * @return the server endpoint ({@code scheme://host:port})
+     */
+    @Nonnull
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return the limit before change
+     */
+    public int getPreviousLimit() {
+        return previousLimit;
+    }
+
+    /**
+     * @return the current limit of concurrent requests
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public void logEvent() {
+
+        if (LOG.isLoggable(Level.FINEST)) {
+            LOG.log(Level.FINEST, "The concurrency limit of {0} changed from {1} to {2}",
+                    new Object[]{endpoint, previousLimit, limit});
+        }
+    }
+}
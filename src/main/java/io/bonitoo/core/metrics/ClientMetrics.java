@@ -0,0 +1,103 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core.metrics;
+
+/**
+ * The names of meters recorded by the clients. The durations are recorded in nanoseconds.
+ */
+public final class ClientMetrics {
+
+    /**
+     * The counter of HTTP responses tagged by {@code client} ({@code flux}, {@code platform})
+     * and {@code status} (the HTTP status code or {@code IO_ERROR}).
+     */
+    public static final String HTTP_RESPONSES = "http.client.responses";
+
+    /**
+     * The histogram of time from the start of query to the response headers.
+     */
+    public static final String QUERY_TIME_TO_FIRST_BYTE = "flux.query.ttfb";
+
+    /**
+     * The histogram of time spent by streaming and parsing of the query response.
+     */
+    public static final String QUERY_PARSE = "flux.query.parse";
+
+    /**
+     * The histogram of total time of successful query.
+     */
+    public static final String QUERY_DURATION = "flux.query.duration";
+
+    /**
+     * The histogram of records returned by query.
+     */
+    public static final String QUERY_ROWS = "flux.query.rows";
+
+    /**
+     * The histogram of bytes received by query. The size of compressed response if the response gzip is enabled.
+     */
+    public static final String QUERY_BYTES = "flux.query.bytes";
+
+    /**
+     * The counter of failed queries.
+     */
+    public static final String QUERY_ERRORS = "flux.query.errors";
+
+    /**
+     * The histogram of records in the written batch.
+     */
+    public static final String WRITE_BATCH_RECORDS = "write.batch.records";
+
+    /**
+     * The histogram of bytes in the written batch, the size of request body.
+     */
+    public static final String WRITE_BATCH_BYTES = "write.batch.bytes";
+
+    /**
+     * The histogram of time of successful write request.
+     */
+    public static final String WRITE_DURATION = "write.duration";
+
+    /**
+     * The gauge of records waiting in the write buffer.
+     */
+    public static final String WRITE_BUFFER_RECORDS = "write.buffer.records";
+
+    /**
+     * The counter of records dropped by the backpressure.
+     */
+    public static final String WRITE_DROPPED_RECORDS = "write.dropped.records";
+
+    /**
+     * The counter of retried write requests.
+     */
+    public static final String WRITE_RETRIES = "write.retries";
+
+    /**
+     * The counter of batches that failed to write.
+     */
+    public static final String WRITE_ERRORS = "write.errors";
+
+    private ClientMetrics() {
+    }
+}
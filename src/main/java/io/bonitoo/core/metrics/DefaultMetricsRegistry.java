@@ -0,0 +1,269 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core.metrics;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * The dependency-free {@link MetricsRegistry}. The meters are updated by {@link LongAdder}s,
+ * so the concurrent queries and writes don't contend on the same cache line.
+ * <p>
+ * The histograms count the values in power-of-two buckets, the percentiles are the upper bounds of buckets.
+ *
+ * <pre>
+ * DefaultMetricsRegistry metrics = new DefaultMetricsRegistry();
+ *
+ * FluxClient fluxClient = FluxClientFactory.connect(FluxConnectionOptions.builder()
+ *     .url("http://localhost:8093")
+ *     .orgID("0")
+ *     .metrics(metrics)
+ *     .build());
+ *
+ * ...
+ *
+ * metrics.snapshot().forEach((meter, value) -&gt; System.out.println(meter + " = " + value));
+ * </pre>
+ */
+@ThreadSafe
+public final class DefaultMetricsRegistry implements MetricsRegistry {
+
+    private static final double MEDIAN = 0.5;
+    private static final double P99 = 0.99;
+
+    private final Map<MeterId, DefaultCounter> counters = new ConcurrentHashMap<>();
+    private final Map<MeterId, DefaultHistogram> histograms = new ConcurrentHashMap<>();
+    private final Map<MeterId, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    @Nonnull
+    @Override
+    public Counter counter(@Nonnull final String name, @Nonnull final String... tags) {
+        return counters.computeIfAbsent(new MeterId(name, tags), id -> new DefaultCounter());
+    }
+
+    @Nonnull
+    @Override
+    public DefaultHistogram histogram(@Nonnull final String name, @Nonnull final String... tags) {
+        return histograms.computeIfAbsent(new MeterId(name, tags), id -> new DefaultHistogram());
+    }
+
+    @Override
+    public void gauge(@Nonnull final String name, @Nonnull final LongSupplier value, @Nonnull final String... tags) {
+
+        Objects.requireNonNull(value, "Gauge value is required");
+
+        gauges.put(new MeterId(name, tags), value);
+    }
+
+    /**
+     * @param name the name of gauge
+     * @param tags the key/value pairs of tags
+     * @return the current value of gauge, {@code null} if the gauge isn't registered
+     */
+    @Nullable
+    public Long getGauge(@Nonnull final String name, @Nonnull final String... tags) {
+
+        LongSupplier value = gauges.get(new MeterId(name, tags));
+
+        return value != null ? value.getAsLong() : null;
+    }
+
+    /**
+     * The current values of all meters. The histogram is exported as {@code count}, {@code total}, {@code max},
+     * {@code p50} and {@code p99}: {@code flux.query.duration.p99{}}.
+     *
+     * @return the values sorted by the meter name, the tags are formatted as {@code name{key=value,...}}
+     */
+    @Nonnull
+    public Map<String, Long> snapshot() {
+
+        Map<String, Long> snapshot = new TreeMap<>();
+
+        counters.forEach((id, counter) -> snapshot.put(id.format(""), counter.count()));
+        gauges.forEach((id, value) -> snapshot.put(id.format(""), value.getAsLong()));
+        histograms.forEach((id, histogram) -> {
+            snapshot.put(id.format(".count"), histogram.count());
+            snapshot.put(id.format(".total"), histogram.total());
+            snapshot.put(id.format(".max"), histogram.max());
+            snapshot.put(id.format(".p50"), histogram.valueAtPercentile(MEDIAN));
+            snapshot.put(id.format(".p99"), histogram.valueAtPercentile(P99));
+        });
+
+        return snapshot;
+    }
+
+    private static final class DefaultCounter implements Counter {
+
+        private final LongAdder count = new LongAdder();
+
+        @Override
+        public void increment() {
+            count.increment();
+        }
+
+        @Override
+        public void increment(final long amount) {
+            count.add(amount);
+        }
+
+        @Override
+        public long count() {
+            return count.sum();
+        }
+    }
+
+    /**
+     * The histogram with power-of-two buckets: {@code [0], [1], [2, 3], [4, 7], ...}.
+     */
+    @ThreadSafe
+    public static final class DefaultHistogram implements Histogram {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+        private final LongAdder[] buckets = new LongAdder[Long.SIZE];
+
+        private DefaultHistogram() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        @Override
+        public void record(final long value) {
+
+            if (value < 0) {
+                return;
+            }
+
+            count.increment();
+            total.add(value);
+            max.accumulate(value);
+            buckets[Long.SIZE - Long.numberOfLeadingZeros(value)].increment();
+        }
+
+        @Override
+        public long count() {
+            return count.sum();
+        }
+
+        @Override
+        public long total() {
+            return total.sum();
+        }
+
+        @Override
+        public long max() {
+            return max.get();
+        }
+
+        /**
+         * @param percentile the percentile in range {@code (0, 1]}
+         * @return the upper bound of the bucket that contains the percentile, at most the {@link #max()}
+         */
+        public long valueAtPercentile(final double percentile) {
+
+            if (percentile <= 0 || percentile > 1) {
+                throw new IllegalArgumentException("Expecting a percentile in range (0, 1]");
+            }
+
+            long[] counts = new long[buckets.length];
+            long recorded = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                counts[i] = buckets[i].sum();
+                recorded += counts[i];
+            }
+
+            long rank = (long) Math.ceil(percentile * recorded);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank && counts[i] > 0) {
+                    long upperBound = i == 0 ? 0 : (1L << i) - 1;
+
+                    return Math.min(upperBound, max());
+                }
+            }
+
+            return 0;
+        }
+    }
+
+    private static final class MeterId {
+
+        private final String name;
+        private final String[] tags;
+
+        private MeterId(@Nonnull final String name, @Nonnull final String[] tags) {
+
+            Objects.requireNonNull(name, "Meter name is required");
+            Objects.requireNonNull(tags, "Meter tags are required");
+            if (tags.length % 2 != 0) {
+                throw new IllegalArgumentException("Expecting the key/value pairs of tags");
+            }
+
+            this.name = name;
+            this.tags = tags;
+        }
+
+        @Nonnull
+        private String format(@Nonnull final String suffix) {
+
+            StringBuilder formatted = new StringBuilder(name).append(suffix).append("{");
+            for (int i = 0; i < tags.length; i += 2) {
+                if (i > 0) {
+                    formatted.append(",");
+                }
+                formatted.append(tags[i]).append("=").append(tags[i + 1]);
+            }
+
+            return formatted.append("}").toString();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            MeterId meterId = (MeterId) o;
+            return name.equals(meterId.name) && Arrays.equals(tags, meterId.tags);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, Arrays.hashCode(tags));
+        }
+    }
+}
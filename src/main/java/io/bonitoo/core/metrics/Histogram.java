@@ -0,0 +1,56 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core.metrics;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * The distribution of recorded values, the durations are recorded in nanoseconds.
+ *
+ * @see MetricsRegistry#histogram(String, String...)
+ */
+@ThreadSafe
+public interface Histogram {
+
+    /**
+     * Record the value.
+     *
+     * @param value the value to record, the negative values are ignored
+     */
+    void record(long value);
+
+    /**
+     * @return the number of recorded values
+     */
+    long count();
+
+    /**
+     * @return the sum of recorded values
+     */
+    long total();
+
+    /**
+     * @return the maximum of recorded values, {@code 0} if nothing was recorded
+     */
+    long max();
+}
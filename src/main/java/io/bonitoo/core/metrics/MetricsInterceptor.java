@@ -0,0 +1,83 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core.metrics;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * Counts the HTTP responses by the status code, see {@link ClientMetrics#HTTP_RESPONSES}.
+ */
+@ThreadSafe
+public final class MetricsInterceptor implements Interceptor {
+
+    private static final String IO_ERROR = "IO_ERROR";
+
+    private final MetricsRegistry registry;
+    private final String client;
+
+    //
+    // The counters are resolved once for each status code
+    //
+    private final Map<Integer, Counter> responses = new ConcurrentHashMap<>();
+    private final Counter failures;
+
+    /**
+     * @param registry the registry of metrics
+     * @param client   the name of client: {@code flux}, {@code platform}
+     */
+    public MetricsInterceptor(@Nonnull final MetricsRegistry registry, @Nonnull final String client) {
+
+        Objects.requireNonNull(registry, "MetricsRegistry is required");
+        Objects.requireNonNull(client, "Client name is required");
+
+        this.registry = registry;
+        this.client = client;
+        this.failures = registry.counter(ClientMetrics.HTTP_RESPONSES, "client", client, "status", IO_ERROR);
+    }
+
+    @Override
+    public Response intercept(@Nonnull final Chain chain) throws IOException {
+
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException e) {
+            failures.increment();
+            throw e;
+        }
+
+        responses.computeIfAbsent(response.code(), code -> registry
+                .counter(ClientMetrics.HTTP_RESPONSES, "client", client, "status", String.valueOf(code)))
+                .increment();
+
+        return response;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core.metrics;
+
+import java.util.function.LongSupplier;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * The registry of client metrics. The clients resolve the meters once and update them on the hot paths,
+ * so the implementation has to be cheap for the updates and could be slower for the lookups.
+ * <p>
+ * The tags are the key/value pairs: {@code registry.counter("http.client.responses", "status", "204")}.
+ * The names of recorded meters are described by {@link ClientMetrics}.
+ * <p>
+ * The {@link DefaultMetricsRegistry} is the dependency-free implementation. The registry maps one to one
+ * to the Micrometer meters, so the binding to the Micrometer {@code MeterRegistry} is a thin adapter:
+ *
+ * <pre>
+ * public Counter counter(String name, String... tags) {
+ *     io.micrometer.core.instrument.Counter counter = meterRegistry.counter(name, tags);
+ *     return new Counter() {
+ *         public void increment() { counter.increment(); }
+ *         public void increment(long amount) { counter.increment(amount); }
+ *         public long count() { return (long) counter.count(); }
+ *     };
+ * }
+ *
+ * // histogram =&gt; DistributionSummary
+ * // gauge =&gt; meterRegistry.gauge(name, Tags.of(tags), value, LongSupplier::getAsLong)
+ * </pre>
+ *
+ * @see io.bonitoo.flux.option.FluxConnectionOptions.Builder#metrics(MetricsRegistry)
+ * @see io.bonitoo.platform.option.PlatformOptions.Builder#metrics(MetricsRegistry)
+ */
+@ThreadSafe
+public interface MetricsRegistry {
+
+    /**
+     * @return the registry that doesn't record anything
+     */
+    @Nonnull
+    static MetricsRegistry noop() {
+        return NoopMetricsRegistry.INSTANCE;
+    }
+
+    /**
+     * Get or create the counter.
+     *
+     * @param name the name of counter
+     * @param tags the key/value pairs of tags
+     * @return the counter identified by name and tags
+     */
+    @Nonnull
+    Counter counter(@Nonnull final String name, @Nonnull final String... tags);
+
+    /**
+     * Get or create the histogram.
+     *
+     * @param name the name of histogram
+     * @param tags the key/value pairs of tags
+     * @return the histogram identified by name and tags
+     */
+    @Nonnull
+    Histogram histogram(@Nonnull final String name, @Nonnull final String... tags);
+
+    /**
+     * Register the gauge. The gauge with same name and tags is replaced.
+     *
+     * @param name  the name of gauge
+     * @param value the current value of gauge
+     * @param tags  the key/value pairs of tags
+     */
+    void gauge(@Nonnull final String name, @Nonnull final LongSupplier value, @Nonnull final String... tags);
+}
@@ -0,0 +1,88 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core.metrics;
+
+import java.util.function.LongSupplier;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+@ThreadSafe
+final class NoopMetricsRegistry implements MetricsRegistry {
+
+    static final NoopMetricsRegistry INSTANCE = new NoopMetricsRegistry();
+
+    private static final Counter COUNTER = new Counter() {
+        @Override
+        public void increment() {
+        }
+
+        @Override
+        public void increment(final long amount) {
+        }
+
+        @Override
+        public long count() {
+            return 0;
+        }
+    };
+
+    private static final Histogram HISTOGRAM = new Histogram() {
+        @Override
+        public void record(final long value) {
+        }
+
+        @Override
+        public long count() {
+            return 0;
+        }
+
+        @Override
+        public long total() {
+            return 0;
+        }
+
+        @Override
+        public long max() {
+            return 0;
+        }
+    };
+
+    private NoopMetricsRegistry() {
+    }
+
+    @Nonnull
+    @Override
+    public Counter counter(@Nonnull final String name, @Nonnull final String... tags) {
+        return COUNTER;
+    }
+
+    @Nonnull
+    @Override
+    public Histogram histogram(@Nonnull final String name, @Nonnull final String... tags) {
+        return HISTOGRAM;
+    }
+
+    @Override
+    public void gauge(@Nonnull final String name, @Nonnull final LongSupplier value, @Nonnull final String... tags) {
+    }
+}
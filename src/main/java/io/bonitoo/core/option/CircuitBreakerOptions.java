@@ -0,0 +1,285 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core.option;
+
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+
+import io.bonitoo.core.Preconditions;
+
+/**
+ * CircuitBreakerOptions are used to configure the circuit breaker of the requests to the InfluxData servers.
+ *
+ * <p>
+ * The circuit breaker records the outcome of the recent calls to each server. If the rate of failed calls
+ * (network errors, 5xx or 429 responses) or the rate of slow calls exceeds the threshold then the breaker
+ * opens and the requests are rejected without reaching the server. After the open duration the breaker
+ * permits a few probe calls (half-open), their outcome decide whether the breaker closes or opens again.
+ * <p>
+ * The default setting:
+ * <ul>
+ * <li>failureRateThreshold = 0.5</li>
+ * <li>slowCallDuration = 10 000 ms</li>
+ * <li>slowCallRateThreshold = 1.0</li>
+ * <li>windowSize = 100 calls</li>
+ * <li>minimumCalls = 10</li>
+ * <li>openDuration = 30 000 ms</li>
+ * <li>halfOpenCalls = 5</li>
+ * </ul>
+ *
+ * @see io.bonitoo.flux.option.FluxConnectionOptions.Builder#circuitBreaker(CircuitBreakerOptions)
+ * @see io.bonitoo.platform.option.PlatformOptions.Builder#circuitBreaker(CircuitBreakerOptions)
+ */
+@ThreadSafe
+public final class CircuitBreakerOptions {
+
+    private static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+    private static final int DEFAULT_SLOW_CALL_DURATION = 10_000;
+    private static final double DEFAULT_SLOW_CALL_RATE_THRESHOLD = 1.0;
+    private static final int DEFAULT_WINDOW_SIZE = 100;
+    private static final int DEFAULT_MINIMUM_CALLS = 10;
+    private static final int DEFAULT_OPEN_DURATION = 30_000;
+    private static final int DEFAULT_HALF_OPEN_CALLS = 5;
+
+    /**
+     * Default configuration.
+     */
+    public static final CircuitBreakerOptions DEFAULTS = CircuitBreakerOptions.builder().build();
+
+    private final double failureRateThreshold;
+    private final int slowCallDuration;
+    private final double slowCallRateThreshold;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int openDuration;
+    private final int halfOpenCalls;
+
+    private CircuitBreakerOptions(@Nonnull final Builder builder) {
+
+        Objects.requireNonNull(builder, "CircuitBreakerOptions.Builder is required");
+
+        failureRateThreshold = builder.failureRateThreshold;
+        slowCallDuration = builder.slowCallDuration;
+        slowCallRateThreshold = builder.slowCallRateThreshold;
+        windowSize = builder.windowSize;
+        minimumCalls = builder.minimumCalls;
+        openDuration = builder.openDuration;
+        halfOpenCalls = builder.halfOpenCalls;
+    }
+
+    /**
+     * Creates a builder instance.
+     *
+     * @return a builder
+     */
+    @Nonnull
+    public static CircuitBreakerOptions.Builder builder() {
+        return new CircuitBreakerOptions.Builder();
+    }
+
+    /**
+     * @return the rate of failed calls that opens the breaker
+     * @see CircuitBreakerOptions.Builder#failureRateThreshold(double)
+     */
+    public double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    /**
+     * @return the duration of call that is considered as slow (milliseconds)
+     * @see CircuitBreakerOptions.Builder#slowCallDuration(int)
+     */
+    public int getSlowCallDuration() {
+        return slowCallDuration;
+    }
+
+    /**
+     * @return the rate of slow calls that opens the breaker
+     * @see CircuitBreakerOptions.Builder#slowCallRateThreshold(double)
+     */
+    public double getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    /**
+     * @return the number of recent calls used to compute the rates
+     * @see CircuitBreakerOptions.Builder#windowSize(int)
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * @return the minimal number of calls before the rates are evaluated
+     * @see CircuitBreakerOptions.Builder#minimumCalls(int)
+     */
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    /**
+     * @return the time that the breaker stays open (milliseconds)
+     * @see CircuitBreakerOptions.Builder#openDuration(int)
+     */
+    public int getOpenDuration() {
+        return openDuration;
+    }
+
+    /**
+     * @return the number of probe calls permitted in the half-open state
+     * @see CircuitBreakerOptions.Builder#halfOpenCalls(int)
+     */
+    public int getHalfOpenCalls() {
+        return halfOpenCalls;
+    }
+
+    /**
+     * A builder for {@code CircuitBreakerOptions}.
+     */
+    @NotThreadSafe
+    public static class Builder {
+
+        private double failureRateThreshold = DEFAULT_FAILURE_RATE_THRESHOLD;
+        private int slowCallDuration = DEFAULT_SLOW_CALL_DURATION;
+        private double slowCallRateThreshold = DEFAULT_SLOW_CALL_RATE_THRESHOLD;
+        private int windowSize = DEFAULT_WINDOW_SIZE;
+        private int minimumCalls = DEFAULT_MINIMUM_CALLS;
+        private int openDuration = DEFAULT_OPEN_DURATION;
+        private int halfOpenCalls = DEFAULT_HALF_OPEN_CALLS;
+
+        /**
+         * Set the rate of failed calls that opens the breaker.
+         *
+         * @param failureRateThreshold the rate of failed calls, has to be in range (0, 1]. Default 0.5.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder failureRateThreshold(final double failureRateThreshold) {
+            checkRate(failureRateThreshold, "failureRateThreshold");
+            this.failureRateThreshold = failureRateThreshold;
+            return this;
+        }
+
+        /**
+         * Set the duration of call that is considered as slow.
+         *
+         * @param slowCallDuration the duration in milliseconds. Default 10 000 ms.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder slowCallDuration(final int slowCallDuration) {
+            Preconditions.checkPositiveNumber(slowCallDuration, "slowCallDuration");
+            this.slowCallDuration = slowCallDuration;
+            return this;
+        }
+
+        /**
+         * Set the rate of slow calls that opens the breaker.
+         *
+         * @param slowCallRateThreshold the rate of slow calls, has to be in range (0, 1]. Default 1.0.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder slowCallRateThreshold(final double slowCallRateThreshold) {
+            checkRate(slowCallRateThreshold, "slowCallRateThreshold");
+            this.slowCallRateThreshold = slowCallRateThreshold;
+            return this;
+        }
+
+        /**
+         * Set the number of recent calls used to compute the failure and slow call rates.
+         *
+         * @param windowSize the number of calls. Default 100.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder windowSize(final int windowSize) {
+            Preconditions.checkPositiveNumber(windowSize, "windowSize");
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        /**
+         * Set the minimal number of calls before the failure and slow call rates are evaluated.
+         *
+         * @param minimumCalls the number of calls. Default 10.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder minimumCalls(final int minimumCalls) {
+            Preconditions.checkPositiveNumber(minimumCalls, "minimumCalls");
+            this.minimumCalls = minimumCalls;
+            return this;
+        }
+
+        /**
+         * Set the time that the breaker stays open before the probe calls are permitted.
+         *
+         * @param openDuration the time in milliseconds. Default 30 000 ms.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder openDuration(final int openDuration) {
+            Preconditions.checkPositiveNumber(openDuration, "openDuration");
+            this.openDuration = openDuration;
+            return this;
+        }
+
+        /**
+         * Set the number of probe calls permitted in the half-open state.
+         *
+         * @param halfOpenCalls the number of calls. Default 5.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder halfOpenCalls(final int halfOpenCalls) {
+            Preconditions.checkPositiveNumber(halfOpenCalls, "halfOpenCalls");
+            this.halfOpenCalls = halfOpenCalls;
+            return this;
+        }
+
+        /**
+         * Build an instance of CircuitBreakerOptions.
+         *
+         * @return {@code CircuitBreakerOptions}
+         */
+        @Nonnull
+        public CircuitBreakerOptions build() {
+
+            if (minimumCalls > windowSize) {
+                throw new IllegalStateException("The minimumCalls has to be less or equal to windowSize.");
+            }
+
+            return new CircuitBreakerOptions(this);
+        }
+
+        private void checkRate(final double rate, @Nonnull final String name) {
+            Preconditions.checkPositiveNumber(rate, name);
+            if (rate > 1) {
+                throw new IllegalArgumentException("Expecting a number less or equal to 1 for " + name);
+            }
+        }
+    }
+}
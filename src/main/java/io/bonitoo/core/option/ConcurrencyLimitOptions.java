@@ -0,0 +1,237 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core.option;
+
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+
+import io.bonitoo.core.Preconditions;
+
+/**
+ * ConcurrencyLimitOptions are used to configure the adaptive limit of concurrent requests
+ * to the InfluxData servers.
+ *
+ * <p>
+ * The limit is adjusted by the gradient of response times - the ratio between the long-term
+ * (no load) response time and the recent response time. If the server starts queueing the requests
+ * then the response times grow and the limit is decreased. The failed calls decrease the limit
+ * multiplicatively. The requests above the limit are rejected without reaching the server.
+ * <p>
+ * The default setting:
+ * <ul>
+ * <li>initialLimit = 20</li>
+ * <li>minLimit = 1</li>
+ * <li>maxLimit = 200</li>
+ * <li>tolerance = 2.0</li>
+ * <li>smoothing = 0.2</li>
+ * </ul>
+ *
+ * @see io.bonitoo.flux.option.FluxConnectionOptions.Builder#concurrencyLimit(ConcurrencyLimitOptions)
+ * @see io.bonitoo.platform.option.PlatformOptions.Builder#concurrencyLimit(ConcurrencyLimitOptions)
+ */
+@ThreadSafe
+public final class ConcurrencyLimitOptions {
+
+    private static final int DEFAULT_INITIAL_LIMIT = 20;
+    private static final int DEFAULT_MIN_LIMIT = 1;
+    private static final int DEFAULT_MAX_LIMIT = 200;
+    private static final double DEFAULT_TOLERANCE = 2.0;
+    private static final double DEFAULT_SMOOTHING = 0.2;
+
+    /**
+     * Default configuration.
+     */
+    public static final ConcurrencyLimitOptions DEFAULTS = ConcurrencyLimitOptions.builder().build();
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+
+    private ConcurrencyLimitOptions(@Nonnull final Builder builder) {
+
+        Objects.requireNonNull(builder, "ConcurrencyLimitOptions.Builder is required");
+
+        initialLimit = builder.initialLimit;
+        minLimit = builder.minLimit;
+        maxLimit = builder.maxLimit;
+        tolerance = builder.tolerance;
+        smoothing = builder.smoothing;
+    }
+
+    /**
+     * Creates a builder instance.
+     *
+     * @return a builder
+     */
+    @Nonnull
+    public static ConcurrencyLimitOptions.Builder builder() {
+        return new ConcurrencyLimitOptions.Builder();
+    }
+
+    /**
+     * @return the initial limit of concurrent requests
+     * @see ConcurrencyLimitOptions.Builder#initialLimit(int)
+     */
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    /**
+     * @return the minimal limit of concurrent requests
+     * @see ConcurrencyLimitOptions.Builder#minLimit(int)
+     */
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    /**
+     * @return the maximal limit of concurrent requests
+     * @see ConcurrencyLimitOptions.Builder#maxLimit(int)
+     */
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * @return the tolerated growth of response time before the limit is decreased
+     * @see ConcurrencyLimitOptions.Builder#tolerance(double)
+     */
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * @return the weight of new limit
+     * @see ConcurrencyLimitOptions.Builder#smoothing(double)
+     */
+    public double getSmoothing() {
+        return smoothing;
+    }
+
+    /**
+     * A builder for {@code ConcurrencyLimitOptions}.
+     */
+    @NotThreadSafe
+    public static class Builder {
+
+        private int initialLimit = DEFAULT_INITIAL_LIMIT;
+        private int minLimit = DEFAULT_MIN_LIMIT;
+        private int maxLimit = DEFAULT_MAX_LIMIT;
+        private double tolerance = DEFAULT_TOLERANCE;
+        private double smoothing = DEFAULT_SMOOTHING;
+
+        /**
+         * Set the initial limit of concurrent requests.
+         *
+         * @param initialLimit the initial limit. Default 20.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder initialLimit(final int initialLimit) {
+            Preconditions.checkPositiveNumber(initialLimit, "initialLimit");
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        /**
+         * Set the minimal limit of concurrent requests.
+         *
+         * @param minLimit the minimal limit. Default 1.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder minLimit(final int minLimit) {
+            Preconditions.checkPositiveNumber(minLimit, "minLimit");
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        /**
+         * Set the maximal limit of concurrent requests.
+         *
+         * @param maxLimit the maximal limit. Default 200.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder maxLimit(final int maxLimit) {
+            Preconditions.checkPositiveNumber(maxLimit, "maxLimit");
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * Set the tolerated growth of response time. The limit is decreased if the recent response time
+         * is greater than the long-term response time multiplied by the tolerance.
+         *
+         * @param tolerance the tolerance, has to be greater or equal to 1. Default 2.0.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder tolerance(final double tolerance) {
+            if (tolerance < 1) {
+                throw new IllegalArgumentException("Expecting a number greater or equal to 1 for tolerance");
+            }
+            this.tolerance = tolerance;
+            return this;
+        }
+
+        /**
+         * Set the weight of new limit. The lower smoothing produce the more stable limit.
+         *
+         * @param smoothing the smoothing, has to be in range (0, 1]. Default 0.2.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder smoothing(final double smoothing) {
+            Preconditions.checkPositiveNumber(smoothing, "smoothing");
+            if (smoothing > 1) {
+                throw new IllegalArgumentException("Expecting a number less or equal to 1 for smoothing");
+            }
+            this.smoothing = smoothing;
+            return this;
+        }
+
+        /**
+         * Build an instance of ConcurrencyLimitOptions.
+         *
+         * @return {@code ConcurrencyLimitOptions}
+         */
+        @Nonnull
+        public ConcurrencyLimitOptions build() {
+
+            if (minLimit > maxLimit) {
+                throw new IllegalStateException("The minLimit has to be less or equal to maxLimit.");
+            }
+
+            if (initialLimit < minLimit || initialLimit > maxLimit) {
+                throw new IllegalStateException("The initialLimit has to be in range [minLimit, maxLimit].");
+            }
+
+            return new ConcurrencyLimitOptions(this);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core.option;
+
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+
+import io.bonitoo.core.Preconditions;
+
+/**
+ * RateLimitOptions are used to configure the client-side rate limit of requests of one organization.
+ *
+ * <p>
+ * The requests and the request bytes are limited by the token buckets. The bucket is refilled
+ * by the configured rate and holds at most the burst. The request is permitted if there is enough tokens
+ * in both buckets, otherwise the request is rejected or queued by {@link Policy}.
+ * <p>
+ * The default setting:
+ * <ul>
+ * <li>requestsPerSecond = 0 (unlimited)</li>
+ * <li>requestsBurst = requestsPerSecond (one second of requests, at least 1)</li>
+ * <li>bytesPerSecond = 0 (unlimited)</li>
+ * <li>bytesBurst = bytesPerSecond (one second of bytes)</li>
+ * <li>policy = REJECT</li>
+ * <li>maxDelay = 1000 milliseconds</li>
+ * </ul>
+ *
+ * @see io.bonitoo.core.RateLimiter
+ */
+@ThreadSafe
+public final class RateLimitOptions {
+
+    private static final int DEFAULT_MAX_DELAY = 1_000;
+
+    private final double requestsPerSecond;
+    private final int requestsBurst;
+    private final long bytesPerSecond;
+    private final long bytesBurst;
+    private final Policy policy;
+    private final int maxDelay;
+
+    private RateLimitOptions(@Nonnull final Builder builder) {
+
+        Objects.requireNonNull(builder, "RateLimitOptions.Builder is required");
+
+        requestsPerSecond = builder.requestsPerSecond;
+        requestsBurst = builder.requestsBurst > 0
+                ? builder.requestsBurst
+                : (int) Math.max(1, Math.ceil(builder.requestsPerSecond));
+        bytesPerSecond = builder.bytesPerSecond;
+        bytesBurst = builder.bytesBurst > 0 ? builder.bytesBurst : builder.bytesPerSecond;
+        policy = builder.policy;
+        maxDelay = builder.maxDelay;
+    }
+
+    /**
+     * Creates a builder instance.
+     *
+     * @return a builder
+     */
+    @Nonnull
+    public static RateLimitOptions.Builder builder() {
+        return new RateLimitOptions.Builder();
+    }
+
+    /**
+     * @return the permitted requests per second, {@code 0} if the requests are unlimited
+     * @see RateLimitOptions.Builder#requestsPerSecond(double)
+     */
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    /**
+     * @return the maximum number of requests permitted at once
+     * @see RateLimitOptions.Builder#requestsBurst(int)
+     */
+    public int getRequestsBurst() {
+        return requestsBurst;
+    }
+
+    /**
+     * @return the permitted bytes per second, {@code 0} if the bytes are unlimited
+     * @see RateLimitOptions.Builder#bytesPerSecond(long)
+     */
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    /**
+     * @return the maximum number of bytes permitted at once
+     * @see RateLimitOptions.Builder#bytesBurst(long)
+     */
+    public long getBytesBurst() {
+        return bytesBurst;
+    }
+
+    /**
+     * @return the policy for requests over the limit
+     * @see RateLimitOptions.Builder#policy(Policy)
+     */
+    @Nonnull
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return the maximum delay of the queued request (milliseconds)
+     * @see RateLimitOptions.Builder#maxDelay(int)
+     */
+    public int getMaxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * Defines what happens with the request over the limit.
+     */
+    public enum Policy {
+
+        /**
+         * The request is rejected by {@link io.bonitoo.core.RequestRejectedException}.
+         */
+        REJECT,
+
+        /**
+         * The request is delayed until the tokens are available. If the delay is longer than the
+         * {@link RateLimitOptions#getMaxDelay()} then the request is rejected.
+         */
+        QUEUE
+    }
+
+    /**
+     * A builder for {@code RateLimitOptions}.
+     */
+    @NotThreadSafe
+    public static class Builder {
+
+        private double requestsPerSecond;
+        private int requestsBurst;
+        private long bytesPerSecond;
+        private long bytesBurst;
+        private Policy policy = Policy.REJECT;
+        private int maxDelay = DEFAULT_MAX_DELAY;
+
+        /**
+         * Set the permitted requests per second.
+         *
+         * @param requestsPerSecond the permitted requests per second. Default unlimited.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder requestsPerSecond(final double requestsPerSecond) {
+            Preconditions.checkPositiveNumber(requestsPerSecond, "requestsPerSecond");
+            this.requestsPerSecond = requestsPerSecond;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of requests permitted at once after the idle period.
+         *
+         * @param requestsBurst the burst of requests. Default one second of requests.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder requestsBurst(final int requestsBurst) {
+            Preconditions.checkPositiveNumber(requestsBurst, "requestsBurst");
+            this.requestsBurst = requestsBurst;
+            return this;
+        }
+
+        /**
+         * Set the permitted bytes of request bodies per second.
+         *
+         * @param bytesPerSecond the permitted bytes per second. Default unlimited.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder bytesPerSecond(final long bytesPerSecond) {
+            Preconditions.checkPositiveNumber(bytesPerSecond, "bytesPerSecond");
+            this.bytesPerSecond = bytesPerSecond;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of bytes permitted at once after the idle period.
+         *
+         * @param bytesBurst the burst of bytes. Default one second of bytes.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder bytesBurst(final long bytesBurst) {
+            Preconditions.checkPositiveNumber(bytesBurst, "bytesBurst");
+            this.bytesBurst = bytesBurst;
+            return this;
+        }
+
+        /**
+         * Set the policy for requests over the limit.
+         *
+         * @param policy the policy. Default {@link Policy#REJECT}.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder policy(@Nonnull final Policy policy) {
+            Objects.requireNonNull(policy, "Policy is required");
+            this.policy = policy;
+            return this;
+        }
+
+        /**
+         * Set the maximum delay of the queued request. Used only for {@link Policy#QUEUE}.
+         *
+         * @param maxDelay the maximum delay (milliseconds). Default 1000.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder maxDelay(final int maxDelay) {
+            Preconditions.checkPositiveNumber(maxDelay, "maxDelay");
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        /**
+         * Build an instance of RateLimitOptions.
+         *
+         * @return {@code RateLimitOptions}
+         */
+        @Nonnull
+        public RateLimitOptions build() {
+
+            if (requestsPerSecond == 0 && bytesPerSecond == 0) {
+                throw new IllegalStateException("The requestsPerSecond or bytesPerSecond has to be defined.");
+            }
+
+            if (requestsBurst > 0 && requestsPerSecond == 0) {
+                throw new IllegalStateException("The requestsBurst requires the requestsPerSecond.");
+            }
+
+            if (bytesBurst > 0 && bytesPerSecond == 0) {
+                throw new IllegalStateException("The bytesBurst requires the bytesPerSecond.");
+            }
+
+            return new RateLimitOptions(this);
+        }
+    }
+}
@@ -627,6 +627,33 @@ public interface FluxClient {
      */
     boolean isGzipEnabled();
 
+    /**
+     * Enable Gzip compress for query response. The parsed queries request the gzip-encoded response
+     * and decompress it in a streaming fashion, the sizes are reported by
+     * {@link io.bonitoo.flux.event.FluxSuccessEvent}.
+     * <p>
+     * The raw queries ({@code fluxRaw}) are not affected.
+     *
+     * @return the FluxClient instance to be able to use it in a fluent manner.
+     */
+    @Nonnull
+    FluxClient enableResponseGzip();
+
+    /**
+     * Disable Gzip compress for query response.
+     *
+     * @return the FluxClient instance to be able to use it in a fluent manner.
+     */
+    @Nonnull
+    FluxClient disableResponseGzip();
+
+    /**
+     * Returns whether Gzip compress for query response is enabled.
+     *
+     * @return true if gzip is enabled.
+     */
+    boolean isResponseGzipEnabled();
+
     /**
      * Check the status of Flux Server.
      *
@@ -635,6 +662,22 @@ public interface FluxClient {
     @Nonnull
     Boolean ping();
 
+    /**
+     * Pre-establish the pooled connections to the Flux Server(s) by the concurrent pings. The first queries
+     * after the start of application don't pay the TCP and TLS handshakes.
+     * <p>
+     * The count of warmed connections is limited by the dispatcher and connection pool of HTTP client:
+     * at most {@code maxRequestsPerHost} (default 5) pings are executed concurrently and at most
+     * {@code maxIdleConnections} (default 5) connections are kept in the pool,
+     * see {@link io.bonitoo.core.ClientRuntime}. For HTTP/2 the concurrent pings share a single connection.
+     * The wait for pings is bounded by the timeouts of HTTP client.
+     *
+     * @param connections the count of connections to each Flux node
+     * @return {@link Boolean#TRUE} if all pings succeed otherwise return {@link Boolean#FALSE}
+     */
+    @Nonnull
+    Boolean warmUp(final int connections);
+
     /**
      * @return the {@link HttpLoggingInterceptor.Level} that is used for logging requests and responses
      */
@@ -665,7 +708,8 @@ public interface FluxClient {
     interface Cancellable {
 
         /**
-         * Attempt to cancel execution of this query.
+         * Attempt to cancel execution of this query. The HTTP request is aborted, so the server stops
+         * the query execution and the rest of response isn't downloaded.
          */
         void cancel();
 
@@ -24,10 +24,12 @@ package io.bonitoo.flux.event;
 
 import java.util.Objects;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import io.bonitoo.core.Preconditions;
 import io.bonitoo.core.event.AbstractInfluxEvent;
 import io.bonitoo.flux.option.FluxConnectionOptions;
+import io.bonitoo.flux.trace.QueryTrace;
 
 /**
  * @author Jakub Bednar (bednar@github) (30/07/2018 14:59)
@@ -36,14 +38,18 @@ public abstract class AbstractQueryEvent extends AbstractInfluxEvent {
 
     private final FluxConnectionOptions options;
     private final String fluxQuery;
+    private final QueryTrace trace;
 
-    AbstractQueryEvent(@Nonnull final FluxConnectionOptions options, @Nonnull final String fluxQuery) {
+    AbstractQueryEvent(@Nonnull final FluxConnectionOptions options,
+                       @Nonnull final String fluxQuery,
+                       @Nullable final QueryTrace trace) {
 
         Objects.requireNonNull(options, "FluxConnectionOptions are required");
         Preconditions.checkNonEmptyString(fluxQuery, "Flux query");
 
         this.options = options;
         this.fluxQuery = fluxQuery;
+        this.trace = trace;
     }
 
     /**
@@ -61,4 +67,12 @@ public abstract class AbstractQueryEvent extends AbstractInfluxEvent {
     public String getFluxQuery() {
         return fluxQuery;
     }
+
+    /**
+     * @return the timings and the counts of query, {@code null} if the query wasn't traced
+     */
+    @Nullable
+    public QueryTrace getTrace() {
+        return trace;
+    }
 }
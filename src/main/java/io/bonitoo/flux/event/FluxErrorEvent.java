@@ -26,9 +26,11 @@ import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import io.bonitoo.core.InfluxException;
 import io.bonitoo.flux.option.FluxConnectionOptions;
+import io.bonitoo.flux.trace.QueryTrace;
 
 /**
  * The event is published when arrived the error response from Flux server.
@@ -46,7 +48,15 @@ public class FluxErrorEvent extends AbstractQueryEvent {
                           @Nonnull final String fluxQuery,
                           @Nonnull final InfluxException exception) {
 
-        super(options, fluxQuery);
+        this(options, fluxQuery, exception, null);
+    }
+
+    public FluxErrorEvent(@Nonnull final FluxConnectionOptions options,
+                          @Nonnull final String fluxQuery,
+                          @Nonnull final InfluxException exception,
+                          @Nullable final QueryTrace trace) {
+
+        super(options, fluxQuery, trace);
 
         Objects.requireNonNull(exception, "InfluxException is required");
 
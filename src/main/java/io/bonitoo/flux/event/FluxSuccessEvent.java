@@ -25,8 +25,10 @@ package io.bonitoo.flux.event;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import io.bonitoo.flux.option.FluxConnectionOptions;
+import io.bonitoo.flux.trace.QueryTrace;
 
 /**
  * The event is published when arrived the success response from Flux server.
@@ -38,13 +40,56 @@ public class FluxSuccessEvent extends AbstractQueryEvent {
 
     private static final Logger LOG = Logger.getLogger(FluxSuccessEvent.class.getName());
 
+    private final long wireBytes;
+    private final long decodedBytes;
+
     public FluxSuccessEvent(@Nonnull final FluxConnectionOptions options, @Nonnull final String fluxQuery) {
 
-        super(options, fluxQuery);
+        this(options, fluxQuery, -1, -1);
+    }
+
+    public FluxSuccessEvent(@Nonnull final FluxConnectionOptions options,
+                            @Nonnull final String fluxQuery,
+                            final long wireBytes,
+                            final long decodedBytes) {
+
+        this(options, fluxQuery, wireBytes, decodedBytes, null);
+    }
+
+    public FluxSuccessEvent(@Nonnull final FluxConnectionOptions options,
+                            @Nonnull final String fluxQuery,
+                            final long wireBytes,
+                            final long decodedBytes,
+                            @Nullable final QueryTrace trace) {
+
+        super(options, fluxQuery, trace);
+
+        this.wireBytes = wireBytes;
+        this.decodedBytes = decodedBytes;
+    }
+
+    /**
+     * @return the count of response bytes received from the server, {@code -1} if it is unknown.
+     * The count is known only if the response gzip is enabled, otherwise the response is possibly
+     * decoded transparently by the HTTP client, see {@link io.bonitoo.flux.FluxClient#enableResponseGzip()}.
+     */
+    public long getWireBytes() {
+        return wireBytes;
+    }
+
+    /**
+     * @return the count of response bytes after decoding, {@code -1} if it is unknown
+     */
+    public long getDecodedBytes() {
+        return decodedBytes;
     }
 
     @Override
     public void logEvent() {
-        LOG.log(Level.FINEST, "Success response from Flux server.");
+
+        if (LOG.isLoggable(Level.FINEST)) {
+            LOG.log(Level.FINEST, "Success response from Flux server; wire bytes: {0}, decoded bytes: {1}",
+                    new Object[]{wireBytes, decodedBytes});
+        }
     }
 }
@@ -22,13 +22,18 @@
  */
 package io.bonitoo.flux.impl;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import javax.annotation.Nonnull;
 
 import io.bonitoo.AbstractRestClient;
 import io.bonitoo.core.GzipRequestInterceptor;
+import io.bonitoo.core.OverloadProtectionInterceptor;
 import io.bonitoo.core.Preconditions;
+import io.bonitoo.core.metrics.MetricsInterceptor;
 import io.bonitoo.flux.Flux;
 import io.bonitoo.flux.FluxChain;
 import io.bonitoo.flux.option.FluxConnectionOptions;
@@ -49,8 +54,11 @@ public abstract class AbstractFluxClient<T> extends AbstractRestClient {
     protected final FluxResultMapper mapper = new FluxResultMapper();
     protected final FluxConnectionOptions fluxConnectionOptions;
     final T fluxService;
+    final List<T> fluxServices;
     final HttpLoggingInterceptor loggingInterceptor;
     final GzipRequestInterceptor gzipRequestInterceptor;
+    final OverloadProtectionInterceptor overloadInterceptor;
+    final OkHttpClient okHttpClient;
 
     AbstractFluxClient(@Nonnull final FluxConnectionOptions options,
                        @Nonnull final Class<T> serviceType) {
@@ -63,20 +71,50 @@ public abstract class AbstractFluxClient<T> extends AbstractRestClient {
         this.loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.NONE);
         this.gzipRequestInterceptor = new GzipRequestInterceptor();
 
-        OkHttpClient okHttpClient = fluxConnectionOptions.getOkHttpClient()
+        OkHttpClient.Builder okHttpBuilder = fluxConnectionOptions.getRuntime() != null
+                ? fluxConnectionOptions.getRuntime().newClientBuilder()
+                : fluxConnectionOptions.getOkHttpClient();
+
+        if (fluxConnectionOptions.getProtocol() != null) {
+            fluxConnectionOptions.getProtocol().configure(okHttpBuilder);
+        }
+
+        if (fluxConnectionOptions.getCircuitBreaker() != null || fluxConnectionOptions.getConcurrencyLimit() != null) {
+            this.overloadInterceptor = new OverloadProtectionInterceptor(fluxConnectionOptions.getCircuitBreaker(),
+                    fluxConnectionOptions.getConcurrencyLimit());
+            okHttpBuilder.addInterceptor(overloadInterceptor);
+        } else {
+            this.overloadInterceptor = null;
+        }
+
+        if (fluxConnectionOptions.getMetrics() != null) {
+            okHttpBuilder.addInterceptor(new MetricsInterceptor(fluxConnectionOptions.getMetrics(), "flux"));
+        }
+
+        this.okHttpClient = okHttpBuilder
                     .addInterceptor(loggingInterceptor)
                     .addInterceptor(gzipRequestInterceptor)
                     .build();
 
+        //
+        // The service for each Flux node, all share the same HTTP client
+        //
+        List<T> services = new ArrayList<>();
+        for (String url : fluxConnectionOptions.getUrls()) {
+
             Retrofit.Builder serviceBuilder = new Retrofit.Builder()
-                    .baseUrl(fluxConnectionOptions.getUrl())
+                    .baseUrl(url)
                     .client(okHttpClient);
 
             configure(serviceBuilder);
 
-            this.fluxService = serviceBuilder
+            services.add(serviceBuilder
                     .build()
-                    .create(serviceType);
+                    .create(serviceType));
+        }
+
+        this.fluxServices = Collections.unmodifiableList(services);
+        this.fluxService = fluxServices.get(0);
     }
 
     /**
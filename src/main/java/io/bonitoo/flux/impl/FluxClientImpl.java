@@ -23,6 +23,7 @@
 package io.bonitoo.flux.impl;
 
 import java.io.EOFException;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -31,6 +32,9 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.logging.Level;
@@ -40,17 +44,24 @@ import javax.annotation.Nullable;
 
 import io.bonitoo.core.InfluxException;
 import io.bonitoo.core.Preconditions;
+import io.bonitoo.core.RateLimiter;
 import io.bonitoo.core.event.AbstractInfluxEvent;
 import io.bonitoo.core.event.UnhandledErrorEvent;
+import io.bonitoo.core.metrics.MetricsRegistry;
 import io.bonitoo.flux.Flux;
 import io.bonitoo.flux.FluxClient;
+import io.bonitoo.flux.FluxQueryTimeoutException;
 import io.bonitoo.flux.dto.FluxRecord;
 import io.bonitoo.flux.dto.FluxTable;
 import io.bonitoo.flux.event.FluxErrorEvent;
 import io.bonitoo.flux.event.FluxSuccessEvent;
 import io.bonitoo.flux.option.FluxConnectionOptions;
 import io.bonitoo.flux.option.FluxOptions;
+import io.bonitoo.flux.trace.QueryTrace;
 
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
 import okhttp3.logging.HttpLoggingInterceptor;
 import okio.BufferedSource;
@@ -69,10 +80,37 @@ public class FluxClientImpl extends AbstractFluxClient<FluxService> implements F
 
     private static final Logger LOG = Logger.getLogger(FluxClientImpl.class.getName());
 
-    private final Map<Class<?>, Set<Consumer>> subscribers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Set<Consumer<? super AbstractInfluxEvent>>> subscribers = new ConcurrentHashMap<>();
+
+    //
+    // The listeners resolved for each event class, rebuilt on subscribe/unsubscribe
+    //
+    private volatile Map<Class<?>, List<Consumer<? super AbstractInfluxEvent>>> dispatchTable
+            = new ConcurrentHashMap<>();
+
+    //
+    // The router of queries across the Flux nodes, null if there is only one node
+    //
+    private final QueryRouter router;
+
+    private final QueryMetrics metrics;
+
+    private volatile boolean responseGzip = false;
 
     public FluxClientImpl(@Nonnull final FluxConnectionOptions options) {
         super(options, FluxService.class);
+
+        if (options.getUrls().size() > 1) {
+            this.router = new QueryRouter(fluxServices, options.getUrls(), options.getHedging());
+        } else {
+            this.router = null;
+        }
+
+        this.metrics = new QueryMetrics(options.getMetrics() != null ? options.getMetrics() : MetricsRegistry.noop());
+
+        if (overloadInterceptor != null) {
+            overloadInterceptor.addListener(this::publish);
+        }
     }
 
     @Nonnull
@@ -562,7 +600,7 @@ public class FluxClientImpl extends AbstractFluxClient<FluxService> implements F
 
         String query = toFluxString(flux, properties, options);
 
-        Response<ResponseBody> response = fluxRaw(query, properties, options, false, result -> {
+        Response<ResponseBody> response = fluxRaw(query, properties, options, false, null, result -> {
         }, EMPTY_ON_ERROR, new DefaultCancellable());
 
         if (response == null) {
@@ -601,7 +639,7 @@ public class FluxClientImpl extends AbstractFluxClient<FluxService> implements F
 
         String queryString = toFluxString(query, properties, options);
 
-        fluxRaw(queryString, properties, options, true, onResponse, onFailure, new DefaultCancellable());
+        fluxRaw(queryString, properties, options, true, null, onResponse, onFailure, new DefaultCancellable());
     }
 
     @Override
@@ -611,13 +649,14 @@ public class FluxClientImpl extends AbstractFluxClient<FluxService> implements F
         Objects.requireNonNull(eventType, "Event type is required");
         Objects.requireNonNull(listener, "Consumer is required");
 
-        Set<Consumer> listeners = subscribers.get(eventType);
-        if (listeners == null) {
-            listeners = new CopyOnWriteArraySet<>();
-            subscribers.put(eventType, listeners);
-        }
+        //
+        // The listener receives only the events of its type => see resolveListeners
+        //
+        @SuppressWarnings("unchecked")
+        Consumer<? super AbstractInfluxEvent> consumer = (Consumer<? super AbstractInfluxEvent>) listener;
 
-        listeners.add(listener);
+        subscribers.computeIfAbsent(eventType, type -> new CopyOnWriteArraySet<>()).add(consumer);
+        dispatchTable = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -626,6 +665,7 @@ public class FluxClientImpl extends AbstractFluxClient<FluxService> implements F
         Objects.requireNonNull(listener, "Consumer is required");
 
         subscribers.values().forEach(listeners -> listeners.remove(listener));
+        dispatchTable = new ConcurrentHashMap<>();
     }
 
     @Nonnull
@@ -651,6 +691,29 @@ public class FluxClientImpl extends AbstractFluxClient<FluxService> implements F
         return this.gzipRequestInterceptor.isEnabled();
     }
 
+    @Nonnull
+    @Override
+    public FluxClient enableResponseGzip() {
+
+        this.responseGzip = true;
+
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public FluxClient disableResponseGzip() {
+
+        this.responseGzip = false;
+
+        return this;
+    }
+
+    @Override
+    public boolean isResponseGzipEnabled() {
+        return this.responseGzip;
+    }
+
     @Nonnull
     @Override
     public Boolean ping() {
@@ -664,6 +727,22 @@ public class FluxClientImpl extends AbstractFluxClient<FluxService> implements F
         return false;
     }
 
+    @Nonnull
+    @Override
+    public Boolean warmUp(final int connections) {
+
+        Preconditions.checkPositiveNumber(connections, "connections");
+
+        List<Call<ResponseBody>> calls = new ArrayList<>();
+        for (FluxService service : fluxServices) {
+            for (int i = 0; i < connections; i++) {
+                calls.add(service.ping());
+            }
+        }
+
+        return warmUp(calls, okHttpClient);
+    }
+
     @Nonnull
     @Override
     public HttpLoggingInterceptor.Level getLogLevel() {
@@ -689,6 +768,11 @@ public class FluxClientImpl extends AbstractFluxClient<FluxService> implements F
         LOG.log(Level.INFO, "Dispose all event listeners before shutdown.");
 
         subscribers.clear();
+        dispatchTable = new ConcurrentHashMap<>();
+
+        if (router != null) {
+            router.close();
+        }
 
         return this;
     }
@@ -712,21 +796,37 @@ public class FluxClientImpl extends AbstractFluxClient<FluxService> implements F
         Objects.requireNonNull(onError, "onError consumer is required");
         Objects.requireNonNull(cancellable, "FluxClient.Cancellable is required");
 
-        String query = toFluxString(flux, properties, options);
-        Response<ResponseBody> response = fluxRaw(query, properties, options, async, asyncResponse -> {
+        QueryTraceContext trace = new QueryTraceContext(fluxConnectionOptions);
+        cancellable.trace = trace;
+
+        String query;
+        try {
+            query = toFluxString(flux, properties, options);
+        } catch (RuntimeException e) {
+            trace.end(-1, e);
+            throw e;
+        }
+        trace.rendered(query);
+
+        String acceptEncoding = responseGzip ? "gzip" : null;
+        Response<ResponseBody> response = fluxRaw(query, properties, options, async, acceptEncoding, asyncResponse -> {
 
             if (!asyncResponse.isSuccessful()) {
-                errorResponse(query, asyncResponse, onError, true);
+                cancellable.finish();
+                errorResponse(query, asyncResponse, onError, true, cancellable);
                 return;
             }
 
             ResponseBody body = asyncResponse.body();
             if (body == null) {
+                cancellable.finish();
+                trace.end(-1, null);
                 return;
             }
 
             try {
-                BufferedSource source = body.source();
+                ResponseDecoder decoder = new ResponseDecoder(asyncResponse, body);
+                BufferedSource source = decoder.source();
 
                 //
                 // Source has data => parse
@@ -734,28 +834,47 @@ public class FluxClientImpl extends AbstractFluxClient<FluxService> implements F
                 while (!source.exhausted() && !cancellable.wasCancelled) {
 
                     mapper.toFluxRecords(source,
-                            fluxRecord -> onNext.accept(cancellable, fluxRecord),
+                            fluxRecord -> {
+                                trace.record(fluxRecord);
+                                onNext.accept(cancellable, fluxRecord);
+                            },
                             () -> !cancellable.wasCancelled);
                 }
 
+                if (cancellable.timedOut) {
+                    timeoutError(query, options, onError, cancellable);
+                    return;
+                }
+
+                QueryTrace queryTrace;
                 if (!cancellable.wasCancelled) {
+                    queryTrace = cancellable.succeeded(decoder);
                     onComplete.run();
+                } else {
+                    queryTrace = trace.end(-1, null);
                 }
-                publish(new FluxSuccessEvent(fluxConnectionOptions, query));
+                publish(new FluxSuccessEvent(fluxConnectionOptions, query,
+                        decoder.getWireBytes(), decoder.getDecodedBytes(), queryTrace));
 
             } catch (Exception e) {
 
                 //
-                // Socket closed by remote server or end of data
+                // Socket closed by remote server, end of data or the call was cancelled
                 //
-                if (e.getMessage().equals("Socket closed") || e instanceof EOFException) {
-                    LOG.log(Level.FINEST, "Socket closed by remote server or end of data", e);
+                if (cancellable.timedOut) {
+                    timeoutError(query, options, onError, cancellable);
+                } else if (cancellable.wasCancelled
+                        || e instanceof EOFException || "Socket closed".equals(e.getMessage())) {
+                    trace.end(-1, null);
+                    LOG.log(Level.FINEST, "Socket closed by remote server, end of data or cancelled query", e);
                 } else {
+                    cancellable.failed(e);
                     onError.accept(e);
                     publish(new UnhandledErrorEvent(e));
                 }
             } finally {
 
+                cancellable.finish();
                 body.close();
             }
 
@@ -768,26 +887,40 @@ public class FluxClientImpl extends AbstractFluxClient<FluxService> implements F
 
                     ResponseBody body = response.body();
                     if (body == null) {
+                        trace.end(-1, null);
                         return new ArrayList<>();
                     }
 
-                    BufferedSource source = body.source();
-                    List<FluxTable> tables = mapper.toFluxTables(source);
+                    ResponseDecoder decoder = new ResponseDecoder(response, body);
+                    List<FluxTable> tables = mapper.toFluxTables(decoder.source(), trace::record);
+                    if (cancellable.timedOut) {
+                        throw new FluxQueryTimeoutException(options.getTimeout());
+                    }
 
-                    publish(new FluxSuccessEvent(fluxConnectionOptions, query));
+                    QueryTrace queryTrace = cancellable.succeeded(decoder);
+
+                    publish(new FluxSuccessEvent(fluxConnectionOptions, query,
+                            decoder.getWireBytes(), decoder.getDecodedBytes(), queryTrace));
 
                     return tables;
                 } else {
 
-                    errorResponse(query, response, onError, false);
+                    errorResponse(query, response, onError, false, cancellable);
                 }
 
             } catch (Exception e) {
 
-                InfluxException exception = InfluxException.fromCause(e);
+                InfluxException exception = cancellable.timedOut
+                        ? new FluxQueryTimeoutException(options.getTimeout())
+                        : InfluxException.fromCause(e);
+
+                cancellable.failed(exception);
                 publish(new UnhandledErrorEvent(exception));
 
                 throw exception;
+            } finally {
+
+                cancellable.finish();
             }
         }
 
@@ -799,6 +932,7 @@ public class FluxClientImpl extends AbstractFluxClient<FluxService> implements F
                                            @Nonnull final Map<String, Object> properties,
                                            @Nonnull final FluxOptions options,
                                            @Nonnull final Boolean async,
+                                           @Nullable final String acceptEncoding,
                                            @Nonnull final Consumer<Response<ResponseBody>> callback,
                                            @Nonnull final Consumer<? super Throwable> onError,
                                            @Nonnull final DefaultCancellable cancellable) {
@@ -813,14 +947,40 @@ public class FluxClientImpl extends AbstractFluxClient<FluxService> implements F
 
         String orgID = this.fluxConnectionOptions.getOrgID();
 
-        Call<ResponseBody> request = fluxService.query(orgID, createBody(query, options));
+        //
+        // The traced body marks the acquired connection
+        //
+        QueryTraceContext trace = cancellable.trace;
+        RequestBody body = trace != null ? trace.wrap(createBody(query, options)) : createBody(query, options);
+        Call<ResponseBody> request = router != null
+                ? router.query(orgID, acceptEncoding, body)
+                : fluxService.query(orgID, acceptEncoding, body);
+        if (trace != null) {
+            trace.requestBuilt();
+        }
+
+        //
+        // The cancellation and the deadline abort the HTTP call
+        //
+        cancellable.start(request, options);
 
         if (async) {
-            request.enqueue(new Callback<ResponseBody>() {
+
+            long delay;
+            try {
+                delay = acquireRateLimit(orgID, body);
+            } catch (IOException e) {
+                cancellable.failed(e);
+                propagateError(onError, e, new UnhandledErrorEvent(e));
+                return null;
+            }
+
+            Callback<ResponseBody> responseCallback = new Callback<ResponseBody>() {
                 @Override
                 public void onResponse(@Nonnull final Call<ResponseBody> call,
                                        @Nonnull final Response<ResponseBody> response) {
 
+                    cancellable.responded();
                     callback.accept(response);
                 }
 
@@ -828,20 +988,52 @@ public class FluxClientImpl extends AbstractFluxClient<FluxService> implements F
                 public void onFailure(@Nonnull final Call<ResponseBody> call,
                                       @Nonnull final Throwable throwable) {
 
-                    propagateError(onError, throwable, new UnhandledErrorEvent(throwable));
+                    cancellable.finish();
+
+                    if (cancellable.timedOut) {
+                        timeoutError(query, options, onError, cancellable);
+                    } else if (cancellable.wasCancelled) {
+                        cancellable.endTrace(-1, null);
+                        LOG.log(Level.FINEST, "The query was cancelled", throwable);
+                    } else {
+                        cancellable.failed(throwable);
+                        propagateError(onError, throwable, new UnhandledErrorEvent(throwable));
+                    }
                 }
-            });
+            };
+
+            //
+            // Queued by the rate limit => enqueue later without blocking the caller
+            //
+            if (delay > 0) {
+                Schedulers.computation()
+                        .scheduleDirect(() -> request.enqueue(responseCallback), delay, TimeUnit.NANOSECONDS);
+            } else {
+                request.enqueue(responseCallback);
+            }
         } else {
             try {
 
-                return request.execute();
+                long delay = acquireRateLimit(orgID, body);
+                if (delay > 0) {
+                    TimeUnit.NANOSECONDS.sleep(delay);
+                }
+
+                Response<ResponseBody> response = request.execute();
+                cancellable.responded();
+
+                return response;
 
             } catch (Exception e) {
 
-                InfluxException throwable = InfluxException.fromCause(e);
+                cancellable.finish();
+
+                Exception cause = cancellable.timedOut ? new FluxQueryTimeoutException(options.getTimeout()) : e;
+                InfluxException throwable = InfluxException.fromCause(cause);
+                cancellable.failed(throwable);
 
                 publish(new UnhandledErrorEvent(throwable));
-                onError.accept(e);
+                onError.accept(cause);
 
                 throw throwable;
             }
@@ -850,10 +1042,32 @@ public class FluxClientImpl extends AbstractFluxClient<FluxService> implements F
         return null;
     }
 
+    private long acquireRateLimit(@Nonnull final String orgID, @Nonnull final RequestBody body) throws IOException {
+
+        RateLimiter rateLimiter = fluxConnectionOptions.getRateLimiter();
+        if (rateLimiter == null) {
+            return 0;
+        }
+
+        return rateLimiter.acquire(orgID, body.contentLength());
+    }
+
+    private void timeoutError(@Nonnull final String query,
+                              @Nonnull final FluxOptions options,
+                              @Nonnull final Consumer<? super Throwable> onError,
+                              @Nonnull final DefaultCancellable cancellable) {
+
+        FluxQueryTimeoutException exception = new FluxQueryTimeoutException(options.getTimeout());
+        QueryTrace trace = cancellable.failed(exception);
+
+        propagateError(onError, exception, new FluxErrorEvent(fluxConnectionOptions, query, exception, trace));
+    }
+
     private void errorResponse(@Nonnull final String query,
                                @Nonnull final Response<ResponseBody> response,
                                @Nonnull final Consumer<? super Throwable> onError,
-                               @Nonnull final Boolean async) {
+                               @Nonnull final Boolean async,
+                               @Nonnull final DefaultCancellable cancellable) {
 
         Preconditions.checkNonEmptyString(query, "Query");
         Objects.requireNonNull(response, "Response is required");
@@ -868,7 +1082,9 @@ public class FluxClientImpl extends AbstractFluxClient<FluxService> implements F
             exception = new InfluxException("Unsuccessful response: " + response);
         }
 
-        FluxErrorEvent errorEvent = new FluxErrorEvent(fluxConnectionOptions, query, exception);
+        QueryTrace trace = cancellable.failed(exception);
+
+        FluxErrorEvent errorEvent = new FluxErrorEvent(fluxConnectionOptions, query, exception, trace);
         propagateError(onError, exception, errorEvent);
 
         if (!async) {
@@ -890,21 +1106,159 @@ public class FluxClientImpl extends AbstractFluxClient<FluxService> implements F
 
         event.logEvent();
 
-        Class<?> eventType = event.getClass();
+        List<Consumer<? super AbstractInfluxEvent>> listeners = dispatchTable
+                .computeIfAbsent(event.getClass(), this::resolveListeners);
+        if (listeners.isEmpty()) {
+            return;
+        }
+
+        Executor eventExecutor = fluxConnectionOptions.getEventExecutor();
+        if (eventExecutor == null) {
+            deliver(listeners, event);
+            return;
+        }
 
-        //noinspection unchecked
-        subscribers.keySet().stream()
-                .filter(type -> type.isAssignableFrom(eventType))
-                .flatMap(type -> subscribers.get(type).stream())
-                .forEach(consumer -> consumer.accept(event));
+        //
+        // The slow listeners don't block the query threads
+        //
+        try {
+            eventExecutor.execute(() -> deliver(listeners, event));
+        } catch (RejectedExecutionException e) {
+            LOG.log(Level.WARNING, "The event executor rejected the event: " + event.getClass().getSimpleName(), e);
+        }
+    }
+
+    @Nonnull
+    private List<Consumer<? super AbstractInfluxEvent>> resolveListeners(@Nonnull final Class<?> eventType) {
+
+        List<Consumer<? super AbstractInfluxEvent>> listeners = new ArrayList<>();
+        subscribers.forEach((type, consumers) -> {
+            if (type.isAssignableFrom(eventType)) {
+                listeners.addAll(consumers);
+            }
+        });
+
+        return listeners;
+    }
+
+    private void deliver(@Nonnull final List<Consumer<? super AbstractInfluxEvent>> listeners,
+                         @Nonnull final AbstractInfluxEvent event) {
+
+        for (Consumer<? super AbstractInfluxEvent> listener : listeners) {
+            listener.accept(event);
+        }
     }
 
     private class DefaultCancellable implements Cancellable {
         private volatile boolean wasCancelled = false;
+        private volatile boolean timedOut = false;
+        private volatile Call<ResponseBody> call;
+        private volatile Disposable deadline;
+
+        //
+        // The metrics of query: start, response headers and recorded failure
+        //
+        private volatile long started;
+        private volatile long responded;
+        private volatile boolean failureRecorded = false;
+
+        //
+        // The trace of query, null for the raw queries
+        //
+        private volatile QueryTraceContext trace;
 
         @Override
         public void cancel() {
             wasCancelled = true;
+
+            //
+            // Abort the download => the server stops the query execution
+            //
+            Call<ResponseBody> running = call;
+            if (running != null) {
+                running.cancel();
+            }
+        }
+
+        private void start(@Nonnull final Call<ResponseBody> request, @Nonnull final FluxOptions options) {
+
+            started = System.nanoTime();
+
+            call = request;
+            if (wasCancelled) {
+                request.cancel();
+            }
+
+            if (options.getTimeout() > 0) {
+                deadline = Schedulers.computation().scheduleDirect(() -> {
+                    timedOut = true;
+                    cancel();
+                }, options.getTimeout(), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void finish() {
+
+            Disposable scheduled = deadline;
+            if (scheduled != null) {
+                scheduled.dispose();
+            }
+        }
+
+        private void responded() {
+
+            responded = System.nanoTime();
+            metrics.timeToFirstByte.record(responded - started);
+
+            QueryTraceContext context = trace;
+            if (context != null) {
+                context.headersReceived();
+            }
+        }
+
+        @Nullable
+        private QueryTrace succeeded(@Nonnull final ResponseDecoder decoder) {
+
+            long now = System.nanoTime();
+            metrics.parse.record(now - responded);
+            metrics.duration.record(now - started);
+
+            //
+            // The size on wire isn't known for the response transparently decoded by the HTTP client
+            //
+            long wireBytes = decoder.getWireBytes();
+            long bytes = wireBytes >= 0 ? wireBytes : decoder.getDecodedBytes();
+            metrics.bytes.record(bytes);
+
+            QueryTraceContext context = trace;
+            if (context == null) {
+                return null;
+            }
+
+            context.parsed();
+            QueryTrace queryTrace = context.end(bytes, null);
+            metrics.rows.record(queryTrace.getRecords());
+
+            return queryTrace;
+        }
+
+        @Nullable
+        private QueryTrace failed(@Nonnull final Throwable error) {
+
+            if (!failureRecorded) {
+                failureRecorded = true;
+                metrics.errors.increment();
+            }
+
+            return endTrace(-1, error);
+        }
+
+        @Nullable
+        private QueryTrace endTrace(final long bytes, @Nullable final Throwable error) {
+
+            QueryTraceContext context = trace;
+
+            return context != null ? context.end(bytes, error) : null;
         }
 
         @Override
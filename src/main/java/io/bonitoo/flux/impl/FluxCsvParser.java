@@ -80,7 +80,24 @@ class FluxCsvParser {
     @Nonnull
     List<FluxTable> parseFluxResponse(@Nonnull final Reader reader) throws IOException {
 
+        return parseFluxResponse(reader, record -> {
+        });
+    }
+
+    /**
+     * Synchronously parse Flux CSV response to {@link FluxTable}s.
+     *
+     * @param reader   with data
+     * @param onRecord notified about each parsed record
+     * @return parsed data to {@link FluxTable}s
+     * @throws IOException throw by {@link CSVParser}
+     */
+    @Nonnull
+    List<FluxTable> parseFluxResponse(@Nonnull final Reader reader,
+                                      @Nonnull final Consumer<FluxRecord> onRecord) throws IOException {
+
         Objects.requireNonNull(reader, "Reader is required");
+        Objects.requireNonNull(onRecord, "Consumer<FluxRecord> is required");
 
         final List<FluxTable> tables = new ArrayList<>();
 
@@ -94,6 +111,7 @@ class FluxCsvParser {
             public void addRecord(final int tableIndex, @Nonnull final FluxRecord record) {
 
                 tables.get(tableIndex).getRecords().add(record);
+                onRecord.accept(record);
             }
 
             @Override
@@ -48,12 +48,24 @@ class FluxResultMapper {
 
             throws FluxResultMapperException, IOException {
 
+        return toFluxTables(source, record -> {
+        });
+    }
+
+    /**
+     * @param onRecord notified about each parsed record
+     */
+    @Nonnull
+    List<FluxTable> toFluxTables(@Nonnull final BufferedSource source, @Nonnull final Consumer<FluxRecord> onRecord)
+            throws FluxResultMapperException, IOException {
+
         Objects.requireNonNull(source, "BufferedSource is required");
+        Objects.requireNonNull(onRecord, "onRecord is required");
 
         Reader reader = new InputStreamReader(source.inputStream());
         FluxCsvParser tableCsvParser = new FluxCsvParser();
 
-        return tableCsvParser.parseFluxResponse(reader);
+        return tableCsvParser.parseFluxResponse(reader, onRecord);
     }
 
     /**
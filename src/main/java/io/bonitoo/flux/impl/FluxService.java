@@ -23,12 +23,14 @@
 package io.bonitoo.flux.impl;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.GET;
+import retrofit2.http.Header;
 import retrofit2.http.Headers;
 import retrofit2.http.POST;
 import retrofit2.http.Query;
@@ -45,6 +47,7 @@ interface FluxService {
     @Nonnull
     @Headers("Content-Type: application/json")
     Call<ResponseBody> query(@Nonnull @Query(value = "organization", encoded = true) String orgID,
+                             @Nullable @Header("Accept-Encoding") String acceptEncoding,
                              @Nonnull @Body RequestBody batchPoints);
 
     @GET("/ping")
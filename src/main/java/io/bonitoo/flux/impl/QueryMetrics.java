@@ -0,0 +1,58 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.flux.impl;
+
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+import io.bonitoo.core.metrics.ClientMetrics;
+import io.bonitoo.core.metrics.Counter;
+import io.bonitoo.core.metrics.Histogram;
+import io.bonitoo.core.metrics.MetricsRegistry;
+
+/**
+ * The meters of Flux queries resolved once by the client.
+ */
+@ThreadSafe
+final class QueryMetrics {
+
+    final Histogram timeToFirstByte;
+    final Histogram parse;
+    final Histogram duration;
+    final Histogram rows;
+    final Histogram bytes;
+    final Counter errors;
+
+    QueryMetrics(@Nonnull final MetricsRegistry registry) {
+
+        Objects.requireNonNull(registry, "MetricsRegistry is required");
+
+        this.timeToFirstByte = registry.histogram(ClientMetrics.QUERY_TIME_TO_FIRST_BYTE);
+        this.parse = registry.histogram(ClientMetrics.QUERY_PARSE);
+        this.duration = registry.histogram(ClientMetrics.QUERY_DURATION);
+        this.rows = registry.histogram(ClientMetrics.QUERY_ROWS);
+        this.bytes = registry.histogram(ClientMetrics.QUERY_BYTES);
+        this.errors = registry.counter(ClientMetrics.QUERY_ERRORS);
+    }
+}
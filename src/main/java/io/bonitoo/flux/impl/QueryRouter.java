@@ -0,0 +1,574 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.flux.impl;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import io.bonitoo.flux.option.HedgingOptions;
+
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * The router of queries across the Flux nodes. The query is routed to the node with least outstanding requests,
+ * the ties are broken by round-robin.
+ * <p>
+ * The query that fails to connect to the node is routed to the other node. The node that fails
+ * {@link #EJECTION_THRESHOLD} consecutive queries by an I/O error is ejected from the routing
+ * for {@link #EJECTION_PERIOD} seconds.
+ * <p>
+ * If the hedging is enabled and the query doesn't receive the response within the hedge delay, then
+ * the duplicate query is issued to the other node. The first response wins and the other query is cancelled.
+ */
+@ThreadSafe
+final class QueryRouter {
+
+    private static final Logger LOG = Logger.getLogger(QueryRouter.class.getName());
+
+    /**
+     * The number of recent response times used to compute the hedge delay.
+     */
+    private static final int LATENCY_SAMPLES = 256;
+
+    /**
+     * The minimal number of response times to compute the hedge delay, the {@link HedgingOptions#getMinDelay()}
+     * is used before.
+     */
+    private static final int MIN_LATENCY_SAMPLES = 16;
+
+    /**
+     * The number of consecutive failed queries after that is the node ejected.
+     */
+    private static final int EJECTION_THRESHOLD = 3;
+
+    /**
+     * The time for that is the failing node not selected (seconds).
+     */
+    private static final long EJECTION_PERIOD = 10;
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final HedgingOptions hedging;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicInteger next = new AtomicInteger();
+
+    @GuardedBy("latencies")
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    @GuardedBy("latencies")
+    private int latenciesCount;
+    @GuardedBy("latencies")
+    private int latenciesIndex;
+
+    QueryRouter(@Nonnull final List<FluxService> services,
+                @Nonnull final List<String> urls,
+                @Nullable final HedgingOptions hedging) {
+
+        Objects.requireNonNull(services, "FluxServices are required");
+        Objects.requireNonNull(urls, "urls are required");
+
+        for (int i = 0; i < services.size(); i++) {
+            nodes.add(new Node(services.get(i), urls.get(i)));
+        }
+
+        this.hedging = hedging;
+        if (hedging != null) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "flux-query-hedging");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * @param orgID          the organization id
+     * @param acceptEncoding the accepted encoding of response, {@code null} for default
+     * @param body           the body of query
+     * @return the query routed to the Flux nodes
+     */
+    @Nonnull
+    Call<ResponseBody> query(@Nonnull final String orgID,
+                             @Nullable final String acceptEncoding,
+                             @Nonnull final RequestBody body) {
+        return new RoutedCall(orgID, acceptEncoding, body);
+    }
+
+    /**
+     * @param url the url of Flux node
+     * @return the number of queries that wait to the response from the node
+     */
+    int getOutstanding(@Nonnull final String url) {
+
+        return nodes.stream()
+                .filter(node -> node.url.equals(url))
+                .mapToInt(node -> node.outstanding.get())
+                .sum();
+    }
+
+    void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Select the node with least outstanding requests. The ejected nodes are selected only if there is not
+     * other node.
+     *
+     * @param excluded the nodes that are not selected
+     * @return the selected node, {@code null} if all nodes are excluded
+     */
+    @Nullable
+    private Node select(@Nonnull final List<Node> excluded) {
+
+        int start = Math.floorMod(next.getAndIncrement(), nodes.size());
+        long now = System.nanoTime();
+
+        Node selected = null;
+        boolean selectedEjected = false;
+        for (int i = 0; i < nodes.size(); i++) {
+            Node node = nodes.get((start + i) % nodes.size());
+            if (excluded.contains(node)) {
+                continue;
+            }
+
+            boolean ejected = node.isEjected(now);
+            if (selected == null
+                    || (selectedEjected && !ejected)
+                    || (selectedEjected == ejected && node.outstanding.get() < selected.outstanding.get())) {
+                selected = node;
+                selectedEjected = ejected;
+            }
+        }
+
+        return selected;
+    }
+
+    /**
+     * @return the percentile of recent response times, but at least {@link HedgingOptions#getMinDelay()}
+     * (milliseconds)
+     */
+    private long hedgeDelay() {
+
+        long percentile = 0;
+        synchronized (latencies) {
+            if (latenciesCount >= MIN_LATENCY_SAMPLES) {
+                long[] sorted = Arrays.copyOf(latencies, latenciesCount);
+                Arrays.sort(sorted);
+
+                int index = (int) Math.ceil(hedging.getPercentile() * latenciesCount) - 1;
+                percentile = TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(0, index)]);
+            }
+        }
+
+        return Math.max(hedging.getMinDelay(), percentile);
+    }
+
+    private void recordLatency(final long latency) {
+
+        synchronized (latencies) {
+            latencies[latenciesIndex] = latency;
+            latenciesIndex = (latenciesIndex + 1) % latencies.length;
+            latenciesCount = Math.min(latenciesCount + 1, latencies.length);
+        }
+    }
+
+    /**
+     * @param throwable the failure of query
+     * @return {@code true} if the query was not delivered to the node
+     */
+    private static boolean isConnectFailure(@Nonnull final Throwable throwable) {
+
+        return throwable instanceof ConnectException
+                || throwable instanceof NoRouteToHostException
+                || throwable instanceof UnknownHostException;
+    }
+
+    private static final class Node {
+
+        private final FluxService service;
+        private final String url;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile long ejectedUntil;
+
+        private Node(@Nonnull final FluxService service, @Nonnull final String url) {
+            this.service = service;
+            this.url = url;
+        }
+
+        private boolean isEjected(final long now) {
+
+            long until = ejectedUntil;
+
+            return until != 0 && until - now > 0;
+        }
+
+        private void onResponse() {
+            consecutiveFailures.set(0);
+        }
+
+        private void onFailure() {
+
+            if (consecutiveFailures.incrementAndGet() < EJECTION_THRESHOLD) {
+                return;
+            }
+
+            consecutiveFailures.set(0);
+            ejectedUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(EJECTION_PERIOD);
+
+            LOG.log(Level.WARNING, "The Flux node {0} failed {1} consecutive queries, it is ejected for {2} s",
+                    new Object[]{url, EJECTION_THRESHOLD, EJECTION_PERIOD});
+        }
+    }
+
+    /**
+     * The query that is executed by one or two (hedged) HTTP calls.
+     */
+    private final class RoutedCall implements Call<ResponseBody> {
+
+        private final String orgID;
+        private final String acceptEncoding;
+        private final RequestBody body;
+
+        @GuardedBy("this")
+        private final List<Call<ResponseBody>> attempts = new ArrayList<>();
+        @GuardedBy("this")
+        private final List<Node> tried = new ArrayList<>();
+        @GuardedBy("this")
+        private Callback<ResponseBody> callback;
+        @GuardedBy("this")
+        private ScheduledFuture<?> hedge;
+        @GuardedBy("this")
+        private boolean executed;
+        @GuardedBy("this")
+        private boolean canceled;
+        @GuardedBy("this")
+        private boolean completed;
+        @GuardedBy("this")
+        private int failed;
+
+        private RoutedCall(@Nonnull final String orgID,
+                           @Nullable final String acceptEncoding,
+                           @Nonnull final RequestBody body) {
+            this.orgID = orgID;
+            this.acceptEncoding = acceptEncoding;
+            this.body = body;
+        }
+
+        @Override
+        public Response<ResponseBody> execute() throws IOException {
+
+            CompletableFuture<Response<ResponseBody>> response = new CompletableFuture<>();
+
+            enqueue(new Callback<ResponseBody>() {
+                @Override
+                public void onResponse(@Nonnull final Call<ResponseBody> call,
+                                       @Nonnull final Response<ResponseBody> value) {
+                    response.complete(value);
+                }
+
+                @Override
+                public void onFailure(@Nonnull final Call<ResponseBody> call, @Nonnull final Throwable throwable) {
+                    response.completeExceptionally(throwable);
+                }
+            });
+
+            try {
+                return response.get();
+            } catch (InterruptedException e) {
+                cancel();
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("The query was interrupted");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IOException(cause);
+            }
+        }
+
+        @Override
+        public void enqueue(@Nonnull final Callback<ResponseBody> queryCallback) {
+
+            Objects.requireNonNull(queryCallback, "Callback is required");
+
+            synchronized (this) {
+                if (executed) {
+                    throw new IllegalStateException("Already executed.");
+                }
+                executed = true;
+                callback = queryCallback;
+            }
+
+            Node primary = select(Collections.emptyList());
+            attempt(primary);
+
+            if (hedging != null) {
+                long delay = hedgeDelay();
+                synchronized (this) {
+                    if (!completed && !canceled) {
+                        hedge = scheduler.schedule(() -> hedge(primary, delay), delay, TimeUnit.MILLISECONDS);
+                    }
+                }
+            }
+        }
+
+        private void hedge(@Nonnull final Node primary, final long delay) {
+
+            synchronized (this) {
+                if (completed || canceled) {
+                    return;
+                }
+            }
+
+            LOG.log(Level.FINEST, "The query to {0} is not answered within {1} ms, hedging to the other node",
+                    new Object[]{primary.url, delay});
+
+            Node other = select(Collections.singletonList(primary));
+
+            attempt(other != null ? other : primary);
+        }
+
+        /**
+         * @param failed    the node that failed the query
+         * @param throwable the failure of query
+         * @return the not tried node for the query that was not delivered, {@code null} if the query
+         * is not routed to the other node
+         */
+        @Nullable
+        private Node failover(@Nonnull final Node failed, @Nonnull final Throwable throwable) {
+
+            if (!isConnectFailure(throwable)) {
+                return null;
+            }
+
+            Node other;
+            synchronized (this) {
+                if (completed || canceled) {
+                    return null;
+                }
+                other = select(tried);
+            }
+
+            if (other != null) {
+                LOG.log(Level.FINEST, "The Flux node {0} is not reachable, the query is routed to {1}",
+                        new Object[]{failed.url, other.url});
+            }
+
+            return other;
+        }
+
+        private void attempt(@Nonnull final Node node) {
+
+            Call<ResponseBody> call = node.service.query(orgID, acceptEncoding, body);
+
+            boolean canceledBeforeStart;
+            boolean failCanceled = false;
+            synchronized (this) {
+                if (completed) {
+                    return;
+                }
+                canceledBeforeStart = canceled;
+                if (canceled) {
+                    // nothing was started => the query is completed by cancel
+                    failCanceled = attempts.isEmpty();
+                    completed = failCanceled;
+                } else {
+                    attempts.add(call);
+                    tried.add(node);
+                }
+            }
+
+            if (canceledBeforeStart) {
+                if (failCanceled) {
+                    callback.onFailure(this, new IOException("Canceled"));
+                }
+                return;
+            }
+
+            node.outstanding.incrementAndGet();
+            long started = System.nanoTime();
+
+            call.enqueue(new Callback<ResponseBody>() {
+                @Override
+                public void onResponse(@Nonnull final Call<ResponseBody> attempt,
+                                       @Nonnull final Response<ResponseBody> response) {
+
+                    node.outstanding.decrementAndGet();
+                    node.onResponse();
+                    recordLatency(System.nanoTime() - started);
+
+                    if (!complete(attempt)) {
+                        // the loser of hedged query
+                        close(response);
+                        return;
+                    }
+
+                    callback.onResponse(RoutedCall.this, response);
+                }
+
+                @Override
+                public void onFailure(@Nonnull final Call<ResponseBody> attempt, @Nonnull final Throwable throwable) {
+
+                    node.outstanding.decrementAndGet();
+
+                    //
+                    // The loser of hedged query is cancelled
+                    //
+                    if (!attempt.isCanceled()) {
+                        node.onFailure();
+                    }
+
+                    //
+                    // The query was not delivered => route to the other node
+                    //
+                    Node other = failover(node, throwable);
+                    if (other != null) {
+                        attempt(other);
+                    }
+
+                    synchronized (RoutedCall.this) {
+                        failed++;
+                        //
+                        // The other attempt is still running
+                        //
+                        if (completed || failed < attempts.size()) {
+                            return;
+                        }
+                    }
+
+                    if (complete(attempt)) {
+                        callback.onFailure(RoutedCall.this, throwable);
+                    }
+                }
+            });
+        }
+
+        /**
+         * Complete the query by the attempt. The other attempts are cancelled.
+         *
+         * @param winner the attempt that completes the query
+         * @return {@code true} if the query was completed by this attempt
+         */
+        private boolean complete(@Nonnull final Call<ResponseBody> winner) {
+
+            List<Call<ResponseBody>> losers;
+            synchronized (this) {
+                if (completed) {
+                    return false;
+                }
+                completed = true;
+                if (hedge != null) {
+                    hedge.cancel(false);
+                }
+                losers = new ArrayList<>(attempts);
+            }
+
+            losers.stream().filter(call -> call != winner).forEach(Call::cancel);
+
+            return true;
+        }
+
+        private void close(@Nonnull final Response<ResponseBody> response) {
+
+            ResponseBody responseBody = response.isSuccessful() ? response.body() : response.errorBody();
+            if (responseBody != null) {
+                responseBody.close();
+            }
+        }
+
+        @Override
+        public synchronized boolean isExecuted() {
+            return executed;
+        }
+
+        @Override
+        public void cancel() {
+
+            List<Call<ResponseBody>> calls;
+            synchronized (this) {
+                canceled = true;
+                if (hedge != null) {
+                    hedge.cancel(false);
+                }
+                calls = new ArrayList<>(attempts);
+            }
+
+            calls.forEach(Call::cancel);
+        }
+
+        @Override
+        public synchronized boolean isCanceled() {
+            return canceled;
+        }
+
+        @Nonnull
+        @Override
+        public Call<ResponseBody> clone() {
+            return new RoutedCall(orgID, acceptEncoding, body);
+        }
+
+        @Nonnull
+        @Override
+        public synchronized Request request() {
+
+            if (!attempts.isEmpty()) {
+                return attempts.get(0).request();
+            }
+
+            return nodes.get(0).service.query(orgID, acceptEncoding, body).request();
+        }
+    }
+}
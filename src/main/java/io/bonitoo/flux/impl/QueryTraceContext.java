@@ -0,0 +1,215 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.flux.impl;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import io.bonitoo.flux.dto.FluxRecord;
+import io.bonitoo.flux.option.FluxConnectionOptions;
+import io.bonitoo.flux.trace.QuerySpan;
+import io.bonitoo.flux.trace.QueryTrace;
+import io.bonitoo.flux.trace.QueryTracer;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+
+/**
+ * The timings and the counts of one Flux query reported to {@link QuerySpan}.
+ * <p>
+ * The records are counted by the parsing thread, the phases could be marked from the different threads.
+ */
+@ThreadSafe
+final class QueryTraceContext {
+
+    private static final Logger LOG = Logger.getLogger(QueryTraceContext.class.getName());
+
+    private final QuerySpan span;
+    private final Instant startTime = Instant.now();
+    private final long started = System.nanoTime();
+
+    private volatile String query;
+    private volatile long rendered = -1;
+    private volatile long requestBuilt = -1;
+    private volatile long connected = -1;
+    private volatile long headersReceived = -1;
+    private volatile long firstRecord = -1;
+    private volatile long lastRecord = -1;
+
+    //
+    // Counted only by the parsing thread without the cost of volatile write per record,
+    // the synchronized end() publishes them
+    //
+    private long tables;
+    private long records;
+    private Integer lastTable;
+
+    private QueryTrace trace;
+
+    QueryTraceContext(@Nonnull final FluxConnectionOptions options) {
+
+        QueryTracer tracer = options.getTracer();
+
+        this.span = tracer != null ? startSpan(tracer, options) : null;
+    }
+
+    void rendered(@Nonnull final String fluxQuery) {
+
+        query = fluxQuery;
+        rendered = mark(QuerySpan.RENDERED);
+    }
+
+    void requestBuilt() {
+        requestBuilt = mark(QuerySpan.REQUEST_BUILT);
+    }
+
+    void headersReceived() {
+        if (headersReceived == -1) {
+            headersReceived = mark(QuerySpan.HEADERS_RECEIVED);
+        }
+    }
+
+    void record(@Nonnull final FluxRecord record) {
+
+        if (firstRecord == -1) {
+            firstRecord = mark(QuerySpan.FIRST_RECORD);
+        }
+
+        //
+        // The records of one table are streamed together
+        //
+        if (!record.getTable().equals(lastTable)) {
+            lastTable = record.getTable();
+            tables++;
+        }
+        records++;
+    }
+
+    void parsed() {
+        if (firstRecord != -1 && lastRecord == -1) {
+            lastRecord = mark(QuerySpan.LAST_RECORD);
+        }
+    }
+
+    /**
+     * Wrap the body of query to mark the connection, the body is written when the connection is acquired.
+     */
+    @Nonnull
+    RequestBody wrap(@Nonnull final RequestBody body) {
+
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return body.contentType();
+            }
+
+            @Override
+            public long contentLength() throws IOException {
+                return body.contentLength();
+            }
+
+            @Override
+            public void writeTo(@Nonnull final BufferedSink sink) throws IOException {
+
+                //
+                // The logging of body writes to the buffer before sending
+                //
+                if (!(sink instanceof Buffer)) {
+                    connected();
+                }
+
+                body.writeTo(sink);
+            }
+        };
+    }
+
+    /**
+     * End the trace of query and the span, the subsequent calls return the same trace.
+     *
+     * @param bytes the count of response bytes
+     * @param error the cause of failed query, {@code null} if the query succeeded or was cancelled
+     * @return the trace of query
+     */
+    @Nonnull
+    synchronized QueryTrace end(final long bytes, @Nullable final Throwable error) {
+
+        if (trace != null) {
+            return trace;
+        }
+
+        long duration = System.nanoTime() - started;
+
+        trace = new QueryTrace(startTime, query, rendered, requestBuilt, connected, headersReceived,
+                firstRecord, lastRecord, duration, tables, records, bytes);
+
+        if (span != null) {
+            try {
+                span.end(trace, error);
+            } catch (Exception e) {
+                LOG.log(Level.WARNING, "The query span failed to end", e);
+            }
+        }
+
+        return trace;
+    }
+
+    private void connected() {
+        if (connected == -1) {
+            connected = mark(QuerySpan.CONNECTED);
+        }
+    }
+
+    private long mark(@Nonnull final String phase) {
+
+        long offset = System.nanoTime() - started;
+
+        if (span != null) {
+            try {
+                span.addEvent(phase);
+            } catch (Exception e) {
+                LOG.log(Level.WARNING, "The query span failed to record: " + phase, e);
+            }
+        }
+
+        return offset;
+    }
+
+    @Nullable
+    private static QuerySpan startSpan(@Nonnull final QueryTracer tracer,
+                                       @Nonnull final FluxConnectionOptions options) {
+
+        try {
+            return tracer.startSpan(options);
+        } catch (Exception e) {
+            LOG.log(Level.WARNING, "The query tracer failed to start the span", e);
+            return null;
+        }
+    }
+}
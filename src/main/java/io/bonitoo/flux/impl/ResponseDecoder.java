@@ -0,0 +1,112 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.flux.impl;
+
+import java.io.IOException;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.GzipSource;
+import okio.Okio;
+import okio.Source;
+import retrofit2.Response;
+
+/**
+ * The streaming decoder of the query response. The compressed response is decompressed
+ * during parsing (never buffered whole) and the bytes are counted before and after decoding.
+ */
+@NotThreadSafe
+final class ResponseDecoder {
+
+    private final CountingSource wire;
+    private final CountingSource decoded;
+    private final BufferedSource source;
+    private final boolean transparent;
+
+    ResponseDecoder(@Nonnull final Response<ResponseBody> response, @Nonnull final ResponseBody body) {
+
+        Objects.requireNonNull(response, "Response is required");
+        Objects.requireNonNull(body, "ResponseBody is required");
+
+        this.wire = new CountingSource(body.source());
+        if ("gzip".equalsIgnoreCase(response.headers().get("Content-Encoding"))) {
+            this.decoded = new CountingSource(new GzipSource(wire));
+        } else {
+            this.decoded = wire;
+        }
+        this.source = Okio.buffer(decoded);
+
+        //
+        // The HTTP client transparently decodes the response if the encoding isn't requested explicitly
+        //
+        this.transparent = response.raw().request().header("Accept-Encoding") == null;
+    }
+
+    /**
+     * @return the decoded response
+     */
+    @Nonnull
+    BufferedSource source() {
+        return source;
+    }
+
+    /**
+     * @return the count of bytes received from the server, {@code -1} if the response was transparently
+     * decoded by the HTTP client
+     */
+    long getWireBytes() {
+        return transparent ? -1 : wire.count;
+    }
+
+    /**
+     * @return the count of bytes after decoding
+     */
+    long getDecodedBytes() {
+        return decoded.count;
+    }
+
+    private static final class CountingSource extends ForwardingSource {
+
+        private long count;
+
+        private CountingSource(@Nonnull final Source delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public long read(@Nonnull final Buffer sink, final long byteCount) throws IOException {
+
+            long read = super.read(sink, byteCount);
+            if (read > 0) {
+                count += read;
+            }
+
+            return read;
+        }
+    }
+}
@@ -22,17 +22,33 @@
  */
 package io.bonitoo.flux.option;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Executor;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 import javax.annotation.concurrent.ThreadSafe;
 
+import io.bonitoo.core.ClientRuntime;
+import io.bonitoo.core.HttpProtocol;
 import io.bonitoo.core.Preconditions;
+import io.bonitoo.core.RateLimiter;
+import io.bonitoo.core.metrics.MetricsRegistry;
+import io.bonitoo.core.option.CircuitBreakerOptions;
+import io.bonitoo.core.option.ConcurrencyLimitOptions;
+import io.bonitoo.flux.trace.QueryTracer;
 
 import okhttp3.OkHttpClient;
 
 /**
  * FluxConnectionOptions are used to configure queries to the Flux.
+ * <p>
+ * The queries could be balanced across the several Flux nodes, see {@link Builder#urls(List)}.
+ * The query is routed to the node with least outstanding requests and optionally hedged to the other node,
+ * see {@link Builder#hedging(HedgingOptions)}.
  *
  * @author Jakub Bednar (bednar@github) (26/06/2018 08:59)
  * @since 1.0.0
@@ -40,16 +56,34 @@ import okhttp3.OkHttpClient;
 @ThreadSafe
 public final class FluxConnectionOptions {
 
-    private final String url;
+    private final List<String> urls;
     private final String orgID;
     private OkHttpClient.Builder okHttpClient;
+    private final HedgingOptions hedging;
+    private final ClientRuntime runtime;
+    private final HttpProtocol protocol;
+    private final CircuitBreakerOptions circuitBreaker;
+    private final ConcurrencyLimitOptions concurrencyLimit;
+    private final RateLimiter rateLimiter;
+    private final MetricsRegistry metrics;
+    private final Executor eventExecutor;
+    private final QueryTracer tracer;
 
     private FluxConnectionOptions(@Nonnull final Builder builder) {
         Objects.requireNonNull(builder, "FluxConnectionOptions.Builder is required");
 
-        url = builder.url;
+        urls = Collections.unmodifiableList(new ArrayList<>(builder.urls));
         orgID = builder.orgID;
         okHttpClient = builder.okHttpClient;
+        hedging = builder.hedging;
+        runtime = builder.runtime;
+        protocol = builder.protocol;
+        circuitBreaker = builder.circuitBreaker;
+        concurrencyLimit = builder.concurrencyLimit;
+        rateLimiter = builder.rateLimiter;
+        metrics = builder.metrics;
+        eventExecutor = builder.eventExecutor;
+        tracer = builder.tracer;
     }
 
     /**
@@ -70,7 +104,25 @@ public final class FluxConnectionOptions {
      */
     @Nonnull
     public String getUrl() {
-        return url;
+        return urls.get(0);
+    }
+
+    /**
+     * @return the urls of Flux nodes, the first is the {@link #getUrl()}
+     * @see FluxConnectionOptions.Builder#urls(List)
+     */
+    @Nonnull
+    public List<String> getUrls() {
+        return urls;
+    }
+
+    /**
+     * @return the configuration of hedged queries, {@code null} if the hedging is disabled
+     * @see FluxConnectionOptions.Builder#hedging(HedgingOptions)
+     */
+    @Nullable
+    public HedgingOptions getHedging() {
+        return hedging;
     }
 
     /**
@@ -94,6 +146,79 @@ public final class FluxConnectionOptions {
         return okHttpClient;
     }
 
+    /**
+     * @return the runtime shared by clients, {@code null} if the client use own HTTP client
+     * @see FluxConnectionOptions.Builder#runtime(ClientRuntime)
+     */
+    @Nullable
+    public ClientRuntime getRuntime() {
+        return runtime;
+    }
+
+    /**
+     * @return the HTTP protocol, {@code null} if the protocols of HTTP client are used
+     * @see FluxConnectionOptions.Builder#protocol(HttpProtocol)
+     */
+    @Nullable
+    public HttpProtocol getProtocol() {
+        return protocol;
+    }
+
+    /**
+     * @return the configuration of circuit breaker, {@code null} if the breaker is disabled
+     * @see FluxConnectionOptions.Builder#circuitBreaker(CircuitBreakerOptions)
+     */
+    @Nullable
+    public CircuitBreakerOptions getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * @return the configuration of adaptive concurrency limit, {@code null} if the limit is disabled
+     * @see FluxConnectionOptions.Builder#concurrencyLimit(ConcurrencyLimitOptions)
+     */
+    @Nullable
+    public ConcurrencyLimitOptions getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    /**
+     * @return the rate limiter of organizations, {@code null} if the requests are not limited
+     * @see FluxConnectionOptions.Builder#rateLimiter(RateLimiter)
+     */
+    @Nullable
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * @return the registry of client metrics, {@code null} if the metrics are not recorded
+     * @see FluxConnectionOptions.Builder#metrics(MetricsRegistry)
+     */
+    @Nullable
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return the executor that delivers the events to listeners, {@code null} if the events are delivered
+     * by the thread that produced them
+     * @see FluxConnectionOptions.Builder#eventExecutor(Executor)
+     */
+    @Nullable
+    public Executor getEventExecutor() {
+        return eventExecutor;
+    }
+
+    /**
+     * @return the hook that starts the span of each query, {@code null} if the spans are not started
+     * @see FluxConnectionOptions.Builder#tracer(QueryTracer)
+     */
+    @Nullable
+    public QueryTracer getTracer() {
+        return tracer;
+    }
+
     /**
      * A builder for {@code FluxConnectionOptions}.
      *
@@ -102,9 +227,18 @@ public final class FluxConnectionOptions {
     @NotThreadSafe
     public static class Builder {
 
-        private String url;
+        private List<String> urls;
         private String orgID;
         private OkHttpClient.Builder okHttpClient = new OkHttpClient.Builder();
+        private HedgingOptions hedging;
+        private ClientRuntime runtime;
+        private HttpProtocol protocol;
+        private CircuitBreakerOptions circuitBreaker;
+        private ConcurrencyLimitOptions concurrencyLimit;
+        private RateLimiter rateLimiter;
+        private MetricsRegistry metrics;
+        private Executor eventExecutor;
+        private QueryTracer tracer;
 
         /**
          * Set the url to connect to Flux.
@@ -116,7 +250,24 @@ public final class FluxConnectionOptions {
         @Nonnull
         public Builder url(@Nonnull final String url) {
             Preconditions.checkNonEmptyString(url, "url");
-            this.url = url;
+            this.urls = Collections.singletonList(url);
+            return this;
+        }
+
+        /**
+         * Set the urls of Flux nodes. The queries are routed to the node with least outstanding requests.
+         *
+         * @param urls the urls of Flux nodes. At least one url must be defined.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder urls(@Nonnull final List<String> urls) {
+            Objects.requireNonNull(urls, "urls are required");
+            if (urls.isEmpty()) {
+                throw new IllegalArgumentException("Expecting at least one url");
+            }
+            urls.forEach(url -> Preconditions.checkNonEmptyString(url, "url"));
+            this.urls = new ArrayList<>(urls);
             return this;
         }
 
@@ -148,6 +299,123 @@ public final class FluxConnectionOptions {
             return this;
         }
 
+        /**
+         * Enable the hedged queries. The hedging requires at least two urls.
+         *
+         * @param hedging the configuration of hedged queries, {@code null} disable the hedging
+         * @return {@code this}
+         * @see #urls(List)
+         */
+        @Nonnull
+        public Builder hedging(@Nullable final HedgingOptions hedging) {
+            this.hedging = hedging;
+            return this;
+        }
+
+        /**
+         * Set the runtime shared by clients. The client derives the HTTP client from the runtime core
+         * instead of the {@link #okHttpClient(OkHttpClient.Builder)}.
+         *
+         * @param runtime the shared runtime, {@code null} the client use own HTTP client
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder runtime(@Nullable final ClientRuntime runtime) {
+            this.runtime = runtime;
+            return this;
+        }
+
+        /**
+         * Set the HTTP protocol. The {@link HttpProtocol#HTTP_2} multiplexes the concurrent requests
+         * over a single connection.
+         *
+         * @param protocol the HTTP protocol, {@code null} use the protocols of HTTP client
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder protocol(@Nullable final HttpProtocol protocol) {
+            this.protocol = protocol;
+            return this;
+        }
+
+        /**
+         * Enable the circuit breaker of requests. The requests to the failing or slow server are rejected
+         * without reaching the server until the server recovers.
+         *
+         * @param circuitBreaker the configuration of circuit breaker, {@code null} disable the breaker
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder circuitBreaker(@Nullable final CircuitBreakerOptions circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        /**
+         * Enable the adaptive limit of concurrent requests. The limit follows the response times of server.
+         *
+         * @param concurrencyLimit the configuration of concurrency limit, {@code null} disable the limit
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder concurrencyLimit(@Nullable final ConcurrencyLimitOptions concurrencyLimit) {
+            this.concurrencyLimit = concurrencyLimit;
+            return this;
+        }
+
+        /**
+         * Set the rate limiter of organizations. The limiter could be shared by several clients.
+         *
+         * @param rateLimiter the rate limiter, {@code null} the requests are not limited
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder rateLimiter(@Nullable final RateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+            return this;
+        }
+
+        /**
+         * Set the registry of client metrics. The registry could be shared by several clients.
+         *
+         * @param metrics the registry of metrics, {@code null} the metrics are not recorded
+         * @return {@code this}
+         * @see io.bonitoo.core.metrics.ClientMetrics
+         */
+        @Nonnull
+        public Builder metrics(@Nullable final MetricsRegistry metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Set the executor that delivers the events to listeners, so the slow listeners don't block the queries.
+         * The single thread executor preserves the order of events.
+         *
+         * @param eventExecutor the executor of listeners, {@code null} the events are delivered by the query thread
+         * @return {@code this}
+         * @see io.bonitoo.flux.FluxClient#subscribeEvents(Class, java.util.function.Consumer)
+         */
+        @Nonnull
+        public Builder eventExecutor(@Nullable final Executor eventExecutor) {
+            this.eventExecutor = eventExecutor;
+            return this;
+        }
+
+        /**
+         * Set the hook that starts the span of each query. The timings of query are also published
+         * by {@link io.bonitoo.flux.event.FluxSuccessEvent} and {@link io.bonitoo.flux.event.FluxErrorEvent}.
+         *
+         * @param tracer the hook of query spans, {@code null} the spans are not started
+         * @return {@code this}
+         * @see io.bonitoo.flux.trace.QueryTrace
+         */
+        @Nonnull
+        public Builder tracer(@Nullable final QueryTracer tracer) {
+            this.tracer = tracer;
+            return this;
+        }
+
         /**
          * Build an instance of FluxConnectionOptions.
          *
@@ -156,7 +424,7 @@ public final class FluxConnectionOptions {
         @Nonnull
         public FluxConnectionOptions build() {
 
-            if (url == null) {
+            if (urls == null) {
                 throw new IllegalStateException("The url to connect to Flux has to be defined.");
             }
 
@@ -164,6 +432,10 @@ public final class FluxConnectionOptions {
                 throw new IllegalStateException("The organization id required by Flux has to be defined.");
             }
 
+            if (hedging != null && urls.size() < 2) {
+                throw new IllegalStateException("The hedged queries require at least two urls of Flux nodes.");
+            }
+
             return new FluxConnectionOptions(this);
         }
     }
@@ -29,6 +29,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.concurrent.NotThreadSafe;
 import javax.annotation.concurrent.ThreadSafe;
 
+import io.bonitoo.core.Preconditions;
 import io.bonitoo.flux.option.query.AbstractOption;
 import io.bonitoo.flux.option.query.NowOption;
 import io.bonitoo.flux.option.query.TaskOption;
@@ -49,6 +50,7 @@ public final class FluxOptions {
 
     private final FluxDialect dialect;
     private final List<AbstractOption> queryOptions = new ArrayList<>();
+    private final int timeout;
 
     private FluxOptions(@Nonnull final Builder builder) {
 
@@ -56,6 +58,7 @@ public final class FluxOptions {
 
         this.dialect = builder.dialect;
         this.queryOptions.addAll(builder.variables);
+        this.timeout = builder.timeout;
     }
 
     /**
@@ -87,6 +90,14 @@ public final class FluxOptions {
         return queryOptions;
     }
 
+    /**
+     * @return the deadline of query (milliseconds), {@code 0} if the query is not limited
+     * @see Builder#timeout(int)
+     */
+    public int getTimeout() {
+        return timeout;
+    }
+
     /**
      * A builder for {@code FluxOptions}.
      *
@@ -97,6 +108,7 @@ public final class FluxOptions {
 
         private FluxDialect dialect = FluxDialect.DEFAULTS;
         private List<AbstractOption> variables = new ArrayList<>();
+        private int timeout;
 
         /**
          * Set {@link FluxDialect} that defining the options to use when encoding the response.
@@ -132,6 +144,21 @@ public final class FluxOptions {
             return this;
         }
 
+        /**
+         * Set the deadline of query. The query which isn't fully processed within the timeout is cancelled
+         * and the HTTP request is aborted, so the server stops the query execution. The query fails
+         * by the {@link io.bonitoo.flux.FluxQueryTimeoutException}.
+         *
+         * @param timeout the deadline of query (milliseconds). Default not limited.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder timeout(final int timeout) {
+            Preconditions.checkPositiveNumber(timeout, "timeout");
+            this.timeout = timeout;
+            return this;
+        }
+
         /**
          * Build an instance of FluxOptions.
          *
@@ -0,0 +1,146 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.flux.option;
+
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+
+import io.bonitoo.core.Preconditions;
+
+/**
+ * HedgingOptions are used to configure the hedged queries of the {@link io.bonitoo.flux.FluxClient}.
+ *
+ * <p>
+ * If the query doesn't receive the response headers within the hedge delay then the duplicate query is issued
+ * to the other Flux node. The first response is used and the other query is cancelled. The hedge delay is
+ * the configured percentile of the recent response times, but at least {@link #getMinDelay()}.
+ * <p>
+ * The default setting:
+ * <ul>
+ * <li>percentile = 0.95</li>
+ * <li>minDelay = 50 ms</li>
+ * </ul>
+ *
+ * @see FluxConnectionOptions.Builder#hedging(HedgingOptions)
+ */
+@ThreadSafe
+public final class HedgingOptions {
+
+    private static final double DEFAULT_PERCENTILE = 0.95;
+    private static final int DEFAULT_MIN_DELAY = 50;
+
+    /**
+     * Default configuration.
+     */
+    public static final HedgingOptions DEFAULTS = HedgingOptions.builder().build();
+
+    private final double percentile;
+    private final int minDelay;
+
+    private HedgingOptions(@Nonnull final Builder builder) {
+
+        Objects.requireNonNull(builder, "HedgingOptions.Builder is required");
+
+        percentile = builder.percentile;
+        minDelay = builder.minDelay;
+    }
+
+    /**
+     * Creates a builder instance.
+     *
+     * @return a builder
+     */
+    @Nonnull
+    public static HedgingOptions.Builder builder() {
+        return new HedgingOptions.Builder();
+    }
+
+    /**
+     * @return the percentile of response times used as the hedge delay
+     * @see HedgingOptions.Builder#percentile(double)
+     */
+    public double getPercentile() {
+        return percentile;
+    }
+
+    /**
+     * @return the minimal hedge delay (milliseconds)
+     * @see HedgingOptions.Builder#minDelay(int)
+     */
+    public int getMinDelay() {
+        return minDelay;
+    }
+
+    /**
+     * A builder for {@code HedgingOptions}.
+     */
+    @NotThreadSafe
+    public static class Builder {
+
+        private double percentile = DEFAULT_PERCENTILE;
+        private int minDelay = DEFAULT_MIN_DELAY;
+
+        /**
+         * Set the percentile of recent response times that is used as the hedge delay.
+         * The higher percentile produce less duplicate queries.
+         *
+         * @param percentile the percentile, has to be in range (0, 1)
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder percentile(final double percentile) {
+            Preconditions.checkPositiveNumber(percentile, "percentile");
+            if (percentile >= 1) {
+                throw new IllegalArgumentException("Expecting a number less than 1 for percentile");
+            }
+            this.percentile = percentile;
+            return this;
+        }
+
+        /**
+         * Set the minimal hedge delay (milliseconds). The minimal delay is also used until there are enough
+         * response times to compute the percentile.
+         *
+         * @param minDelay the minimal hedge delay
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder minDelay(final int minDelay) {
+            Preconditions.checkNotNegativeNumber(minDelay, "minDelay");
+            this.minDelay = minDelay;
+            return this;
+        }
+
+        /**
+         * Build an instance of HedgingOptions.
+         *
+         * @return {@code HedgingOptions}
+         */
+        @Nonnull
+        public HedgingOptions build() {
+            return new HedgingOptions(this);
+        }
+    }
+}
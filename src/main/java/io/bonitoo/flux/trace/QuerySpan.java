@@ -0,0 +1,85 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.flux.trace;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * The span of one Flux query. The phases of query are reported by {@link #addEvent(String)} as they happen,
+ * possibly from the different threads, and the span is ended exactly once by {@link #end(QueryTrace, Throwable)}.
+ * <p>
+ * The phases are: {@link #RENDERED}, {@link #REQUEST_BUILT}, {@link #CONNECTED}, {@link #HEADERS_RECEIVED},
+ * {@link #FIRST_RECORD} and {@link #LAST_RECORD}.
+ *
+ * @see QueryTracer
+ */
+@ThreadSafe
+public interface QuerySpan {
+
+    /**
+     * The Flux query is rendered from {@link io.bonitoo.flux.Flux}.
+     */
+    String RENDERED = "flux.rendered";
+
+    /**
+     * The HTTP request is created.
+     */
+    String REQUEST_BUILT = "flux.request_built";
+
+    /**
+     * The connection to Flux server is acquired (new or pooled) and the query is sent.
+     */
+    String CONNECTED = "flux.connected";
+
+    /**
+     * The response headers are received.
+     */
+    String HEADERS_RECEIVED = "flux.headers_received";
+
+    /**
+     * The first record of response is parsed.
+     */
+    String FIRST_RECORD = "flux.first_record";
+
+    /**
+     * The last record of response is parsed.
+     */
+    String LAST_RECORD = "flux.last_record";
+
+    /**
+     * Record the phase of query.
+     *
+     * @param name the name of phase
+     */
+    void addEvent(@Nonnull final String name);
+
+    /**
+     * End the span.
+     *
+     * @param trace the timings and the counts of query
+     * @param error the cause of failed query, {@code null} if the query succeeded or was cancelled
+     */
+    void end(@Nonnull final QueryTrace trace, @Nullable final Throwable error);
+}
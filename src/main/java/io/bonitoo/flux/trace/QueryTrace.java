@@ -0,0 +1,185 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.flux.trace;
+
+import java.time.Instant;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * The timings and the counts of one Flux query.
+ * <p>
+ * The timings are the offsets from the start of query in nanoseconds, {@code -1} if the phase wasn't reached
+ * or measured.
+ */
+@ThreadSafe
+public final class QueryTrace {
+
+    private final Instant startTime;
+    private final String query;
+    private final long rendered;
+    private final long requestBuilt;
+    private final long connected;
+    private final long headersReceived;
+    private final long firstRecord;
+    private final long lastRecord;
+    private final long duration;
+    private final long tables;
+    private final long records;
+    private final long bytes;
+
+    public QueryTrace(@Nonnull final Instant startTime,
+                      @Nullable final String query,
+                      final long rendered,
+                      final long requestBuilt,
+                      final long connected,
+                      final long headersReceived,
+                      final long firstRecord,
+                      final long lastRecord,
+                      final long duration,
+                      final long tables,
+                      final long records,
+                      final long bytes) {
+
+        Objects.requireNonNull(startTime, "Start time is required");
+
+        this.startTime = startTime;
+        this.query = query;
+        this.rendered = rendered;
+        this.requestBuilt = requestBuilt;
+        this.connected = connected;
+        this.headersReceived = headersReceived;
+        this.firstRecord = firstRecord;
+        this.lastRecord = lastRecord;
+        this.duration = duration;
+        this.tables = tables;
+        this.records = records;
+        this.bytes = bytes;
+    }
+
+    /**
+     * @return the wall-clock time when the query started
+     */
+    @Nonnull
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * @return the rendered Flux query, {@code null} if the rendering failed
+     */
+    @Nullable
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * @return the query is rendered from {@link io.bonitoo.flux.Flux}
+     */
+    public long getRendered() {
+        return rendered;
+    }
+
+    /**
+     * @return the HTTP request is created
+     */
+    public long getRequestBuilt() {
+        return requestBuilt;
+    }
+
+    /**
+     * @return the connection to Flux server is acquired (new or pooled)
+     */
+    public long getConnected() {
+        return connected;
+    }
+
+    /**
+     * @return the response headers are received
+     */
+    public long getHeadersReceived() {
+        return headersReceived;
+    }
+
+    /**
+     * @return the first record is parsed
+     */
+    public long getFirstRecord() {
+        return firstRecord;
+    }
+
+    /**
+     * @return the last record is parsed
+     */
+    public long getLastRecord() {
+        return lastRecord;
+    }
+
+    /**
+     * @return the total time of query in nanoseconds
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return the number of parsed tables
+     */
+    public long getTables() {
+        return tables;
+    }
+
+    /**
+     * @return the number of parsed records
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * @return the count of response bytes, the size of compressed response if the response gzip is enabled,
+     * {@code -1} if the query didn't succeed
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryTrace{"
+                + "startTime=" + startTime
+                + ", rendered=" + rendered
+                + ", requestBuilt=" + requestBuilt
+                + ", connected=" + connected
+                + ", headersReceived=" + headersReceived
+                + ", firstRecord=" + firstRecord
+                + ", lastRecord=" + lastRecord
+                + ", duration=" + duration
+                + ", tables=" + tables
+                + ", records=" + records
+                + ", bytes=" + bytes
+                + '}';
+    }
+}
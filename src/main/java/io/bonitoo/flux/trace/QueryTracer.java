@@ -0,0 +1,74 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.flux.trace;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+import io.bonitoo.flux.option.FluxConnectionOptions;
+
+/**
+ * The hook that starts the {@link QuerySpan} for each query, see
+ * {@link FluxConnectionOptions.Builder#tracer(QueryTracer)}.
+ * <p>
+ * The hook maps to the OpenTelemetry span without the dependency of client:
+ *
+ * <pre>
+ * QueryTracer tracer = options -&gt; {
+ *
+ *     Span span = openTelemetryTracer.spanBuilder("flux.query")
+ *         .setSpanKind(SpanKind.CLIENT)
+ *         .setAttribute("db.system", "influxdb")
+ *         .startSpan();
+ *
+ *     return new QuerySpan() {
+ *
+ *         public void addEvent(String name) {
+ *             span.addEvent(name);
+ *         }
+ *
+ *         public void end(QueryTrace trace, Throwable error) {
+ *             span.setAttribute("db.statement", trace.getQuery());
+ *             span.setAttribute("flux.records", trace.getRecords());
+ *             if (error != null) {
+ *                 span.recordException(error);
+ *                 span.setStatus(StatusCode.ERROR);
+ *             }
+ *             span.end();
+ *         }
+ *     };
+ * };
+ * </pre>
+ */
+@ThreadSafe
+public interface QueryTracer {
+
+    /**
+     * Start the span of query.
+     *
+     * @param options the options of client that executes the query
+     * @return the span of query
+     */
+    @Nonnull
+    QuerySpan startSpan(@Nonnull final FluxConnectionOptions options);
+}
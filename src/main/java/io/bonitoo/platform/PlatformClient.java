@@ -115,6 +115,22 @@ public interface PlatformClient {
     @Nonnull
     Health health();
 
+    /**
+     * Pre-establish the pooled connections to the Platform by the concurrent health checks. The first requests
+     * after the start of application don't pay the TCP and TLS handshakes.
+     * <p>
+     * The count of warmed connections is limited by the dispatcher and connection pool of HTTP client:
+     * at most {@code maxRequestsPerHost} (default 5) checks are executed concurrently and at most
+     * {@code maxIdleConnections} (default 5) connections are kept in the pool,
+     * see {@link io.bonitoo.core.ClientRuntime}. For HTTP/2 the concurrent checks share a single connection.
+     * The wait for checks is bounded by the timeouts of HTTP client.
+     *
+     * @param connections the count of connections
+     * @return {@link Boolean#TRUE} if all health checks succeed otherwise return {@link Boolean#FALSE}
+     */
+    @Nonnull
+    Boolean warmUp(final int connections);
+
     /**
      * @return the {@link HttpLoggingInterceptor.Level} that is used for logging requests and responses
      */
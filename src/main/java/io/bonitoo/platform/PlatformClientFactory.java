@@ -26,7 +26,9 @@ import java.util.Objects;
 import javax.annotation.Nonnull;
 
 import io.bonitoo.platform.impl.PlatformClientImpl;
+import io.bonitoo.platform.impl.ShardedWriteClientImpl;
 import io.bonitoo.platform.option.PlatformOptions;
+import io.bonitoo.platform.option.ShardingOptions;
 
 /**
  * The Factory that create a instance of a Platform client.
@@ -69,4 +71,18 @@ public final class PlatformClientFactory {
 
         return new PlatformClientImpl(options);
     }
+
+    /**
+     * Create a instance of the write client that distributes the records across multiple Platform servers.
+     *
+     * @param options the sharding configuration
+     * @return client
+     */
+    @Nonnull
+    public static ShardedWriteClient createShardedWriteClient(@Nonnull final ShardingOptions options) {
+
+        Objects.requireNonNull(options, "ShardingOptions are required");
+
+        return new ShardedWriteClientImpl(options);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform;
+
+import java.util.List;
+import javax.annotation.Nonnull;
+
+import io.bonitoo.platform.dto.ShardStatistics;
+
+/**
+ * Write time-series data into multiple InfluxDB nodes.
+ * <p>
+ * Each record is routed to the shard by consistent hash of the measurement and tag set (or bucket),
+ * see {@link io.bonitoo.platform.option.ShardingOptions}. The records that are already buffered in a shard
+ * are not moved to other shard when the shard becomes unhealthy.
+ *
+ * @see PlatformClientFactory#createShardedWriteClient(io.bonitoo.platform.option.ShardingOptions)
+ */
+public interface ShardedWriteClient extends WriteClient {
+
+    /**
+     * Get the statistics of shards.
+     *
+     * @return the statistics of shards in order of configuration
+     */
+    @Nonnull
+    List<ShardStatistics> getShardStatistics();
+}
@@ -22,14 +22,21 @@
  */
 package io.bonitoo.platform;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import io.bonitoo.core.event.AbstractInfluxEvent;
+import io.bonitoo.platform.dto.WriteStatistics;
+import io.bonitoo.platform.option.WriteOptions;
 
+import io.reactivex.Completable;
 import io.reactivex.Observable;
+import org.reactivestreams.Publisher;
 
 /**
  * Write time-series data into InfluxDB.
@@ -72,6 +79,123 @@ public interface WriteClient {
                @Nonnull final TimeUnit precision,
                @Nonnull final List<String> records);
 
+    /**
+     * Write time-series data into InfluxDB.
+     * <p>
+     * The destination is validated once per call and the records are handed to the batching in chunks.
+     *
+     * @param bucket       specifies the destination bucket ID for writes
+     * @param organization specifies the destination organization ID for writes
+     * @param token        the token used to authorize write to bucket
+     * @param records      specifies the records in InfluxDB Line Protocol
+     */
+    void write(@Nonnull final String bucket,
+               @Nonnull final String organization,
+               @Nonnull final String token,
+               @Nonnull final Iterable<String> records);
+
+    /**
+     * Write time-series data into InfluxDB.
+     * <p>
+     * The destination is validated once per call and the records are handed to the batching in chunks.
+     *
+     * @param bucket       specifies the destination bucket ID for writes
+     * @param organization specifies the destination organization ID for writes
+     * @param token        the token used to authorize write to bucket
+     * @param precision    specifies the precision for the unix timestamps within the body line-protocol.
+     *                     Available values : {@link TimeUnit#NANOSECONDS}, {@link TimeUnit#MICROSECONDS},
+     *                     {@link TimeUnit#MILLISECONDS}, {@link TimeUnit#SECONDS}.
+     *                     Default value : {@link TimeUnit#NANOSECONDS}.
+     * @param records      specifies the records in InfluxDB Line Protocol
+     */
+    void write(@Nonnull final String bucket,
+               @Nonnull final String organization,
+               @Nonnull final String token,
+               @Nonnull final TimeUnit precision,
+               @Nonnull final Iterable<String> records);
+
+    /**
+     * Write time-series data into InfluxDB.
+     * <p>
+     * The destination is validated once per call and the records are handed to the batching in chunks.
+     *
+     * @param bucket       specifies the destination bucket ID for writes
+     * @param organization specifies the destination organization ID for writes
+     * @param token        the token used to authorize write to bucket
+     * @param records      specifies the records in InfluxDB Line Protocol
+     */
+    void write(@Nonnull final String bucket,
+               @Nonnull final String organization,
+               @Nonnull final String token,
+               @Nonnull final Stream<String> records);
+
+    /**
+     * Write time-series data into InfluxDB.
+     * <p>
+     * The destination is validated once per call and the records are handed to the batching in chunks.
+     *
+     * @param bucket       specifies the destination bucket ID for writes
+     * @param organization specifies the destination organization ID for writes
+     * @param token        the token used to authorize write to bucket
+     * @param precision    specifies the precision for the unix timestamps within the body line-protocol.
+     *                     Available values : {@link TimeUnit#NANOSECONDS}, {@link TimeUnit#MICROSECONDS},
+     *                     {@link TimeUnit#MILLISECONDS}, {@link TimeUnit#SECONDS}.
+     *                     Default value : {@link TimeUnit#NANOSECONDS}.
+     * @param records      specifies the records in InfluxDB Line Protocol
+     */
+    void write(@Nonnull final String bucket,
+               @Nonnull final String organization,
+               @Nonnull final String token,
+               @Nonnull final TimeUnit precision,
+               @Nonnull final Stream<String> records);
+
+    /**
+     * Write time-series data into InfluxDB.
+     * <p>
+     * The records are requested from the {@code records} publisher only when are the previous chunks written,
+     * so the backpressure of source is respected and no record is dropped.
+     * The records are written in chunks limited by the batch size and by the flush interval
+     * when the returned completable is subscribed.
+     *
+     * @param bucket       specifies the destination bucket ID for writes
+     * @param organization specifies the destination organization ID for writes
+     * @param token        the token used to authorize write to bucket
+     * @param records      specifies the records in InfluxDB Line Protocol
+     * @return the completable that is completed when all records are written or stored into the disk buffer,
+     * the completable fails by the first failed write and the remaining records are not written
+     */
+    @Nonnull
+    Completable write(@Nonnull final String bucket,
+                      @Nonnull final String organization,
+                      @Nonnull final String token,
+                      @Nonnull final Publisher<String> records);
+
+    /**
+     * Write time-series data into InfluxDB.
+     * <p>
+     * The records are requested from the {@code records} publisher only when are the previous chunks written,
+     * so the backpressure of source is respected and no record is dropped.
+     * The records are written in chunks limited by the batch size and by the flush interval
+     * when the returned completable is subscribed.
+     *
+     * @param bucket       specifies the destination bucket ID for writes
+     * @param organization specifies the destination organization ID for writes
+     * @param token        the token used to authorize write to bucket
+     * @param precision    specifies the precision for the unix timestamps within the body line-protocol.
+     *                     Available values : {@link TimeUnit#NANOSECONDS}, {@link TimeUnit#MICROSECONDS},
+     *                     {@link TimeUnit#MILLISECONDS}, {@link TimeUnit#SECONDS}.
+     *                     Default value : {@link TimeUnit#NANOSECONDS}.
+     * @param records      specifies the records in InfluxDB Line Protocol
+     * @return the completable that is completed when all records are written or stored into the disk buffer,
+     * the completable fails by the first failed write and the remaining records are not written
+     */
+    @Nonnull
+    Completable write(@Nonnull final String bucket,
+                      @Nonnull final String organization,
+                      @Nonnull final String token,
+                      @Nonnull final TimeUnit precision,
+                      @Nonnull final Publisher<String> records);
+
     /**
      * Write time-series data into InfluxDB.
      *
@@ -106,11 +230,94 @@ public interface WriteClient {
                @Nonnull final TimeUnit precision,
                @Nullable final String record);
 
+    /**
+     * Write time-series data into InfluxDB and wait for the acknowledgement of server.
+     * <p>
+     * The records bypass the batching and are sent immediately as one HTTP request. The request body is compressed
+     * when is Gzip enabled and the temporary failures are retried by {@link WriteOptions#getMaxRetries()}.
+     *
+     * @param bucket       specifies the destination bucket ID for writes
+     * @param organization specifies the destination organization ID for writes
+     * @param token        the token used to authorize write to bucket
+     * @param records      specifies the records in InfluxDB Line Protocol
+     * @throws io.bonitoo.core.InfluxException if the server does not accept the records
+     */
+    void writeSync(@Nonnull final String bucket,
+                   @Nonnull final String organization,
+                   @Nonnull final String token,
+                   @Nonnull final List<String> records);
+
+    /**
+     * Write time-series data into InfluxDB and wait for the acknowledgement of server.
+     * <p>
+     * The records bypass the batching and are sent immediately as one HTTP request. The request body is compressed
+     * when is Gzip enabled and the temporary failures are retried by {@link WriteOptions#getMaxRetries()}.
+     *
+     * @param bucket       specifies the destination bucket ID for writes
+     * @param organization specifies the destination organization ID for writes
+     * @param token        the token used to authorize write to bucket
+     * @param precision    specifies the precision for the unix timestamps within the body line-protocol.
+     *                     Available values : {@link TimeUnit#NANOSECONDS}, {@link TimeUnit#MICROSECONDS},
+     *                     {@link TimeUnit#MILLISECONDS}, {@link TimeUnit#SECONDS}.
+     *                     Default value : {@link TimeUnit#NANOSECONDS}.
+     * @param records      specifies the records in InfluxDB Line Protocol
+     * @throws io.bonitoo.core.InfluxException if the server does not accept the records
+     */
+    void writeSync(@Nonnull final String bucket,
+                   @Nonnull final String organization,
+                   @Nonnull final String token,
+                   @Nonnull final TimeUnit precision,
+                   @Nonnull final List<String> records);
+
+    /**
+     * Write time-series data into InfluxDB without blocking the caller.
+     * <p>
+     * The records bypass the batching and are sent immediately as one HTTP request. The request body is compressed
+     * when is Gzip enabled and the temporary failures are retried by {@link WriteOptions#getMaxRetries()}.
+     *
+     * @param bucket       specifies the destination bucket ID for writes
+     * @param organization specifies the destination organization ID for writes
+     * @param token        the token used to authorize write to bucket
+     * @param records      specifies the records in InfluxDB Line Protocol
+     * @return the future that is completed when the server acknowledges the records or completed exceptionally
+     * by {@link io.bonitoo.core.InfluxException}
+     */
+    @Nonnull
+    CompletableFuture<Void> writeAsync(@Nonnull final String bucket,
+                                       @Nonnull final String organization,
+                                       @Nonnull final String token,
+                                       @Nonnull final List<String> records);
+
+    /**
+     * Write time-series data into InfluxDB without blocking the caller.
+     * <p>
+     * The records bypass the batching and are sent immediately as one HTTP request. The request body is compressed
+     * when is Gzip enabled and the temporary failures are retried by {@link WriteOptions#getMaxRetries()}.
+     *
+     * @param bucket       specifies the destination bucket ID for writes
+     * @param organization specifies the destination organization ID for writes
+     * @param token        the token used to authorize write to bucket
+     * @param precision    specifies the precision for the unix timestamps within the body line-protocol.
+     *                     Available values : {@link TimeUnit#NANOSECONDS}, {@link TimeUnit#MICROSECONDS},
+     *                     {@link TimeUnit#MILLISECONDS}, {@link TimeUnit#SECONDS}.
+     *                     Default value : {@link TimeUnit#NANOSECONDS}.
+     * @param records      specifies the records in InfluxDB Line Protocol
+     * @return the future that is completed when the server acknowledges the records or completed exceptionally
+     * by {@link io.bonitoo.core.InfluxException}
+     */
+    @Nonnull
+    CompletableFuture<Void> writeAsync(@Nonnull final String bucket,
+                                       @Nonnull final String organization,
+                                       @Nonnull final String token,
+                                       @Nonnull final TimeUnit precision,
+                                       @Nonnull final List<String> records);
+
     /**
      * Listen the events produced by {@link WriteClient}.
      * <p>
      * The {@link WriteClient} produces: {@link io.bonitoo.platform.event.WriteSuccessEvent},
-     * {@link io.bonitoo.platform.event.BackpressureEvent} and {@link io.bonitoo.core.event.UnhandledErrorEvent}.
+     * {@link io.bonitoo.platform.event.BackpressureEvent}, {@link io.bonitoo.platform.event.BatchingAdjustedEvent}
+     * and {@link io.bonitoo.core.event.UnhandledErrorEvent}.
      *
      * @param eventType type of event to listen
      * @param <T>       type of event to listen
@@ -142,6 +349,36 @@ public interface WriteClient {
      */
     boolean isGzipEnabled();
 
+    /**
+     * Returns the snapshot of the buffer statistics: buffered and dropped records and bytes
+     * and the histogram of the time that records spent in the buffer.
+     *
+     * @return the current statistics of the client
+     */
+    @Nonnull
+    WriteStatistics getStatistics();
+
+    /**
+     * Force to close the current batches and wait until all records written before this call
+     * are written, stored into disk buffer or reported as failed by {@link io.bonitoo.core.event.UnhandledErrorEvent}.
+     * The call waits without limit, use {@link #flush(Duration)} to bound the wait for unavailable server.
+     *
+     * @return the {@link WriteClient} instance to be able to use it in a fluent manner.
+     * @throws IllegalStateException if it is called from the event listener of client
+     */
+    @Nonnull
+    WriteClient flush();
+
+    /**
+     * Force to close the current batches and wait at most {@code timeout} until all records written before this call
+     * are written, stored into disk buffer or reported as failed by {@link io.bonitoo.core.event.UnhandledErrorEvent}.
+     *
+     * @param timeout the maximum time to wait for write of records
+     * @return {@code true} if the records were written before timeout
+     * @throws IllegalStateException if it is called from the event listener of client
+     */
+    boolean flush(@Nonnull final Duration timeout);
+
     /**
      * Close threads for asynchronous batch writing.
      *
@@ -149,4 +386,13 @@ public interface WriteClient {
      */
     @Nonnull
     WriteClient close();
+
+    /**
+     * Close threads for asynchronous batch writing and wait until the buffered records and in-flight requests
+     * are written. If the {@code timeout} expires then the in-flight requests are cancelled.
+     *
+     * @param timeout the maximum time to wait for write of buffered records
+     * @return the number of records that were not written (zero if everything was written)
+     */
+    long close(@Nonnull final Duration timeout);
 }
\ No newline at end of file
@@ -0,0 +1,97 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.dto;
+
+import java.util.StringJoiner;
+import javax.annotation.Nonnull;
+
+/**
+ * The statistics of one shard of {@link io.bonitoo.platform.ShardedWriteClient}.
+ */
+public final class ShardStatistics {
+
+    private final String url;
+    private final boolean healthy;
+    private final long routedRecords;
+    private final long writtenBatches;
+    private final long failedBatches;
+
+    public ShardStatistics(@Nonnull final String url,
+                           final boolean healthy,
+                           final long routedRecords,
+                           final long writtenBatches,
+                           final long failedBatches) {
+        this.url = url;
+        this.healthy = healthy;
+        this.routedRecords = routedRecords;
+        this.writtenBatches = writtenBatches;
+        this.failedBatches = failedBatches;
+    }
+
+    /**
+     * @return the url of shard
+     */
+    @Nonnull
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * @return {@code true} if the shard accepts new records
+     */
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    /**
+     * @return the number of records routed to the shard
+     */
+    public long getRoutedRecords() {
+        return routedRecords;
+    }
+
+    /**
+     * @return the number of batches successfully written into shard
+     */
+    public long getWrittenBatches() {
+        return writtenBatches;
+    }
+
+    /**
+     * @return the number of batches that failed to write into shard
+     */
+    public long getFailedBatches() {
+        return failedBatches;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", ShardStatistics.class.getSimpleName() + "[", "]")
+                .add("url='" + url + "'")
+                .add("healthy=" + healthy)
+                .add("routedRecords=" + routedRecords)
+                .add("writtenBatches=" + writtenBatches)
+                .add("failedBatches=" + failedBatches)
+                .toString();
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.dto;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import javax.annotation.Nonnull;
+
+/**
+ * The snapshot of statistics of the {@link io.bonitoo.platform.WriteClient} buffer.
+ *
+ * @see io.bonitoo.platform.WriteClient#getStatistics()
+ */
+public final class WriteStatistics {
+
+    private final long bufferedRecords;
+    private final long bufferedBytes;
+    private final long droppedRecords;
+    private final long droppedBytes;
+    private final Map<String, Long> droppedRecordsByBucket;
+    private final Map<String, Long> droppedBytesByBucket;
+    private final long[] bufferTimeBounds;
+    private final long[] bufferTimeCounts;
+
+    public WriteStatistics(final long bufferedRecords,
+                           final long bufferedBytes,
+                           final long droppedRecords,
+                           final long droppedBytes,
+                           @Nonnull final Map<String, Long> droppedRecordsByBucket,
+                           @Nonnull final Map<String, Long> droppedBytesByBucket,
+                           @Nonnull final long[] bufferTimeBounds,
+                           @Nonnull final long[] bufferTimeCounts) {
+
+        this.bufferedRecords = bufferedRecords;
+        this.bufferedBytes = bufferedBytes;
+        this.droppedRecords = droppedRecords;
+        this.droppedBytes = droppedBytes;
+        this.droppedRecordsByBucket = Collections.unmodifiableMap(new HashMap<>(droppedRecordsByBucket));
+        this.droppedBytesByBucket = Collections.unmodifiableMap(new HashMap<>(droppedBytesByBucket));
+        this.bufferTimeBounds = bufferTimeBounds.clone();
+        this.bufferTimeCounts = bufferTimeCounts.clone();
+    }
+
+    /**
+     * @return the number of records waiting in the buffer
+     */
+    public long getBufferedRecords() {
+        return bufferedRecords;
+    }
+
+    /**
+     * @return the size of records waiting in the buffer (UTF-8 bytes)
+     */
+    public long getBufferedBytes() {
+        return bufferedBytes;
+    }
+
+    /**
+     * @return the number of records dropped by the backpressure
+     */
+    public long getDroppedRecords() {
+        return droppedRecords;
+    }
+
+    /**
+     * @return the size of records dropped by the backpressure (UTF-8 bytes)
+     */
+    public long getDroppedBytes() {
+        return droppedBytes;
+    }
+
+    /**
+     * @return the number of dropped records for each bucket
+     */
+    @Nonnull
+    public Map<String, Long> getDroppedRecordsByBucket() {
+        return droppedRecordsByBucket;
+    }
+
+    /**
+     * @return the size of dropped records for each bucket (UTF-8 bytes)
+     */
+    @Nonnull
+    public Map<String, Long> getDroppedBytesByBucket() {
+        return droppedBytesByBucket;
+    }
+
+    /**
+     * @return the upper bounds of the buckets of time-in-buffer histogram (milliseconds)
+     */
+    @Nonnull
+    public long[] getBufferTimeBounds() {
+        return bufferTimeBounds.clone();
+    }
+
+    /**
+     * @return the counts of the time-in-buffer histogram, the last count is for the values over the last bound
+     */
+    @Nonnull
+    public long[] getBufferTimeCounts() {
+        return bufferTimeCounts.clone();
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", WriteStatistics.class.getSimpleName() + "[", "]")
+                .add("bufferedRecords=" + bufferedRecords)
+                .add("bufferedBytes=" + bufferedBytes)
+                .add("droppedRecords=" + droppedRecords)
+                .add("droppedBytes=" + droppedBytes)
+                .add("droppedRecordsByBucket=" + droppedRecordsByBucket)
+                .add("droppedBytesByBucket=" + droppedBytesByBucket)
+                .add("bufferTimeBounds=" + Arrays.toString(bufferTimeBounds))
+                .add("bufferTimeCounts=" + Arrays.toString(bufferTimeCounts))
+                .toString();
+    }
+}
@@ -24,6 +24,7 @@ package io.bonitoo.platform.event;
 
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.Nonnull;
 
 import io.bonitoo.core.event.AbstractInfluxEvent;
 
@@ -36,9 +37,89 @@ public final class BackpressureEvent extends AbstractInfluxEvent {
 
     private static final Logger LOG = Logger.getLogger(BackpressureEvent.class.getName());
 
+    private final String organization;
+    private final String bucket;
+    private final int droppedRecords;
+    private final long droppedBytes;
+    private final long bufferedRecords;
+    private final long bufferedBytes;
+    private final long totalDroppedRecords;
+
+    public BackpressureEvent(@Nonnull final String organization,
+                             @Nonnull final String bucket,
+                             final int droppedRecords,
+                             final long droppedBytes,
+                             final long bufferedRecords,
+                             final long bufferedBytes,
+                             final long totalDroppedRecords) {
+
+        this.organization = organization;
+        this.bucket = bucket;
+        this.droppedRecords = droppedRecords;
+        this.droppedBytes = droppedBytes;
+        this.bufferedRecords = bufferedRecords;
+        this.bufferedBytes = bufferedBytes;
+        this.totalDroppedRecords = totalDroppedRecords;
+    }
+
+    /**
+     * @return the destination organization of dropped records
+     */
+    @Nonnull
+    public String getOrganization() {
+        return organization;
+    }
+
+    /**
+     * @return the destination bucket of dropped records
+     */
+    @Nonnull
+    public String getBucket() {
+        return bucket;
+    }
+
+    /**
+     * @return the number of dropped records
+     */
+    public int getDroppedRecords() {
+        return droppedRecords;
+    }
+
+    /**
+     * @return the size of dropped records (UTF-8 bytes)
+     */
+    public long getDroppedBytes() {
+        return droppedBytes;
+    }
+
+    /**
+     * @return the number of records waiting in the buffer
+     */
+    public long getBufferedRecords() {
+        return bufferedRecords;
+    }
+
+    /**
+     * @return the size of records waiting in the buffer (UTF-8 bytes)
+     */
+    public long getBufferedBytes() {
+        return bufferedBytes;
+    }
+
+    /**
+     * @return the number of records dropped by the client since the start
+     */
+    public long getTotalDroppedRecords() {
+        return totalDroppedRecords;
+    }
+
     @Override
     public void logEvent() {
 
-        LOG.log(Level.WARNING, "Backpressure applied, try increase WriteOptions.bufferLimit");
+        if (LOG.isLoggable(Level.WARNING)) {
+            LOG.log(Level.WARNING, "Backpressure applied, dropped {0} records ({1} bytes) for bucket: {2}, "
+                            + "buffered records: {3}, total dropped: {4}. Try increase WriteOptions.bufferLimit",
+                    new Object[]{droppedRecords, droppedBytes, bucket, bufferedRecords, totalDroppedRecords});
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.event;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+
+import io.bonitoo.core.event.AbstractInfluxEvent;
+
+/**
+ * The event is published when the adaptive batching changed the batch size or the flush interval.
+ *
+ * @see io.bonitoo.platform.option.WriteOptions.Builder#adaptiveBatching
+ */
+public final class BatchingAdjustedEvent extends AbstractInfluxEvent {
+
+    private static final Logger LOG = Logger.getLogger(BatchingAdjustedEvent.class.getName());
+
+    private final int batchSize;
+    private final int flushInterval;
+    private final Reason reason;
+
+    public BatchingAdjustedEvent(final int batchSize, final int flushInterval, @Nonnull final Reason reason) {
+
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.reason = reason;
+    }
+
+    /**
+     * @return the new batch size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @return the new flush interval (milliseconds)
+     */
+    public int getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * @return the reason of change
+     */
+    @Nonnull
+    public Reason getReason() {
+        return reason;
+    }
+
+    @Override
+    public void logEvent() {
+
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.log(Level.FINE, "Batching adjusted to batchSize: {0}, flushInterval: {1} ms, reason: {2}",
+                    new Object[]{batchSize, flushInterval, reason});
+        }
+    }
+
+    /**
+     * The reason of change.
+     */
+    public enum Reason {
+
+        /**
+         * The latency of write request is under the target, the batches are full.
+         */
+        LATENCY_UNDER_TARGET,
+
+        /**
+         * The latency of write request is over the target.
+         */
+        LATENCY_OVER_TARGET,
+
+        /**
+         * The server is throttling the writes (429, 503).
+         */
+        THROTTLED,
+
+        /**
+         * The buffer is filling or empty.
+         */
+        BUFFER_FILL
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.event;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+
+import io.bonitoo.core.event.AbstractInfluxEvent;
+
+/**
+ * The event is published when the batch contained the duplicate points (same series and timestamp)
+ * that were coalesced into the last written value.
+ *
+ * @see io.bonitoo.platform.option.WriteOptions.Builder#coalesceDuplicates(boolean)
+ */
+public final class DuplicatesCoalescedEvent extends AbstractInfluxEvent {
+
+    private static final Logger LOG = Logger.getLogger(DuplicatesCoalescedEvent.class.getName());
+
+    private final String organization;
+    private final String bucket;
+    private final int droppedPoints;
+    private final long totalDroppedPoints;
+
+    public DuplicatesCoalescedEvent(@Nonnull final String organization,
+                                    @Nonnull final String bucket,
+                                    final int droppedPoints,
+                                    final long totalDroppedPoints) {
+
+        this.organization = organization;
+        this.bucket = bucket;
+        this.droppedPoints = droppedPoints;
+        this.totalDroppedPoints = totalDroppedPoints;
+    }
+
+    /**
+     * @return the destination organization name for writes
+     */
+    @Nonnull
+    public String getOrganization() {
+        return organization;
+    }
+
+    /**
+     * @return the destination bucket name for writes
+     */
+    @Nonnull
+    public String getBucket() {
+        return bucket;
+    }
+
+    /**
+     * @return the number of duplicate points dropped from the batch
+     */
+    public int getDroppedPoints() {
+        return droppedPoints;
+    }
+
+    /**
+     * @return the number of duplicate points dropped by the client since the start
+     */
+    public long getTotalDroppedPoints() {
+        return totalDroppedPoints;
+    }
+
+    @Override
+    public void logEvent() {
+
+        if (LOG.isLoggable(Level.FINEST)) {
+            LOG.log(Level.FINEST, "Coalesced {0} duplicate points for bucket: {1}, total: {2}",
+                    new Object[]{droppedPoints, bucket, totalDroppedPoints});
+        }
+    }
+}
@@ -26,11 +26,16 @@ import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import io.bonitoo.core.event.AbstractInfluxEvent;
 
 /**
  * The event is published when arrived the success response from Platform server.
+ * <p>
+ * The event carries the size of payload and the timing of write, so the listeners don't have to retain
+ * the written line protocol. The line protocol is not attached if it is disabled by
+ * {@link io.bonitoo.platform.option.WriteOptions.Builder#attachLineProtocol(boolean)}.
  *
  * @author Jakub Bednar (bednar@github) (25/09/2018 12:26)
  */
@@ -43,12 +48,24 @@ public final class WriteSuccessEvent extends AbstractInfluxEvent {
     private TimeUnit precision;
     private String token;
     private String lineProtocol;
+    private int records;
+    private long bytes;
+    private long compressedBytes;
+    private long queueingDelay;
+    private long latency;
+    private int retries;
 
     public WriteSuccessEvent(@Nonnull final String organization,
                              @Nonnull final String bucket,
                              @Nonnull final TimeUnit precision,
                              @Nonnull final String token,
-                             @Nonnull final String lineProtocol) {
+                             @Nullable final String lineProtocol,
+                             final int records,
+                             final long bytes,
+                             final long compressedBytes,
+                             final long queueingDelay,
+                             final long latency,
+                             final int retries) {
 
 
         this.organization = organization;
@@ -56,6 +73,12 @@ public final class WriteSuccessEvent extends AbstractInfluxEvent {
         this.precision = precision;
         this.token = token;
         this.lineProtocol = lineProtocol;
+        this.records = records;
+        this.bytes = bytes;
+        this.compressedBytes = compressedBytes;
+        this.queueingDelay = queueingDelay;
+        this.latency = latency;
+        this.retries = retries;
     }
 
     /**
@@ -87,15 +110,62 @@ public final class WriteSuccessEvent extends AbstractInfluxEvent {
     }
 
     /**
-     * @return the data for the write
+     * @return the data for the write, {@code null} if the line protocol is not attached to events
      */
+    @Nullable
     public String getLineProtocol() {
         return lineProtocol;
     }
 
+    /**
+     * @return the number of written records
+     */
+    public int getRecords() {
+        return records;
+    }
+
+    /**
+     * @return the size of written line protocol (UTF-8 bytes)
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return the size of sent request body, it is same as {@link #getBytes()} if the body was not compressed
+     */
+    public long getCompressedBytes() {
+        return compressedBytes;
+    }
+
+    /**
+     * @return the time that the oldest record of batch waited to the first write attempt (milliseconds)
+     */
+    public long getQueueingDelay() {
+        return queueingDelay;
+    }
+
+    /**
+     * @return the duration of successful HTTP request (milliseconds)
+     */
+    public long getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return the number of retries before the success
+     */
+    public int getRetries() {
+        return retries;
+    }
+
     @Override
     public void logEvent() {
 
-        LOG.log(Level.FINEST, "Success response from InfluxDB");
+        if (LOG.isLoggable(Level.FINEST)) {
+            LOG.log(Level.FINEST, "Success response from InfluxDB, records: {0}, bytes: {1}, compressed: {2}, "
+                            + "queueing delay: {3} ms, latency: {4} ms, retries: {5}",
+                    new Object[]{records, bytes, compressedBytes, queueingDelay, latency, retries});
+        }
     }
-}
\ No newline at end of file
+}
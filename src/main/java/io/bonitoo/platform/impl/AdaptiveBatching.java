@@ -0,0 +1,160 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.impl;
+
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import io.bonitoo.platform.event.BatchingAdjustedEvent;
+import io.bonitoo.platform.option.AdaptiveBatchingOptions;
+
+/**
+ * The AIMD controller of the batch size and the flush interval.
+ *
+ * @see AdaptiveBatchingOptions
+ */
+@ThreadSafe
+final class AdaptiveBatching {
+
+    /**
+     * The buffer is considered as empty under this ratio.
+     */
+    private static final double LOW_WATERMARK = 0.1;
+
+    /**
+     * The buffer is considered as filling over this ratio.
+     */
+    private static final double HIGH_WATERMARK = 0.5;
+
+    private final AdaptiveBatchingOptions options;
+
+    private volatile int batchSize;
+    private volatile int flushInterval;
+
+    AdaptiveBatching(@Nonnull final AdaptiveBatchingOptions options,
+                     final int batchSize,
+                     final int flushInterval) {
+
+        Objects.requireNonNull(options, "AdaptiveBatchingOptions are required");
+
+        this.options = options;
+        this.batchSize = clamp(batchSize, options.getMinBatchSize(), options.getMaxBatchSize());
+        this.flushInterval = clamp(flushInterval, options.getMinFlushInterval(), options.getMaxFlushInterval());
+    }
+
+    /**
+     * @return the current batch size
+     */
+    int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @return the current flush interval (milliseconds)
+     */
+    int getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * Adjust the batching by the successful write.
+     *
+     * @param latency    the latency of write request (milliseconds)
+     * @param records    the number of records in the batch
+     * @param bufferFill the ratio of the buffer fill level [0, 1]
+     * @return the event if the batching was changed
+     */
+    @Nullable
+    synchronized BatchingAdjustedEvent onSuccess(final long latency, final int records, final double bufferFill) {
+
+        int newBatchSize = batchSize;
+        int newFlushInterval = flushInterval;
+        BatchingAdjustedEvent.Reason reason;
+
+        if (latency > options.getTargetLatency()) {
+
+            newBatchSize = decrease(batchSize);
+            reason = BatchingAdjustedEvent.Reason.LATENCY_OVER_TARGET;
+
+        } else if (records >= batchSize) {
+
+            newBatchSize = batchSize + options.getBatchSizeIncrease();
+            reason = BatchingAdjustedEvent.Reason.LATENCY_UNDER_TARGET;
+
+        } else {
+
+            reason = BatchingAdjustedEvent.Reason.BUFFER_FILL;
+        }
+
+        //
+        // Peak => collect more data, off-peak => lower latency
+        //
+        if (bufferFill >= HIGH_WATERMARK) {
+            newFlushInterval = flushInterval + options.getMinFlushInterval();
+        } else if (bufferFill <= LOW_WATERMARK) {
+            newFlushInterval = decrease(flushInterval);
+        }
+
+        return adjust(newBatchSize, newFlushInterval, reason);
+    }
+
+    /**
+     * Adjust the batching by the throttled write (429, 503).
+     *
+     * @return the event if the batching was changed
+     */
+    @Nullable
+    synchronized BatchingAdjustedEvent onThrottle() {
+
+        return adjust(decrease(batchSize), flushInterval * 2, BatchingAdjustedEvent.Reason.THROTTLED);
+    }
+
+    @Nullable
+    private BatchingAdjustedEvent adjust(final int newBatchSize,
+                                         final int newFlushInterval,
+                                         @Nonnull final BatchingAdjustedEvent.Reason reason) {
+
+        int clampedBatchSize = clamp(newBatchSize, options.getMinBatchSize(), options.getMaxBatchSize());
+        int clampedFlushInterval = clamp(newFlushInterval, options.getMinFlushInterval(),
+                options.getMaxFlushInterval());
+
+        if (clampedBatchSize == batchSize && clampedFlushInterval == flushInterval) {
+            return null;
+        }
+
+        batchSize = clampedBatchSize;
+        flushInterval = clampedFlushInterval;
+
+        return new BatchingAdjustedEvent(batchSize, flushInterval, reason);
+    }
+
+    private int decrease(final int value) {
+        return (int) (value * options.getDecreaseFactor());
+    }
+
+    private int clamp(final int value, final int min, final int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.impl;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * The consistent hash ring with virtual nodes. The points of ring are stored in the sorted primitive array
+ * and the node of key is found by binary search.
+ * <p>
+ * The position of node on the ring depends only on the node name, so adding or removing a node moves
+ * only the keys of neighbouring points.
+ */
+@ThreadSafe
+final class ConsistentHashRing {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final long MIX_MULTIPLIER_1 = 0xff51afd7ed558ccdL;
+    private static final long MIX_MULTIPLIER_2 = 0xc4ceb9fe1a85ec53L;
+    private static final int MIX_SHIFT = 33;
+
+    private final long[] points;
+    private final int[] nodes;
+
+    /**
+     * @param names        the names of nodes, the index of name is the node
+     * @param virtualNodes the number of points for each node
+     */
+    ConsistentHashRing(@Nonnull final List<String> names, final int virtualNodes) {
+
+        Objects.requireNonNull(names, "Node names are required");
+
+        TreeMap<Long, Integer> ring = new TreeMap<>();
+        for (int node = 0; node < names.size(); node++) {
+            for (int replica = 0; replica < virtualNodes; replica++) {
+                String point = names.get(node) + "#" + replica;
+                ring.put(hash(point, 0, point.length()), node);
+            }
+        }
+
+        this.points = new long[ring.size()];
+        this.nodes = new int[ring.size()];
+
+        int index = 0;
+        for (Map.Entry<Long, Integer> entry : ring.entrySet()) {
+            points[index] = entry.getKey();
+            nodes[index] = entry.getValue();
+            index++;
+        }
+    }
+
+    /**
+     * Find the node for the hash. If the node is not available then is used the next node on the ring.
+     *
+     * @param hash      the hash of key
+     * @param available the predicate for node availability
+     * @return the first available node clockwise from hash or the owner of hash if no node is available
+     */
+    int node(final long hash, @Nonnull final IntPredicate available) {
+
+        int index = Arrays.binarySearch(points, hash);
+        if (index < 0) {
+            index = -index - 1;
+        }
+
+        for (int i = 0; i < points.length; i++) {
+            int node = nodes[(index + i) % points.length];
+            if (available.test(node)) {
+                return node;
+            }
+        }
+
+        return nodes[index % points.length];
+    }
+
+    /**
+     * FNV-1a hash of characters followed by the 64-bit finalizer of MurmurHash3.
+     *
+     * @param value the hashed characters
+     * @param start the start index, inclusive
+     * @param end   the end index, exclusive
+     * @return the hash
+     */
+    static long hash(@Nonnull final CharSequence value, final int start, final int end) {
+
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = start; i < end; i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_MULTIPLIER_1;
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_MULTIPLIER_2;
+        hash ^= hash >>> MIX_SHIFT;
+
+        return hash;
+    }
+}
@@ -0,0 +1,588 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.impl;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import io.bonitoo.platform.option.DiskBufferOptions;
+
+import io.reactivex.BackpressureOverflowStrategy;
+
+/**
+ * The persistent FIFO queue of records stored in the memory-mapped segment files.
+ * <p>
+ * The record layout is: {@code [int length][int crc32][byte status][payload]}. The segment files are preallocated
+ * so the zero length marks the end of data. The consumed records are marked by the status byte
+ * and the fully consumed segments are deleted. On startup are the segments scanned and the records
+ * with the invalid CRC are considered as the torn tail of the segment.
+ * <p>
+ * The records are delivered at least once - the consumed mark is not forced to the storage device.
+ */
+@ThreadSafe
+final class DiskBuffer implements Closeable {
+
+    private static final Logger LOG = Logger.getLogger(DiskBuffer.class.getName());
+
+    static final int HEADER_SIZE = 9;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+
+    private static final byte STATUS_VALID = 1;
+    private static final byte STATUS_CONSUMED = 2;
+
+    private final DiskBufferOptions options;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+
+    private long nextSegmentId;
+    private long pendingRecords;
+    private long droppedRecords;
+    private boolean closed;
+
+    DiskBuffer(@Nonnull final DiskBufferOptions options) {
+
+        Objects.requireNonNull(options, "DiskBufferOptions are required");
+
+        this.options = options;
+
+        try {
+            Files.createDirectories(options.getDirectory());
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open disk buffer: " + options.getDirectory(), e);
+        }
+    }
+
+    /**
+     * Append the record to the end of queue.
+     *
+     * @param payload the record data
+     * @return {@code false} if the record was rejected by the eviction policy
+     */
+    synchronized boolean append(@Nonnull final byte[] payload) {
+
+        Objects.requireNonNull(payload, "Payload is required");
+        checkNotClosed();
+
+        int recordSize = HEADER_SIZE + payload.length;
+
+        try {
+            Segment tail = segments.peekLast();
+            if (tail == null || !tail.hasCapacity(recordSize)) {
+                if (!roll(recordSize)) {
+                    return false;
+                }
+                tail = segments.getLast();
+            }
+
+            tail.append(payload);
+            pendingRecords++;
+
+            if (options.getFsyncPolicy() == DiskBufferOptions.FsyncPolicy.EVERY_RECORD) {
+                tail.force();
+            }
+
+            return true;
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Read the oldest records without removing them from the queue.
+     *
+     * @param count maximum number of records
+     * @return the oldest records
+     */
+    @Nonnull
+    synchronized List<Record> peek(final int count) {
+
+        checkNotClosed();
+
+        List<Record> records = new ArrayList<>();
+        try {
+            for (Segment segment : segments) {
+                int position = segment.readPosition;
+                while (records.size() < count && position < segment.writePosition) {
+
+                    Record record = segment.read(position);
+                    if (record.status == STATUS_VALID) {
+                        records.add(record);
+                    }
+                    position += HEADER_SIZE + record.length;
+                }
+
+                if (records.size() >= count) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return records;
+    }
+
+    /**
+     * Remove the records from the queue. The records that was already evicted are skipped.
+     * The records removed after close are kept and replayed after the next start.
+     *
+     * @param records to remove
+     */
+    synchronized void remove(@Nonnull final List<Record> records) {
+
+        Objects.requireNonNull(records, "Records are required");
+
+        //
+        // The replay finished after close of client
+        //
+        if (closed) {
+            return;
+        }
+
+        try {
+            for (Record record : records) {
+                Segment segment = findSegment(record.segmentId);
+                if (segment == null || !segment.consume(record.position)) {
+                    continue;
+                }
+                pendingRecords--;
+            }
+
+            //
+            // Delete fully consumed segments, keep the tail for appending
+            //
+            while (segments.size() > 1 && segments.getFirst().isConsumed()) {
+                segments.removeFirst().delete();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return {@code true} if there is no record to replay
+     */
+    synchronized boolean isEmpty() {
+        return pendingRecords == 0;
+    }
+
+    /**
+     * @return the number of records to replay
+     */
+    synchronized long getPendingRecords() {
+        return pendingRecords;
+    }
+
+    /**
+     * @return the number of records that was discarded by the eviction policy
+     */
+    synchronized long getDroppedRecords() {
+        return droppedRecords;
+    }
+
+    /**
+     * @return the size of all segment files (bytes)
+     */
+    synchronized long getSize() {
+        return segments.stream().mapToLong(segment -> segment.capacity).sum();
+    }
+
+    @Override
+    public synchronized void close() {
+
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        if (options.getFsyncPolicy() != DiskBufferOptions.FsyncPolicy.NEVER && !segments.isEmpty()) {
+            try {
+                segments.getLast().force();
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, "Unable to force the disk buffer segment", e);
+            }
+        }
+
+        segments.forEach(Segment::release);
+        segments.clear();
+    }
+
+    private boolean roll(final int recordSize) throws IOException {
+
+        int capacity = Math.max(options.getSegmentSize(), recordSize + Integer.BYTES);
+
+        //
+        // Apply eviction policy
+        //
+        while (getSize() + capacity > options.getMaxSize()) {
+
+            BackpressureOverflowStrategy policy = options.getEvictionPolicy();
+            Segment head = segments.peekFirst();
+
+            if (policy != BackpressureOverflowStrategy.DROP_OLDEST || head == null) {
+
+                droppedRecords++;
+                LOG.log(Level.WARNING, "The disk buffer is full, the record is discarded. Policy: {0}", policy);
+
+                return false;
+            }
+
+            long dropped = head.countValid();
+            droppedRecords += dropped;
+            pendingRecords -= dropped;
+
+            LOG.log(Level.WARNING, "The disk buffer is full, discarded the oldest segment with {0} records.", dropped);
+
+            segments.removeFirst().delete();
+        }
+
+        Segment tail = segments.peekLast();
+        if (tail != null) {
+            if (options.getFsyncPolicy() != DiskBufferOptions.FsyncPolicy.NEVER) {
+                tail.force();
+            }
+            if (segments.size() > 1) {
+                tail.release();
+            }
+        }
+
+        Path path = options.getDirectory().resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSegmentId,
+                SEGMENT_SUFFIX));
+
+        segments.addLast(new Segment(nextSegmentId++, path, capacity, true));
+
+        return true;
+    }
+
+    private void recover() throws IOException {
+
+        File[] files = options.getDirectory().toFile()
+                .listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+
+        if (files == null) {
+            return;
+        }
+
+        Arrays.sort(files);
+
+        for (File file : files) {
+
+            String name = file.getName();
+            long segmentId = Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                    name.length() - SEGMENT_SUFFIX.length()));
+
+            Segment segment = new Segment(segmentId, file.toPath(), (int) file.length(), false);
+            segment.scan();
+
+            if (segment.isConsumed()) {
+                segment.delete();
+                continue;
+            }
+
+            pendingRecords += segment.countValid();
+            nextSegmentId = segmentId + 1;
+            segments.addLast(segment);
+        }
+
+        //
+        // Release all segments except head and tail
+        //
+        int index = 0;
+        for (Segment segment : segments) {
+            if (index != 0 && index != segments.size() - 1) {
+                segment.release();
+            }
+            index++;
+        }
+
+        if (pendingRecords > 0) {
+            LOG.log(Level.INFO, "Recovered {0} records from disk buffer: {1}",
+                    new Object[]{pendingRecords, options.getDirectory()});
+        }
+    }
+
+    @Nullable
+    private Segment findSegment(final long segmentId) {
+
+        for (Segment segment : segments) {
+            if (segment.id == segmentId) {
+                return segment;
+            }
+        }
+
+        return null;
+    }
+
+    private void checkNotClosed() {
+        if (closed) {
+            throw new IllegalStateException("The disk buffer is closed.");
+        }
+    }
+
+    /**
+     * The record stored in the disk buffer.
+     */
+    static final class Record {
+
+        private final long segmentId;
+        private final int position;
+        private final int length;
+        private final byte status;
+        private final byte[] payload;
+
+        private Record(final long segmentId,
+                       final int position,
+                       final int length,
+                       final byte status,
+                       @Nullable final byte[] payload) {
+            this.segmentId = segmentId;
+            this.position = position;
+            this.length = length;
+            this.status = status;
+            this.payload = payload;
+        }
+
+        /**
+         * @return the record data
+         */
+        @Nonnull
+        byte[] getPayload() {
+            return payload;
+        }
+    }
+
+    /**
+     * The memory-mapped segment file.
+     */
+    private static final class Segment {
+
+        private final long id;
+        private final Path path;
+        private final int capacity;
+
+        private MappedByteBuffer buffer;
+        private int readPosition;
+        private int writePosition;
+
+        private Segment(final long id,
+                        @Nonnull final Path path,
+                        final int capacity,
+                        final boolean create) throws IOException {
+            this.id = id;
+            this.path = path;
+            this.capacity = capacity;
+
+            if (create) {
+                map();
+            }
+        }
+
+        private boolean hasCapacity(final int recordSize) {
+            // keep space for the end of data marker
+            return writePosition + recordSize + Integer.BYTES <= capacity;
+        }
+
+        private void append(@Nonnull final byte[] payload) throws IOException {
+
+            CRC32 crc = new CRC32();
+            crc.update(payload, 0, payload.length);
+
+            MappedByteBuffer mapped = map();
+            mapped.position(writePosition + Integer.BYTES);
+            mapped.putInt((int) crc.getValue());
+            mapped.put(STATUS_VALID);
+            mapped.put(payload);
+            // the length is the last => the record is visible after its data are written
+            mapped.putInt(writePosition, payload.length);
+
+            writePosition += HEADER_SIZE + payload.length;
+        }
+
+        @Nonnull
+        private Record read(final int position) throws IOException {
+
+            MappedByteBuffer mapped = map();
+
+            int length = mapped.getInt(position);
+            byte status = mapped.get(position + Integer.BYTES * 2);
+
+            byte[] payload = null;
+            if (status == STATUS_VALID) {
+                payload = new byte[length];
+                mapped.position(position + HEADER_SIZE);
+                mapped.get(payload);
+            }
+
+            return new Record(id, position, length, status, payload);
+        }
+
+        private boolean consume(final int position) throws IOException {
+
+            MappedByteBuffer mapped = map();
+
+            int statusPosition = position + Integer.BYTES * 2;
+            if (mapped.get(statusPosition) != STATUS_VALID) {
+                return false;
+            }
+
+            mapped.put(statusPosition, STATUS_CONSUMED);
+
+            //
+            // Move read position behind consumed records
+            //
+            while (readPosition < writePosition && mapped.get(readPosition + Integer.BYTES * 2) == STATUS_CONSUMED) {
+                readPosition += HEADER_SIZE + mapped.getInt(readPosition);
+            }
+
+            return true;
+        }
+
+        /**
+         * Find the end of valid data and the first not consumed record.
+         */
+        private void scan() throws IOException {
+
+            MappedByteBuffer mapped = map();
+
+            boolean firstValid = true;
+            int position = 0;
+            while (position + HEADER_SIZE <= capacity) {
+
+                int length = mapped.getInt(position);
+                if (length <= 0 || position + HEADER_SIZE + length > capacity) {
+                    break;
+                }
+
+                int storedCrc = mapped.getInt(position + Integer.BYTES);
+                byte status = mapped.get(position + Integer.BYTES * 2);
+
+                byte[] payload = new byte[length];
+                mapped.position(position + HEADER_SIZE);
+                mapped.get(payload);
+
+                CRC32 crc = new CRC32();
+                crc.update(payload, 0, length);
+
+                if ((int) crc.getValue() != storedCrc || (status != STATUS_VALID && status != STATUS_CONSUMED)) {
+                    LOG.log(Level.WARNING, "Found corrupted record in {0} at position {1}, the rest is skipped.",
+                            new Object[]{path, position});
+                    break;
+                }
+
+                if (status == STATUS_VALID && firstValid) {
+                    readPosition = position;
+                    firstValid = false;
+                }
+
+                position += HEADER_SIZE + length;
+            }
+
+            writePosition = position;
+            if (firstValid) {
+                readPosition = position;
+            }
+        }
+
+        private long countValid() throws IOException {
+
+            MappedByteBuffer mapped = map();
+
+            long count = 0;
+            int position = readPosition;
+            while (position < writePosition) {
+                if (mapped.get(position + Integer.BYTES * 2) == STATUS_VALID) {
+                    count++;
+                }
+                position += HEADER_SIZE + mapped.getInt(position);
+            }
+
+            return count;
+        }
+
+        private boolean isConsumed() {
+            return readPosition >= writePosition;
+        }
+
+        @Nonnull
+        private MappedByteBuffer map() throws IOException {
+
+            if (buffer == null) {
+
+                //
+                // The records contain the write tokens => readable only by owner
+                //
+                FileAttribute<?>[] attributes = new FileAttribute<?>[0];
+                if (path.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+                    attributes = new FileAttribute<?>[]{
+                            PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------"))};
+                }
+
+                try (FileChannel channel = FileChannel.open(path, EnumSet.of(StandardOpenOption.CREATE,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE), attributes)) {
+
+                    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+                }
+            }
+
+            return buffer;
+        }
+
+        private void force() throws IOException {
+            map().force();
+        }
+
+        private void release() {
+            buffer = null;
+        }
+
+        private void delete() throws IOException {
+            release();
+            Files.deleteIfExists(path);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.impl;
+
+import javax.annotation.Nonnull;
+
+/**
+ * The parsing utilities for records in InfluxDB Line Protocol. The utilities work over indexes of record
+ * to avoid allocation of substrings.
+ */
+final class LineProtocol {
+
+    private static final char ESCAPE = '\\';
+    private static final char SPACE = ' ';
+    private static final char QUOTE = '"';
+    private static final char COMMA = ',';
+    private static final char EQUALS = '=';
+
+    private LineProtocol() {
+    }
+
+    /**
+     * Find the end of series key - the measurement and tag set. The escaped spaces are part of the series key.
+     *
+     * @param record the record in InfluxDB Line Protocol
+     * @return the index of first unescaped space or length of record if the record has not fields
+     */
+    static int seriesKeyEnd(@Nonnull final String record) {
+
+        int length = record.length();
+        for (int i = 0; i < length; i++) {
+
+            char c = record.charAt(i);
+            if (c == ESCAPE) {
+                i++;
+            } else if (c == SPACE) {
+                return i;
+            }
+        }
+
+        return length;
+    }
+
+    /**
+     * Compare the records by series key - the measurement and tag set.
+     *
+     * @param record1 the first record in InfluxDB Line Protocol
+     * @param record2 the second record in InfluxDB Line Protocol
+     * @return the value {@code 0} if the records have the same series key, a value less than {@code 0}
+     * if the series key of {@code record1} is lexicographically less than the series key of {@code record2}
+     * and a value greater than {@code 0} otherwise
+     */
+    static int compareSeriesKeys(@Nonnull final String record1, @Nonnull final String record2) {
+
+        int end1 = seriesKeyEnd(record1);
+        int end2 = seriesKeyEnd(record2);
+
+        int length = Math.min(end1, end2);
+        for (int i = 0; i < length; i++) {
+            int diff = record1.charAt(i) - record2.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+
+        return end1 - end2;
+    }
+
+    /**
+     * Find the start of timestamp. The spaces in escaped or quoted field values are part of the field set.
+     *
+     * @param record        the record in InfluxDB Line Protocol
+     * @param seriesKeyEnd  the end of series key, see {@link #seriesKeyEnd(String)}
+     * @return the index of timestamp or {@code -1} if the record has not timestamp
+     */
+    static int timestampStart(@Nonnull final String record, final int seriesKeyEnd) {
+
+        boolean quoted = false;
+
+        int length = record.length();
+        for (int i = seriesKeyEnd + 1; i < length; i++) {
+
+            char c = record.charAt(i);
+            if (c == ESCAPE) {
+                i++;
+            } else if (c == QUOTE) {
+                quoted = !quoted;
+            } else if (c == SPACE && !quoted) {
+                return i + 1 < length ? i + 1 : -1;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Find the end of measurement.
+     *
+     * @param record the record in InfluxDB Line Protocol
+     * @return the index of first unescaped comma or space, length of record if the record has only measurement
+     */
+    static int measurementEnd(@Nonnull final String record) {
+
+        int length = record.length();
+        for (int i = 0; i < length; i++) {
+
+            char c = record.charAt(i);
+            if (c == ESCAPE) {
+                i++;
+            } else if (c == COMMA || c == SPACE) {
+                return i;
+            }
+        }
+
+        return length;
+    }
+
+    /**
+     * Find the end of field key or field value. The field value ends by unescaped and unquoted comma.
+     *
+     * @param record the record in InfluxDB Line Protocol
+     * @param start  the start of field key or value
+     * @param end    the end of field set
+     * @param key    {@code true} if the start is the start of field key
+     * @return the index of separator or the {@code end}
+     */
+    static int fieldPartEnd(@Nonnull final String record, final int start, final int end, final boolean key) {
+
+        boolean quoted = false;
+
+        for (int i = start; i < end; i++) {
+
+            char c = record.charAt(i);
+            if (c == ESCAPE) {
+                i++;
+            } else if (key && c == EQUALS) {
+                return i;
+            } else if (!key && c == QUOTE) {
+                quoted = !quoted;
+            } else if (!quoted && c == COMMA) {
+                return i;
+            }
+        }
+
+        return end;
+    }
+}
@@ -23,6 +23,8 @@
 package io.bonitoo.platform.impl;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.regex.Pattern;
 import javax.annotation.Nonnull;
@@ -30,6 +32,11 @@ import javax.annotation.Nullable;
 
 import io.bonitoo.AbstractRestClient;
 import io.bonitoo.core.GzipRequestInterceptor;
+import io.bonitoo.core.OverloadProtectionInterceptor;
+import io.bonitoo.core.Preconditions;
+import io.bonitoo.core.RateLimiter;
+import io.bonitoo.core.metrics.MetricsInterceptor;
+import io.bonitoo.core.metrics.MetricsRegistry;
 import io.bonitoo.platform.AuthorizationClient;
 import io.bonitoo.platform.BucketClient;
 import io.bonitoo.platform.OrganizationClient;
@@ -63,20 +70,51 @@ public final class PlatformClientImpl extends AbstractRestClient implements Plat
 
     private final Moshi moshi;
     private final PlatformService platformService;
+    private final OkHttpClient okHttpClient;
+    private final boolean sharedRuntime;
 
     private final HttpLoggingInterceptor loggingInterceptor;
     private final GzipRequestInterceptor gzipRequestInterceptor;
+    private final OverloadProtectionInterceptor overloadInterceptor;
+    private final RateLimiter rateLimiter;
+    private final MetricsRegistry metrics;
 
 
     public PlatformClientImpl(@Nonnull final PlatformOptions options) {
         Objects.requireNonNull(options, "PlatformOptions are required");
 
+        this.rateLimiter = options.getRateLimiter();
+        this.metrics = options.getMetrics();
         this.loggingInterceptor = new HttpLoggingInterceptor();
         this.loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.NONE);
 
         this.gzipRequestInterceptor = new GzipRequestInterceptor(WRITE_END_POINT);
+        this.gzipRequestInterceptor.setCodec(options.getCompressionCodec());
+        this.gzipRequestInterceptor.setThreshold(options.getCompressionThreshold());
 
-        OkHttpClient okHttpClient = options.getOkHttpClient()
+        this.sharedRuntime = options.getRuntime() != null;
+
+        OkHttpClient.Builder okHttpBuilder = options.getRuntime() != null
+                ? options.getRuntime().newClientBuilder()
+                : options.getOkHttpClient();
+
+        if (options.getProtocol() != null) {
+            options.getProtocol().configure(okHttpBuilder);
+        }
+
+        if (options.getCircuitBreaker() != null || options.getConcurrencyLimit() != null) {
+            this.overloadInterceptor = new OverloadProtectionInterceptor(options.getCircuitBreaker(),
+                    options.getConcurrencyLimit());
+            okHttpBuilder.addInterceptor(overloadInterceptor);
+        } else {
+            this.overloadInterceptor = null;
+        }
+
+        if (metrics != null) {
+            okHttpBuilder.addInterceptor(new MetricsInterceptor(metrics, "platform"));
+        }
+
+        this.okHttpClient = okHttpBuilder
                 .addInterceptor(loggingInterceptor)
                 .addInterceptor(gzipRequestInterceptor)
                 .build();
@@ -142,7 +180,18 @@ public final class PlatformClientImpl extends AbstractRestClient implements Plat
 
         Objects.requireNonNull(writeOptions, "WriteOptions are required");
 
-        return new WriteClientImpl(writeOptions, platformService, gzipRequestInterceptor);
+        WriteClientImpl writeClient = new WriteClientImpl(writeOptions, platformService, gzipRequestInterceptor);
+        if (overloadInterceptor != null) {
+            writeClient.listenOverloadEvents(overloadInterceptor);
+        }
+        if (rateLimiter != null) {
+            writeClient.rateLimiter(rateLimiter);
+        }
+        if (metrics != null) {
+            writeClient.metrics(metrics);
+        }
+
+        return writeClient;
     }
 
     @Nonnull
@@ -156,6 +205,20 @@ public final class PlatformClientImpl extends AbstractRestClient implements Plat
         return execute(health);
     }
 
+    @Nonnull
+    @Override
+    public Boolean warmUp(final int connections) {
+
+        Preconditions.checkPositiveNumber(connections, "connections");
+
+        List<Call<Health>> calls = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            calls.add(platformService.health());
+        }
+
+        return warmUp(calls, okHttpClient);
+    }
+
     @Nonnull
     @Override
     public HttpLoggingInterceptor.Level getLogLevel() {
@@ -173,6 +236,20 @@ public final class PlatformClientImpl extends AbstractRestClient implements Plat
         return this;
     }
 
+    /**
+     * Shutdown the dispatcher threads and close the pooled connections of HTTP client.
+     * The resources of shared {@link io.bonitoo.core.ClientRuntime} are released by the runtime.
+     */
+    void release() {
+
+        if (sharedRuntime) {
+            return;
+        }
+
+        okHttpClient.dispatcher().executorService().shutdown();
+        okHttpClient.connectionPool().evictAll();
+    }
+
     private final class TaskAdapter {
 
         /**
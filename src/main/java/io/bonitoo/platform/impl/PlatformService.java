@@ -232,5 +232,6 @@ interface PlatformService {
                             @Query("bucket") final String bucket,
                             @Query("precision") final String precision,
                             @Header("Authorization") final String token,
+                            @Header("Content-Encoding") final String contentEncoding,
                             @Body final RequestBody points);
 }
\ No newline at end of file
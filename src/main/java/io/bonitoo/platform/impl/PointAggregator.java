@@ -0,0 +1,485 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import io.bonitoo.platform.option.AggregationOptions;
+import io.bonitoo.platform.option.AggregationOptions.Aggregate;
+
+/**
+ * The running aggregates of points per series and time window. The aggregated series are indexed
+ * by the {@link PointIndex} and the aggregates of fields are stored in the primitive arrays,
+ * so the aggregation of point allocates only for the parsing of field values.
+ *
+ * @param <D> the type of destination of points (bucket, organization, ...)
+ */
+@NotThreadSafe
+final class PointAggregator<D> {
+
+    private static final long HASH_MULTIPLIER = 31;
+
+    private static final byte FLOAT = 0;
+    private static final byte INTEGER = 1;
+    private static final byte UNSIGNED = 2;
+    private static final byte OTHER = 3;
+
+    private static final int INITIAL_FIELDS = 4;
+
+    private final AggregationOptions options;
+    private final PointIndex index = new PointIndex();
+    private final List<Series<D>> series = new ArrayList<>();
+
+    PointAggregator(@Nonnull final AggregationOptions options) {
+
+        Objects.requireNonNull(options, "AggregationOptions are required");
+
+        this.options = options;
+    }
+
+    /**
+     * Aggregate the point.
+     *
+     * @param destination the destination of point
+     * @param precision   the precision of point timestamp
+     * @param record      the point in InfluxDB Line Protocol
+     * @param now         the current time (milliseconds)
+     * @return {@code false} if the point is not aggregated - the measurement is not configured
+     * or the point is not parsable
+     */
+    boolean add(@Nonnull final D destination,
+                @Nonnull final TimeUnit precision,
+                @Nonnull final String record,
+                final long now) {
+
+        if (!isAggregated(record)) {
+            return false;
+        }
+
+        int seriesKeyEnd = LineProtocol.seriesKeyEnd(record);
+        if (seriesKeyEnd == record.length()) {
+            return false;
+        }
+
+        int timestampStart = LineProtocol.timestampStart(record, seriesKeyEnd);
+        int fieldsEnd = timestampStart == -1 ? record.length() : timestampStart - 1;
+
+        //
+        // The malformed point is passed to the server which reports the error
+        //
+        if (!isParsable(record, seriesKeyEnd + 1, fieldsEnd)) {
+            return false;
+        }
+
+        long timestamp;
+        try {
+            timestamp = timestampStart == -1
+                    ? precision.convert(now, TimeUnit.MILLISECONDS)
+                    : Long.parseLong(record.substring(timestampStart).trim());
+        } catch (NumberFormatException e) {
+            return false;
+        }
+
+        long windowLength = Math.max(1, precision.convert(options.getWindow(), TimeUnit.MILLISECONDS));
+        long windowStart = Math.floorDiv(timestamp, windowLength) * windowLength;
+
+        long hash = (ConsistentHashRing.hash(record, 0, seriesKeyEnd) * HASH_MULTIPLIER + windowStart)
+                * HASH_MULTIPLIER + destination.hashCode();
+
+        int position = index.get(hash, candidate -> series.get(candidate)
+                .isSame(destination, record, seriesKeyEnd, windowStart));
+
+        Series<D> aggregated;
+        if (position == -1) {
+            aggregated = new Series<>(destination, record.substring(0, seriesKeyEnd), hash, windowStart,
+                    TimeUnit.MILLISECONDS.convert(windowStart + windowLength, precision));
+
+            index.put(hash, series.size());
+            series.add(aggregated);
+        } else {
+            aggregated = series.get(position);
+        }
+
+        //
+        // Aggregate fields
+        //
+        int keyStart = seriesKeyEnd + 1;
+        while (keyStart < fieldsEnd) {
+
+            int keyEnd = LineProtocol.fieldPartEnd(record, keyStart, fieldsEnd, true);
+            int valueEnd = LineProtocol.fieldPartEnd(record, keyEnd + 1, fieldsEnd, false);
+
+            aggregated.add(record, keyStart, keyEnd, valueEnd);
+
+            keyStart = valueEnd + 1;
+        }
+
+        return true;
+    }
+
+    /**
+     * @return {@code true} if the fields are not empty and each field has the key and the value
+     */
+    private boolean isParsable(@Nonnull final String record, final int fieldsStart, final int fieldsEnd) {
+
+        if (fieldsStart >= fieldsEnd) {
+            return false;
+        }
+
+        int keyStart = fieldsStart;
+        while (keyStart < fieldsEnd) {
+
+            int keyEnd = LineProtocol.fieldPartEnd(record, keyStart, fieldsEnd, true);
+            if (keyEnd == keyStart || keyEnd == fieldsEnd || record.charAt(keyEnd) != '=') {
+                return false;
+            }
+
+            int valueEnd = LineProtocol.fieldPartEnd(record, keyEnd + 1, fieldsEnd, false);
+            if (valueEnd == keyEnd + 1 || valueEnd == fieldsEnd - 1) {
+                return false;
+            }
+
+            keyStart = valueEnd + 1;
+        }
+
+        return true;
+    }
+
+    /**
+     * Emit the aggregated points of closed windows. The window is closed when the current time
+     * passes the end of window and the grace period.
+     *
+     * @param now      the current time (milliseconds)
+     * @param all      {@code true} for emit also the aggregates of open windows
+     * @param consumer the consumer of aggregated points
+     */
+    void emit(final long now, final boolean all, @Nonnull final BiConsumer<D, String> consumer) {
+
+        if (series.isEmpty()) {
+            return;
+        }
+
+        boolean emitted = false;
+
+        Iterator<Series<D>> iterator = series.iterator();
+        while (iterator.hasNext()) {
+            Series<D> aggregated = iterator.next();
+            if (all || aggregated.windowEnd + options.getGracePeriod() <= now) {
+
+                String lineProtocol = aggregated.toLineProtocol(options.getAggregates());
+                if (lineProtocol != null) {
+                    consumer.accept(aggregated.destination, lineProtocol);
+                }
+
+                iterator.remove();
+                emitted = true;
+            }
+        }
+
+        //
+        // The positions of open windows are changed
+        //
+        if (emitted) {
+            index.clear();
+            for (int position = 0; position < series.size(); position++) {
+                index.put(series.get(position).hash, position);
+            }
+        }
+    }
+
+    /**
+     * @return the number of aggregated series
+     */
+    int size() {
+        return series.size();
+    }
+
+    private boolean isAggregated(@Nonnull final String record) {
+
+        int measurementEnd = LineProtocol.measurementEnd(record);
+        for (String measurement : options.getMeasurements()) {
+            if (measurement.length() == measurementEnd && record.startsWith(measurement)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * The aggregates of series in the window.
+     */
+    private static final class Series<D> {
+
+        private final D destination;
+        private final String seriesKey;
+        private final long hash;
+        private final long windowStart;
+        private final long windowEnd;
+
+        private final List<String> fields = new ArrayList<>(INITIAL_FIELDS);
+        private byte[] types = new byte[INITIAL_FIELDS];
+        private double[] min = new double[INITIAL_FIELDS];
+        private double[] max = new double[INITIAL_FIELDS];
+        private double[] sum = new double[INITIAL_FIELDS];
+
+        //
+        // The integers are aggregated without the precision loss of double
+        //
+        private long[] integerMin = new long[INITIAL_FIELDS];
+        private long[] integerMax = new long[INITIAL_FIELDS];
+        private long[] integerSum = new long[INITIAL_FIELDS];
+        private long[] count = new long[INITIAL_FIELDS];
+        private String[] last = new String[INITIAL_FIELDS];
+
+        private Series(@Nonnull final D destination,
+                       @Nonnull final String seriesKey,
+                       final long hash,
+                       final long windowStart,
+                       final long windowEnd) {
+
+            this.destination = destination;
+            this.seriesKey = seriesKey;
+            this.hash = hash;
+            this.windowStart = windowStart;
+            this.windowEnd = windowEnd;
+        }
+
+        private boolean isSame(@Nonnull final D destination,
+                               @Nonnull final String record,
+                               final int seriesKeyEnd,
+                               final long windowStart) {
+
+            return this.windowStart == windowStart
+                    && seriesKey.length() == seriesKeyEnd
+                    && record.startsWith(seriesKey)
+                    && this.destination.equals(destination);
+        }
+
+        private void add(@Nonnull final String record, final int keyStart, final int keyEnd, final int valueEnd) {
+
+            int field = field(record, keyStart, keyEnd);
+
+            String value = record.substring(keyEnd + 1, valueEnd);
+            last[field] = value;
+
+            if (count[field] == 0) {
+                types[field] = type(value);
+            }
+
+            try {
+                switch (types[field]) {
+                    case FLOAT:
+                        addFloat(field, Double.parseDouble(value));
+                        break;
+                    case INTEGER:
+                        addInteger(field, Long.parseLong(value.substring(0, value.length() - 1)));
+                        break;
+                    case UNSIGNED:
+                        addUnsigned(field, Long.parseUnsignedLong(value.substring(0, value.length() - 1)));
+                        break;
+                    default:
+                        break;
+                }
+            } catch (NumberFormatException e) {
+                types[field] = OTHER;
+            }
+
+            count[field]++;
+        }
+
+        private void addFloat(final int field, final double number) {
+
+            min[field] = count[field] == 0 ? number : Math.min(min[field], number);
+            max[field] = count[field] == 0 ? number : Math.max(max[field], number);
+            sum[field] += number;
+        }
+
+        private void addInteger(final int field, final long number) {
+
+            integerMin[field] = count[field] == 0 ? number : Math.min(integerMin[field], number);
+            integerMax[field] = count[field] == 0 ? number : Math.max(integerMax[field], number);
+            integerSum[field] += number;
+        }
+
+        private void addUnsigned(final int field, final long number) {
+
+            boolean first = count[field] == 0;
+            if (first || Long.compareUnsigned(number, integerMin[field]) < 0) {
+                integerMin[field] = number;
+            }
+            if (first || Long.compareUnsigned(number, integerMax[field]) > 0) {
+                integerMax[field] = number;
+            }
+            integerSum[field] += number;
+        }
+
+        /**
+         * @return the position of field, the fields are compared without allocation
+         */
+        private int field(@Nonnull final String record, final int keyStart, final int keyEnd) {
+
+            int length = keyEnd - keyStart;
+            for (int field = 0; field < fields.size(); field++) {
+                String name = fields.get(field);
+                if (name.length() == length && record.regionMatches(keyStart, name, 0, length)) {
+                    return field;
+                }
+            }
+
+            if (fields.size() == types.length) {
+                int capacity = types.length * 2;
+                types = Arrays.copyOf(types, capacity);
+                min = Arrays.copyOf(min, capacity);
+                max = Arrays.copyOf(max, capacity);
+                sum = Arrays.copyOf(sum, capacity);
+                integerMin = Arrays.copyOf(integerMin, capacity);
+                integerMax = Arrays.copyOf(integerMax, capacity);
+                integerSum = Arrays.copyOf(integerSum, capacity);
+                count = Arrays.copyOf(count, capacity);
+                last = Arrays.copyOf(last, capacity);
+            }
+
+            fields.add(record.substring(keyStart, keyEnd));
+
+            return fields.size() - 1;
+        }
+
+        private byte type(@Nonnull final String value) {
+
+            char suffix = value.charAt(value.length() - 1);
+            if (value.charAt(0) == '"') {
+                return OTHER;
+            }
+            if (suffix == 'i') {
+                return INTEGER;
+            }
+            if (suffix == 'u') {
+                return UNSIGNED;
+            }
+            if (Character.isDigit(suffix) || suffix == '.') {
+                return FLOAT;
+            }
+
+            // booleans
+            return OTHER;
+        }
+
+        /**
+         * @return the aggregated point or {@code null} if there is nothing to write
+         */
+        private String toLineProtocol(@Nonnull final Set<Aggregate> aggregates) {
+
+            StringBuilder lineProtocol = new StringBuilder(seriesKey).append(' ');
+
+            int fieldsStart = lineProtocol.length();
+            for (int field = 0; field < fields.size(); field++) {
+
+                String name = fields.get(field);
+                for (Aggregate aggregate : aggregates) {
+
+                    String value = value(field, aggregate);
+                    if (value == null) {
+                        continue;
+                    }
+
+                    if (lineProtocol.length() > fieldsStart) {
+                        lineProtocol.append(',');
+                    }
+
+                    lineProtocol
+                            .append(name)
+                            .append('_')
+                            .append(aggregate.name().toLowerCase())
+                            .append('=')
+                            .append(value);
+                }
+            }
+
+            if (lineProtocol.length() == fieldsStart) {
+                return null;
+            }
+
+            return lineProtocol.append(' ').append(windowStart).toString();
+        }
+
+        private String value(final int field, @Nonnull final Aggregate aggregate) {
+
+            if (aggregate == Aggregate.LAST) {
+                return last[field];
+            }
+
+            if (aggregate == Aggregate.COUNT) {
+                return count[field] + "i";
+            }
+
+            switch (types[field]) {
+                case FLOAT:
+                    return number(floating(field, aggregate));
+                case INTEGER:
+                    return integer(field, aggregate) + "i";
+                case UNSIGNED:
+                    return Long.toUnsignedString(integer(field, aggregate)) + "u";
+                default:
+                    return null;
+            }
+        }
+
+        private double floating(final int field, @Nonnull final Aggregate aggregate) {
+
+            switch (aggregate) {
+                case MIN:
+                    return min[field];
+                case MAX:
+                    return max[field];
+                default:
+                    return sum[field];
+            }
+        }
+
+        private long integer(final int field, @Nonnull final Aggregate aggregate) {
+
+            switch (aggregate) {
+                case MIN:
+                    return integerMin[field];
+                case MAX:
+                    return integerMax[field];
+                default:
+                    return integerSum[field];
+            }
+        }
+
+        private String number(final double value) {
+            return Double.isFinite(value) ? Double.toString(value) : null;
+        }
+    }
+}
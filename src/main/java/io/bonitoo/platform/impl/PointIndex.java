@@ -0,0 +1,135 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.impl;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * The compact index of points in batch: the open addressing hash table from the hash of point
+ * (series key + timestamp) to the position of point in batch. The keys and positions are stored
+ * in the primitive arrays, so the index doesn't allocate per point.
+ * <p>
+ * The hash collisions are resolved by the caller's predicate that compares the points at the position.
+ */
+@NotThreadSafe
+final class PointIndex {
+
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final int EMPTY = -1;
+
+    private long[] hashes;
+    private int[] positions;
+    private int size;
+
+    PointIndex() {
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param hash    the hash of point
+     * @param isPoint the predicate that accepts the position of the same point
+     * @return the position of point or {@code -1} if the point is not indexed
+     */
+    int get(final long hash, @Nonnull final IntPredicate isPoint) {
+
+        int mask = positions.length - 1;
+        for (int slot = slot(hash, mask); positions[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && isPoint.test(positions[slot])) {
+                return positions[slot];
+            }
+        }
+
+        return EMPTY;
+    }
+
+    /**
+     * @param hash     the hash of point
+     * @param position the position of point in the batch
+     */
+    void put(final long hash, final int position) {
+
+        // load factor 0.5
+        if ((size + 1) * 2 > positions.length) {
+            rehash();
+        }
+
+        insert(hash, position);
+        size++;
+    }
+
+    /**
+     * @return the number of indexed points
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Remove all points, the allocated capacity is kept.
+     */
+    void clear() {
+
+        Arrays.fill(positions, EMPTY);
+        size = 0;
+    }
+
+    private void insert(final long hash, final int position) {
+
+        int mask = positions.length - 1;
+        int slot = slot(hash, mask);
+        while (positions[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+
+        hashes[slot] = hash;
+        positions[slot] = position;
+    }
+
+    private void rehash() {
+
+        long[] oldHashes = hashes;
+        int[] oldPositions = positions;
+
+        allocate(oldPositions.length * 2);
+
+        for (int slot = 0; slot < oldPositions.length; slot++) {
+            if (oldPositions[slot] != EMPTY) {
+                insert(oldHashes[slot], oldPositions[slot]);
+            }
+        }
+    }
+
+    private void allocate(final int capacity) {
+
+        hashes = new long[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, EMPTY);
+    }
+
+    private int slot(final long hash, final int mask) {
+        return (int) (hash ^ (hash >>> Integer.SIZE)) & mask;
+    }
+}
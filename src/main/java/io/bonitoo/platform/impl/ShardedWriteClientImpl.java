@@ -0,0 +1,550 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import io.bonitoo.core.InfluxException;
+import io.bonitoo.core.event.AbstractInfluxEvent;
+import io.bonitoo.platform.ShardedWriteClient;
+import io.bonitoo.platform.WriteClient;
+import io.bonitoo.platform.dto.ShardStatistics;
+import io.bonitoo.platform.dto.WriteStatistics;
+import io.bonitoo.platform.event.WriteSuccessEvent;
+import io.bonitoo.platform.option.PlatformOptions;
+import io.bonitoo.platform.option.ShardingOptions;
+
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+import org.reactivestreams.Publisher;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+public final class ShardedWriteClientImpl implements ShardedWriteClient {
+
+    private static final Logger LOG = Logger.getLogger(ShardedWriteClientImpl.class.getName());
+
+    private static final TimeUnit WRITE_PRECISION = NANOSECONDS;
+
+    private final ShardingOptions options;
+    private final List<Shard> shards;
+    private final ConsistentHashRing ring;
+    private final Disposable healthCheck;
+
+    public ShardedWriteClientImpl(@Nonnull final ShardingOptions options) {
+        this(options, Schedulers.io());
+    }
+
+    ShardedWriteClientImpl(@Nonnull final ShardingOptions options,
+                           @Nonnull final Scheduler healthCheckScheduler) {
+
+        Objects.requireNonNull(options, "ShardingOptions are required");
+        Objects.requireNonNull(healthCheckScheduler, "HealthCheckScheduler is required");
+
+        this.options = options;
+        this.shards = options.getShards().stream().map(Shard::new).collect(Collectors.toList());
+        this.ring = new ConsistentHashRing(
+                options.getShards().stream().map(PlatformOptions::getUrl).collect(Collectors.toList()),
+                options.getVirtualNodes());
+
+        //
+        // Periodically check the unhealthy shards
+        //
+        this.healthCheck = Flowable
+                .interval(options.getHealthCheckInterval(), TimeUnit.MILLISECONDS, healthCheckScheduler)
+                .subscribe(tick -> shards.stream().filter(shard -> !shard.healthy).forEach(Shard::checkHealth));
+    }
+
+    @Override
+    public void write(@Nonnull final String bucket,
+                      @Nonnull final String organization,
+                      @Nonnull final String token,
+                      @Nonnull final List<String> records) {
+
+        write(bucket, organization, token, WRITE_PRECISION, records);
+    }
+
+    @Override
+    public void write(@Nonnull final String bucket,
+                      @Nonnull final String organization,
+                      @Nonnull final String token,
+                      @Nonnull final TimeUnit precision,
+                      @Nonnull final List<String> records) {
+
+        write(bucket, organization, token, precision, (Iterable<String>) records);
+    }
+
+    @Override
+    public void write(@Nonnull final String bucket,
+                      @Nonnull final String organization,
+                      @Nonnull final String token,
+                      @Nonnull final Iterable<String> records) {
+
+        write(bucket, organization, token, WRITE_PRECISION, records);
+    }
+
+    @Override
+    public void write(@Nonnull final String bucket,
+                      @Nonnull final String organization,
+                      @Nonnull final String token,
+                      @Nonnull final TimeUnit precision,
+                      @Nonnull final Iterable<String> records) {
+
+        Objects.requireNonNull(records, "records are required");
+
+        WriteClientImpl.checkWriteParameters(bucket, organization, token, precision);
+
+        List<List<String>> routed = route(bucket, records.iterator());
+        for (int index = 0; index < routed.size(); index++) {
+            if (!routed.get(index).isEmpty()) {
+                shards.get(index).writeClient.write(bucket, organization, token, precision, routed.get(index));
+            }
+        }
+    }
+
+    @Override
+    public void write(@Nonnull final String bucket,
+                      @Nonnull final String organization,
+                      @Nonnull final String token,
+                      @Nonnull final Stream<String> records) {
+
+        write(bucket, organization, token, WRITE_PRECISION, records);
+    }
+
+    @Override
+    public void write(@Nonnull final String bucket,
+                      @Nonnull final String organization,
+                      @Nonnull final String token,
+                      @Nonnull final TimeUnit precision,
+                      @Nonnull final Stream<String> records) {
+
+        Objects.requireNonNull(records, "records are required");
+
+        write(bucket, organization, token, precision, (Iterable<String>) records::iterator);
+    }
+
+    @Nonnull
+    @Override
+    public Completable write(@Nonnull final String bucket,
+                             @Nonnull final String organization,
+                             @Nonnull final String token,
+                             @Nonnull final Publisher<String> records) {
+
+        return write(bucket, organization, token, WRITE_PRECISION, records);
+    }
+
+    @Nonnull
+    @Override
+    public Completable write(@Nonnull final String bucket,
+                             @Nonnull final String organization,
+                             @Nonnull final String token,
+                             @Nonnull final TimeUnit precision,
+                             @Nonnull final Publisher<String> records) {
+
+        Objects.requireNonNull(records, "records are required");
+
+        WriteClientImpl.checkWriteParameters(bucket, organization, token, precision);
+
+        //
+        // Each shard requests the records by own backpressure
+        //
+        return Flowable
+                .fromPublisher(records)
+                .filter(record -> !record.isEmpty())
+                .groupBy(record -> route(bucket, record))
+                .flatMapCompletable(group -> shards.get(group.getKey())
+                        .writeClient.write(bucket, organization, token, precision, group));
+    }
+
+    @Override
+    public void write(@Nonnull final String bucket,
+                      @Nonnull final String organization,
+                      @Nonnull final String token,
+                      @Nullable final String record) {
+
+        write(bucket, organization, token, WRITE_PRECISION, record);
+    }
+
+    @Override
+    public void write(@Nonnull final String bucket,
+                      @Nonnull final String organization,
+                      @Nonnull final String token,
+                      @Nonnull final TimeUnit precision,
+                      @Nullable final String record) {
+
+        WriteClientImpl.checkWriteParameters(bucket, organization, token, precision);
+
+        if (record == null || record.isEmpty()) {
+            return;
+        }
+
+        shards.get(route(bucket, record)).writeClient.write(bucket, organization, token, precision, record);
+    }
+
+    @Override
+    public void writeSync(@Nonnull final String bucket,
+                          @Nonnull final String organization,
+                          @Nonnull final String token,
+                          @Nonnull final List<String> records) {
+
+        writeSync(bucket, organization, token, WRITE_PRECISION, records);
+    }
+
+    @Override
+    public void writeSync(@Nonnull final String bucket,
+                          @Nonnull final String organization,
+                          @Nonnull final String token,
+                          @Nonnull final TimeUnit precision,
+                          @Nonnull final List<String> records) {
+
+        try {
+            writeAsync(bucket, organization, token, precision, records).join();
+        } catch (CompletionException e) {
+            throw InfluxException.fromCause(e.getCause());
+        }
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<Void> writeAsync(@Nonnull final String bucket,
+                                              @Nonnull final String organization,
+                                              @Nonnull final String token,
+                                              @Nonnull final List<String> records) {
+
+        return writeAsync(bucket, organization, token, WRITE_PRECISION, records);
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<Void> writeAsync(@Nonnull final String bucket,
+                                              @Nonnull final String organization,
+                                              @Nonnull final String token,
+                                              @Nonnull final TimeUnit precision,
+                                              @Nonnull final List<String> records) {
+
+        Objects.requireNonNull(records, "records are required");
+
+        WriteClientImpl.checkWriteParameters(bucket, organization, token, precision);
+
+        //
+        // The shards are written concurrently
+        //
+        List<List<String>> routed = route(bucket, records.iterator());
+        List<CompletableFuture<Void>> written = new ArrayList<>();
+        for (int index = 0; index < routed.size(); index++) {
+            if (!routed.get(index).isEmpty()) {
+                WriteClient writeClient = shards.get(index).writeClient;
+                written.add(writeClient.writeAsync(bucket, organization, token, precision, routed.get(index)));
+            }
+        }
+
+        return CompletableFuture.allOf(written.toArray(new CompletableFuture<?>[0]));
+    }
+
+    @Nonnull
+    @Override
+    public <T extends AbstractInfluxEvent> Observable<T> listenEvents(@Nonnull final Class<T> eventType) {
+
+        Objects.requireNonNull(eventType, "EventType is required");
+
+        return Observable.merge(shards.stream()
+                .map(shard -> shard.writeClient.listenEvents(eventType))
+                .collect(Collectors.toList()));
+    }
+
+    @Nonnull
+    @Override
+    public WriteClient enableGzip() {
+        shards.forEach(shard -> shard.writeClient.enableGzip());
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public WriteClient disableGzip() {
+        shards.forEach(shard -> shard.writeClient.disableGzip());
+        return this;
+    }
+
+    @Override
+    public boolean isGzipEnabled() {
+        return shards.get(0).writeClient.isGzipEnabled();
+    }
+
+    @Nonnull
+    @Override
+    public WriteClient flush() {
+        shards.forEach(shard -> shard.writeClient.flush());
+        return this;
+    }
+
+    @Override
+    public boolean flush(@Nonnull final Duration timeout) {
+
+        Objects.requireNonNull(timeout, "Timeout is required");
+
+        //
+        // The shards share the timeout
+        //
+        long deadline = System.nanoTime() + timeout.toNanos();
+        boolean flushed = true;
+        for (Shard shard : shards) {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            flushed &= shard.writeClient.flush(Duration.ofNanos(remaining));
+        }
+
+        return flushed;
+    }
+
+    @Nonnull
+    @Override
+    public WriteClient close() {
+
+        healthCheck.dispose();
+        shards.forEach(shard -> {
+            shard.writeClient.close();
+            shard.release();
+        });
+
+        return this;
+    }
+
+    @Override
+    public long close(@Nonnull final Duration timeout) {
+
+        Objects.requireNonNull(timeout, "Timeout is required");
+
+        healthCheck.dispose();
+
+        //
+        // The shards share the timeout
+        //
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long lost = 0;
+        for (Shard shard : shards) {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            lost += shard.writeClient.close(Duration.ofNanos(remaining));
+            shard.release();
+        }
+
+        return lost;
+    }
+
+    @Nonnull
+    @Override
+    public WriteStatistics getStatistics() {
+
+        long bufferedRecords = 0;
+        long bufferedBytes = 0;
+        long droppedRecords = 0;
+        long droppedBytes = 0;
+        Map<String, Long> droppedRecordsByBucket = new HashMap<>();
+        Map<String, Long> droppedBytesByBucket = new HashMap<>();
+        long[] bufferTimeBounds = null;
+        long[] bufferTimeCounts = null;
+
+        for (Shard shard : shards) {
+
+            WriteStatistics statistics = shard.writeClient.getStatistics();
+
+            bufferedRecords += statistics.getBufferedRecords();
+            bufferedBytes += statistics.getBufferedBytes();
+            droppedRecords += statistics.getDroppedRecords();
+            droppedBytes += statistics.getDroppedBytes();
+            statistics.getDroppedRecordsByBucket().forEach((bucket, count) -> droppedRecordsByBucket
+                    .merge(bucket, count, Long::sum));
+            statistics.getDroppedBytesByBucket().forEach((bucket, count) -> droppedBytesByBucket
+                    .merge(bucket, count, Long::sum));
+
+            long[] counts = statistics.getBufferTimeCounts();
+            if (bufferTimeCounts == null) {
+                bufferTimeBounds = statistics.getBufferTimeBounds();
+                bufferTimeCounts = counts;
+            } else {
+                for (int index = 0; index < counts.length; index++) {
+                    bufferTimeCounts[index] += counts[index];
+                }
+            }
+        }
+
+        return new WriteStatistics(bufferedRecords, bufferedBytes, droppedRecords, droppedBytes,
+                droppedRecordsByBucket, droppedBytesByBucket,
+                bufferTimeBounds != null ? bufferTimeBounds : new long[0],
+                bufferTimeCounts != null ? bufferTimeCounts : new long[0]);
+    }
+
+    @Nonnull
+    @Override
+    public List<ShardStatistics> getShardStatistics() {
+
+        return shards.stream().map(Shard::toStatistics).collect(Collectors.toList());
+    }
+
+    /**
+     * Split the records by shards.
+     *
+     * @param bucket  the destination bucket
+     * @param records the records in InfluxDB Line Protocol
+     * @return the records for each shard
+     */
+    @Nonnull
+    private List<List<String>> route(@Nonnull final String bucket, @Nonnull final Iterator<String> records) {
+
+        List<List<String>> routed = new ArrayList<>(shards.size());
+        for (int index = 0; index < shards.size(); index++) {
+            routed.add(new ArrayList<>());
+        }
+
+        while (records.hasNext()) {
+            String record = records.next();
+            if (record == null || record.isEmpty()) {
+                continue;
+            }
+
+            routed.get(route(bucket, record)).add(record);
+        }
+
+        return routed;
+    }
+
+    /**
+     * @param bucket the destination bucket
+     * @param record the record in InfluxDB Line Protocol
+     * @return the index of shard for the record
+     */
+    private int route(@Nonnull final String bucket, @Nonnull final String record) {
+
+        long hash;
+        if (options.getShardKey() == ShardingOptions.ShardKey.BUCKET) {
+            hash = ConsistentHashRing.hash(bucket, 0, bucket.length());
+        } else {
+            hash = ConsistentHashRing.hash(record, 0, LineProtocol.seriesKeyEnd(record));
+        }
+
+        int index = ring.node(hash, node -> shards.get(node).healthy);
+
+        shards.get(index).routedRecords.increment();
+
+        return index;
+    }
+
+    private final class Shard {
+
+        private final String url;
+        private final PlatformClientImpl platformClient;
+        private final WriteClient writeClient;
+        private final CompositeDisposable subscriptions = new CompositeDisposable();
+
+        private final LongAdder routedRecords = new LongAdder();
+        private final LongAdder writtenBatches = new LongAdder();
+        private final LongAdder failedBatches = new LongAdder();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile boolean healthy = true;
+
+        private Shard(@Nonnull final PlatformOptions platformOptions) {
+
+            this.url = platformOptions.getUrl();
+            this.platformClient = new PlatformClientImpl(platformOptions);
+            WriteClientImpl shardClient = (WriteClientImpl) platformClient.createWriteClient(options.getWriteOptions());
+            this.writeClient = shardClient;
+
+            //
+            // Only the failed writes make the shard unhealthy, not the errors of buffering
+            //
+            subscriptions.add(shardClient.listenEvents(WriteSuccessEvent.class).subscribe(event -> onSuccess()));
+            subscriptions.add(shardClient.listenWriteFailures().subscribe(this::onFailure));
+        }
+
+        private void onSuccess() {
+
+            writtenBatches.increment();
+            consecutiveFailures.set(0);
+        }
+
+        private void onFailure(@Nonnull final Throwable throwable) {
+
+            failedBatches.increment();
+
+            //
+            // The rejected data (bad request, unauthorized, ...) are not a failure of shard
+            //
+            if (!WriteClientImpl.isRetryWorth(throwable)) {
+                return;
+            }
+
+            if (consecutiveFailures.incrementAndGet() >= options.getFailureThreshold() && healthy) {
+                healthy = false;
+
+                LOG.log(Level.WARNING, "The shard {0} is unhealthy, the records are routed to the next shard.", url);
+            }
+        }
+
+        private void checkHealth() {
+
+            try {
+                if (platformClient.health().isHealthy()) {
+                    consecutiveFailures.set(0);
+                    healthy = true;
+
+                    LOG.log(Level.INFO, "The shard {0} is healthy.", url);
+                }
+            } catch (Exception e) {
+                LOG.log(Level.FINEST, "The health check of shard " + url + " failed", e);
+            }
+        }
+
+        private void release() {
+
+            subscriptions.dispose();
+            platformClient.release();
+        }
+
+        @Nonnull
+        private ShardStatistics toStatistics() {
+
+            return new ShardStatistics(url, healthy, routedRecords.sum(), writtenBatches.sum(), failedBatches.sum());
+        }
+    }
+}
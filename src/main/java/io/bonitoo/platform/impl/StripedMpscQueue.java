@@ -0,0 +1,189 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.impl;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import io.reactivex.functions.Consumer;
+
+/**
+ * The bounded lock-free queue for many producers and one consumer.
+ * <p>
+ * The queue is striped into the ring buffers by the producer thread so the concurrent producers
+ * rarely compete for the same producer index. The producer claims the slot by CAS and publishes the element
+ * by the ordered store, the consumer frees the slot before it moves the consumer index.
+ * The order of elements is preserved for each producer thread.
+ *
+ * @param <E> the type of elements
+ */
+@ThreadSafe
+final class StripedMpscQueue<E> {
+
+    private static final int MAX_STRIPES = 16;
+    private static final int MIN_STRIPE_CAPACITY = 16;
+
+    private final RingBuffer<E>[] stripes;
+    private final int mask;
+
+    /**
+     * @param capacity the total capacity of queue, distributed between stripes => the capacity available
+     *                 for one producer thread is {@code capacity / stripes}
+     */
+    @SuppressWarnings("unchecked")
+    StripedMpscQueue(final int capacity) {
+
+        int stripesCount = ceilingPowerOfTwo(Math.min(Runtime.getRuntime().availableProcessors(), MAX_STRIPES));
+        int stripeCapacity = ceilingPowerOfTwo(Math.max(capacity / stripesCount, MIN_STRIPE_CAPACITY));
+
+        this.stripes = (RingBuffer<E>[]) new RingBuffer<?>[stripesCount];
+        for (int i = 0; i < stripesCount; i++) {
+            stripes[i] = new RingBuffer<>(stripeCapacity);
+        }
+        this.mask = stripesCount - 1;
+    }
+
+    /**
+     * Add the element into the stripe of current thread.
+     *
+     * @param element the element to add
+     * @return {@code false} if the stripe is full
+     */
+    boolean offer(@Nonnull final E element) {
+
+        Objects.requireNonNull(element, "Element is required");
+
+        return stripes[(int) (Thread.currentThread().getId() & mask)].offer(element);
+    }
+
+    /**
+     * Remove all available elements. Has to be called only from one thread at the time.
+     *
+     * @param consumer the consumer of elements
+     * @return the number of removed elements
+     * @throws Exception if the consumer fails
+     */
+    int drain(@Nonnull final Consumer<E> consumer) throws Exception {
+
+        int drained = 0;
+        for (RingBuffer<E> stripe : stripes) {
+            E element;
+            while ((element = stripe.poll()) != null) {
+                consumer.accept(element);
+                drained++;
+            }
+        }
+
+        return drained;
+    }
+
+    /**
+     * @return {@code true} if there is no published element
+     */
+    boolean isEmpty() {
+        for (RingBuffer<E> stripe : stripes) {
+            if (!stripe.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of stripes
+     */
+    int getStripes() {
+        return stripes.length;
+    }
+
+    private static int ceilingPowerOfTwo(final int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    /**
+     * The bounded ring buffer for many producers and one consumer.
+     *
+     * @param <E> the type of elements
+     */
+    private static final class RingBuffer<E> {
+
+        private final AtomicReferenceArray<E> buffer;
+        private final int capacity;
+        private final int mask;
+
+        private final AtomicLong producerIndex = new AtomicLong();
+        private final AtomicLong consumerIndex = new AtomicLong();
+
+        private RingBuffer(final int capacity) {
+            this.buffer = new AtomicReferenceArray<>(capacity);
+            this.capacity = capacity;
+            this.mask = capacity - 1;
+        }
+
+        private boolean offer(@Nonnull final E element) {
+
+            long index;
+            do {
+                index = producerIndex.get();
+                if (index - consumerIndex.get() >= capacity) {
+                    return false;
+                }
+            } while (!producerIndex.compareAndSet(index, index + 1));
+
+            buffer.lazySet((int) (index & mask), element);
+
+            return true;
+        }
+
+        /**
+         * @return the next element or {@code null} if there is no published element
+         */
+        @Nullable
+        private E poll() {
+
+            long index = consumerIndex.get();
+            int offset = (int) (index & mask);
+
+            //
+            // Empty or the claimed slot is not published yet => the producer signals the drain after publish
+            //
+            E element = buffer.get(offset);
+            if (element == null) {
+                return null;
+            }
+
+            buffer.lazySet(offset, null);
+            consumerIndex.lazySet(index + 1);
+
+            return element;
+        }
+
+        private boolean isEmpty() {
+            return producerIndex.get() == consumerIndex.get();
+        }
+    }
+}
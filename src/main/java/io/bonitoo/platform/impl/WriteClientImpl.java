@@ -22,39 +22,90 @@
  */
 package io.bonitoo.platform.impl;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
 
 import io.bonitoo.AbstractRestClient;
+import io.bonitoo.core.CompressionCodec;
 import io.bonitoo.core.GzipRequestInterceptor;
 import io.bonitoo.core.InfluxException;
+import io.bonitoo.core.OverloadProtectionInterceptor;
 import io.bonitoo.core.Preconditions;
+import io.bonitoo.core.RateLimiter;
 import io.bonitoo.core.event.AbstractInfluxEvent;
 import io.bonitoo.core.event.UnhandledErrorEvent;
+import io.bonitoo.core.metrics.MetricsRegistry;
 import io.bonitoo.platform.WriteClient;
+import io.bonitoo.platform.dto.WriteStatistics;
 import io.bonitoo.platform.event.BackpressureEvent;
+import io.bonitoo.platform.event.BatchingAdjustedEvent;
+import io.bonitoo.platform.event.DuplicatesCoalescedEvent;
 import io.bonitoo.platform.event.WriteSuccessEvent;
+import io.bonitoo.platform.option.AggregationOptions;
 import io.bonitoo.platform.option.WriteOptions;
 
+import io.reactivex.BackpressureOverflowStrategy;
+import io.reactivex.Completable;
+import io.reactivex.CompletableEmitter;
 import io.reactivex.CompletableSource;
 import io.reactivex.Flowable;
 import io.reactivex.FlowableTransformer;
 import io.reactivex.Observable;
 import io.reactivex.Scheduler;
-import io.reactivex.Single;
-import io.reactivex.SingleSource;
-import io.reactivex.flowables.GroupedFlowable;
+import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.disposables.Disposables;
+import io.reactivex.exceptions.MissingBackpressureException;
 import io.reactivex.functions.Function;
-import io.reactivex.processors.PublishProcessor;
+import io.reactivex.observers.DisposableCompletableObserver;
 import io.reactivex.schedulers.Schedulers;
 import io.reactivex.subjects.PublishSubject;
-import okhttp3.RequestBody;
+import io.reactivex.subjects.Subject;
+import io.reactivex.subscribers.DisposableSubscriber;
+import okio.Buffer;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import retrofit2.HttpException;
 
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
@@ -69,13 +120,102 @@ final class WriteClientImpl extends AbstractRestClient implements WriteClient {
     private static final EnumSet<TimeUnit> ALLOWED_PRECISION = EnumSet.of(TimeUnit.NANOSECONDS,
             TimeUnit.MICROSECONDS, TimeUnit.MILLISECONDS, TimeUnit.SECONDS);
 
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int BAD_GATEWAY = 502;
+    private static final int SERVICE_UNAVAILABLE = 503;
+    private static final int GATEWAY_TIMEOUT = 504;
+
+    private static final int UTF8_ONE_BYTE_LIMIT = 0x80;
+    private static final int UTF8_TWO_BYTES_LIMIT = 0x800;
+    private static final int UTF8_THREE_BYTES = 3;
+    private static final int UTF8_FOUR_BYTES = 4;
+
+    private static final long HASH_MULTIPLIER = 31;
+
     private final PlatformService platformService;
     private final GzipRequestInterceptor interceptor;
     private final WriteOptions writeOptions;
 
-    private final PublishProcessor<BatchWrite> processor;
+    private final BufferSource source;
     private final PublishSubject<AbstractInfluxEvent> eventPublisher;
 
+    //
+    // The writes failed by server or network, also the spilled and the synchronous writes
+    //
+    private final Subject<Throwable> writeFailures = PublishSubject.<Throwable>create().toSerialized();
+
+    //
+    // Lock-free ingestion front-end, the pipeline is fed only by the drain worker
+    //
+    private final StripedMpscQueue<BatchWrite> ingestion;
+    private final Scheduler.Worker drainWorker;
+    private final Scheduler batchScheduler;
+    private final AtomicInteger drainWip = new AtomicInteger();
+
+    //
+    // Buffer bounded by the count of records and drained by the demand of pipeline,
+    // it is accessed only by the drain worker
+    //
+    private final ArrayDeque<BatchWrite> buffer = new ArrayDeque<>();
+    private int bufferRecords;
+    private boolean completed;
+    private volatile boolean closing;
+
+    //
+    // Flush markers waiting for the drain and the flushes waiting for the write
+    //
+    private final Queue<BatchWrite> flushMarkers = new ConcurrentLinkedQueue<>();
+    private final Set<FlushRequest> flushRequests = ConcurrentHashMap.newKeySet();
+
+    //
+    // The thread drains the ingestion queue or notifies the event listeners => the flush would never complete
+    //
+    private final ThreadLocal<Boolean> pipelineThread = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    //
+    // Records accepted into pipeline and records that are written, spilled, failed or dropped
+    //
+    private final AtomicLong acceptedRecords = new AtomicLong();
+    private final AtomicLong settledRecords = new AtomicLong();
+
+    //
+    // Duplicate points dropped by coalescing
+    //
+    private final AtomicLong coalescedRecords = new AtomicLong();
+
+    //
+    // Number of records waiting in the in-memory buffer
+    //
+    private final AtomicInteger bufferedRecords = new AtomicInteger();
+    private final WriteStatisticsCounters statistics = new WriteStatisticsCounters();
+
+    private final AdaptiveBatching adaptiveBatching;
+    private final ToWritePointsCompletable writer;
+    private final ToWritePointsCompletable bulkWriter;
+
+    private final DiskBuffer diskBuffer;
+    private final AtomicBoolean replaying = new AtomicBoolean(false);
+    private final Disposable replaySubscription;
+
+    private final Disposable pipeline;
+    private final CountDownLatch terminated = new CountDownLatch(1);
+
+    //
+    // The events of circuit breaker and concurrency limit shared by the write clients of PlatformClient
+    //
+    private volatile OverloadProtectionInterceptor overloadInterceptor;
+    private final Consumer<AbstractInfluxEvent> overloadListener = this::publish;
+
+    //
+    // The rate limit of organizations shared by the clients, null if the writes are not limited
+    //
+    private volatile RateLimiter rateLimiter;
+
+    //
+    // The metrics of writes, no-op if the metrics are not recorded
+    //
+    private volatile WriteMetrics metrics = WriteMetrics.NOOP;
+
     WriteClientImpl(@Nonnull final WriteOptions writeOptions,
                     @Nonnull final PlatformService platformService,
                     @Nonnull final GzipRequestInterceptor interceptor) {
@@ -84,7 +224,7 @@ final class WriteClientImpl extends AbstractRestClient implements WriteClient {
                 Schedulers.newThread(),
                 Schedulers.computation(),
                 Schedulers.trampoline(),
-                Schedulers.trampoline());
+                Schedulers.computation());
     }
 
     WriteClientImpl(@Nonnull final WriteOptions writeOptions,
@@ -98,49 +238,62 @@ final class WriteClientImpl extends AbstractRestClient implements WriteClient {
         this.platformService = platformService;
         this.interceptor = interceptor;
         this.writeOptions = writeOptions;
+        this.batchScheduler = batchScheduler;
 
         this.eventPublisher = PublishSubject.create();
-        this.processor = PublishProcessor.create();
-        this.processor
+
+        //
+        // Adaptive batching
+        //
+        if (writeOptions.getAdaptiveBatching() != null) {
+            this.adaptiveBatching = new AdaptiveBatching(writeOptions.getAdaptiveBatching(),
+                    writeOptions.getBatchSize(), writeOptions.getFlushInterval());
+        } else {
+            this.adaptiveBatching = null;
+        }
+
+        //
+        // Persistent spill queue
+        //
+        if (writeOptions.getDiskBuffer() != null) {
+            this.diskBuffer = new DiskBuffer(writeOptions.getDiskBuffer());
+            this.replaySubscription = Flowable
+                    .interval(writeOptions.getRetryInterval(), TimeUnit.MILLISECONDS, retryScheduler)
+                    .filter(tick -> !diskBuffer.isEmpty() && replaying.compareAndSet(false, true))
+                    .concatMapCompletable(tick -> replay().doFinally(() -> replaying.set(false)))
+                    .subscribe(() -> { }, throwable -> publish(new UnhandledErrorEvent(throwable)));
+        } else {
+            this.diskBuffer = null;
+            this.replaySubscription = Disposables.disposed();
+        }
+
+        this.writer = new ToWritePointsCompletable(retryScheduler, false);
+        this.bulkWriter = new ToWritePointsCompletable(retryScheduler, true);
+        this.ingestion = new StripedMpscQueue<>(writeOptions.getBufferLimit());
+        this.drainWorker = processorScheduler.createWorker();
+
+        this.source = new BufferSource();
+        this.pipeline = Flowable
                 //
-                // Backpressure
+                // Backpressure - the buffer is drained by the demand of pipeline
                 //
-                .onBackpressureBuffer(
-                        writeOptions.getBufferLimit(),
-                        () -> publish(new BackpressureEvent()),
-                        writeOptions.getBackpressureStrategy())
+                .fromPublisher(source)
                 .observeOn(processorScheduler)
+                .doOnNext(batchWrite -> {
+                    if (batchWrite.flushRequest == null) {
+                        bufferedRecords.addAndGet(-batchWrite.records);
+                        statistics.released(batchWrite.records, batchWrite.bytes,
+                                System.nanoTime() - batchWrite.enqueued);
+                    }
+                })
                 //
-                // Batching
-                //
-                .window(writeOptions.getFlushInterval(),
-                        TimeUnit.MILLISECONDS,
-                        batchScheduler,
-                        writeOptions.getBatchSize(),
-                        true)
-                //
-                // Group by key - same bucket, same org
+                // Pre-aggregation of configured measurements
                 //
-                .concatMap(it -> it.groupBy(batchWrite -> batchWrite.batchWriteOptions))
+                .compose(aggregation(batchScheduler))
                 //
-                // Create Write Point = bucket, org, ... + data
+                // Batching - group by key (same bucket, same org, ...) and close the batch by count, bytes or time
                 //
-                .concatMapSingle((Function<GroupedFlowable<BatchWriteOptions, BatchWrite>, SingleSource<BatchWrite>>)
-                        grouped -> {
-
-                            //
-                            // Create Line Protocol
-                            //
-                            Single<String> reduce = grouped
-                                    .reduce("", (lineProtocol, batchWrite) -> {
-                                        if (lineProtocol.isEmpty()) {
-                                            return batchWrite.lineProtocol;
-                                        }
-                                        return String.join("\n", lineProtocol, batchWrite.lineProtocol);
-                                    });
-
-                            return Single.just(grouped.getKey()).zipWith(reduce, BatchWrite::new);
-                        })
+                .compose(batching(batchScheduler))
                 //
                 // Jitter interval
                 //
@@ -148,12 +301,26 @@ final class WriteClientImpl extends AbstractRestClient implements WriteClient {
                 //
                 // To WritePoints "request creator"
                 //
-                .concatMapCompletable(new ToWritePointsCompletable(retryScheduler))
+                .to(writeRequests(batchWrite -> Completable
+                        .wrap(writer.apply(batchWrite))
+                        .doOnComplete(() -> settledRecords.addAndGet(batchWrite.records))))
                 //
                 // Publish Error event
                 //
                 .doOnError(throwable -> publish(new UnhandledErrorEvent(InfluxException.fromCause(throwable))))
-                .subscribe();
+                .doFinally(() -> {
+                    if (diskBuffer != null) {
+                        replaySubscription.dispose();
+                        diskBuffer.close();
+                    }
+
+                    //
+                    // Nothing more will be written
+                    //
+                    terminated.countDown();
+                    flushRequests.forEach(FlushRequest::complete);
+                })
+                .subscribe(() -> { }, throwable -> LOG.log(Level.FINEST, "Write pipeline terminated", throwable));
     }
 
     @Override
@@ -173,9 +340,100 @@ final class WriteClientImpl extends AbstractRestClient implements WriteClient {
                       @Nonnull final TimeUnit precision,
                       @Nonnull final List<String> records) {
 
+        write(bucket, organization, token, precision, (Iterable<String>) records);
+    }
+
+    @Override
+    public void write(@Nonnull final String bucket,
+                      @Nonnull final String organization,
+                      @Nonnull final String token,
+                      @Nonnull final Iterable<String> records) {
+
+        write(bucket, organization, token, WRITE_PRECISION, records);
+    }
+
+    @Override
+    public void write(@Nonnull final String bucket,
+                      @Nonnull final String organization,
+                      @Nonnull final String token,
+                      @Nonnull final TimeUnit precision,
+                      @Nonnull final Iterable<String> records) {
+
+        Objects.requireNonNull(records, "records are required");
+
+        BatchWriteOptions batchWriteOptions = toBatchWriteOptions(bucket, organization, token, precision);
+
+        chunks(batchWriteOptions, records.iterator(), this::enqueue);
+    }
+
+    @Override
+    public void write(@Nonnull final String bucket,
+                      @Nonnull final String organization,
+                      @Nonnull final String token,
+                      @Nonnull final Stream<String> records) {
+
+        write(bucket, organization, token, WRITE_PRECISION, records);
+    }
+
+    @Override
+    public void write(@Nonnull final String bucket,
+                      @Nonnull final String organization,
+                      @Nonnull final String token,
+                      @Nonnull final TimeUnit precision,
+                      @Nonnull final Stream<String> records) {
+
         Objects.requireNonNull(records, "records are required");
 
-        records.forEach(record -> write(bucket, organization, token, precision, record));
+        BatchWriteOptions batchWriteOptions = toBatchWriteOptions(bucket, organization, token, precision);
+
+        chunks(batchWriteOptions, records.iterator(), this::enqueue);
+    }
+
+    @Nonnull
+    @Override
+    public Completable write(@Nonnull final String bucket,
+                             @Nonnull final String organization,
+                             @Nonnull final String token,
+                             @Nonnull final Publisher<String> records) {
+
+        return write(bucket, organization, token, WRITE_PRECISION, records);
+    }
+
+    @Nonnull
+    @Override
+    public Completable write(@Nonnull final String bucket,
+                             @Nonnull final String organization,
+                             @Nonnull final String token,
+                             @Nonnull final TimeUnit precision,
+                             @Nonnull final Publisher<String> records) {
+
+        Objects.requireNonNull(records, "records are required");
+
+        BatchWriteOptions batchWriteOptions = toBatchWriteOptions(bucket, organization, token, precision);
+
+        int batchSize = currentBatchSize();
+        long flushInterval = adaptiveBatching != null
+                ? adaptiveBatching.getFlushInterval() : writeOptions.getFlushInterval();
+
+        //
+        // The records are requested from the source by windows of batch size only when are the previous chunks
+        // written, the records of slow source are chunked also by the flush interval.
+        // The chunks of one destination are written in order.
+        //
+        return Flowable
+                .fromPublisher(records)
+                .window(batchSize)
+                .concatMap(window -> window
+                        .buffer(flushInterval, TimeUnit.MILLISECONDS, batchScheduler, batchSize)
+                        .filter(lines -> !lines.isEmpty())
+                        .onBackpressureBuffer())
+                .concatMapIterable(lines -> {
+                    List<BatchWrite> chunks = new ArrayList<>();
+                    chunks(batchWriteOptions, lines.iterator(), chunks::add);
+                    return chunks;
+                })
+                .concatMapCompletable(bulkWriter)
+                .doOnError(throwable -> publish(new UnhandledErrorEvent(InfluxException.fromCause(throwable))));
     }
 
     @Override
@@ -195,22 +453,66 @@ final class WriteClientImpl extends AbstractRestClient implements WriteClient {
                       @Nullable final String record) {
 
 
-        Preconditions.checkNonEmptyString(bucket, "bucket");
-        Preconditions.checkNonEmptyString(organization, "organization");
-        Preconditions.checkNonEmptyString(token, "token");
-        Objects.requireNonNull(precision, "TimeUnit.precision is required");
-
-        if (!ALLOWED_PRECISION.contains(precision)) {
-            throw new IllegalArgumentException("Precision must be one of: " + ALLOWED_PRECISION);
-        }
+        BatchWriteOptions batchWriteOptions = toBatchWriteOptions(bucket, organization, token, precision);
 
         if (record == null || record.isEmpty()) {
             return;
         }
 
-        BatchWriteOptions batchWriteOptions = new BatchWriteOptions(bucket, organization, token, precision);
-        BatchWrite batchWrite = new BatchWrite(batchWriteOptions, record);
-        processor.onNext(batchWrite);
+        enqueue(new BatchWrite(batchWriteOptions, record));
+    }
+
+    @Override
+    public void writeSync(@Nonnull final String bucket,
+                          @Nonnull final String organization,
+                          @Nonnull final String token,
+                          @Nonnull final List<String> records) {
+
+        writeSync(bucket, organization, token, WRITE_PRECISION, records);
+    }
+
+    @Override
+    public void writeSync(@Nonnull final String bucket,
+                          @Nonnull final String organization,
+                          @Nonnull final String token,
+                          @Nonnull final TimeUnit precision,
+                          @Nonnull final List<String> records) {
+
+        Throwable throwable = writeImmediately(bucket, organization, token, precision, records).blockingGet();
+        if (throwable != null) {
+            throw InfluxException.fromCause(throwable);
+        }
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<Void> writeAsync(@Nonnull final String bucket,
+                                              @Nonnull final String organization,
+                                              @Nonnull final String token,
+                                              @Nonnull final List<String> records) {
+
+        return writeAsync(bucket, organization, token, WRITE_PRECISION, records);
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<Void> writeAsync(@Nonnull final String bucket,
+                                              @Nonnull final String organization,
+                                              @Nonnull final String token,
+                                              @Nonnull final TimeUnit precision,
+                                              @Nonnull final List<String> records) {
+
+        Completable written = writeImmediately(bucket, organization, token, precision, records);
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+
+        written
+                .subscribeOn(concurrentScheduler())
+                .subscribe(
+                        () -> future.complete(null),
+                        throwable -> future.completeExceptionally(InfluxException.fromCause(throwable)));
+
+        return future;
     }
 
     @Nonnull
@@ -241,229 +543,2043 @@ final class WriteClientImpl extends AbstractRestClient implements WriteClient {
         return interceptor.isEnabled();
     }
 
+    @Nonnull
+    @Override
+    public WriteStatistics getStatistics() {
+        return statistics.snapshot();
+    }
+
+    @Nonnull
+    @Override
+    public WriteClient flush() {
+
+        FlushRequest flushRequest = requestFlush();
+        if (flushRequest != null) {
+            flushRequest.written.join();
+        }
+
+        return this;
+    }
+
+    @Override
+    public boolean flush(@Nonnull final Duration timeout) {
+
+        Objects.requireNonNull(timeout, "Timeout is required");
+
+        FlushRequest flushRequest = requestFlush();
+        if (flushRequest == null) {
+            return true;
+        }
+
+        try {
+            flushRequest.written.get(timeout.toNanos(), NANOSECONDS);
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            throw InfluxException.fromCause(e.getCause());
+        }
+
+        return true;
+    }
+
     @Nonnull
     @Override
     public WriteClient close() {
 
         LOG.log(Level.INFO, "Flushing any cached BatchWrites before shutdown.");
 
-        processor.onComplete();
+        shutdown();
         eventPublisher.onComplete();
+        writeFailures.onComplete();
 
         return this;
     }
 
-    @Nonnull
-    private FlowableTransformer<BatchWrite, BatchWrite> jitter(@Nonnull final Scheduler scheduler) {
+    @Override
+    public long close(@Nonnull final Duration timeout) {
 
-        Objects.requireNonNull(scheduler, "Jitter scheduler is required");
+        Objects.requireNonNull(timeout, "Timeout is required");
 
-        return source -> {
+        LOG.log(Level.INFO, "Flushing any cached BatchWrites before shutdown, timeout: {0}.", timeout);
 
-            //
-            // source without jitter
-            //
-            if (writeOptions.getJitterInterval() <= 0) {
-                return source;
-            }
+        shutdown();
 
-            //
-            // Add jitter => dynamic delay
-            //
-            return source.delay((Function<BatchWrite, Flowable<Long>>) pointFlowable -> {
+        boolean drained;
+        try {
+            drained = terminated.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            drained = false;
+        }
+
+        //
+        // Cancel the in-flight requests
+        //
+        if (!drained) {
+            pipeline.dispose();
+        }
 
-                int delay = jitterDelay();
+        long lost = Math.max(0, acceptedRecords.get() - settledRecords.get());
+        if (lost > 0) {
+            LOG.log(Level.WARNING, "The buffer was not drained before timeout, {0} records were not written.", lost);
+        }
 
-                LOG.log(Level.FINEST, "Generated Jitter dynamic delay: {0}", delay);
+        eventPublisher.onComplete();
+        writeFailures.onComplete();
 
-                return Flowable.timer(delay, TimeUnit.MILLISECONDS, scheduler);
-            });
-        };
+        return lost;
     }
 
-    private int jitterDelay() {
+    /**
+     * Pass the flush marker through the pipeline.
+     *
+     * @return the flush to wait for, {@code null} if the client is closing
+     */
+    @Nullable
+    private FlushRequest requestFlush() {
 
-        return (int) (Math.random() * writeOptions.getJitterInterval());
-    }
+        if (pipelineThread.get()) {
+            throw new IllegalStateException("The flush can't be called from the write pipeline or event listener.");
+        }
 
-    private <T extends AbstractInfluxEvent> void publish(@Nonnull final T event) {
+        if (closing) {
+            return null;
+        }
 
-        Objects.requireNonNull(event, "Event is required");
+        FlushRequest flushRequest = new FlushRequest();
+        flushRequests.add(flushRequest);
 
-        event.logEvent();
-        eventPublisher.onNext(event);
+        //
+        // The pipeline is already terminated
+        //
+        if (terminated.getCount() == 0) {
+            flushRequest.complete();
+        }
+
+        flushMarkers.offer(new BatchWrite(flushRequest, -1));
+        scheduleDrain();
+
+        return flushRequest;
     }
 
-    @Nonnull
-    private String toPrecisionParameter(@Nonnull final TimeUnit precision) {
+    /**
+     * Complete the pipeline after the buffered records are handed to the pipeline.
+     */
+    private void shutdown() {
 
-        switch (precision) {
-            case NANOSECONDS:
-                return "ns";
-            case MICROSECONDS:
-                return "us";
-            case MILLISECONDS:
-                return "ms";
-            case SECONDS:
-                return "s";
-            default:
-                throw new IllegalArgumentException("Precision must be one of: " + ALLOWED_PRECISION);
+        closing = true;
+        scheduleDrain();
+
+        if (overloadInterceptor != null) {
+            overloadInterceptor.removeListener(overloadListener);
         }
     }
 
     /**
-     * The Batch Write.
+     * Limit the writes by the rate limit of organizations.
+     *
+     * @param rateLimiter the rate limiter of PlatformClient
      */
-    private final class BatchWrite {
+    void rateLimiter(@Nonnull final RateLimiter rateLimiter) {
 
-        private BatchWriteOptions batchWriteOptions;
-        private String lineProtocol;
+        Objects.requireNonNull(rateLimiter, "RateLimiter is required");
 
-        private BatchWrite(@Nonnull final BatchWriteOptions batchWriteOptions, @Nonnull final String lineProtocol) {
+        this.rateLimiter = rateLimiter;
+    }
 
-            Objects.requireNonNull(batchWriteOptions, "BatchWriteOptions is required");
-            Preconditions.checkNonEmptyString(lineProtocol, "lineProtocol");
+    /**
+     * Record the batches, drops, retries and buffer occupancy into metrics.
+     *
+     * @param registry the registry of metrics of PlatformClient
+     */
+    void metrics(@Nonnull final MetricsRegistry registry) {
 
-            this.batchWriteOptions = batchWriteOptions;
-            this.lineProtocol = lineProtocol;
-        }
+        Objects.requireNonNull(registry, "MetricsRegistry is required");
+
+        this.metrics = new WriteMetrics(registry, statistics::getBufferedRecords);
     }
 
     /**
-     * The options to apply to a @{@link BatchWrite}.
+     * Publish the events of circuit breaker and concurrency limit by {@link #listenEvents(Class)}.
+     *
+     * @param interceptor the overload protection of PlatformClient
      */
-    private final class BatchWriteOptions {
+    void listenOverloadEvents(@Nonnull final OverloadProtectionInterceptor interceptor) {
 
-        private String bucket;
-        private String organization;
-        private String token;
-        private TimeUnit precision;
+        Objects.requireNonNull(interceptor, "OverloadProtectionInterceptor is required");
 
-        private BatchWriteOptions(@Nonnull final String bucket,
-                                  @Nonnull final String organization,
-                                  @Nonnull final String token,
-                                  @Nonnull final TimeUnit precision) {
+        this.overloadInterceptor = interceptor;
+        interceptor.addListener(overloadListener);
+    }
 
-            Preconditions.checkNonEmptyString(bucket, "bucket");
-            Preconditions.checkNonEmptyString(organization, "organization");
-            Preconditions.checkNonEmptyString(token, "token");
-            Objects.requireNonNull(precision, "TimeUnit.precision is required");
+    /**
+     * Listen the failed writes of batches, the failure is published after the retries are exhausted.
+     *
+     * @return the failures of writes
+     */
+    @Nonnull
+    Observable<Throwable> listenWriteFailures() {
+        return writeFailures;
+    }
 
-            this.bucket = bucket;
-            this.organization = organization;
-            this.token = token;
-            this.precision = precision;
+    @Nonnull
+    private BatchWriteOptions toBatchWriteOptions(@Nonnull final String bucket,
+                                                  @Nonnull final String organization,
+                                                  @Nonnull final String token,
+                                                  @Nonnull final TimeUnit precision) {
+
+        checkWriteParameters(bucket, organization, token, precision);
+
+        return new BatchWriteOptions(bucket, organization, token, precision);
+    }
+
+    static void checkWriteParameters(@Nonnull final String bucket,
+                                     @Nonnull final String organization,
+                                     @Nonnull final String token,
+                                     @Nonnull final TimeUnit precision) {
+
+        Preconditions.checkNonEmptyString(bucket, "bucket");
+        Preconditions.checkNonEmptyString(organization, "organization");
+        Preconditions.checkNonEmptyString(token, "token");
+        Objects.requireNonNull(precision, "TimeUnit.precision is required");
+
+        if (!ALLOWED_PRECISION.contains(precision)) {
+            throw new IllegalArgumentException("Precision must be one of: " + ALLOWED_PRECISION);
         }
+    }
 
-        @Override
-        public boolean equals(final Object o) {
-            if (this == o) {
-                return true;
-            }
-            if (!(o instanceof BatchWriteOptions)) {
-                return false;
+    /**
+     * Create the request that bypass the batching, all records are sent as one batch.
+     *
+     * @return completable that is completed when the server acknowledges the records
+     */
+    @Nonnull
+    private Completable writeImmediately(@Nonnull final String bucket,
+                                         @Nonnull final String organization,
+                                         @Nonnull final String token,
+                                         @Nonnull final TimeUnit precision,
+                                         @Nonnull final List<String> records) {
+
+        Objects.requireNonNull(records, "records are required");
+
+        BatchWriteOptions batchWriteOptions = toBatchWriteOptions(bucket, organization, token, precision);
+
+        PointIndex index = writeOptions.isCoalesceDuplicates() ? new PointIndex() : null;
+
+        Batch batch = new Batch(batchWriteOptions, 0, index);
+        for (String record : records) {
+            if (record != null && !record.isEmpty()) {
+                batch.add(record, utf8Length(record), 1);
             }
-            BatchWriteOptions batchWriteOptions = (BatchWriteOptions) o;
-            return Objects.equals(bucket, batchWriteOptions.bucket)
-                    && Objects.equals(organization, batchWriteOptions.organization)
-                    && Objects.equals(token, batchWriteOptions.token)
-                    && precision == batchWriteOptions.precision;
         }
 
-        @Override
-        public int hashCode() {
-            return Objects.hash(bucket, organization, token, precision);
+        if (batch.duplicates > 0) {
+            publish(new DuplicatesCoalescedEvent(organization, bucket, batch.duplicates,
+                    coalescedRecords.addAndGet(batch.duplicates)));
         }
-    }
 
-    private final class ToWritePointsCompletable implements Function<BatchWrite, CompletableSource> {
+        if (batch.count == 0) {
+            return Completable.complete();
+        }
 
-        private final Scheduler retryScheduler;
+        return writePoints(batch.toBatchWrite())
+                .retryWhen(retryHandler(writer.retryScheduler))
+                .doOnError(writeFailures::onNext);
+    }
 
-        private ToWritePointsCompletable(@Nonnull final Scheduler retryScheduler) {
-            this.retryScheduler = retryScheduler;
+    /**
+     * Hand the batch to the pipeline.
+     *
+     * @param batchWrite the record or chunk of records
+     */
+    private void enqueue(@Nonnull final BatchWrite batchWrite) {
+
+        //
+        // The in-memory buffer is full => spill to disk
+        //
+        if (diskBuffer != null && bufferedRecords.get() >= writeOptions.getBufferLimit()) {
+            spill(batchWrite);
+            return;
         }
 
-        @Override
-        public CompletableSource apply(final BatchWrite batchWrite) {
+        batchWrite.enqueued = System.nanoTime();
 
-            //
-            // InfluxDB Line Protocol => to Request Body
-            //
-            RequestBody requestBody = createBody(batchWrite.lineProtocol);
+        bufferedRecords.addAndGet(batchWrite.records);
+        acceptedRecords.addAndGet(batchWrite.records);
+        statistics.buffered(batchWrite.records, batchWrite.bytes);
+        if (!ingestion.offer(batchWrite)) {
+            bufferedRecords.addAndGet(-batchWrite.records);
+            acceptedRecords.addAndGet(-batchWrite.records);
+            statistics.released(batchWrite.records, batchWrite.bytes, -1);
 
             //
-            // Parameters
-            String organization = batchWrite.batchWriteOptions.organization;
-            String bucket = batchWrite.batchWriteOptions.bucket;
-            String precision = WriteClientImpl.this.toPrecisionParameter(batchWrite.batchWriteOptions.precision);
-            String token = "Token " + batchWrite.batchWriteOptions.token;
-
-            return platformService
-                    .writePoints(organization, bucket, precision, token, requestBody)
-                    .doOnComplete(() -> publish(toSuccessEvent(batchWrite)));
+            // The ingestion stripe is full => spill to disk or discard
+            //
+            if (diskBuffer != null) {
+                spill(batchWrite);
+            } else {
+                dropped(batchWrite);
+            }
+            return;
+        }
+
+        scheduleDrain();
+    }
+
+    /**
+     * Split the records into the chunks limited by the batch size and {@link WriteOptions#getMaxBatchBytes()}.
+     * The empty records are skipped.
+     *
+     * @param batchWriteOptions the destination of records
+     * @param records           the records in InfluxDB Line Protocol
+     * @param consumer          the consumer of chunks
+     */
+    private void chunks(@Nonnull final BatchWriteOptions batchWriteOptions,
+                        @Nonnull final Iterator<String> records,
+                        @Nonnull final Consumer<BatchWrite> consumer) {
+
+        int chunkSize = currentBatchSize();
+        int maxBatchBytes = writeOptions.getMaxBatchBytes();
+
+        Batch chunk = new Batch(batchWriteOptions, 0);
+        while (records.hasNext()) {
+
+            String record = records.next();
+            if (record == null || record.isEmpty()) {
+                continue;
+            }
+
+            int recordBytes = utf8Length(record);
+            if (chunk.count > 0 && maxBatchBytes > 0 && chunk.bytes + 1 + recordBytes > maxBatchBytes) {
+                consumer.accept(chunk.toBatchWrite());
+                chunk = new Batch(batchWriteOptions, 0);
+            }
+
+            chunk.add(record, recordBytes, 1);
+
+            if (chunk.count >= chunkSize) {
+                consumer.accept(chunk.toBatchWrite());
+                chunk = new Batch(batchWriteOptions, 0);
+            }
+        }
+
+        if (chunk.count > 0) {
+            consumer.accept(chunk.toBatchWrite());
+        }
+    }
+
+    private int currentBatchSize() {
+        return adaptiveBatching != null ? adaptiveBatching.getBatchSize() : writeOptions.getBatchSize();
+    }
+
+    private void scheduleDrain() {
+
+        if (drainWip.getAndIncrement() == 0) {
+            drainWorker.schedule(this::drain);
+        }
+    }
+
+    /**
+     * Move the records from the ingestion queue into the pipeline. The loop is executed by one thread at the time,
+     * the producers and the requests of pipeline that arrive during drain are handled by the next iteration.
+     */
+    private void drain() {
+
+        Boolean pipeline = pipelineThread.get();
+        pipelineThread.set(Boolean.TRUE);
+        try {
+            int missed = 1;
+            do {
+                drainIngestion();
+                missed = drainWip.addAndGet(-missed);
+            } while (missed != 0);
+        } finally {
+            pipelineThread.set(pipeline);
+        }
+    }
+
+    private void drainIngestion() {
+        try {
+            ingestion.drain(this::toBuffer);
+
+            //
+            // The records written before flush are drained before the flush marker
+            //
+            BatchWrite flushMarker;
+            while ((flushMarker = flushMarkers.poll()) != null) {
+                ingestion.drain(this::toBuffer);
+                buffer.offer(flushMarker);
+            }
+
+            //
+            // Emit by the demand of pipeline
+            //
+            while (!buffer.isEmpty() && source.offer(buffer.peek())) {
+                BatchWrite emitted = buffer.poll();
+                if (emitted.flushRequest == null) {
+                    bufferRecords -= emitted.records;
+                }
+            }
+
+            if (closing && !completed && buffer.isEmpty()) {
+                completed = true;
+                source.onComplete();
+                drainWorker.dispose();
+            }
+        } catch (Exception e) {
+            publish(new UnhandledErrorEvent(e));
+        }
+    }
+
+    /**
+     * Add the record into bounded buffer. If the records would exceed the buffer limit then is applied
+     * the backpressure strategy, a chunk larger than the limit is accepted into the empty buffer.
+     * The flush markers are never dropped.
+     *
+     * @param batchWrite the record or chunk of records
+     */
+    private void toBuffer(@Nonnull final BatchWrite batchWrite) {
+
+        while (bufferRecords > 0 && bufferRecords + batchWrite.records > writeOptions.getBufferLimit()) {
+
+            BatchWrite dropped = null;
+            switch (writeOptions.getBackpressureStrategy()) {
+
+                case DROP_OLDEST:
+                    dropped = removeRecord(buffer.iterator());
+                    break;
+
+                case DROP_LATEST:
+                    dropped = removeRecord(buffer.descendingIterator());
+                    break;
+
+                default:
+                    source.onError(new MissingBackpressureException("The buffer is full"));
+                    break;
+            }
+
+            //
+            // Only the flush markers left or the pipeline is terminated
+            //
+            if (dropped == null) {
+                break;
+            }
+
+            bufferRecords -= dropped.records;
+            bufferedRecords.addAndGet(-dropped.records);
+            settledRecords.addAndGet(dropped.records);
+            statistics.released(dropped.records, dropped.bytes, -1);
+            dropped(dropped);
+        }
+
+        buffer.offer(batchWrite);
+        bufferRecords += batchWrite.records;
+    }
+
+    @Nullable
+    private BatchWrite removeRecord(@Nonnull final Iterator<BatchWrite> iterator) {
+
+        while (iterator.hasNext()) {
+            BatchWrite batchWrite = iterator.next();
+            if (batchWrite.flushRequest == null) {
+                iterator.remove();
+                return batchWrite;
+            }
+        }
+
+        return null;
+    }
+
+    @Nonnull
+    private FlowableTransformer<BatchWrite, BatchWrite> aggregation(@Nonnull final Scheduler scheduler) {
+
+        Objects.requireNonNull(scheduler, "Aggregation scheduler is required");
+
+        AggregationOptions aggregation = writeOptions.getAggregation();
+
+        return source -> {
+
+            //
+            // source without aggregation
+            //
+            if (aggregation == null) {
+                return source;
+            }
+
+            //
+            // The closed windows are emitted at least every flush interval
+            //
+            long tickInterval = Math.min(aggregation.getWindow(), writeOptions.getFlushInterval());
+
+            return Flowable.defer(() -> {
+
+                PointAggregator<BatchWriteOptions> aggregator = new PointAggregator<>(aggregation);
+
+                return source
+                        .publish(records -> {
+
+                            Flowable<Long> ticks = Flowable
+                                    .interval(tickInterval, TimeUnit.MILLISECONDS, scheduler)
+                                    .onBackpressureDrop()
+                                    .takeUntil(records.ignoreElements().toFlowable());
+
+                            return Flowable.merge(records, ticks);
+                        })
+                        //
+                        // Emit the rest of aggregates
+                        //
+                        .concatWith(Flowable.just(BatchAccumulator.FLUSH))
+                        .concatMapIterable(signal -> aggregate(aggregator, signal, scheduler));
+            });
+        };
+    }
+
+    /**
+     * @param aggregator the running aggregates
+     * @param signal     the record, the tick or the flush signal
+     * @param scheduler  the scheduler for current time
+     * @return the not aggregated records and the aggregated points of closed windows
+     */
+    @Nonnull
+    private List<BatchWrite> aggregate(@Nonnull final PointAggregator<BatchWriteOptions> aggregator,
+                                       @Nonnull final Object signal,
+                                       @Nonnull final Scheduler scheduler) {
+
+        long now = scheduler.now(TimeUnit.MILLISECONDS);
+
+        List<BatchWrite> emitted = new ArrayList<>(1);
+
+        //
+        // The aggregated points are accepted as the new records
+        //
+        BiConsumer<BatchWriteOptions, String> emit = (batchWriteOptions, lineProtocol) -> {
+            acceptedRecords.incrementAndGet();
+            emitted.add(new BatchWrite(batchWriteOptions, lineProtocol));
+        };
+
+        if (signal instanceof Long) {
+            aggregator.emit(now, false, emit);
+            return emitted;
+        }
+
+        if (!(signal instanceof BatchWrite)) {
+            aggregator.emit(now, true, emit);
+            return emitted;
+        }
+
+        BatchWrite batchWrite = (BatchWrite) signal;
+
+        //
+        // Flush marker => emit the closed windows before marker, the open windows are emitted by close,
+        // otherwise the later aggregate of the same window would override the written one
+        //
+        if (batchWrite.flushRequest != null) {
+            aggregator.emit(now, false, emit);
+            emitted.add(batchWrite);
+            return emitted;
+        }
+
+        BatchWriteOptions batchWriteOptions = batchWrite.batchWriteOptions;
+        TimeUnit precision = batchWriteOptions.precision;
+
+        if (batchWrite.records == 1) {
+            if (aggregator.add(batchWriteOptions, precision, batchWrite.lineProtocol, now)) {
+                settledRecords.incrementAndGet();
+            } else {
+                emitted.add(batchWrite);
+            }
+            return emitted;
+        }
+
+        //
+        // The chunk of records => pass the not aggregated records as the chunk
+        //
+        List<String> passed = new ArrayList<>();
+        for (String record : batchWrite.lineProtocol.split("\n")) {
+            if (aggregator.add(batchWriteOptions, precision, record, now)) {
+                settledRecords.incrementAndGet();
+            } else {
+                passed.add(record);
+            }
+        }
+
+        if (passed.size() == batchWrite.records) {
+            emitted.add(batchWrite);
+        } else if (!passed.isEmpty()) {
+            emitted.add(new BatchWrite(batchWriteOptions, String.join("\n", passed), passed.size()));
+        }
+
+        return emitted;
+    }
+
+    @Nonnull
+    private FlowableTransformer<BatchWrite, BatchWrite> batching(@Nonnull final Scheduler scheduler) {
+
+        Objects.requireNonNull(scheduler, "Batch scheduler is required");
+
+        //
+        // The adaptive batching checks the age of batches by the lowest flush interval
+        //
+        long tickInterval = adaptiveBatching != null
+                ? writeOptions.getAdaptiveBatching().getMinFlushInterval() : writeOptions.getFlushInterval();
+
+        return source -> Flowable.defer(() -> {
+
+            BatchAccumulator accumulator = new BatchAccumulator(scheduler);
+
+            return source
+                    .publish(records -> {
+
+                        //
+                        // Flush interval, completed with the source
+                        //
+                        Flowable<Long> ticks = Flowable
+                                .interval(tickInterval, TimeUnit.MILLISECONDS, scheduler)
+                                .onBackpressureDrop()
+                                .takeUntil(records.ignoreElements().toFlowable());
+
+                        return Flowable.merge(records, ticks);
+                    })
+                    //
+                    // Flush the rest of data
+                    //
+                    .concatWith(Flowable.just(BatchAccumulator.FLUSH))
+                    .concatMapIterable(accumulator::accept);
+        });
+    }
+
+    @Nonnull
+    private FlowableTransformer<BatchWrite, BatchWrite> jitter(@Nonnull final Scheduler scheduler) {
+
+        Objects.requireNonNull(scheduler, "Jitter scheduler is required");
+
+        return source -> {
+
+            //
+            // source without jitter
+            //
+            if (writeOptions.getJitterInterval() <= 0) {
+                return source;
+            }
+
+            //
+            // Add jitter => dynamic delay
+            //
+            return source.delay((Function<BatchWrite, Flowable<Long>>) pointFlowable -> {
+
+                //
+                // The flush marker is delayed by maximum jitter => after all previous batches
+                //
+                int delay = pointFlowable.flushRequest != null ? writeOptions.getJitterInterval() : jitterDelay();
+
+                LOG.log(Level.FINEST, "Generated Jitter dynamic delay: {0}", delay);
+
+                return Flowable.timer(delay, TimeUnit.MILLISECONDS, scheduler);
+            });
+        };
+    }
+
+    /**
+     * Write the batches sequentially or concurrently by {@link WriteOptions#getMaxInFlightRequests()}.
+     * <p>
+     * The concurrent writes are distributed into lanes by destination (bucket, organization, precision).
+     * Each lane writes the batches sequentially so the order for the same destination is preserved.
+     * The number of lanes is bounded so the {@code groupBy} never creates more groups than
+     * {@code flatMap} is able to subscribe.
+     */
+    @Nonnull
+    private Function<Flowable<BatchWrite>, Completable> writeRequests(
+            @Nonnull final Function<BatchWrite, CompletableSource> writer) {
+
+        int maxInFlightRequests = writeOptions.getMaxInFlightRequests();
+
+        //
+        // Isolated destinations
+        //
+        if (writeOptions.getDestinationQueueLimit() > 0) {
+
+            Scheduler scheduler = concurrentScheduler();
+
+            return source -> Completable.create(emitter -> {
+
+                DestinationDispatcher dispatcher = new DestinationDispatcher(writer, scheduler, emitter);
+                dispatcher.subscribe(source);
+            });
+        }
+
+        //
+        // One request in flight
+        //
+        if (maxInFlightRequests == 1) {
+            return source -> source.concatMapCompletable(writer);
+        }
+
+        Scheduler scheduler = concurrentScheduler();
+
+        return source -> source
+                //
+                // The flush marker has to pass through all lanes
+                //
+                .concatMapIterable(batchWrite -> {
+
+                    if (batchWrite.flushRequest == null) {
+                        return Collections.singletonList(batchWrite);
+                    }
+
+                    List<BatchWrite> markers = new ArrayList<>(maxInFlightRequests);
+                    for (int lane = 0; lane < maxInFlightRequests; lane++) {
+                        markers.add(new BatchWrite(batchWrite.flushRequest, lane));
+                    }
+                    return markers;
+                })
+                .groupBy(batchWrite -> batchWrite.flushRequest != null
+                        ? batchWrite.lane : Math.floorMod(batchWrite.batchWriteOptions.laneHash(), maxInFlightRequests))
+                .flatMapCompletable(lane -> lane
+                        .observeOn(scheduler)
+                        .concatMapCompletable(writer), false, maxInFlightRequests);
+    }
+
+    /**
+     * @return the {@link WriteOptions#getWriteScheduler()} or {@link Schedulers#io()} if the write scheduler
+     * does not support concurrent work
+     */
+    @Nonnull
+    private Scheduler concurrentScheduler() {
+
+        return writeOptions.getWriteScheduler() == Schedulers.trampoline()
+                ? Schedulers.io() : writeOptions.getWriteScheduler();
+    }
+
+    private int jitterDelay() {
+
+        return (int) (Math.random() * writeOptions.getJitterInterval());
+    }
+
+    private <T extends AbstractInfluxEvent> void publish(@Nonnull final T event) {
+
+        Objects.requireNonNull(event, "Event is required");
+
+        event.logEvent();
+
+        Boolean pipeline = pipelineThread.get();
+        pipelineThread.set(Boolean.TRUE);
+        try {
+            eventPublisher.onNext(event);
+        } finally {
+            pipelineThread.set(pipeline);
+        }
+    }
+
+    /**
+     * Count the records dropped by the backpressure.
+     *
+     * @param batchWrite the dropped records
+     */
+    private void dropped(@Nonnull final BatchWrite batchWrite) {
+
+        BatchWriteOptions batchWriteOptions = batchWrite.batchWriteOptions;
+
+        statistics.dropped(batchWriteOptions.bucket, batchWrite.records, batchWrite.bytes);
+        metrics.droppedRecords.increment(batchWrite.records);
+
+        publish(new BackpressureEvent(batchWriteOptions.organization, batchWriteOptions.bucket,
+                batchWrite.records, batchWrite.bytes,
+                statistics.getBufferedRecords(), statistics.getBufferedBytes(), statistics.getDroppedRecords()));
+    }
+
+    /**
+     * Store the batch into persistent spill queue.
+     *
+     * @param batchWrite to store
+     */
+    private void spill(@Nonnull final BatchWrite batchWrite) {
+
+        Objects.requireNonNull(batchWrite, "BatchWrite is required");
+
+        boolean accepted = diskBuffer.append(encode(batchWrite));
+        if (!accepted) {
+
+            dropped(batchWrite);
+
+            if (writeOptions.getDiskBuffer().getEvictionPolicy() == BackpressureOverflowStrategy.ERROR) {
+                String message = "The disk buffer is full, the batch is discarded.";
+
+                publish(new UnhandledErrorEvent(new InfluxException(message)));
+            }
+        }
+    }
+
+    /**
+     * Replay the spilled batches in order. The consecutive batches with same {@link BatchWriteOptions} are joined
+     * into one request up to {@link WriteOptions#getBatchSize()} records and {@link WriteOptions#getMaxBatchBytes()}.
+     * The replay stops on the first failure which is worth to retry. The batch rejected by the server
+     * (bad request, unauthorized, ...) is discarded and reported by {@link UnhandledErrorEvent}, so it doesn't
+     * block the replay of the following batches.
+     *
+     * @return completable that is completed when the spill queue is empty or the write failed
+     */
+    @Nonnull
+    private Completable replay() {
+
+        return Completable.defer(() -> {
+
+            List<DiskBuffer.Record> records = diskBuffer.peek(writeOptions.getBatchSize());
+            if (records.isEmpty()) {
+                return Completable.complete();
+            }
+
+            BatchWrite first;
+            try {
+                first = decode(records.get(0).getPayload());
+            } catch (RuntimeException e) {
+                discard(Collections.singletonList(records.get(0)), e);
+
+                return replay();
+            }
+
+            //
+            // Join the same destinations up to batch size and max batch bytes
+            //
+            int batchSize = writeOptions.getBatchSize();
+            int maxBatchBytes = writeOptions.getMaxBatchBytes();
+
+            List<DiskBuffer.Record> joined = new ArrayList<>();
+            StringBuilder lineProtocol = new StringBuilder(first.lineProtocol);
+            int joinedRecords = first.records;
+            int joinedBytes = first.bytes;
+            joined.add(records.get(0));
+
+            for (DiskBuffer.Record record : records.subList(1, records.size())) {
+                BatchWrite next;
+                try {
+                    next = decode(record.getPayload());
+                } catch (RuntimeException e) {
+                    break;
+                }
+                if (!first.batchWriteOptions.equals(next.batchWriteOptions)
+                        || joinedRecords + next.records > batchSize
+                        || maxBatchBytes > 0 && joinedBytes + 1 + next.bytes > maxBatchBytes) {
+                    break;
+                }
+                lineProtocol.append("\n").append(next.lineProtocol);
+                joinedRecords += next.records;
+                joinedBytes += 1 + next.bytes;
+                joined.add(record);
+            }
+
+            BatchWrite batchWrite = new BatchWrite(first.batchWriteOptions, lineProtocol.toString(), joinedRecords,
+                    joinedBytes);
+
+            LOG.log(Level.FINEST, "Replaying {0} records from the disk buffer", joinedRecords);
+
+            return writePoints(batchWrite)
+                    .onErrorResumeNext(throwable -> {
+
+                        //
+                        // Server is unavailable => replay again by next interval
+                        //
+                        if (isRetryWorth(throwable)) {
+                            return Completable.error(throwable);
+                        }
+
+                        discard(joined, throwable);
+
+                        return Completable.complete();
+                    })
+                    .doOnComplete(() -> diskBuffer.remove(joined))
+                    .andThen(replay());
+
+        }).onErrorComplete(throwable -> {
+
+            LOG.log(Level.FINEST, "The replay of disk buffer failed, will be retried", throwable);
+
+            return true;
+        });
+    }
+
+    /**
+     * Remove the spilled batches which will never be accepted by the server.
+     *
+     * @param records the spilled batches
+     * @param cause   the reason of discard
+     */
+    private void discard(@Nonnull final List<DiskBuffer.Record> records, @Nonnull final Throwable cause) {
+
+        LOG.log(Level.WARNING, "The spilled batches are rejected by the server and discarded: {0}", records.size());
+
+        diskBuffer.remove(records);
+        metrics.errors.increment();
+
+        publish(new UnhandledErrorEvent(InfluxException.fromCause(cause)));
+    }
+
+    @Nonnull
+    private Completable writePoints(@Nonnull final BatchWrite batchWrite) {
+
+        //
+        // Parameters
+        String organization = batchWrite.batchWriteOptions.organization;
+        String bucket = batchWrite.batchWriteOptions.bucket;
+        String precision = toPrecisionParameter(batchWrite.batchWriteOptions.precision);
+        String token = "Token " + batchWrite.batchWriteOptions.token;
+
+        //
+        // Subscribed by each attempt => measure latency and count retries
+        //
+        return Completable.defer(() -> {
+
+            long started = System.nanoTime();
+            int retries = batchWrite.attempts++;
+            if (retries == 0) {
+                batchWrite.firstAttempt = started;
+            }
+
+            //
+            // InfluxDB Line Protocol => to Request Body, the compression is done here to known the size of body
+            //
+            if (batchWrite.body == null) {
+                byte[] body = batchWrite.lineProtocol.getBytes(StandardCharsets.UTF_8);
+                if (interceptor.isEnabled() && body.length >= interceptor.getThreshold()) {
+                    CompressionCodec codec = interceptor.getCodec();
+                    body = compress(codec, body);
+                    batchWrite.contentEncoding = codec.getContentEncoding();
+                }
+                batchWrite.body = body;
+            }
+
+            byte[] body = batchWrite.body;
+            String contentEncoding = batchWrite.contentEncoding;
+            int bodyLength = body.length;
+
+            //
+            // Queued by the rate limit => the write is delayed, the delay isn't part of latency
+            //
+            long delay = rateLimiter != null ? rateLimiter.acquire(organization, bodyLength) : 0;
+
+            Completable written = platformService
+                    .writePoints(organization, bucket, precision, token, contentEncoding, createBody(body))
+                    .doOnComplete(() -> {
+                        long elapsed = System.nanoTime() - started - delay;
+                        long latency = TimeUnit.NANOSECONDS.toMillis(elapsed);
+
+                        WriteMetrics writeMetrics = metrics;
+                        writeMetrics.batchRecords.record(batchWrite.records);
+                        writeMetrics.batchBytes.record(bodyLength);
+                        writeMetrics.duration.record(elapsed);
+
+                        publish(toSuccessEvent(batchWrite, bodyLength, latency, retries));
+
+                        //
+                        // Measured latency for adaptive batching
+                        //
+                        if (adaptiveBatching != null) {
+                            double bufferFill = (double) bufferedRecords.get()
+                                    / Math.max(1, writeOptions.getBufferLimit());
+
+                            publishIfAdjusted(adaptiveBatching.onSuccess(latency, batchWrite.records, bufferFill));
+                        }
+                    })
+                    .doOnError(throwable -> {
+                        if (adaptiveBatching != null && isThrottled(throwable)) {
+                            publishIfAdjusted(adaptiveBatching.onThrottle());
+                        }
+                    });
+
+            if (delay > 0) {
+                return Completable.timer(delay, TimeUnit.NANOSECONDS, writer.retryScheduler).andThen(written);
+            }
+
+            return written;
+        });
+    }
+
+    @Nonnull
+    private byte[] compress(@Nonnull final CompressionCodec codec, @Nonnull final byte[] body) throws IOException {
+
+        Buffer compressed = new Buffer();
+        try (OutputStream output = codec.compress(compressed.outputStream())) {
+            output.write(body);
+        }
+
+        return compressed.readByteArray();
+    }
+
+    private void publishIfAdjusted(@Nullable final BatchingAdjustedEvent event) {
+        if (event != null) {
+            publish(event);
+        }
+    }
+
+    @Nonnull
+    private WriteSuccessEvent toSuccessEvent(@Nonnull final BatchWrite batchWrite,
+                                             final long compressedBytes,
+                                             final long latency,
+                                             final int retries) {
+
+        long queueingDelay = batchWrite.enqueued != -1
+                ? TimeUnit.NANOSECONDS.toMillis(Math.max(0, batchWrite.firstAttempt - batchWrite.enqueued)) : 0;
+
+        return new WriteSuccessEvent(
+                batchWrite.batchWriteOptions.organization,
+                batchWrite.batchWriteOptions.bucket,
+                batchWrite.batchWriteOptions.precision,
+                batchWrite.batchWriteOptions.token,
+                writeOptions.isAttachLineProtocol() ? batchWrite.lineProtocol : null,
+                batchWrite.records,
+                batchWrite.bytes,
+                compressedBytes,
+                queueingDelay,
+                latency,
+                retries);
+    }
+
+    /**
+     * The failure is temporary and the write is worth to retry => network error, throttling or unavailable server.
+     *
+     * @param throwable the cause of failure
+     * @return {@code true} if the write is worth to retry
+     */
+    static boolean isRetryWorth(@Nonnull final Throwable throwable) {
+
+        if (throwable instanceof IOException) {
+            return true;
+        }
+
+        if (throwable instanceof HttpException) {
+            int code = ((HttpException) throwable).code();
+
+            return code == TOO_MANY_REQUESTS
+                    || code == BAD_GATEWAY
+                    || code == SERVICE_UNAVAILABLE
+                    || code == GATEWAY_TIMEOUT;
+        }
+
+        return false;
+    }
+
+    /**
+     * @param throwable the cause of failure
+     * @return {@code true} if the server is throttling the writes
+     */
+    static boolean isThrottled(@Nonnull final Throwable throwable) {
+
+        if (throwable instanceof HttpException) {
+            int code = ((HttpException) throwable).code();
+
+            return code == TOO_MANY_REQUESTS || code == SERVICE_UNAVAILABLE;
+        }
+
+        return false;
+    }
+
+    @Nonnull
+    private byte[] encode(@Nonnull final BatchWrite batchWrite) {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+
+            writeString(output, batchWrite.batchWriteOptions.bucket);
+            writeString(output, batchWrite.batchWriteOptions.organization);
+            writeString(output, batchWrite.batchWriteOptions.token);
+            writeString(output, batchWrite.batchWriteOptions.precision.name());
+            writeString(output, batchWrite.lineProtocol);
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    @Nonnull
+    private BatchWrite decode(@Nonnull final byte[] payload) {
+
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload))) {
+
+            String bucket = readString(input);
+            String organization = readString(input);
+            String token = readString(input);
+            TimeUnit precision = TimeUnit.valueOf(readString(input));
+            String lineProtocol = readString(input);
+
+            //
+            // The records of batch are separated by new line
+            //
+            int records = 1;
+            for (int i = lineProtocol.indexOf('\n'); i != -1; i = lineProtocol.indexOf('\n', i + 1)) {
+                records++;
+            }
+
+            return new BatchWrite(new BatchWriteOptions(bucket, organization, token, precision), lineProtocol,
+                    records);
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeString(@Nonnull final DataOutputStream output, @Nonnull final String value) throws IOException {
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    @Nonnull
+    private String readString(@Nonnull final DataInputStream input) throws IOException {
+
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Nonnull
+    private String toPrecisionParameter(@Nonnull final TimeUnit precision) {
+
+        switch (precision) {
+            case NANOSECONDS:
+                return "ns";
+            case MICROSECONDS:
+                return "us";
+            case MILLISECONDS:
+                return "ms";
+            case SECONDS:
+                return "s";
+            default:
+                throw new IllegalArgumentException("Precision must be one of: " + ALLOWED_PRECISION);
+        }
+    }
+
+    /**
+     * The Batch Write.
+     */
+    private final class BatchWrite {
+
+        private BatchWriteOptions batchWriteOptions;
+        private String lineProtocol;
+        private int records;
+        private int bytes;
+
+        // The time of entry into buffer (nanoseconds)
+        private long enqueued = -1;
+
+        // The number of write attempts and the start of first attempt (nanoseconds)
+        private int attempts;
+        private long firstAttempt;
+
+        // The request body and its content encoding, prepared by the first attempt and reused by retries
+        private byte[] body;
+        private String contentEncoding;
+
+        private FlushRequest flushRequest;
+        private int lane;
+
+        private BatchWrite(@Nonnull final BatchWriteOptions batchWriteOptions, @Nonnull final String lineProtocol) {
+            this(batchWriteOptions, lineProtocol, 1);
+        }
+
+        private BatchWrite(@Nonnull final BatchWriteOptions batchWriteOptions,
+                           @Nonnull final String lineProtocol,
+                           final int records) {
+            this(batchWriteOptions, lineProtocol, records, utf8Length(lineProtocol));
+        }
+
+        private BatchWrite(@Nonnull final BatchWriteOptions batchWriteOptions,
+                           @Nonnull final String lineProtocol,
+                           final int records,
+                           final int bytes) {
+
+            Objects.requireNonNull(batchWriteOptions, "BatchWriteOptions is required");
+            Preconditions.checkNonEmptyString(lineProtocol, "lineProtocol");
+
+            this.batchWriteOptions = batchWriteOptions;
+            this.lineProtocol = lineProtocol;
+            this.records = records;
+            this.bytes = bytes;
+        }
+
+        /**
+         * The flush marker.
+         *
+         * @param flushRequest the flush that waits for the marker
+         * @param lane         the write lane of marker, {@code -1} before dispatch to lanes
+         */
+        private BatchWrite(@Nonnull final FlushRequest flushRequest, final int lane) {
+
+            Objects.requireNonNull(flushRequest, "FlushRequest is required");
+
+            this.flushRequest = flushRequest;
+            this.lane = lane;
+        }
+    }
+
+    /**
+     * The source of pipeline. The buffered records are emitted by the drain worker in the requested amount.
+     */
+    private final class BufferSource implements Publisher<BatchWrite>, Subscription {
+
+        private final AtomicLong requested = new AtomicLong();
+        private volatile Subscriber<? super BatchWrite> subscriber;
+
+        @Override
+        public void subscribe(final Subscriber<? super BatchWrite> subscriber) {
+
+            this.subscriber = subscriber;
+            subscriber.onSubscribe(this);
+        }
+
+        @Override
+        public void request(final long n) {
+
+            requested.getAndAccumulate(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+
+            //
+            // New demand => emit the buffered records
+            //
+            scheduleDrain();
+        }
+
+        @Override
+        public void cancel() {
+            subscriber = null;
+        }
+
+        /**
+         * @param batchWrite the record to emit
+         * @return {@code false} if the pipeline does not request more records
+         */
+        private boolean offer(@Nonnull final BatchWrite batchWrite) {
+
+            Subscriber<? super BatchWrite> actual = subscriber;
+
+            //
+            // The pipeline is terminated => discard
+            //
+            if (actual == null) {
+                return true;
+            }
+
+            if (requested.get() == 0) {
+                return false;
+            }
+
+            requested.decrementAndGet();
+            actual.onNext(batchWrite);
+
+            return true;
+        }
+
+        private void onComplete() {
+
+            Subscriber<? super BatchWrite> actual = subscriber;
+            subscriber = null;
+
+            if (actual != null) {
+                actual.onComplete();
+            }
+        }
+
+        private void onError(@Nonnull final Throwable throwable) {
+
+            Subscriber<? super BatchWrite> actual = subscriber;
+            subscriber = null;
+
+            if (actual != null) {
+                actual.onError(throwable);
+            }
+        }
+    }
+
+    /**
+     * The flush that is completed when the flush marker passes through all write lanes.
+     */
+    private final class FlushRequest {
+
+        private final CompletableFuture<Void> written = new CompletableFuture<>();
+        private final AtomicInteger lanes = new AtomicInteger(writeOptions.getMaxInFlightRequests());
+
+        /**
+         * @param lanes the number of lanes that has to be flushed
+         */
+        private void expectLanes(final int lanes) {
+            this.lanes.set(lanes);
+            if (lanes == 0) {
+                complete();
+            }
+        }
+
+        private void laneFlushed() {
+            if (lanes.decrementAndGet() == 0) {
+                complete();
+            }
+        }
+
+        private void complete() {
+            flushRequests.remove(this);
+            written.complete(null);
+        }
+    }
+
+    /**
+     * Dispatch the batches into the bounded queues by destination. The ready destinations are served
+     * round-robin by at most {@link WriteOptions#getMaxInFlightRequests()} requests, each destination has
+     * at most one request in flight, so a slow destination holds only its own request.
+     * The batches are requested from the pipeline only while the queued records are under
+     * {@link WriteOptions#getBufferLimit()}. The idle destinations are evicted.
+     */
+    @ThreadSafe
+    private final class DestinationDispatcher {
+
+        private final Function<BatchWrite, CompletableSource> writer;
+        private final Scheduler scheduler;
+        private final CompletableEmitter emitter;
+
+        private final Map<BatchWriteOptions, Destination> destinations = new HashMap<>();
+        private final Deque<Destination> ready = new ArrayDeque<>();
+        private final CompositeDisposable requests = new CompositeDisposable();
+        private final Upstream upstream = new Upstream();
+
+        private int inFlight;
+        private int queuedRecords;
+        private boolean requested;
+        private boolean completed;
+
+        private DestinationDispatcher(@Nonnull final Function<BatchWrite, CompletableSource> writer,
+                                      @Nonnull final Scheduler scheduler,
+                                      @Nonnull final CompletableEmitter emitter) {
+            this.writer = writer;
+            this.scheduler = scheduler;
+            this.emitter = emitter;
+
+            emitter.setDisposable(requests);
+        }
+
+        private void subscribe(@Nonnull final Flowable<BatchWrite> source) {
+            requests.add(upstream);
+            source.subscribe(upstream);
+        }
+
+        private void onNext(@Nonnull final BatchWrite batchWrite) {
+
+            BatchWrite dropped;
+            boolean request;
+            synchronized (this) {
+                requested = false;
+                dropped = enqueue(batchWrite);
+                dispatch();
+                request = demand();
+            }
+
+            //
+            // The listeners of event are notified outside of lock
+            //
+            if (dropped != null) {
+                dropped(dropped);
+            }
+
+            if (request) {
+                upstream.requestNext();
+            }
+        }
+
+        /**
+         * @return {@code true} if the next batch has to be requested from the pipeline
+         */
+        private boolean demand() {
+
+            if (requested || completed || queuedRecords >= writeOptions.getBufferLimit()) {
+                return false;
+            }
+
+            requested = true;
+
+            return true;
+        }
+
+        /**
+         * @return the batch dropped by the backpressure strategy
+         */
+        @Nullable
+        private BatchWrite enqueue(@Nonnull final BatchWrite batchWrite) {
+
+            //
+            // Flush marker => pass through all not empty destinations
+            //
+            if (batchWrite.flushRequest != null) {
+
+                int lanes = 0;
+                for (Destination destination : destinations.values()) {
+                    if (destination.sending || !destination.queue.isEmpty()) {
+                        destination.enqueue(batchWrite);
+                        lanes++;
+                    }
+                }
+
+                batchWrite.flushRequest.expectLanes(lanes);
+
+                return null;
+            }
+
+            Destination destination = destinations.computeIfAbsent(batchWrite.batchWriteOptions, Destination::new);
+
+            //
+            // The queue is full => drop by the backpressure strategy
+            //
+            if (destination.batches >= writeOptions.getDestinationQueueLimit()) {
+
+                BatchWrite dropped = batchWrite;
+                if (writeOptions.getBackpressureStrategy() == BackpressureOverflowStrategy.DROP_OLDEST) {
+                    dropped = destination.removeOldest();
+                    destination.enqueue(batchWrite);
+                }
+
+                queuedRecords += batchWrite.records - dropped.records;
+                destination.droppedRecords += dropped.records;
+                settledRecords.addAndGet(dropped.records);
+
+                LOG.log(Level.FINEST, "The queue of bucket: {0} is full, dropped records: {1}",
+                        new Object[]{dropped.batchWriteOptions.bucket, destination.droppedRecords});
+
+                return dropped;
+            }
+
+            destination.enqueue(batchWrite);
+            queuedRecords += batchWrite.records;
+
+            return null;
+        }
+
+        private void onError(@Nonnull final Throwable throwable) {
+            emitter.onError(throwable);
+        }
+
+        private synchronized void onComplete() {
+            completed = true;
+            completeIfDone();
+        }
+
+        private void onWritten(@Nonnull final Destination destination) {
+
+            boolean request;
+            synchronized (this) {
+
+                inFlight--;
+                destination.sending = false;
+
+                //
+                // The destination goes back to the end of line
+                //
+                if (!destination.queue.isEmpty()) {
+                    ready.add(destination);
+                } else {
+                    evict(destination);
+                }
+
+                dispatch();
+                completeIfDone();
+                request = demand();
+            }
+
+            if (request) {
+                upstream.requestNext();
+            }
+        }
+
+        /**
+         * The ready destinations are served in order by the free in-flight requests, the destination goes
+         * to the end of line after its write.
+         */
+        private void dispatch() {
+
+            while (!ready.isEmpty() && inFlight < writeOptions.getMaxInFlightRequests()) {
+
+                Destination destination = ready.poll();
+                BatchWrite batchWrite = destination.queue.poll();
+
+                if (batchWrite.flushRequest != null) {
+                    batchWrite.flushRequest.laneFlushed();
+                    if (!destination.queue.isEmpty()) {
+                        ready.add(destination);
+                    } else {
+                        evict(destination);
+                    }
+                    continue;
+                }
+
+                destination.batches--;
+                destination.sending = true;
+                queuedRecords -= batchWrite.records;
+                inFlight++;
+
+                requests.add(Completable
+                        .defer(() -> writer.apply(batchWrite))
+                        .subscribeOn(scheduler)
+                        .subscribeWith(new Request(destination)));
+            }
+        }
+
+        private void evict(@Nonnull final Destination destination) {
+
+            if (!destination.sending && destination.queue.isEmpty()) {
+                destinations.remove(destination.batchWriteOptions);
+            }
+        }
+
+        private void completeIfDone() {
+
+            if (completed && inFlight == 0 && ready.isEmpty()) {
+                emitter.onComplete();
+            }
+        }
+
+        /**
+         * The subscriber of pipeline with the demand of one batch at the time.
+         */
+        private final class Upstream extends DisposableSubscriber<BatchWrite> {
+
+            @Override
+            protected void onStart() {
+                synchronized (DestinationDispatcher.this) {
+                    requested = true;
+                }
+                request(1);
+            }
+
+            @Override
+            public void onNext(@Nonnull final BatchWrite batchWrite) {
+                DestinationDispatcher.this.onNext(batchWrite);
+            }
+
+            @Override
+            public void onError(@Nonnull final Throwable throwable) {
+                DestinationDispatcher.this.onError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                DestinationDispatcher.this.onComplete();
+            }
+
+            private void requestNext() {
+                request(1);
+            }
+        }
+
+        /**
+         * The write request of destination.
+         */
+        private final class Request extends DisposableCompletableObserver {
+
+            private final Destination destination;
+
+            private Request(@Nonnull final Destination destination) {
+                this.destination = destination;
+            }
+
+            @Override
+            public void onComplete() {
+                requests.delete(this);
+                onWritten(destination);
+            }
+
+            @Override
+            public void onError(@Nonnull final Throwable throwable) {
+                requests.delete(this);
+                DestinationDispatcher.this.onError(throwable);
+            }
+        }
+
+        /**
+         * The queue of one destination.
+         */
+        private final class Destination {
+
+            private final BatchWriteOptions batchWriteOptions;
+            private final Deque<BatchWrite> queue = new ArrayDeque<>();
+            private int batches;
+            private boolean sending;
+            private long droppedRecords;
+
+            private Destination(@Nonnull final BatchWriteOptions batchWriteOptions) {
+                this.batchWriteOptions = batchWriteOptions;
+            }
+
+            private void enqueue(@Nonnull final BatchWrite batchWrite) {
+
+                if (batchWrite.flushRequest == null) {
+                    batches++;
+                }
+
+                if (queue.isEmpty() && !sending) {
+                    ready.add(this);
+                }
+
+                queue.add(batchWrite);
+            }
+
+            @Nonnull
+            private BatchWrite removeOldest() {
+
+                Iterator<BatchWrite> iterator = queue.iterator();
+                while (iterator.hasNext()) {
+                    BatchWrite batchWrite = iterator.next();
+                    if (batchWrite.flushRequest == null) {
+                        iterator.remove();
+                        batches--;
+                        return batchWrite;
+                    }
+                }
+
+                throw new IllegalStateException("The queue has not any batch.");
+            }
+        }
+    }
+
+    /**
+     * The options to apply to a @{@link BatchWrite}.
+     */
+    private final class BatchWriteOptions {
+
+        private String bucket;
+        private String organization;
+        private String token;
+        private TimeUnit precision;
+
+        private BatchWriteOptions(@Nonnull final String bucket,
+                                  @Nonnull final String organization,
+                                  @Nonnull final String token,
+                                  @Nonnull final TimeUnit precision) {
+
+            Preconditions.checkNonEmptyString(bucket, "bucket");
+            Preconditions.checkNonEmptyString(organization, "organization");
+            Preconditions.checkNonEmptyString(token, "token");
+            Objects.requireNonNull(precision, "TimeUnit.precision is required");
+
+            this.bucket = bucket;
+            this.organization = organization;
+            this.token = token;
+            this.precision = precision;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BatchWriteOptions)) {
+                return false;
+            }
+            BatchWriteOptions batchWriteOptions = (BatchWriteOptions) o;
+            return Objects.equals(bucket, batchWriteOptions.bucket)
+                    && Objects.equals(organization, batchWriteOptions.organization)
+                    && Objects.equals(token, batchWriteOptions.token)
+                    && precision == batchWriteOptions.precision;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bucket, organization, token, precision);
+        }
+
+        /**
+         * @return the hash of the destination - bucket, organization, precision. The hash is same for each run,
+         * the hash of enum is based on identity.
+         */
+        private int laneHash() {
+            return Objects.hash(bucket, organization, precision.name());
+        }
+    }
+
+    /**
+     * Collects the records into the batches by {@link BatchWriteOptions}. The batch is closed when it reaches
+     * the batch size, {@link WriteOptions#getMaxBatchBytes()} bytes or when arrives the flush signal.
+     * The size of batch in bytes is computed incrementally.
+     */
+    @NotThreadSafe
+    private final class BatchAccumulator {
+
+        private static final String FLUSH = "flush";
+
+        private final Map<BatchWriteOptions, Batch> batches = new LinkedHashMap<>();
+        private final Deque<PointIndex> indexes = new ArrayDeque<>();
+        private final Scheduler scheduler;
+
+        private BatchAccumulator(@Nonnull final Scheduler scheduler) {
+            this.scheduler = scheduler;
+        }
+
+        /**
+         * @param signal the record, the tick of flush interval or flush signal
+         * @return the closed batches
+         */
+        @Nonnull
+        private List<BatchWrite> accept(@Nonnull final Object signal) {
+
+            if (signal instanceof Long) {
+                return flush(adaptiveBatching != null ? adaptiveBatching.getFlushInterval() : 0);
+            }
+
+            //
+            // Flush marker => close all batches and pass the marker
+            //
+            if (signal instanceof BatchWrite && ((BatchWrite) signal).flushRequest != null) {
+                List<BatchWrite> closed = flush(0);
+                closed.add((BatchWrite) signal);
+                return closed;
+            }
+
+            if (!(signal instanceof BatchWrite)) {
+                return flush(0);
+            }
+
+            BatchWrite record = (BatchWrite) signal;
+            int recordBytes = record.bytes;
+            int maxBatchBytes = writeOptions.getMaxBatchBytes();
+            int batchSize = currentBatchSize();
+
+            List<BatchWrite> closed = new ArrayList<>(1);
+
+            Batch batch = batches.get(record.batchWriteOptions);
+
+            //
+            // The record (or chunk of records) doesn't fit into batch => close the batch
+            //
+            if (batch != null && (batch.count + record.records > batchSize
+                    || (maxBatchBytes > 0 && batch.bytes + 1 + recordBytes > maxBatchBytes))) {
+                closed.add(close(batches.remove(record.batchWriteOptions)));
+                batch = null;
+            }
+
+            if (batch == null) {
+                PointIndex index = null;
+                if (writeOptions.isCoalesceDuplicates()) {
+                    index = indexes.isEmpty() ? new PointIndex() : indexes.poll();
+                }
+                batch = new Batch(record.batchWriteOptions, scheduler.now(TimeUnit.MILLISECONDS), index);
+                batch.enqueued = record.enqueued;
+                batches.put(record.batchWriteOptions, batch);
+            }
+
+            batch.add(record.lineProtocol, recordBytes, record.records);
+
+            if (batch.count >= batchSize || (maxBatchBytes > 0 && batch.bytes >= maxBatchBytes)) {
+                closed.add(close(batches.remove(record.batchWriteOptions)));
+            }
+
+            return closed;
+        }
+
+        /**
+         * @param maxAge flush the batches older than {@code maxAge} (milliseconds), {@code 0} flush all batches
+         * @return the closed batches
+         */
+        @Nonnull
+        private List<BatchWrite> flush(final long maxAge) {
+
+            long now = scheduler.now(TimeUnit.MILLISECONDS);
+
+            List<BatchWrite> closed = new ArrayList<>(batches.size());
+            Iterator<Batch> iterator = batches.values().iterator();
+            while (iterator.hasNext()) {
+                Batch batch = iterator.next();
+                if (now - batch.created >= maxAge) {
+                    closed.add(close(batch));
+                    iterator.remove();
+                }
+            }
+
+            return closed;
+        }
+
+        /**
+         * @param batch the batch to close
+         * @return the batch write, the index of points is reset for the next batch
+         */
+        @Nonnull
+        private BatchWrite close(@Nonnull final Batch batch) {
+
+            if (batch.index != null) {
+                batch.index.clear();
+                indexes.add(batch.index);
+            }
+
+            //
+            // The dropped duplicates are settled
+            //
+            if (batch.duplicates > 0) {
+                settledRecords.addAndGet(batch.duplicates);
+                long total = coalescedRecords.addAndGet(batch.duplicates);
+
+                publish(new DuplicatesCoalescedEvent(batch.batchWriteOptions.organization,
+                        batch.batchWriteOptions.bucket, batch.duplicates, total));
+            }
+
+            return batch.toBatchWrite();
+        }
+    }
+
+    /**
+     * The batch under construction. If the batch has the index of points then the points with the same
+     * series key and timestamp are coalesced - the last written value is used. If the grouping by series
+     * is enabled then the points are ordered by series key.
+     */
+    private final class Batch {
+
+        private final BatchWriteOptions batchWriteOptions;
+        private final long created;
+        private final StringBuilder lineProtocol = new StringBuilder();
+        private final PointIndex index;
+        private final List<String> points;
+        private int count;
+        private int bytes;
+        private int duplicates;
+
+        // The time of entry into buffer of the oldest record (nanoseconds)
+        private long enqueued = -1;
+
+        private Batch(@Nonnull final BatchWriteOptions batchWriteOptions, final long created) {
+            this(batchWriteOptions, created, null);
+        }
+
+        private Batch(@Nonnull final BatchWriteOptions batchWriteOptions,
+                      final long created,
+                      @Nullable final PointIndex index) {
+            this.batchWriteOptions = batchWriteOptions;
+            this.created = created;
+            this.index = index;
+            this.points = index != null || writeOptions.isGroupBySeries() ? new ArrayList<>() : null;
+        }
+
+        private void add(@Nonnull final String record, final int recordBytes, final int records) {
+
+            if (index != null) {
+                if (records == 1) {
+                    addPoint(record, recordBytes);
+                } else {
+                    // the chunk of records
+                    for (String point : record.split("\n")) {
+                        addPoint(point, utf8Length(point));
+                    }
+                }
+                return;
+            }
+
+            if (points != null) {
+                if (count > 0) {
+                    bytes++;
+                }
+
+                if (records == 1) {
+                    points.add(record);
+                } else {
+                    // the chunk of records
+                    Collections.addAll(points, record.split("\n"));
+                }
+                bytes += recordBytes;
+                count += records;
+                return;
+            }
+
+            if (count > 0) {
+                lineProtocol.append("\n");
+                bytes++;
+            }
+
+            lineProtocol.append(record);
+            bytes += recordBytes;
+            count += records;
+        }
+
+        private void addPoint(@Nonnull final String point, final int pointBytes) {
+
+            int seriesKeyEnd = LineProtocol.seriesKeyEnd(point);
+            int timestampStart = LineProtocol.timestampStart(point, seriesKeyEnd);
+
+            //
+            // The point with same series and timestamp => replace by the last value
+            //
+            if (timestampStart != -1) {
+
+                long hash = ConsistentHashRing.hash(point, 0, seriesKeyEnd) * HASH_MULTIPLIER
+                        + ConsistentHashRing.hash(point, timestampStart, point.length());
+
+                int position = index.get(hash,
+                        candidate -> isSamePoint(points.get(candidate), point, seriesKeyEnd, timestampStart));
+
+                if (position != -1) {
+                    bytes += pointBytes - utf8Length(points.get(position));
+                    points.set(position, point);
+                    duplicates++;
+                    return;
+                }
+
+                index.put(hash, points.size());
+            }
+
+            if (count > 0) {
+                bytes++;
+            }
+
+            points.add(point);
+            bytes += pointBytes;
+            count++;
+        }
+
+        private boolean isSamePoint(@Nonnull final String indexed,
+                                    @Nonnull final String point,
+                                    final int seriesKeyEnd,
+                                    final int timestampStart) {
+
+            int timestampLength = point.length() - timestampStart;
+
+            return LineProtocol.seriesKeyEnd(indexed) == seriesKeyEnd
+                    && indexed.regionMatches(0, point, 0, seriesKeyEnd)
+                    && indexed.regionMatches(indexed.length() - timestampLength, point, timestampStart, timestampLength)
+                    && LineProtocol.timestampStart(indexed, seriesKeyEnd) == indexed.length() - timestampLength;
         }
 
         @Nonnull
-        private WriteSuccessEvent toSuccessEvent(@Nonnull final BatchWrite batchWrite) {
-
-            return new WriteSuccessEvent(
-                    batchWrite.batchWriteOptions.organization,
-                    batchWrite.batchWriteOptions.bucket,
-                    batchWrite.batchWriteOptions.precision,
-                    batchWrite.batchWriteOptions.token,
-                    batchWrite.lineProtocol);
-        }
-    }
-
-//    TODO implement retry, delete retry scheduler?
-//    /**
-//     * The retry handler that tries to retry a write if it failed previously and
-//     * the reason of the failure is not permanent.
-//     *
-//     * @param retryScheduler for scheduling retry write
-//     * @param writeOptions   options for write to Platform
-//     * @return the retry handler
-//     */
-//    @Nonnull
-//    private Function<Flowable<Throwable>, Publisher<?>> retryHandler(@Nonnull final Scheduler retryScheduler,
-//                                                                     @Nonnull final WriteOptions writeOptions) {
-//
-//        Objects.requireNonNull(writeOptions, "WriteOptions are required");
-//        Objects.requireNonNull(retryScheduler, "RetryScheduler is required");
-//
-//        return errors -> errors.flatMap(throwable -> {
-//
-//            if (throwable instanceof HttpException) {
-//
-//                InfluxException influxException = InfluxException.fromCause(throwable);
-//
-//                //
-//                // Partial Write => skip retry
-//                //
-//                if (influxException.getMessage().startsWith("partial write")) {
-//                    publish("WritePartialEvent");
-//
-//                    return Flowable.error(throwable);
-//                }
-//
-//                publish("WriteErrorEvent");
-//
-//                //
-//                // Retry request
-//                //
-//                if (influxException.isRetryWorth()) {
-//
-//                    int retryInterval = writeOptions.getRetryInterval() + jitterDelay();
-//
-//                    return Flowable.just("notify").delay(retryInterval, TimeUnit.MILLISECONDS, retryScheduler);
-//                }
-//            }
-//
-//            //
-//            // This type of throwable is not able to retry
-//            //
-//            return Flowable.error(throwable);
-//        });
-//    }
-}
\ No newline at end of file
+        private BatchWrite toBatchWrite() {
+
+            BatchWrite batchWrite;
+            if (points != null) {
+                if (writeOptions.isGroupBySeries()) {
+                    // stable sort => the order of points within the series is preserved
+                    points.sort(LineProtocol::compareSeriesKeys);
+                }
+                batchWrite = new BatchWrite(batchWriteOptions, String.join("\n", points), count, bytes);
+            } else {
+                batchWrite = new BatchWrite(batchWriteOptions, lineProtocol.toString(), count, bytes);
+            }
+            batchWrite.enqueued = enqueued;
+
+            return batchWrite;
+        }
+    }
+
+    /**
+     * Count the length of the string encoded in UTF-8 without the encoding.
+     *
+     * @param value the string
+     * @return the number of UTF-8 bytes
+     */
+    static int utf8Length(@Nonnull final String value) {
+
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch < UTF8_ONE_BYTE_LIMIT) {
+                length++;
+            } else if (ch < UTF8_TWO_BYTES_LIMIT) {
+                length += 2;
+            } else if (Character.isHighSurrogate(ch) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += UTF8_FOUR_BYTES;
+                i++;
+            } else {
+                length += UTF8_THREE_BYTES;
+            }
+        }
+
+        return length;
+    }
+
+    private final class ToWritePointsCompletable implements Function<BatchWrite, CompletableSource> {
+
+        private final Scheduler retryScheduler;
+
+        //
+        // The failed write is propagated to subscriber instead of publishing the error event
+        //
+        private final boolean propagateErrors;
+
+        private ToWritePointsCompletable(@Nonnull final Scheduler retryScheduler, final boolean propagateErrors) {
+            this.retryScheduler = retryScheduler;
+            this.propagateErrors = propagateErrors;
+        }
+
+        @Override
+        public CompletableSource apply(final BatchWrite batchWrite) {
+
+            if (batchWrite.flushRequest != null) {
+                return Completable.fromAction(batchWrite.flushRequest::laneFlushed);
+            }
+
+            //
+            // The spill queue is not empty => preserve order
+            //
+            if (diskBuffer != null && !diskBuffer.isEmpty()) {
+                return Completable.fromAction(() -> spill(batchWrite));
+            }
+
+            return writePoints(batchWrite)
+                    .retryWhen(retryHandler(retryScheduler))
+                    .onErrorResumeNext(throwable -> {
+
+                        writeFailures.onNext(throwable);
+
+                        //
+                        // Server is unavailable => spill to disk
+                        //
+                        if (diskBuffer != null && isRetryWorth(throwable)) {
+
+                            LOG.log(Level.FINEST, "The write failed, the batch is stored into disk buffer", throwable);
+
+                            spill(batchWrite);
+
+                            return Completable.complete();
+                        }
+
+                        metrics.errors.increment();
+
+                        if (propagateErrors) {
+                            return Completable.error(InfluxException.fromCause(throwable));
+                        }
+
+                        publish(new UnhandledErrorEvent(InfluxException.fromCause(throwable)));
+
+                        return Completable.complete();
+                    });
+        }
+    }
+
+    /**
+     * The retry handler that tries to retry a write if it failed previously and
+     * the reason of the failure is not permanent.
+     *
+     * @param retryScheduler for scheduling retry write
+     * @return the retry handler
+     */
+    @Nonnull
+    private Function<Flowable<Throwable>, Publisher<?>> retryHandler(@Nonnull final Scheduler retryScheduler) {
+
+        Objects.requireNonNull(retryScheduler, "RetryScheduler is required");
+
+        return errors -> {
+
+            AtomicInteger retries = new AtomicInteger();
+
+            return errors.flatMap(throwable -> {
+
+                //
+                // This type of throwable is not able to retry
+                //
+                if (!isRetryWorth(throwable) || retries.incrementAndGet() > writeOptions.getMaxRetries()) {
+                    return Flowable.error(throwable);
+                }
+
+                metrics.retries.increment();
+
+                int retryInterval = writeOptions.getRetryInterval() + jitterDelay();
+
+                LOG.log(Level.FINEST, "The write failed, will be retried in {0} ms", retryInterval);
+
+                return Flowable.timer(retryInterval, TimeUnit.MILLISECONDS, retryScheduler);
+            });
+        };
+    }
+}
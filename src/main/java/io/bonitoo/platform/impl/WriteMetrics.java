@@ -0,0 +1,68 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.impl;
+
+import java.util.Objects;
+import java.util.function.LongSupplier;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+import io.bonitoo.core.metrics.ClientMetrics;
+import io.bonitoo.core.metrics.Counter;
+import io.bonitoo.core.metrics.Histogram;
+import io.bonitoo.core.metrics.MetricsRegistry;
+
+/**
+ * The meters of writes resolved once by the write client.
+ */
+@ThreadSafe
+final class WriteMetrics {
+
+    static final WriteMetrics NOOP = new WriteMetrics(MetricsRegistry.noop(), () -> 0);
+
+    final Histogram batchRecords;
+    final Histogram batchBytes;
+    final Histogram duration;
+    final Counter droppedRecords;
+    final Counter retries;
+    final Counter errors;
+
+    /**
+     * @param registry        the registry of metrics
+     * @param bufferedRecords the number of records waiting in the buffer
+     */
+    WriteMetrics(@Nonnull final MetricsRegistry registry, @Nonnull final LongSupplier bufferedRecords) {
+
+        Objects.requireNonNull(registry, "MetricsRegistry is required");
+        Objects.requireNonNull(bufferedRecords, "Buffered records are required");
+
+        this.batchRecords = registry.histogram(ClientMetrics.WRITE_BATCH_RECORDS);
+        this.batchBytes = registry.histogram(ClientMetrics.WRITE_BATCH_BYTES);
+        this.duration = registry.histogram(ClientMetrics.WRITE_DURATION);
+        this.droppedRecords = registry.counter(ClientMetrics.WRITE_DROPPED_RECORDS);
+        this.retries = registry.counter(ClientMetrics.WRITE_RETRIES);
+        this.errors = registry.counter(ClientMetrics.WRITE_ERRORS);
+
+        registry.gauge(ClientMetrics.WRITE_BUFFER_RECORDS, bufferedRecords);
+    }
+}
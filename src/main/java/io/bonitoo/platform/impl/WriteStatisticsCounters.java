@@ -0,0 +1,149 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+
+import io.bonitoo.platform.dto.WriteStatistics;
+
+/**
+ * The lock-free counters of the write buffer. The counters are updated by {@link LongAdder}s,
+ * so the concurrent writers don't contend on the same cache line.
+ */
+@ThreadSafe
+final class WriteStatisticsCounters {
+
+    /**
+     * The upper bounds of time-in-buffer histogram (milliseconds).
+     */
+    private static final long[] BUFFER_TIME_BOUNDS = {1, 5, 10, 50, 100, 500, 1_000, 5_000, 10_000, 60_000};
+
+    private final LongAdder bufferedRecords = new LongAdder();
+    private final LongAdder bufferedBytes = new LongAdder();
+    private final LongAdder droppedRecords = new LongAdder();
+    private final LongAdder droppedBytes = new LongAdder();
+    private final Map<String, Dropped> droppedByBucket = new ConcurrentHashMap<>();
+    private final LongAdder[] bufferTime = new LongAdder[BUFFER_TIME_BOUNDS.length + 1];
+
+    WriteStatisticsCounters() {
+        for (int i = 0; i < bufferTime.length; i++) {
+            bufferTime[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @param records the number of records entered into buffer
+     * @param bytes   the size of records
+     */
+    void buffered(final int records, final long bytes) {
+        bufferedRecords.add(records);
+        bufferedBytes.add(bytes);
+    }
+
+    /**
+     * @param records      the number of records leaving the buffer
+     * @param bytes        the size of records
+     * @param timeInBuffer the time spent in the buffer (nanoseconds), {@code -1} if not measured
+     */
+    void released(final int records, final long bytes, final long timeInBuffer) {
+
+        bufferedRecords.add(-records);
+        bufferedBytes.add(-bytes);
+
+        if (timeInBuffer >= 0) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(timeInBuffer);
+
+            int bucket = 0;
+            while (bucket < BUFFER_TIME_BOUNDS.length && millis > BUFFER_TIME_BOUNDS[bucket]) {
+                bucket++;
+            }
+
+            bufferTime[bucket].increment();
+        }
+    }
+
+    /**
+     * @param bucket  the destination bucket of dropped records
+     * @param records the number of dropped records
+     * @param bytes   the size of dropped records
+     */
+    void dropped(@Nonnull final String bucket, final int records, final long bytes) {
+
+        droppedRecords.add(records);
+        droppedBytes.add(bytes);
+
+        Dropped dropped = droppedByBucket.computeIfAbsent(bucket, key -> new Dropped());
+        dropped.records.add(records);
+        dropped.bytes.add(bytes);
+    }
+
+    long getBufferedRecords() {
+        return bufferedRecords.sum();
+    }
+
+    long getBufferedBytes() {
+        return bufferedBytes.sum();
+    }
+
+    long getDroppedRecords() {
+        return droppedRecords.sum();
+    }
+
+    @Nonnull
+    WriteStatistics snapshot() {
+
+        Map<String, Long> droppedRecordsByBucket = new HashMap<>();
+        Map<String, Long> droppedBytesByBucket = new HashMap<>();
+        droppedByBucket.forEach((bucket, dropped) -> {
+            droppedRecordsByBucket.put(bucket, dropped.records.sum());
+            droppedBytesByBucket.put(bucket, dropped.bytes.sum());
+        });
+
+        long[] bufferTimeCounts = new long[bufferTime.length];
+        for (int i = 0; i < bufferTime.length; i++) {
+            bufferTimeCounts[i] = bufferTime[i].sum();
+        }
+
+        return new WriteStatistics(
+                bufferedRecords.sum(),
+                bufferedBytes.sum(),
+                droppedRecords.sum(),
+                droppedBytes.sum(),
+                droppedRecordsByBucket,
+                droppedBytesByBucket,
+                BUFFER_TIME_BOUNDS,
+                bufferTimeCounts);
+    }
+
+    private static final class Dropped {
+
+        private final LongAdder records = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.option;
+
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+
+import io.bonitoo.core.Preconditions;
+
+/**
+ * AdaptiveBatchingOptions are used to configure the adaptive batching of the {@link io.bonitoo.platform.WriteClient}.
+ *
+ * <p>
+ * The batch size and the flush interval are adjusted at runtime in the AIMD manner (additive increase,
+ * multiplicative decrease):
+ * <ul>
+ * <li>the batch size is increased by {@link #getBatchSizeIncrease()} when the request latency is under
+ * the {@link #getTargetLatency()} and the batches are full</li>
+ * <li>the batch size is multiplied by {@link #getDecreaseFactor()} when the request latency is over
+ * the {@link #getTargetLatency()} or the server is throttling the writes (429, 503)</li>
+ * <li>the flush interval is increased when the buffer is filling or the server is throttling the writes
+ * and decreased when the buffer is empty</li>
+ * </ul>
+ * <p>
+ * The initial values are {@link WriteOptions#getBatchSize()} and {@link WriteOptions#getFlushInterval()}
+ * restricted to the configured bounds.
+ * <p>
+ * The default setting:
+ * <ul>
+ * <li>minBatchSize = 100</li>
+ * <li>maxBatchSize = 10_000</li>
+ * <li>minFlushInterval = 100 ms</li>
+ * <li>maxFlushInterval = 5000 ms</li>
+ * <li>targetLatency = 500 ms</li>
+ * <li>batchSizeIncrease = 100</li>
+ * <li>decreaseFactor = 0.5</li>
+ * </ul>
+ *
+ * @see WriteOptions.Builder#adaptiveBatching(AdaptiveBatchingOptions)
+ */
+@ThreadSafe
+public final class AdaptiveBatchingOptions {
+
+    private static final int DEFAULT_MIN_BATCH_SIZE = 100;
+    private static final int DEFAULT_MAX_BATCH_SIZE = 10_000;
+    private static final int DEFAULT_MIN_FLUSH_INTERVAL = 100;
+    private static final int DEFAULT_MAX_FLUSH_INTERVAL = 5_000;
+    private static final int DEFAULT_TARGET_LATENCY = 500;
+    private static final int DEFAULT_BATCH_SIZE_INCREASE = 100;
+    private static final double DEFAULT_DECREASE_FACTOR = 0.5;
+
+    /**
+     * Default configuration.
+     */
+    public static final AdaptiveBatchingOptions DEFAULTS = AdaptiveBatchingOptions.builder().build();
+
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final int minFlushInterval;
+    private final int maxFlushInterval;
+    private final int targetLatency;
+    private final int batchSizeIncrease;
+    private final double decreaseFactor;
+
+    private AdaptiveBatchingOptions(@Nonnull final Builder builder) {
+
+        Objects.requireNonNull(builder, "AdaptiveBatchingOptions.Builder is required");
+
+        minBatchSize = builder.minBatchSize;
+        maxBatchSize = builder.maxBatchSize;
+        minFlushInterval = builder.minFlushInterval;
+        maxFlushInterval = builder.maxFlushInterval;
+        targetLatency = builder.targetLatency;
+        batchSizeIncrease = builder.batchSizeIncrease;
+        decreaseFactor = builder.decreaseFactor;
+    }
+
+    /**
+     * Creates a builder instance.
+     *
+     * @return a builder
+     */
+    @Nonnull
+    public static AdaptiveBatchingOptions.Builder builder() {
+        return new AdaptiveBatchingOptions.Builder();
+    }
+
+    /**
+     * @return the lower bound of batch size
+     * @see AdaptiveBatchingOptions.Builder#batchSize(int, int)
+     */
+    public int getMinBatchSize() {
+        return minBatchSize;
+    }
+
+    /**
+     * @return the upper bound of batch size
+     * @see AdaptiveBatchingOptions.Builder#batchSize(int, int)
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * @return the lower bound of flush interval (milliseconds)
+     * @see AdaptiveBatchingOptions.Builder#flushInterval(int, int)
+     */
+    public int getMinFlushInterval() {
+        return minFlushInterval;
+    }
+
+    /**
+     * @return the upper bound of flush interval (milliseconds)
+     * @see AdaptiveBatchingOptions.Builder#flushInterval(int, int)
+     */
+    public int getMaxFlushInterval() {
+        return maxFlushInterval;
+    }
+
+    /**
+     * @return the acceptable latency of write request (milliseconds)
+     * @see AdaptiveBatchingOptions.Builder#targetLatency(int)
+     */
+    public int getTargetLatency() {
+        return targetLatency;
+    }
+
+    /**
+     * @return the additive increase of batch size
+     * @see AdaptiveBatchingOptions.Builder#batchSizeIncrease(int)
+     */
+    public int getBatchSizeIncrease() {
+        return batchSizeIncrease;
+    }
+
+    /**
+     * @return the multiplicative decrease factor
+     * @see AdaptiveBatchingOptions.Builder#decreaseFactor(double)
+     */
+    public double getDecreaseFactor() {
+        return decreaseFactor;
+    }
+
+    /**
+     * A builder for {@code AdaptiveBatchingOptions}.
+     */
+    @NotThreadSafe
+    public static class Builder {
+
+        private int minBatchSize = DEFAULT_MIN_BATCH_SIZE;
+        private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+        private int minFlushInterval = DEFAULT_MIN_FLUSH_INTERVAL;
+        private int maxFlushInterval = DEFAULT_MAX_FLUSH_INTERVAL;
+        private int targetLatency = DEFAULT_TARGET_LATENCY;
+        private int batchSizeIncrease = DEFAULT_BATCH_SIZE_INCREASE;
+        private double decreaseFactor = DEFAULT_DECREASE_FACTOR;
+
+        /**
+         * Set the bounds of batch size.
+         *
+         * @param min the lower bound of batch size
+         * @param max the upper bound of batch size
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder batchSize(final int min, final int max) {
+            Preconditions.checkPositiveNumber(min, "minBatchSize");
+            Preconditions.checkPositiveNumber(max, "maxBatchSize");
+            this.minBatchSize = min;
+            this.maxBatchSize = max;
+            return this;
+        }
+
+        /**
+         * Set the bounds of flush interval (milliseconds).
+         *
+         * @param min the lower bound of flush interval
+         * @param max the upper bound of flush interval
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder flushInterval(final int min, final int max) {
+            Preconditions.checkPositiveNumber(min, "minFlushInterval");
+            Preconditions.checkPositiveNumber(max, "maxFlushInterval");
+            this.minFlushInterval = min;
+            this.maxFlushInterval = max;
+            return this;
+        }
+
+        /**
+         * Set the acceptable latency of write request (milliseconds). The batch size is decreased
+         * when the latency is over the target.
+         *
+         * @param targetLatency the acceptable latency of write request
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder targetLatency(final int targetLatency) {
+            Preconditions.checkPositiveNumber(targetLatency, "targetLatency");
+            this.targetLatency = targetLatency;
+            return this;
+        }
+
+        /**
+         * Set the additive increase of batch size.
+         *
+         * @param batchSizeIncrease the additive increase of batch size
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder batchSizeIncrease(final int batchSizeIncrease) {
+            Preconditions.checkPositiveNumber(batchSizeIncrease, "batchSizeIncrease");
+            this.batchSizeIncrease = batchSizeIncrease;
+            return this;
+        }
+
+        /**
+         * Set the multiplicative decrease factor.
+         *
+         * @param decreaseFactor the multiplicative decrease factor, has to be in range (0, 1)
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder decreaseFactor(final double decreaseFactor) {
+            Preconditions.checkPositiveNumber(decreaseFactor, "decreaseFactor");
+            if (decreaseFactor >= 1) {
+                throw new IllegalArgumentException("Expecting a number less than 1 for decreaseFactor");
+            }
+            this.decreaseFactor = decreaseFactor;
+            return this;
+        }
+
+        /**
+         * Build an instance of AdaptiveBatchingOptions.
+         *
+         * @return {@code AdaptiveBatchingOptions}
+         */
+        @Nonnull
+        public AdaptiveBatchingOptions build() {
+
+            if (minBatchSize > maxBatchSize) {
+                throw new IllegalStateException("The minBatchSize has to be less or equal to the maxBatchSize.");
+            }
+
+            if (minFlushInterval > maxFlushInterval) {
+                throw new IllegalStateException(
+                        "The minFlushInterval has to be less or equal to the maxFlushInterval.");
+            }
+
+            return new AdaptiveBatchingOptions(this);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.option;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+
+import io.bonitoo.core.Preconditions;
+
+/**
+ * AggregationOptions are used to configure the client-side pre-aggregation (downsampling)
+ * of the {@link io.bonitoo.platform.WriteClient}.
+ *
+ * <p>
+ * The points of configured measurements are not written as they come. The client keeps the running
+ * aggregates of every numeric field per series and time window and writes one aggregated point
+ * for each series at the window boundary. The aggregated point has the timestamp of window start
+ * and the fields named by the field and the aggregate: {@code usage_min, usage_max, usage_sum, usage_count,
+ * usage_last}. The non-numeric fields (strings, booleans) are aggregated only by {@link Aggregate#COUNT}
+ * and {@link Aggregate#LAST}.
+ * <p>
+ * The points without timestamp are assigned into the window by the current time.
+ * <p>
+ * The window is closed when the current time of client passes the end of window and the grace period,
+ * so the timestamps of points are expected to be close to the current time. The point which arrives
+ * after its window is closed starts a new aggregate with the same timestamp and its write overrides the previously
+ * written aggregate.
+ * <p>
+ * The open windows are kept by {@link io.bonitoo.platform.WriteClient#flush()} and are written
+ * by {@link io.bonitoo.platform.WriteClient#close()}.
+ * <p>
+ * The default setting:
+ * <ul>
+ * <li>window = 10_000 ms</li>
+ * <li>gracePeriod = 0 ms</li>
+ * <li>aggregates = MIN, MAX, SUM, COUNT, LAST</li>
+ * </ul>
+ *
+ * @see WriteOptions.Builder#aggregation(AggregationOptions)
+ */
+@ThreadSafe
+public final class AggregationOptions {
+
+    private static final int DEFAULT_WINDOW = 10_000;
+
+    private final Set<String> measurements;
+    private final int window;
+    private final int gracePeriod;
+    private final Set<Aggregate> aggregates;
+
+    private AggregationOptions(@Nonnull final Builder builder) {
+
+        Objects.requireNonNull(builder, "AggregationOptions.Builder is required");
+
+        measurements = Collections.unmodifiableSet(new LinkedHashSet<>(builder.measurements));
+        window = builder.window;
+        gracePeriod = builder.gracePeriod;
+        aggregates = Collections.unmodifiableSet(EnumSet.copyOf(builder.aggregates));
+    }
+
+    /**
+     * Creates a builder instance.
+     *
+     * @return a builder
+     */
+    @Nonnull
+    public static AggregationOptions.Builder builder() {
+        return new AggregationOptions.Builder();
+    }
+
+    /**
+     * @return the aggregated measurements
+     * @see AggregationOptions.Builder#measurement(String)
+     */
+    @Nonnull
+    public Set<String> getMeasurements() {
+        return measurements;
+    }
+
+    /**
+     * @return the length of aggregation window (milliseconds)
+     * @see AggregationOptions.Builder#window(int)
+     */
+    public int getWindow() {
+        return window;
+    }
+
+    /**
+     * @return the time to wait for late points after the end of window (milliseconds)
+     * @see AggregationOptions.Builder#gracePeriod(int)
+     */
+    public int getGracePeriod() {
+        return gracePeriod;
+    }
+
+    /**
+     * @return the computed aggregates
+     * @see AggregationOptions.Builder#aggregates(Aggregate, Aggregate...)
+     */
+    @Nonnull
+    public Set<Aggregate> getAggregates() {
+        return aggregates;
+    }
+
+    /**
+     * The aggregate of field values in window.
+     */
+    public enum Aggregate {
+
+        /**
+         * The minimum value.
+         */
+        MIN,
+
+        /**
+         * The maximum value.
+         */
+        MAX,
+
+        /**
+         * The sum of values.
+         */
+        SUM,
+
+        /**
+         * The count of values.
+         */
+        COUNT,
+
+        /**
+         * The last written value.
+         */
+        LAST
+    }
+
+    /**
+     * A builder for {@code AggregationOptions}.
+     */
+    @NotThreadSafe
+    public static class Builder {
+
+        private final Set<String> measurements = new LinkedHashSet<>();
+        private int window = DEFAULT_WINDOW;
+        private int gracePeriod = 0;
+        private Set<Aggregate> aggregates = EnumSet.allOf(Aggregate.class);
+
+        /**
+         * Add the measurement to aggregate. The measurement is matched as it is written
+         * in the Line Protocol (with escaping).
+         *
+         * @param measurement the measurement name
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder measurement(@Nonnull final String measurement) {
+            Preconditions.checkNonEmptyString(measurement, "measurement");
+            this.measurements.add(measurement);
+            return this;
+        }
+
+        /**
+         * Set the length of aggregation window (milliseconds).
+         *
+         * @param window the length of aggregation window. Default 10_000 ms.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder window(final int window) {
+            Preconditions.checkPositiveNumber(window, "window");
+            this.window = window;
+            return this;
+        }
+
+        /**
+         * Set the time to wait for late points after the end of window (milliseconds).
+         * The aggregates of window are written after the grace period elapsed.
+         *
+         * @param gracePeriod the time to wait for late points. Default 0 ms.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder gracePeriod(final int gracePeriod) {
+            Preconditions.checkNotNegativeNumber(gracePeriod, "gracePeriod");
+            this.gracePeriod = gracePeriod;
+            return this;
+        }
+
+        /**
+         * Set the computed aggregates.
+         *
+         * @param aggregate  the aggregate
+         * @param aggregates the other aggregates
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder aggregates(@Nonnull final Aggregate aggregate, @Nonnull final Aggregate... aggregates) {
+            Objects.requireNonNull(aggregate, "Aggregate is required");
+            Objects.requireNonNull(aggregates, "Aggregates are required");
+            this.aggregates = EnumSet.of(aggregate, aggregates);
+            return this;
+        }
+
+        /**
+         * Build an instance of AggregationOptions.
+         *
+         * @return {@code AggregationOptions}
+         */
+        @Nonnull
+        public AggregationOptions build() {
+
+            if (measurements.isEmpty()) {
+                throw new IllegalStateException("At least one measurement has to be defined.");
+            }
+
+            return new AggregationOptions(this);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.option;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+
+import io.bonitoo.core.Preconditions;
+
+import io.reactivex.BackpressureOverflowStrategy;
+
+/**
+ * DiskBufferOptions are used to configure the persistent spill queue of the {@link io.bonitoo.platform.WriteClient}.
+ *
+ * <p>
+ * The spill queue absorbs batches when the in-memory buffer is full or when the Platform server is unavailable
+ * and replays them in order after recovery. The data are stored in the segment files
+ * inside {@link DiskBufferOptions#getDirectory()}.
+ * <p>
+ * The stored batches contain the write token of destination in plain text, so the token is available for replay
+ * after restart of the application. The segment files are created readable only by the owner on the POSIX file systems,
+ * on the others the directory has to be protected by the application.
+ * <p>
+ * The default setting:
+ * <ul>
+ * <li>maxSize = 512 MiB</li>
+ * <li>segmentSize = 16 MiB</li>
+ * <li>fsyncPolicy = {@link FsyncPolicy#SEGMENT_ROLL}</li>
+ * <li>evictionPolicy = {@link BackpressureOverflowStrategy#DROP_OLDEST}</li>
+ * </ul>
+ *
+ * @see WriteOptions.Builder#diskBuffer(DiskBufferOptions)
+ */
+@ThreadSafe
+public final class DiskBufferOptions {
+
+    private static final long DEFAULT_MAX_SIZE = 512L * 1024 * 1024;
+    private static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    private final Path directory;
+    private final long maxSize;
+    private final int segmentSize;
+    private final FsyncPolicy fsyncPolicy;
+    private final BackpressureOverflowStrategy evictionPolicy;
+
+    private DiskBufferOptions(@Nonnull final Builder builder) {
+
+        Objects.requireNonNull(builder, "DiskBufferOptions.Builder is required");
+
+        directory = builder.directory;
+        maxSize = builder.maxSize;
+        segmentSize = builder.segmentSize;
+        fsyncPolicy = builder.fsyncPolicy;
+        evictionPolicy = builder.evictionPolicy;
+    }
+
+    /**
+     * Creates a builder instance.
+     *
+     * @param directory the directory where are stored the segment files
+     * @return a builder
+     */
+    @Nonnull
+    public static DiskBufferOptions.Builder builder(@Nonnull final Path directory) {
+        return new DiskBufferOptions.Builder(directory);
+    }
+
+    /**
+     * @return the directory where are stored the segment files
+     */
+    @Nonnull
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return the maximum size of all segment files (bytes)
+     * @see DiskBufferOptions.Builder#maxSize(long)
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return the size of one segment file (bytes)
+     * @see DiskBufferOptions.Builder#segmentSize(int)
+     */
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * @return when the appended records are forced to the storage device
+     * @see DiskBufferOptions.Builder#fsyncPolicy(FsyncPolicy)
+     */
+    @Nonnull
+    public FsyncPolicy getFsyncPolicy() {
+        return fsyncPolicy;
+    }
+
+    /**
+     * @return the strategy to deal with full disk buffer
+     * @see DiskBufferOptions.Builder#evictionPolicy(BackpressureOverflowStrategy)
+     */
+    @Nonnull
+    public BackpressureOverflowStrategy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    /**
+     * Defines when are the appended records forced to the storage device.
+     */
+    public enum FsyncPolicy {
+
+        /**
+         * Force the segment after each appended record. The safest and the slowest policy.
+         */
+        EVERY_RECORD,
+
+        /**
+         * Force the segment when it is full and the new segment is created.
+         */
+        SEGMENT_ROLL,
+
+        /**
+         * Never force the segment, leave it on the operating system.
+         */
+        NEVER
+    }
+
+    /**
+     * A builder for {@code DiskBufferOptions}.
+     */
+    @NotThreadSafe
+    public static class Builder {
+
+        private final Path directory;
+        private long maxSize = DEFAULT_MAX_SIZE;
+        private int segmentSize = DEFAULT_SEGMENT_SIZE;
+        private FsyncPolicy fsyncPolicy = FsyncPolicy.SEGMENT_ROLL;
+        private BackpressureOverflowStrategy evictionPolicy = BackpressureOverflowStrategy.DROP_OLDEST;
+
+        private Builder(@Nonnull final Path directory) {
+
+            Objects.requireNonNull(directory, "Directory is required");
+
+            this.directory = directory;
+        }
+
+        /**
+         * Set the maximum size of all segment files (bytes). When the limit is reached the
+         * {@link #evictionPolicy(BackpressureOverflowStrategy)} is applied.
+         *
+         * @param maxSize the maximum size of all segment files
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder maxSize(final long maxSize) {
+            Preconditions.checkPositiveNumber(maxSize, "maxSize");
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * Set the size of one segment file (bytes). The segment is memory-mapped and preallocated.
+         *
+         * @param segmentSize the size of one segment file
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder segmentSize(final int segmentSize) {
+            Preconditions.checkPositiveNumber(segmentSize, "segmentSize");
+            this.segmentSize = segmentSize;
+            return this;
+        }
+
+        /**
+         * Set when the appended records are forced to the storage device.
+         *
+         * @param fsyncPolicy the fsync policy. Default {@link FsyncPolicy#SEGMENT_ROLL}.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder fsyncPolicy(@Nonnull final FsyncPolicy fsyncPolicy) {
+            Objects.requireNonNull(fsyncPolicy, "FsyncPolicy is required");
+            this.fsyncPolicy = fsyncPolicy;
+            return this;
+        }
+
+        /**
+         * Set the strategy to deal with full disk buffer.
+         * <ul>
+         * <li>{@link BackpressureOverflowStrategy#DROP_OLDEST} - delete the oldest segment</li>
+         * <li>{@link BackpressureOverflowStrategy#DROP_LATEST} - discard the new data</li>
+         * <li>{@link BackpressureOverflowStrategy#ERROR} - discard the new data and publish the error</li>
+         * </ul>
+         *
+         * @param evictionPolicy the strategy to deal with full disk buffer.
+         *                       Default {@link BackpressureOverflowStrategy#DROP_OLDEST}.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder evictionPolicy(@Nonnull final BackpressureOverflowStrategy evictionPolicy) {
+            Objects.requireNonNull(evictionPolicy, "Eviction policy is required");
+            this.evictionPolicy = evictionPolicy;
+            return this;
+        }
+
+        /**
+         * Build an instance of DiskBufferOptions.
+         *
+         * @return {@code DiskBufferOptions}
+         */
+        @Nonnull
+        public DiskBufferOptions build() {
+
+            if (segmentSize > maxSize) {
+                throw new IllegalStateException("The segmentSize has to be less or equal to the maxSize.");
+            }
+
+            return new DiskBufferOptions(this);
+        }
+    }
+}
@@ -24,9 +24,18 @@ package io.bonitoo.platform.option;
 
 import java.util.Objects;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 
+import io.bonitoo.core.ClientRuntime;
+import io.bonitoo.core.CompressionCodec;
+import io.bonitoo.core.GzipCodec;
+import io.bonitoo.core.HttpProtocol;
 import io.bonitoo.core.Preconditions;
+import io.bonitoo.core.RateLimiter;
+import io.bonitoo.core.metrics.MetricsRegistry;
+import io.bonitoo.core.option.CircuitBreakerOptions;
+import io.bonitoo.core.option.ConcurrencyLimitOptions;
 
 import okhttp3.OkHttpClient;
 
@@ -39,6 +48,14 @@ public final class PlatformOptions {
 
     private final String url;
     private final OkHttpClient.Builder okHttpClient;
+    private final CompressionCodec compressionCodec;
+    private final long compressionThreshold;
+    private final ClientRuntime runtime;
+    private final HttpProtocol protocol;
+    private final CircuitBreakerOptions circuitBreaker;
+    private final ConcurrencyLimitOptions concurrencyLimit;
+    private final RateLimiter rateLimiter;
+    private final MetricsRegistry metrics;
 
     private PlatformOptions(@Nonnull final PlatformOptions.Builder builder) {
 
@@ -46,6 +63,14 @@ public final class PlatformOptions {
 
         this.url = builder.url;
         okHttpClient = builder.okHttpClient;
+        compressionCodec = builder.compressionCodec;
+        compressionThreshold = builder.compressionThreshold;
+        runtime = builder.runtime;
+        protocol = builder.protocol;
+        circuitBreaker = builder.circuitBreaker;
+        concurrencyLimit = builder.concurrencyLimit;
+        rateLimiter = builder.rateLimiter;
+        metrics = builder.metrics;
     }
 
     /**
@@ -67,6 +92,77 @@ public final class PlatformOptions {
         return okHttpClient;
     }
 
+    /**
+     * @return the codec used to compress the written records
+     * @see PlatformOptions.Builder#compressionCodec(CompressionCodec)
+     */
+    @Nonnull
+    public CompressionCodec getCompressionCodec() {
+        return compressionCodec;
+    }
+
+    /**
+     * @return the minimal size of request body to compress (bytes)
+     * @see PlatformOptions.Builder#compressionThreshold(long)
+     */
+    public long getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    /**
+     * @return the runtime shared by clients, {@code null} if the client use own HTTP client
+     * @see PlatformOptions.Builder#runtime(ClientRuntime)
+     */
+    @Nullable
+    public ClientRuntime getRuntime() {
+        return runtime;
+    }
+
+    /**
+     * @return the HTTP protocol, {@code null} if the protocols of HTTP client are used
+     * @see PlatformOptions.Builder#protocol(HttpProtocol)
+     */
+    @Nullable
+    public HttpProtocol getProtocol() {
+        return protocol;
+    }
+
+    /**
+     * @return the configuration of circuit breaker, {@code null} if the breaker is disabled
+     * @see PlatformOptions.Builder#circuitBreaker(CircuitBreakerOptions)
+     */
+    @Nullable
+    public CircuitBreakerOptions getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * @return the configuration of adaptive concurrency limit, {@code null} if the limit is disabled
+     * @see PlatformOptions.Builder#concurrencyLimit(ConcurrencyLimitOptions)
+     */
+    @Nullable
+    public ConcurrencyLimitOptions getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    /**
+     * @return the rate limiter of organizations, {@code null} if the requests are not limited
+     * @see PlatformOptions.Builder#rateLimiter(RateLimiter)
+     */
+    @Nullable
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * @return the registry of client metrics, {@code null} if the metrics are not recorded
+     * @see PlatformOptions.Builder#metrics(MetricsRegistry)
+     */
+    @Nullable
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
     /**
      * Creates a builder instance.
      *
@@ -85,6 +181,14 @@ public final class PlatformOptions {
 
         private String url;
         private OkHttpClient.Builder okHttpClient = new OkHttpClient.Builder();
+        private CompressionCodec compressionCodec = GzipCodec.DEFAULT;
+        private long compressionThreshold = 0;
+        private ClientRuntime runtime;
+        private HttpProtocol protocol;
+        private CircuitBreakerOptions circuitBreaker;
+        private ConcurrencyLimitOptions concurrencyLimit;
+        private RateLimiter rateLimiter;
+        private MetricsRegistry metrics;
 
         /**
          * Set the url to connect to Platform.
@@ -112,6 +216,110 @@ public final class PlatformOptions {
             return this;
         }
 
+        /**
+         * Set the codec used to compress the written records. The compression is used only if it is enabled
+         * by {@link io.bonitoo.platform.WriteClient#enableGzip()}.
+         *
+         * @param compressionCodec the compression codec, default {@link GzipCodec#DEFAULT}
+         * @return {@code this}
+         */
+        @Nonnull
+        public PlatformOptions.Builder compressionCodec(@Nonnull final CompressionCodec compressionCodec) {
+            Objects.requireNonNull(compressionCodec, "CompressionCodec is required");
+            this.compressionCodec = compressionCodec;
+            return this;
+        }
+
+        /**
+         * Set the minimal size of request body to compress. The small batches are sent without compression,
+         * they don't pay the CPU for a negligible saving.
+         *
+         * @param compressionThreshold the minimal size of body in bytes, default {@code 0} (compress everything)
+         * @return {@code this}
+         */
+        @Nonnull
+        public PlatformOptions.Builder compressionThreshold(final long compressionThreshold) {
+            Preconditions.checkNotNegativeNumber(compressionThreshold, "compressionThreshold");
+            this.compressionThreshold = compressionThreshold;
+            return this;
+        }
+
+        /**
+         * Set the runtime shared by clients. The client derives the HTTP client from the runtime core
+         * instead of the {@link #okHttpClient(OkHttpClient.Builder)}.
+         *
+         * @param runtime the shared runtime, {@code null} the client use own HTTP client
+         * @return {@code this}
+         */
+        @Nonnull
+        public PlatformOptions.Builder runtime(@Nullable final ClientRuntime runtime) {
+            this.runtime = runtime;
+            return this;
+        }
+
+        /**
+         * Set the HTTP protocol. The {@link HttpProtocol#HTTP_2} multiplexes the concurrent requests
+         * over a single connection.
+         *
+         * @param protocol the HTTP protocol, {@code null} use the protocols of HTTP client
+         * @return {@code this}
+         */
+        @Nonnull
+        public PlatformOptions.Builder protocol(@Nullable final HttpProtocol protocol) {
+            this.protocol = protocol;
+            return this;
+        }
+
+        /**
+         * Enable the circuit breaker of requests. The requests to the failing or slow server are rejected
+         * without reaching the server until the server recovers.
+         *
+         * @param circuitBreaker the configuration of circuit breaker, {@code null} disable the breaker
+         * @return {@code this}
+         */
+        @Nonnull
+        public PlatformOptions.Builder circuitBreaker(@Nullable final CircuitBreakerOptions circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        /**
+         * Enable the adaptive limit of concurrent requests. The limit follows the response times of server.
+         *
+         * @param concurrencyLimit the configuration of concurrency limit, {@code null} disable the limit
+         * @return {@code this}
+         */
+        @Nonnull
+        public PlatformOptions.Builder concurrencyLimit(@Nullable final ConcurrencyLimitOptions concurrencyLimit) {
+            this.concurrencyLimit = concurrencyLimit;
+            return this;
+        }
+
+        /**
+         * Set the rate limiter of organizations. The limiter could be shared by several clients.
+         *
+         * @param rateLimiter the rate limiter, {@code null} the requests are not limited
+         * @return {@code this}
+         */
+        @Nonnull
+        public PlatformOptions.Builder rateLimiter(@Nullable final RateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+            return this;
+        }
+
+        /**
+         * Set the registry of client metrics. The registry could be shared by several clients.
+         *
+         * @param metrics the registry of metrics, {@code null} the metrics are not recorded
+         * @return {@code this}
+         * @see io.bonitoo.core.metrics.ClientMetrics
+         */
+        @Nonnull
+        public PlatformOptions.Builder metrics(@Nullable final MetricsRegistry metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
         /**
          * Build an instance of PlatformOptions.
          *
@@ -0,0 +1,282 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.option;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+
+import io.bonitoo.core.Preconditions;
+
+/**
+ * ShardingOptions are used to configure the {@link io.bonitoo.platform.ShardedWriteClient} that distributes
+ * the records across multiple Platform servers.
+ *
+ * <p>
+ * Each record is routed to the shard by consistent hash of the {@link ShardKey}. Each shard has own batching
+ * pipeline configured by {@link ShardingOptions#getWriteOptions()}. The shard is marked as unhealthy after
+ * {@link ShardingOptions#getFailureThreshold()} consecutive failed writes and the new records are routed
+ * to the next shard on the hash ring until the health check of shard succeed.
+ * <p>
+ * The default setting:
+ * <ul>
+ * <li>writeOptions = {@link WriteOptions#DEFAULTS}</li>
+ * <li>shardKey = {@link ShardKey#SERIES}</li>
+ * <li>virtualNodes = 128</li>
+ * <li>failureThreshold = 3</li>
+ * <li>healthCheckInterval = 10_000 ms</li>
+ * </ul>
+ */
+@ThreadSafe
+public final class ShardingOptions {
+
+    private static final int DEFAULT_VIRTUAL_NODES = 128;
+    private static final int DEFAULT_FAILURE_THRESHOLD = 3;
+    private static final int DEFAULT_HEALTH_CHECK_INTERVAL = 10_000;
+
+    private final List<PlatformOptions> shards;
+    private final WriteOptions writeOptions;
+    private final ShardKey shardKey;
+    private final int virtualNodes;
+    private final int failureThreshold;
+    private final int healthCheckInterval;
+
+    private ShardingOptions(@Nonnull final Builder builder) {
+
+        Objects.requireNonNull(builder, "ShardingOptions.Builder is required");
+
+        shards = Collections.unmodifiableList(new ArrayList<>(builder.shards));
+        writeOptions = builder.writeOptions;
+        shardKey = builder.shardKey;
+        virtualNodes = builder.virtualNodes;
+        failureThreshold = builder.failureThreshold;
+        healthCheckInterval = builder.healthCheckInterval;
+    }
+
+    /**
+     * Creates a builder instance.
+     *
+     * @return a builder
+     */
+    @Nonnull
+    public static ShardingOptions.Builder builder() {
+        return new ShardingOptions.Builder();
+    }
+
+    /**
+     * @return the connection configurations of shards
+     * @see ShardingOptions.Builder#addShard(PlatformOptions)
+     */
+    @Nonnull
+    public List<PlatformOptions> getShards() {
+        return shards;
+    }
+
+    /**
+     * @return the write options used by each shard
+     * @see ShardingOptions.Builder#writeOptions(WriteOptions)
+     */
+    @Nonnull
+    public WriteOptions getWriteOptions() {
+        return writeOptions;
+    }
+
+    /**
+     * @return the part of record that is used to select the shard
+     * @see ShardingOptions.Builder#shardKey(ShardKey)
+     */
+    @Nonnull
+    public ShardKey getShardKey() {
+        return shardKey;
+    }
+
+    /**
+     * @return the number of points on the hash ring for each shard
+     * @see ShardingOptions.Builder#virtualNodes(int)
+     */
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    /**
+     * @return the number of consecutive failed writes after which is shard marked as unhealthy
+     * @see ShardingOptions.Builder#failureThreshold(int)
+     */
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    /**
+     * @return the interval of health check for unhealthy shards (milliseconds)
+     * @see ShardingOptions.Builder#healthCheckInterval(int)
+     */
+    public int getHealthCheckInterval() {
+        return healthCheckInterval;
+    }
+
+    /**
+     * The part of record that is used to select the shard.
+     */
+    public enum ShardKey {
+
+        /**
+         * The measurement and tag set of record. The records of the same series are written into the same shard.
+         */
+        SERIES,
+
+        /**
+         * The destination bucket. All records of the bucket are written into the same shard.
+         */
+        BUCKET
+    }
+
+    /**
+     * A builder for {@code ShardingOptions}.
+     */
+    @NotThreadSafe
+    public static class Builder {
+
+        private final List<PlatformOptions> shards = new ArrayList<>();
+        private WriteOptions writeOptions = WriteOptions.DEFAULTS;
+        private ShardKey shardKey = ShardKey.SERIES;
+        private int virtualNodes = DEFAULT_VIRTUAL_NODES;
+        private int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+        private int healthCheckInterval = DEFAULT_HEALTH_CHECK_INTERVAL;
+
+        /**
+         * Add the shard.
+         *
+         * @param url the url to connect to Platform. It must be defined.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder addShard(@Nonnull final String url) {
+            Preconditions.checkNonEmptyString(url, "url");
+            return addShard(PlatformOptions.builder().url(url).build());
+        }
+
+        /**
+         * Add the shard. Each shard has to use own {@link PlatformOptions#getOkHttpClient()}
+         * or the shared {@link PlatformOptions#getRuntime()}. The connections and threads of own HTTP client
+         * are released by closing the write client, the shared runtime has to be closed by the application.
+         *
+         * @param platformOptions the connection configuration of shard
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder addShard(@Nonnull final PlatformOptions platformOptions) {
+            Objects.requireNonNull(platformOptions, "PlatformOptions are required");
+            this.shards.add(platformOptions);
+            return this;
+        }
+
+        /**
+         * Set the write options used by each shard.
+         *
+         * @param writeOptions the write options. Default {@link WriteOptions#DEFAULTS}.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder writeOptions(@Nonnull final WriteOptions writeOptions) {
+            Objects.requireNonNull(writeOptions, "WriteOptions are required");
+            this.writeOptions = writeOptions;
+            return this;
+        }
+
+        /**
+         * Set the part of record that is used to select the shard.
+         *
+         * @param shardKey the shard key. Default {@link ShardKey#SERIES}.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder shardKey(@Nonnull final ShardKey shardKey) {
+            Objects.requireNonNull(shardKey, "ShardKey is required");
+            this.shardKey = shardKey;
+            return this;
+        }
+
+        /**
+         * Set the number of points on the hash ring for each shard. More points give more even distribution
+         * of records.
+         *
+         * @param virtualNodes the number of points on the hash ring for each shard. Default 128.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder virtualNodes(final int virtualNodes) {
+            Preconditions.checkPositiveNumber(virtualNodes, "virtualNodes");
+            this.virtualNodes = virtualNodes;
+            return this;
+        }
+
+        /**
+         * Set the number of consecutive failed writes after which is shard marked as unhealthy.
+         *
+         * @param failureThreshold the number of consecutive failed writes. Default 3.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder failureThreshold(final int failureThreshold) {
+            Preconditions.checkPositiveNumber(failureThreshold, "failureThreshold");
+            this.failureThreshold = failureThreshold;
+            return this;
+        }
+
+        /**
+         * Set the interval of health check for unhealthy shards (milliseconds).
+         *
+         * @param healthCheckInterval the interval of health check. Default 10_000 ms.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder healthCheckInterval(final int healthCheckInterval) {
+            Preconditions.checkPositiveNumber(healthCheckInterval, "healthCheckInterval");
+            this.healthCheckInterval = healthCheckInterval;
+            return this;
+        }
+
+        /**
+         * Build an instance of ShardingOptions.
+         *
+         * @return {@code ShardingOptions}
+         */
+        @Nonnull
+        public ShardingOptions build() {
+
+            if (shards.isEmpty()) {
+                throw new IllegalStateException("At least one shard has to be defined.");
+            }
+
+            if (writeOptions.getDiskBuffer() != null && shards.size() > 1) {
+                throw new IllegalStateException("The shards are not able to share the disk buffer.");
+            }
+
+            return new ShardingOptions(this);
+        }
+    }
+}
@@ -24,6 +24,7 @@ package io.bonitoo.platform.option;
 
 import java.util.Objects;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -40,14 +41,29 @@ import io.reactivex.schedulers.Schedulers;
  * The default setting use the batching configured to (consistent with Telegraf):
  * <ul>
  * <li>batchSize = 1000</li>
+ * <li>maxBatchBytes = 0 (not limited)</li>
  * <li>flushInterval = 1000 ms</li>
  * <li>retryInterval = 1000 ms</li>
+ * <li>maxRetries = 0</li>
  * <li>jitterInterval = 0</li>
  * <li>bufferLimit = 10_000</li>
+ * <li>maxInFlightRequests = 1</li>
+ * <li>destinationQueueLimit = 0 (the destinations share the write lanes)</li>
+ * <li>coalesceDuplicates = false</li>
+ * <li>groupBySeries = false</li>
+ * <li>attachLineProtocol = true</li>
  * </ul>
  * <p>
  * The default backpressure strategy is {@link BackpressureOverflowStrategy#DROP_OLDEST}.
  * <p>
+ * The adaptive batching is disabled by default,
+ * see {@link WriteOptions.Builder#adaptiveBatching(AdaptiveBatchingOptions)}.
+ * <p>
+ * The client-side pre-aggregation is disabled by default,
+ * see {@link WriteOptions.Builder#aggregation(AggregationOptions)}.
+ * <p>
+ * The persistent spill queue is disabled by default, see {@link WriteOptions.Builder#diskBuffer(DiskBufferOptions)}.
+ * <p>
  * For disabling the batching use the configuration: {@link WriteOptions#DISABLED_BATCHING}
  *
  * @author Jakub Bednar (bednar@github) (21/09/2018 10:11)
@@ -56,10 +72,14 @@ import io.reactivex.schedulers.Schedulers;
 public final class WriteOptions {
 
     private static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final int DEFAULT_MAX_BATCH_BYTES = 0;
     private static final int DEFAULT_FLUSH_INTERVAL = 1000;
     private static final int DEFAULT_JITTER_INTERVAL = 0;
     private static final int DEFAULT_RETRY_INTERVAL = 1000;
+    private static final int DEFAULT_MAX_RETRIES = 0;
     private static final int DEFAULT_BUFFER_LIMIT = 10000;
+    private static final int DEFAULT_MAX_IN_FLIGHT_REQUESTS = 1;
+    private static final int DEFAULT_DESTINATION_QUEUE_LIMIT = 0;
 
     /**
      * Default configuration with values that are consistent with Telegraf.
@@ -72,12 +92,22 @@ public final class WriteOptions {
     public static final WriteOptions DISABLED_BATCHING = WriteOptions.disabled().build();
 
     private final int batchSize;
+    private final int maxBatchBytes;
     private final int flushInterval;
     private final int jitterInterval;
     private final int retryInterval;
+    private final int maxRetries;
     private final int bufferLimit;
+    private final int maxInFlightRequests;
+    private final int destinationQueueLimit;
     private final Scheduler writeScheduler;
     private final BackpressureOverflowStrategy backpressureStrategy;
+    private final DiskBufferOptions diskBuffer;
+    private final AdaptiveBatchingOptions adaptiveBatching;
+    private final boolean coalesceDuplicates;
+    private final boolean groupBySeries;
+    private final boolean attachLineProtocol;
+    private final AggregationOptions aggregation;
 
     /**
      * @return the number of data point to collect in batch
@@ -88,6 +118,14 @@ public final class WriteOptions {
         return batchSize;
     }
 
+    /**
+     * @return the maximum size of batch in bytes, {@code 0} if the size is not limited
+     * @see WriteOptions.Builder#maxBatchBytes(int)
+     */
+    public int getMaxBatchBytes() {
+        return maxBatchBytes;
+    }
+
     /**
      * @return the time to wait at most (milliseconds)
      * @see WriteOptions.Builder#flushInterval(int) (int)
@@ -116,6 +154,14 @@ public final class WriteOptions {
         return retryInterval;
     }
 
+    /**
+     * @return the maximum number of retries of unsuccessful write
+     * @see WriteOptions.Builder#maxRetries(int)
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
     /**
      * @return Maximum number of points stored in the retry buffer.
      * @see WriteOptions.Builder#bufferLimit(int)
@@ -125,6 +171,23 @@ public final class WriteOptions {
         return bufferLimit;
     }
 
+    /**
+     * @return the maximum number of concurrent write requests
+     * @see WriteOptions.Builder#maxInFlightRequests(int)
+     */
+    public int getMaxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+
+    /**
+     * @return the maximum number of batches queued for one destination, {@code 0} if the destinations
+     * are not isolated
+     * @see WriteOptions.Builder#destinationQueueLimit(int)
+     */
+    public int getDestinationQueueLimit() {
+        return destinationQueueLimit;
+    }
+
     /**
      * @return Set the scheduler which is used for write data points.
      * @see WriteOptions.Builder#writeScheduler(Scheduler)
@@ -144,17 +207,79 @@ public final class WriteOptions {
         return backpressureStrategy;
     }
 
+    /**
+     * @return the configuration of persistent spill queue, {@code null} if the spill queue is disabled
+     * @see WriteOptions.Builder#diskBuffer(DiskBufferOptions)
+     */
+    @Nullable
+    public DiskBufferOptions getDiskBuffer() {
+        return diskBuffer;
+    }
+
+    /**
+     * @return the configuration of adaptive batching, {@code null} if the adaptive batching is disabled
+     * @see WriteOptions.Builder#adaptiveBatching(AdaptiveBatchingOptions)
+     */
+    @Nullable
+    public AdaptiveBatchingOptions getAdaptiveBatching() {
+        return adaptiveBatching;
+    }
+
+    /**
+     * @return {@code true} if the points with the same series and timestamp are coalesced within a batch
+     * @see WriteOptions.Builder#coalesceDuplicates(boolean)
+     */
+    public boolean isCoalesceDuplicates() {
+        return coalesceDuplicates;
+    }
+
+    /**
+     * @return {@code true} if the records of batch are grouped by series key
+     * @see WriteOptions.Builder#groupBySeries(boolean)
+     */
+    public boolean isGroupBySeries() {
+        return groupBySeries;
+    }
+
+    /**
+     * @return {@code true} if the written line protocol is attached
+     * to {@link io.bonitoo.platform.event.WriteSuccessEvent}
+     * @see WriteOptions.Builder#attachLineProtocol(boolean)
+     */
+    public boolean isAttachLineProtocol() {
+        return attachLineProtocol;
+    }
+
+    /**
+     * @return the configuration of pre-aggregation, {@code null} if the pre-aggregation is disabled
+     * @see WriteOptions.Builder#aggregation(AggregationOptions)
+     */
+    @Nullable
+    public AggregationOptions getAggregation() {
+        return aggregation;
+    }
+
     private WriteOptions(@Nonnull final Builder builder) {
 
         Objects.requireNonNull(builder, "WriteOptions.Builder is required");
 
         batchSize = builder.batchSize;
+        maxBatchBytes = builder.maxBatchBytes;
         flushInterval = builder.flushInterval;
         jitterInterval = builder.jitterInterval;
         retryInterval = builder.retryInterval;
+        maxRetries = builder.maxRetries;
         bufferLimit = builder.bufferLimit;
+        maxInFlightRequests = builder.maxInFlightRequests;
+        destinationQueueLimit = builder.destinationQueueLimit;
         writeScheduler = builder.writeScheduler;
         backpressureStrategy = builder.backpressureStrategy;
+        diskBuffer = builder.diskBuffer;
+        adaptiveBatching = builder.adaptiveBatching;
+        coalesceDuplicates = builder.coalesceDuplicates;
+        groupBySeries = builder.groupBySeries;
+        attachLineProtocol = builder.attachLineProtocol;
+        aggregation = builder.aggregation;
     }
 
     /**
@@ -189,12 +314,22 @@ public final class WriteOptions {
     public static class Builder {
 
         private int batchSize = DEFAULT_BATCH_SIZE;
+        private int maxBatchBytes = DEFAULT_MAX_BATCH_BYTES;
         private int flushInterval = DEFAULT_FLUSH_INTERVAL;
         private int jitterInterval = DEFAULT_JITTER_INTERVAL;
         private int retryInterval = DEFAULT_RETRY_INTERVAL;
+        private int maxRetries = DEFAULT_MAX_RETRIES;
         private int bufferLimit = DEFAULT_BUFFER_LIMIT;
+        private int maxInFlightRequests = DEFAULT_MAX_IN_FLIGHT_REQUESTS;
+        private int destinationQueueLimit = DEFAULT_DESTINATION_QUEUE_LIMIT;
         private Scheduler writeScheduler = Schedulers.trampoline();
         private BackpressureOverflowStrategy backpressureStrategy = BackpressureOverflowStrategy.DROP_OLDEST;
+        private DiskBufferOptions diskBuffer;
+        private AdaptiveBatchingOptions adaptiveBatching;
+        private boolean coalesceDuplicates = false;
+        private boolean groupBySeries = false;
+        private boolean attachLineProtocol = true;
+        private AggregationOptions aggregation;
 
         /**
          * Set the number of data point to collect in batch.
@@ -210,6 +345,21 @@ public final class WriteOptions {
             return this;
         }
 
+        /**
+         * Set the maximum size of batch in bytes (InfluxDB Line Protocol encoded in UTF-8). The batch is closed
+         * when is reached the {@link #batchSize(int)}, the {@code maxBatchBytes} or the {@link #flushInterval(int)}.
+         * The record that is greater than {@code maxBatchBytes} is written as one batch.
+         *
+         * @param maxBatchBytes the maximum size of batch in bytes, {@code 0} for not limited size. Default 0.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder maxBatchBytes(final int maxBatchBytes) {
+            Preconditions.checkNotNegativeNumber(maxBatchBytes, "maxBatchBytes");
+            this.maxBatchBytes = maxBatchBytes;
+            return this;
+        }
+
         /**
          * Set the time to wait at most (milliseconds).
          *
@@ -254,10 +404,30 @@ public final class WriteOptions {
             return this;
         }
 
+        /**
+         * Set the maximum number of retries of unsuccessful write. The write is retried only if the failure
+         * is temporary (network error, HTTP 429, 502, 503 or 504) after the {@link #retryInterval(int)}
+         * plus the jitter.
+         *
+         * @param maxRetries the maximum number of retries. Default 0 - the write is not retried.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder maxRetries(final int maxRetries) {
+            Preconditions.checkNotNegativeNumber(maxRetries, "maxRetries");
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
         /**
          * The client maintains a buffer for failed writes so that the writes will be retried later on. This may
          * help to overcome temporary network problems or InfluxDB load spikes.
          * When the buffer is full and new points are written, oldest entries in the buffer are lost.
+         * <p>
+         * The writes are handed to the buffer by the lock-free queue striped by the writing thread.
+         * The number of stripes is the number of processors (max 16) and each stripe holds
+         * {@code bufferLimit / stripes} writes rounded up to a power of two (at least 16), so a single thread
+         * that writes faster than the queue is drained starts to drop or spill the writes before the buffer is full.
          *
          * @param bufferLimit maximum number of points stored in the retry buffer
          * @return {@code this}
@@ -270,6 +440,50 @@ public final class WriteOptions {
             return this;
         }
 
+        /**
+         * Set the maximum number of concurrent write requests. The batches for the same bucket, organization
+         * and precision are always written in order, the batches for different destinations are written
+         * concurrently over the connection pool.
+         * <p>
+         * The concurrent requests are executed on the {@link #writeScheduler(Scheduler)} that has to support
+         * concurrent work (e.g. {@link Schedulers#io()}). If the write scheduler is not configured
+         * then is used {@link Schedulers#io()}.
+         *
+         * @param maxInFlightRequests the maximum number of concurrent write requests. Default 1.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder maxInFlightRequests(final int maxInFlightRequests) {
+            Preconditions.checkPositiveNumber(maxInFlightRequests, "maxInFlightRequests");
+            this.maxInFlightRequests = maxInFlightRequests;
+            return this;
+        }
+
+        /**
+         * Isolate the destinations (bucket, organization, token and precision) of writes. Each destination
+         * has own bounded queue of batches and at most one request in flight, the destinations with queued
+         * batches are served round-robin by the {@link #maxInFlightRequests(int)} requests. So a slow or failing
+         * destination holds only one of the requests and doesn't block the writes into other destinations
+         * while there are free requests. The queue of idle destination is released.
+         * <p>
+         * The queued records of all destinations are limited by the {@link #bufferLimit(int)}, the full queues
+         * hold the records in the buffer of client.
+         * <p>
+         * The overflow of destination queue is handled by the
+         * {@link #backpressureStrategy(BackpressureOverflowStrategy)}, the {@link BackpressureOverflowStrategy#ERROR}
+         * drops the latest batch without terminating the writes into other destinations.
+         *
+         * @param destinationQueueLimit the maximum number of batches queued for one destination,
+         *                              {@code 0} disable the isolation. Default 0.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder destinationQueueLimit(final int destinationQueueLimit) {
+            Preconditions.checkNotNegativeNumber(destinationQueueLimit, "destinationQueueLimit");
+            this.destinationQueueLimit = destinationQueueLimit;
+            return this;
+        }
+
         /**
          * Set the scheduler which is used for write data points. It is useful for disabling batch writes or
          * for tuning the performance. Default value is {@link Schedulers#trampoline()}.
@@ -302,6 +516,92 @@ public final class WriteOptions {
             return this;
         }
 
+        /**
+         * Enable the persistent spill queue. The spill queue absorbs the writes when the in-memory buffer
+         * is full ({@link #bufferLimit(int)}) or the Platform server is unavailable and replays them in order
+         * after recovery. The replay is attempted every {@link #retryInterval(int)}.
+         *
+         * @param diskBuffer the configuration of persistent spill queue, {@code null} disable the spill queue
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder diskBuffer(@Nullable final DiskBufferOptions diskBuffer) {
+            this.diskBuffer = diskBuffer;
+            return this;
+        }
+
+        /**
+         * Enable the adaptive batching. The batch size and the flush interval are adjusted by the observed
+         * latency of write requests, the throttling responses and the fill level of buffer.
+         * The {@link #batchSize(int)} and the {@link #flushInterval(int)} are used as initial values.
+         *
+         * @param adaptiveBatching the configuration of adaptive batching, {@code null} disable the adaptive batching
+         * @return {@code this}
+         * @see io.bonitoo.platform.event.BatchingAdjustedEvent
+         */
+        @Nonnull
+        public Builder adaptiveBatching(@Nullable final AdaptiveBatchingOptions adaptiveBatching) {
+            this.adaptiveBatching = adaptiveBatching;
+            return this;
+        }
+
+        /**
+         * Enable the coalescing of duplicate points. The points with the same series key
+         * (measurement + tag set) and timestamp are written only once per batch, the last written value is used.
+         * The points without timestamp are never coalesced.
+         *
+         * @param coalesceDuplicates {@code true} to coalesce the duplicate points. Default {@code false}.
+         * @return {@code this}
+         * @see io.bonitoo.platform.event.DuplicatesCoalescedEvent
+         */
+        @Nonnull
+        public Builder coalesceDuplicates(final boolean coalesceDuplicates) {
+            this.coalesceDuplicates = coalesceDuplicates;
+            return this;
+        }
+
+        /**
+         * Enable the dictionary-friendly layout of batch. The records of batch are grouped by series key
+         * (measurement + tag set), so the repeated series keys are close together and they are better
+         * compressed by GZIP. The order of records within the same series is preserved.
+         *
+         * @param groupBySeries {@code true} to group the records by series key. Default {@code false}.
+         * @return {@code this}
+         * @see io.bonitoo.core.GzipRequestInterceptor#setCodec(io.bonitoo.core.CompressionCodec)
+         */
+        @Nonnull
+        public Builder groupBySeries(final boolean groupBySeries) {
+            this.groupBySeries = groupBySeries;
+            return this;
+        }
+
+        /**
+         * Attach the written line protocol to {@link io.bonitoo.platform.event.WriteSuccessEvent}.
+         * Disable it if the listeners need only the size and timing of writes,
+         * so the events don't retain the written batches in memory.
+         *
+         * @param attachLineProtocol {@code false} to not attach the line protocol. Default {@code true}.
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder attachLineProtocol(final boolean attachLineProtocol) {
+            this.attachLineProtocol = attachLineProtocol;
+            return this;
+        }
+
+        /**
+         * Enable the client-side pre-aggregation. The points of configured measurements are aggregated
+         * per series and time window and only the aggregated points are written.
+         *
+         * @param aggregation the configuration of pre-aggregation, {@code null} disable the pre-aggregation
+         * @return {@code this}
+         */
+        @Nonnull
+        public Builder aggregation(@Nullable final AggregationOptions aggregation) {
+            this.aggregation = aggregation;
+            return this;
+        }
+
         /**
          * Build an instance of WriteOptions.
          *
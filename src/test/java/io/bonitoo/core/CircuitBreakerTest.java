@@ -0,0 +1,208 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.bonitoo.core.event.AbstractInfluxEvent;
+import io.bonitoo.core.event.CircuitBreakerEvent;
+import io.bonitoo.core.option.CircuitBreakerOptions;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class CircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private AtomicLong clock;
+    private List<AbstractInfluxEvent> events;
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+
+        clock = new AtomicLong();
+        events = new ArrayList<>();
+
+        CircuitBreakerOptions options = CircuitBreakerOptions.builder()
+                .failureRateThreshold(0.5)
+                .slowCallDuration(100)
+                .slowCallRateThreshold(0.5)
+                .windowSize(10)
+                .minimumCalls(4)
+                .openDuration(1_000)
+                .halfOpenCalls(2)
+                .build();
+
+        breaker = new CircuitBreaker("http://localhost:9999", options, events::add, clock::get);
+    }
+
+    @Test
+    void closed() {
+
+        Assertions.assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        Assertions.assertThat(breaker.getEndpoint()).isEqualTo("http://localhost:9999");
+        Assertions.assertThat(breaker.tryAcquire()).isTrue();
+        Assertions.assertThat(events).isEmpty();
+    }
+
+    @Test
+    void minimumCalls() {
+
+        breaker.onResult(true, FAST);
+        breaker.onResult(true, FAST);
+        breaker.onResult(true, FAST);
+
+        Assertions.assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void openByFailureRate() {
+
+        breaker.onResult(false, FAST);
+        breaker.onResult(false, FAST);
+        breaker.onResult(true, FAST);
+        breaker.onResult(true, FAST);
+
+        Assertions.assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        Assertions.assertThat(breaker.tryAcquire()).isFalse();
+
+        Assertions.assertThat(events).hasSize(1);
+        CircuitBreakerEvent event = (CircuitBreakerEvent) events.get(0);
+        Assertions.assertThat(event.getEndpoint()).isEqualTo("http://localhost:9999");
+        Assertions.assertThat(event.getPreviousState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        Assertions.assertThat(event.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void failureRateUnderThreshold() {
+
+        breaker.onResult(false, FAST);
+        breaker.onResult(false, FAST);
+        breaker.onResult(false, FAST);
+        breaker.onResult(true, FAST);
+
+        Assertions.assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void openBySlowCalls() {
+
+        breaker.onResult(false, FAST);
+        breaker.onResult(false, FAST);
+        breaker.onResult(false, SLOW);
+        breaker.onResult(false, SLOW);
+
+        Assertions.assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void halfOpenAfterOpenDuration() {
+
+        open();
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        Assertions.assertThat(breaker.tryAcquire()).isFalse();
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        Assertions.assertThat(breaker.tryAcquire()).isTrue();
+        Assertions.assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        // only two probes
+        Assertions.assertThat(breaker.tryAcquire()).isTrue();
+        Assertions.assertThat(breaker.tryAcquire()).isFalse();
+
+        // cancelled probe
+        breaker.release();
+        Assertions.assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void halfOpenToClosed() {
+
+        open();
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1_000));
+        breaker.tryAcquire();
+        breaker.tryAcquire();
+
+        breaker.onResult(false, FAST);
+        Assertions.assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        breaker.onResult(false, FAST);
+        Assertions.assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        Assertions.assertThat(breaker.tryAcquire()).isTrue();
+
+        Assertions.assertThat(events).hasSize(3);
+        Assertions.assertThat(((CircuitBreakerEvent) events.get(1)).getState())
+                .isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        Assertions.assertThat(((CircuitBreakerEvent) events.get(2)).getState())
+                .isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void halfOpenToOpen() {
+
+        open();
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1_000));
+        breaker.tryAcquire();
+        breaker.tryAcquire();
+
+        breaker.onResult(false, FAST);
+        breaker.onResult(true, FAST);
+
+        Assertions.assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        Assertions.assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void resultOfCallStartedBeforeOpen() {
+
+        open();
+
+        breaker.onResult(false, FAST);
+        breaker.onResult(false, FAST);
+
+        Assertions.assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        Assertions.assertThat(events).hasSize(1);
+    }
+
+    private void open() {
+
+        for (int i = 0; i < 4; i++) {
+            breaker.onResult(true, FAST);
+        }
+
+        Assertions.assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core;
+
+import java.io.IOException;
+
+import io.bonitoo.flux.FluxClient;
+import io.bonitoo.flux.FluxClientFactory;
+import io.bonitoo.flux.option.FluxConnectionOptions;
+import io.bonitoo.platform.PlatformClient;
+import io.bonitoo.platform.PlatformClientFactory;
+import io.bonitoo.platform.option.PlatformOptions;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class ClientRuntimeTest {
+
+    private MockWebServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void after() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void defaults() {
+
+        ClientRuntime runtime = ClientRuntime.create();
+
+        Assertions.assertThat(runtime.getMaxIdleConnections()).isEqualTo(5);
+        Assertions.assertThat(runtime.getKeepAlive()).isEqualTo(300_000);
+        Assertions.assertThat(runtime.getMaxRequests()).isEqualTo(64);
+        Assertions.assertThat(runtime.getMaxRequestsPerHost()).isEqualTo(5);
+        Assertions.assertThat(runtime.isClosed()).isFalse();
+
+        runtime.close();
+    }
+
+    @Test
+    void configure() {
+
+        ClientRuntime runtime = ClientRuntime.builder()
+                .maxIdleConnections(20)
+                .keepAlive(60_000)
+                .maxRequests(128)
+                .maxRequestsPerHost(32)
+                .build();
+
+        Assertions.assertThat(runtime.getMaxIdleConnections()).isEqualTo(20);
+        Assertions.assertThat(runtime.getKeepAlive()).isEqualTo(60_000);
+        Assertions.assertThat(runtime.getMaxRequests()).isEqualTo(128);
+        Assertions.assertThat(runtime.getMaxRequestsPerHost()).isEqualTo(32);
+
+        OkHttpClient client = runtime.newClientBuilder().build();
+        Assertions.assertThat(client.dispatcher().getMaxRequests()).isEqualTo(128);
+        Assertions.assertThat(client.dispatcher().getMaxRequestsPerHost()).isEqualTo(32);
+
+        runtime.close();
+    }
+
+    @Test
+    void maxRequestsPerHostPositive() {
+
+        Assertions.assertThatThrownBy(() -> ClientRuntime.builder().maxRequestsPerHost(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expecting a positive number for maxRequestsPerHost");
+    }
+
+    @Test
+    void derivedClientsShareCore() {
+
+        ClientRuntime runtime = ClientRuntime.create();
+
+        OkHttpClient client1 = runtime.newClientBuilder().build();
+        OkHttpClient client2 = runtime.newClientBuilder().addInterceptor(chain -> chain.proceed(chain.request())).build();
+
+        Assertions.assertThat(client1.connectionPool()).isSameAs(client2.connectionPool());
+        Assertions.assertThat(client1.dispatcher()).isSameAs(client2.dispatcher());
+        Assertions.assertThat(client1.interceptors()).isEmpty();
+        Assertions.assertThat(client2.interceptors()).hasSize(1);
+
+        runtime.close();
+    }
+
+    @Test
+    void clientsShareConnections() {
+
+        server.enqueue(new MockResponse());
+        server.enqueue(new MockResponse());
+        server.enqueue(new MockResponse().setBody("{\"name\":\"platform\",\"status\":\"pass\"}"));
+
+        ClientRuntime runtime = ClientRuntime.create();
+
+        String url = server.url("/").url().toString();
+
+        FluxClient fluxClient1 = FluxClientFactory.connect(FluxConnectionOptions.builder()
+                .url(url).orgID("tenant-1").runtime(runtime).build());
+        FluxClient fluxClient2 = FluxClientFactory.connect(FluxConnectionOptions.builder()
+                .url(url).orgID("tenant-2").runtime(runtime).build());
+        PlatformClient platformClient = PlatformClientFactory.connect(PlatformOptions.builder()
+                .url(url).runtime(runtime).build());
+
+        Assertions.assertThat(fluxClient1.flux("from(db:\"telegraf\")")).isEmpty();
+        Assertions.assertThat(fluxClient2.flux("from(db:\"telegraf\")")).isEmpty();
+        platformClient.health();
+
+        // one connection for all clients
+        Assertions.assertThat(runtime.getConnectionCount()).isEqualTo(1);
+
+        fluxClient1.close();
+        fluxClient2.close();
+        runtime.close();
+
+        Assertions.assertThat(runtime.getConnectionCount()).isEqualTo(0);
+    }
+
+    @Test
+    void closed() {
+
+        ClientRuntime runtime = ClientRuntime.create();
+        runtime.close();
+        runtime.close();
+
+        Assertions.assertThat(runtime.isClosed()).isTrue();
+        Assertions.assertThatThrownBy(runtime::newClientBuilder)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("The ClientRuntime is already closed.");
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.bonitoo.core.event.AbstractInfluxEvent;
+import io.bonitoo.core.event.ConcurrencyLimitEvent;
+import io.bonitoo.core.option.ConcurrencyLimitOptions;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class ConcurrencyLimiterTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private List<AbstractInfluxEvent> events;
+
+    @BeforeEach
+    void setUp() {
+        events = new ArrayList<>();
+    }
+
+    @Test
+    void rejectOverLimit() {
+
+        ConcurrencyLimiter limiter = createLimiter(2, 10);
+
+        Assertions.assertThat(limiter.tryAcquire()).isTrue();
+        Assertions.assertThat(limiter.tryAcquire()).isTrue();
+        Assertions.assertThat(limiter.tryAcquire()).isFalse();
+        Assertions.assertThat(limiter.getInFlight()).isEqualTo(2);
+
+        limiter.release();
+
+        Assertions.assertThat(limiter.getInFlight()).isEqualTo(1);
+        Assertions.assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void decreaseByFailure() {
+
+        ConcurrencyLimiter limiter = createLimiter(10, 100);
+
+        limiter.tryAcquire();
+        limiter.onResult(RTT, true);
+
+        Assertions.assertThat(limiter.getLimit()).isEqualTo(9);
+        Assertions.assertThat(limiter.getInFlight()).isEqualTo(0);
+
+        Assertions.assertThat(events).hasSize(1);
+        ConcurrencyLimitEvent event = (ConcurrencyLimitEvent) events.get(0);
+        Assertions.assertThat(event.getEndpoint()).isEqualTo("http://localhost:9999");
+        Assertions.assertThat(event.getPreviousLimit()).isEqualTo(10);
+        Assertions.assertThat(event.getLimit()).isEqualTo(9);
+    }
+
+    @Test
+    void minLimit() {
+
+        ConcurrencyLimiter limiter = createLimiter(1, 10);
+
+        limiter.tryAcquire();
+        limiter.onResult(RTT, true);
+
+        Assertions.assertThat(limiter.getLimit()).isEqualTo(1);
+        Assertions.assertThat(events).isEmpty();
+    }
+
+    @Test
+    void increaseWhenSaturated() {
+
+        ConcurrencyLimiter limiter = createLimiter(4, 100);
+
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+        }
+        limiter.onResult(RTT, false);
+
+        // 4 + sqrt(4)
+        Assertions.assertThat(limiter.getLimit()).isEqualTo(6);
+    }
+
+    @Test
+    void notIncreaseWhenUnused() {
+
+        ConcurrencyLimiter limiter = createLimiter(10, 100);
+
+        limiter.tryAcquire();
+        limiter.onResult(RTT, false);
+
+        Assertions.assertThat(limiter.getLimit()).isEqualTo(10);
+        Assertions.assertThat(events).isEmpty();
+    }
+
+    @Test
+    void maxLimit() {
+
+        ConcurrencyLimiter limiter = createLimiter(10, 10);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+        }
+        limiter.onResult(RTT, false);
+
+        Assertions.assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void decreaseByLatency() {
+
+        ConcurrencyLimiter limiter = createLimiter(10, 100);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+        }
+
+        limiter.onResult(RTT, false);
+        int limit = limiter.getLimit();
+
+        // the response time grows ten times
+        limiter.onResult(RTT * 10, false);
+
+        Assertions.assertThat(limiter.getLimit()).isLessThan(limit);
+    }
+
+    private ConcurrencyLimiter createLimiter(final int initialLimit, final int maxLimit) {
+
+        ConcurrencyLimitOptions options = ConcurrencyLimitOptions.builder()
+                .initialLimit(initialLimit)
+                .maxLimit(maxLimit)
+                .tolerance(1)
+                .smoothing(1)
+                .build();
+
+        return new ConcurrencyLimiter("http://localhost:9999", options, events::add);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import javax.annotation.Nonnull;
+
+import okio.Buffer;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class GzipCodecTest {
+
+    private static final Logger LOG = Logger.getLogger(GzipCodecTest.class.getName());
+
+    @Test
+    void compress() throws IOException {
+
+        String lineProtocol = String.join("\n", lineProtocol(100));
+
+        byte[] compressed = compress(new GzipCodec(Deflater.BEST_SPEED), lineProtocol);
+
+        Assertions.assertThat(compressed.length).isLessThan(lineProtocol.length());
+
+        GZIPInputStream decompressed = new GZIPInputStream(new Buffer().write(compressed).inputStream());
+        Assertions.assertThat(new Buffer().readFrom(decompressed).readUtf8()).isEqualTo(lineProtocol);
+    }
+
+    @Test
+    void level() {
+
+        Assertions.assertThat(GzipCodec.DEFAULT.getLevel()).isEqualTo(Deflater.DEFAULT_COMPRESSION);
+        Assertions.assertThat(GzipCodec.DEFAULT.getContentEncoding()).isEqualTo("gzip");
+        Assertions.assertThat(new GzipCodec(0).getLevel()).isEqualTo(0);
+        Assertions.assertThat(new GzipCodec(9).getLevel()).isEqualTo(9);
+
+        Assertions.assertThatThrownBy(() -> new GzipCodec(10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expecting a compression level in range 0-9 or -1 for level: 10");
+        Assertions.assertThatThrownBy(() -> new GzipCodec(-2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * The throughput vs ratio of compression levels on a batch of host metrics. The grouped batch has
+     * the records ordered by series key, see {@link io.bonitoo.platform.option.WriteOptions.Builder#groupBySeries}.
+     * <pre>
+     * mvn test -Dtest=GzipCodecTest#benchmark -DBENCHMARK=true
+     * </pre>
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "BENCHMARK", matches = "true")
+    void benchmark() throws IOException {
+
+        List<String> records = lineProtocol(5_000);
+        String batch = String.join("\n", records);
+
+        records.sort(Comparator.comparing(record -> record.substring(0, record.indexOf(' '))));
+        String grouped = String.join("\n", records);
+
+        int bytes = batch.getBytes(StandardCharsets.UTF_8).length;
+
+        for (int level : new int[]{Deflater.BEST_SPEED, Deflater.DEFAULT_COMPRESSION, Deflater.BEST_COMPRESSION}) {
+
+            GzipCodec codec = new GzipCodec(level);
+
+            // warm up
+            compress(codec, batch);
+
+            int iterations = 20;
+            long start = System.nanoTime();
+            int compressed = 0;
+            for (int i = 0; i < iterations; i++) {
+                compressed = compress(codec, batch).length;
+            }
+            long elapsed = System.nanoTime() - start;
+            int compressedGrouped = compress(codec, grouped).length;
+
+            double throughput = (double) bytes * iterations / elapsed * 1_000;
+            LOG.info(String.format("level: %2d, ratio: %5.2f, grouped ratio: %5.2f, throughput: %6.1f MB/s",
+                    level, (double) bytes / compressed, (double) bytes / compressedGrouped, throughput));
+
+            Assertions.assertThat(compressed).isLessThan(bytes);
+        }
+    }
+
+    @Nonnull
+    private byte[] compress(@Nonnull final GzipCodec codec, @Nonnull final String lineProtocol) throws IOException {
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (OutputStream compressed = codec.compress(output)) {
+            compressed.write(lineProtocol.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return output.toByteArray();
+    }
+
+    /**
+     * @param count the count of records
+     * @return the host metrics - cpu, mem and disk of 50 hosts, the records are ordered by time
+     */
+    @Nonnull
+    private List<String> lineProtocol(final int count) {
+
+        List<String> records = new ArrayList<>(count);
+        long timestamp = 1_538_900_000_000_000_000L;
+        for (int i = 0; i < count; i++) {
+
+            int host = i % 50;
+            long time = timestamp + (i / 150) * 10_000_000_000L;
+
+            switch (i % 3) {
+                case 0:
+                    records.add(String.format("cpu,host=server%02d,region=eu-west,cpu=cpu-total "
+                            + "usage_user=%.2f,usage_system=%.2f,usage_idle=%.2f %d",
+                            host, (i * 7 % 1000) / 10.0, (i * 3 % 300) / 10.0, (i * 11 % 1000) / 10.0, time));
+                    break;
+                case 1:
+                    records.add(String.format("mem,host=server%02d,region=eu-west "
+                            + "used=%di,free=%di,used_percent=%.2f %d",
+                            host, 4_000_000_000L + i * 4096, 12_000_000_000L - i * 4096, (i * 13 % 1000) / 10.0, time));
+                    break;
+                default:
+                    records.add(String.format("disk,host=server%02d,region=eu-west,path=/,fstype=ext4 "
+                            + "used=%di,free=%di,inodes_used=%di %d",
+                            host, 80_000_000_000L + i * 512, 20_000_000_000L - i * 512, 120_000 + i, time));
+                    break;
+            }
+        }
+
+        return records;
+    }
+}
@@ -23,7 +23,10 @@
 package io.bonitoo.core;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.regex.Pattern;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
 import javax.annotation.Nonnull;
 
 import okhttp3.MediaType;
@@ -33,6 +36,7 @@ import okhttp3.RequestBody;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
 import org.assertj.core.api.Assertions;
 import org.json.JSONObject;
 import org.junit.jupiter.api.AfterEach;
@@ -111,6 +115,77 @@ class GzipRequestInterceptorTest {
         Assertions.assertThat(recordedRequest.getHeader("Content-Encoding")).isNull();
     }
 
+    @Test
+    void compressionLevel() throws IOException, InterruptedException {
+
+        GzipRequestInterceptor interceptor = new GzipRequestInterceptor();
+        interceptor.setCodec(new GzipCodec(Deflater.BEST_SPEED));
+        interceptor.enable();
+
+        RecordedRequest recordedRequest = newCall(interceptor);
+
+        Assertions.assertThat(recordedRequest.getHeader("Content-Encoding")).isEqualTo("gzip");
+
+        GZIPInputStream body = new GZIPInputStream(recordedRequest.getBody().inputStream());
+        Assertions.assertThat(new Buffer().readFrom(body).readUtf8()).isEqualTo("{\"name\":\"Tom Dnif\"}");
+    }
+
+    @Test
+    void customCodec() throws IOException, InterruptedException {
+
+        GzipRequestInterceptor interceptor = new GzipRequestInterceptor();
+        interceptor.setCodec(new CompressionCodec() {
+            @Nonnull
+            @Override
+            public String getContentEncoding() {
+                return "x-custom";
+            }
+
+            @Nonnull
+            @Override
+            public OutputStream compress(@Nonnull final OutputStream output) {
+                return output;
+            }
+        });
+        interceptor.enable();
+
+        RecordedRequest recordedRequest = newCall(interceptor);
+
+        Assertions.assertThat(recordedRequest.getHeader("Content-Encoding")).isEqualTo("x-custom");
+        Assertions.assertThat(recordedRequest.getBody().readUtf8()).isEqualTo("{\"name\":\"Tom Dnif\"}");
+    }
+
+    @Test
+    void belowThreshold() throws IOException, InterruptedException {
+
+        GzipRequestInterceptor interceptor = new GzipRequestInterceptor();
+        interceptor.setThreshold(1024);
+        interceptor.enable();
+
+        RecordedRequest recordedRequest = newCall(interceptor);
+
+        Assertions.assertThat(recordedRequest.getHeader("Content-Encoding")).isNull();
+    }
+
+    @Test
+    void aboveThreshold() throws IOException, InterruptedException {
+
+        GzipRequestInterceptor interceptor = new GzipRequestInterceptor();
+        interceptor.setThreshold(10);
+        interceptor.enable();
+
+        RecordedRequest recordedRequest = newCall(interceptor);
+
+        Assertions.assertThat(recordedRequest.getHeader("Content-Encoding")).isEqualTo("gzip");
+    }
+
+    @Test
+    void thresholdNotNegative() {
+
+        Assertions.assertThatThrownBy(() -> new GzipRequestInterceptor().setThreshold(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Nonnull
     private RecordedRequest newCall(@Nonnull final GzipRequestInterceptor interceptor) throws IOException, InterruptedException {
 
@@ -0,0 +1,58 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class HttpProtocolTest {
+
+    @Test
+    void http1() {
+
+        OkHttpClient client = HttpProtocol.HTTP_1_1.configure(new OkHttpClient.Builder()).build();
+
+        Assertions.assertThat(client.protocols()).containsExactly(Protocol.HTTP_1_1);
+    }
+
+    @Test
+    void http2() {
+
+        OkHttpClient client = HttpProtocol.HTTP_2.configure(new OkHttpClient.Builder()).build();
+
+        Assertions.assertThat(client.protocols()).containsExactly(Protocol.HTTP_2, Protocol.HTTP_1_1);
+    }
+
+    @Test
+    void h2c() {
+
+        OkHttpClient client = HttpProtocol.H2C.configure(new OkHttpClient.Builder()).build();
+
+        Assertions.assertThat(client.protocols()).containsExactly(Protocol.H2_PRIOR_KNOWLEDGE);
+    }
+}
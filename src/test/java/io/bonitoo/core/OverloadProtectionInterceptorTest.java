@@ -0,0 +1,204 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.annotation.Nonnull;
+
+import io.bonitoo.core.event.AbstractInfluxEvent;
+import io.bonitoo.core.event.CircuitBreakerEvent;
+import io.bonitoo.core.option.CircuitBreakerOptions;
+import io.bonitoo.core.option.ConcurrencyLimitOptions;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class OverloadProtectionInterceptorTest {
+
+    private MockWebServer server;
+    private List<AbstractInfluxEvent> events;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+
+        events = new ArrayList<>();
+    }
+
+    @AfterEach
+    void after() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void disabled() throws IOException {
+
+        server.enqueue(new MockResponse());
+
+        OverloadProtectionInterceptor interceptor = new OverloadProtectionInterceptor(null, null);
+
+        Assertions.assertThat(execute(interceptor).code()).isEqualTo(200);
+        Assertions.assertThat(interceptor.getCircuitBreakerState(server.url("/").toString())).isNull();
+        Assertions.assertThat(interceptor.getConcurrencyLimit(server.url("/").toString())).isEqualTo(-1);
+    }
+
+    @Test
+    void circuitBreakerOpen() throws IOException {
+
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(429));
+
+        OverloadProtectionInterceptor interceptor = new OverloadProtectionInterceptor(
+                CircuitBreakerOptions.builder().windowSize(2).minimumCalls(2).build(), null);
+        interceptor.addListener(events::add);
+
+        Assertions.assertThat(execute(interceptor).code()).isEqualTo(503);
+        Assertions.assertThat(interceptor.getCircuitBreakerState(server.url("/").toString()))
+                .isEqualTo(CircuitBreaker.State.CLOSED);
+
+        Assertions.assertThat(execute(interceptor).code()).isEqualTo(429);
+        Assertions.assertThat(interceptor.getCircuitBreakerState(server.url("/").toString()))
+                .isEqualTo(CircuitBreaker.State.OPEN);
+
+        Assertions.assertThatThrownBy(() -> execute(interceptor))
+                .isInstanceOf(RequestRejectedException.class)
+                .hasMessage("The circuit breaker of http://" + server.getHostName() + ":" + server.getPort()
+                        + " is open.");
+
+        // rejected without reaching the server
+        Assertions.assertThat(server.getRequestCount()).isEqualTo(2);
+
+        Assertions.assertThat(events).hasSize(1);
+        Assertions.assertThat(((CircuitBreakerEvent) events.get(0)).getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void circuitBreakerNetworkError() {
+
+        OverloadProtectionInterceptor interceptor = new OverloadProtectionInterceptor(
+                CircuitBreakerOptions.builder().windowSize(1).minimumCalls(1).build(), null);
+
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(interceptor)
+                .build();
+
+        Request request = new Request.Builder().url("http://localhost:1/").build();
+
+        Assertions.assertThatThrownBy(() -> client.newCall(request).execute())
+                .isInstanceOf(IOException.class)
+                .isNotInstanceOf(RequestRejectedException.class);
+
+        Assertions.assertThat(interceptor.getCircuitBreakerState("http://localhost:1"))
+                .isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void concurrencyLimitExceeded() throws IOException, InterruptedException {
+
+        server.enqueue(new MockResponse().setHeadersDelay(1, TimeUnit.SECONDS));
+        server.enqueue(new MockResponse());
+
+        OverloadProtectionInterceptor interceptor = new OverloadProtectionInterceptor(null,
+                ConcurrencyLimitOptions.builder().initialLimit(1).minLimit(1).maxLimit(1).build());
+
+        OkHttpClient client = createClient(interceptor);
+        client.newCall(new Request.Builder().url(server.url("/")).build()).enqueue(new Callback() {
+            @Override
+            public void onFailure(@Nonnull final Call call, @Nonnull final IOException e) {
+            }
+
+            @Override
+            public void onResponse(@Nonnull final Call call, @Nonnull final Response response) {
+                response.close();
+            }
+        });
+
+        // the slow call is in flight
+        Assertions.assertThat(server.takeRequest(1, TimeUnit.SECONDS)).isNotNull();
+
+        Assertions.assertThatThrownBy(() -> execute(interceptor))
+                .isInstanceOf(RequestRejectedException.class)
+                .hasMessage("The concurrency limit of http://" + server.getHostName() + ":" + server.getPort()
+                        + " is exceeded: 1");
+
+        Assertions.assertThat(interceptor.getConcurrencyLimit(server.url("/").toString())).isEqualTo(1);
+
+        // the slow call is finished
+        Thread.sleep(1_500);
+
+        Assertions.assertThat(execute(interceptor).code()).isEqualTo(200);
+    }
+
+    @Test
+    void removeListener() throws IOException {
+
+        server.enqueue(new MockResponse().setResponseCode(500));
+
+        OverloadProtectionInterceptor interceptor = new OverloadProtectionInterceptor(
+                CircuitBreakerOptions.builder().windowSize(1).minimumCalls(1).build(), null);
+        Consumer<AbstractInfluxEvent> listener = events::add;
+        interceptor.addListener(listener);
+        interceptor.removeListener(listener);
+
+        execute(interceptor);
+
+        Assertions.assertThat(interceptor.getCircuitBreakerState(server.url("/").toString()))
+                .isEqualTo(CircuitBreaker.State.OPEN);
+        Assertions.assertThat(events).isEmpty();
+    }
+
+    @Nonnull
+    private Response execute(@Nonnull final OverloadProtectionInterceptor interceptor) throws IOException {
+
+        Response response = createClient(interceptor)
+                .newCall(new Request.Builder().url(server.url("/")).build())
+                .execute();
+        response.close();
+
+        return response;
+    }
+
+    @Nonnull
+    private OkHttpClient createClient(@Nonnull final OverloadProtectionInterceptor interceptor) {
+        return new OkHttpClient.Builder()
+                .addInterceptor(interceptor)
+                .build();
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.bonitoo.core.option.RateLimitOptions;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class RateLimiterTest {
+
+    private AtomicLong clock;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+    }
+
+    @Test
+    void burst() throws RequestRejectedException {
+
+        RateLimiter limiter = createLimiter(RateLimitOptions.builder().requestsPerSecond(10).requestsBurst(3));
+
+        Assertions.assertThat(limiter.acquire("org1", 0)).isEqualTo(0);
+        Assertions.assertThat(limiter.acquire("org1", 0)).isEqualTo(0);
+        Assertions.assertThat(limiter.acquire("org1", 0)).isEqualTo(0);
+
+        Assertions.assertThatThrownBy(() -> limiter.acquire("org1", 0))
+                .isInstanceOf(RequestRejectedException.class)
+                .hasMessage("The rate limit of organization org1 is exceeded.");
+    }
+
+    @Test
+    void refill() throws RequestRejectedException {
+
+        RateLimiter limiter = createLimiter(RateLimitOptions.builder().requestsPerSecond(10).requestsBurst(1));
+
+        Assertions.assertThat(limiter.acquire("org1", 0)).isEqualTo(0);
+        Assertions.assertThatThrownBy(() -> limiter.acquire("org1", 0)).isInstanceOf(RequestRejectedException.class);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+
+        Assertions.assertThat(limiter.acquire("org1", 0)).isEqualTo(0);
+    }
+
+    @Test
+    void organizations() throws RequestRejectedException {
+
+        RateLimiter limiter = createLimiter(RateLimitOptions.builder().requestsPerSecond(1));
+
+        Assertions.assertThat(limiter.acquire("org1", 0)).isEqualTo(0);
+        Assertions.assertThat(limiter.acquire("org2", 0)).isEqualTo(0);
+
+        Assertions.assertThatThrownBy(() -> limiter.acquire("org1", 0)).isInstanceOf(RequestRejectedException.class);
+    }
+
+    @Test
+    void bytes() throws RequestRejectedException {
+
+        RateLimiter limiter = createLimiter(RateLimitOptions.builder().bytesPerSecond(1_000));
+
+        Assertions.assertThat(limiter.acquire("org1", 600)).isEqualTo(0);
+        Assertions.assertThat(limiter.acquire("org1", 400)).isEqualTo(0);
+        Assertions.assertThatThrownBy(() -> limiter.acquire("org1", 1)).isInstanceOf(RequestRejectedException.class);
+
+        // the rejected request doesn't take the tokens
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        Assertions.assertThat(limiter.acquire("org1", 100)).isEqualTo(0);
+    }
+
+    @Test
+    void queue() throws RequestRejectedException {
+
+        RateLimiter limiter = createLimiter(RateLimitOptions.builder()
+                .requestsPerSecond(10)
+                .requestsBurst(1)
+                .policy(RateLimitOptions.Policy.QUEUE));
+
+        Assertions.assertThat(limiter.acquire("org1", 0)).isEqualTo(0);
+        Assertions.assertThat(limiter.acquire("org1", 0)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        Assertions.assertThat(limiter.acquire("org1", 0)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    void queueMaxDelay() throws RequestRejectedException {
+
+        RateLimiter limiter = createLimiter(RateLimitOptions.builder()
+                .requestsPerSecond(10)
+                .requestsBurst(1)
+                .policy(RateLimitOptions.Policy.QUEUE)
+                .maxDelay(150));
+
+        Assertions.assertThat(limiter.acquire("org1", 0)).isEqualTo(0);
+        Assertions.assertThat(limiter.acquire("org1", 0)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+
+        Assertions.assertThatThrownBy(() -> limiter.acquire("org1", 0)).isInstanceOf(RequestRejectedException.class);
+    }
+
+    @Test
+    void requestBiggerThanBurst() throws RequestRejectedException {
+
+        RateLimiter limiter = createLimiter(RateLimitOptions.builder()
+                .bytesPerSecond(1_000)
+                .policy(RateLimitOptions.Policy.QUEUE)
+                .maxDelay(5_000));
+
+        // permitted with the full bucket, the following request waits for the debt
+        Assertions.assertThat(limiter.acquire("org1", 3_000)).isEqualTo(0);
+        Assertions.assertThat(limiter.acquire("org1", 1_000)).isEqualTo(TimeUnit.SECONDS.toNanos(3));
+    }
+
+    @Test
+    void statistics() throws RequestRejectedException {
+
+        RateLimiter limiter = createLimiter(RateLimitOptions.builder()
+                .requestsPerSecond(10)
+                .requestsBurst(1)
+                .policy(RateLimitOptions.Policy.QUEUE)
+                .maxDelay(150));
+
+        Assertions.assertThat(limiter.getStatistics("org1")).isNull();
+        Assertions.assertThat(limiter.getStatistics()).isEmpty();
+
+        limiter.acquire("org1", 10);
+        limiter.acquire("org1", 20);
+        Assertions.assertThatThrownBy(() -> limiter.acquire("org1", 30)).isInstanceOf(RequestRejectedException.class);
+
+        RateLimitStatistics statistics = limiter.getStatistics("org1");
+
+        Assertions.assertThat(statistics).isNotNull();
+        Assertions.assertThat(statistics.getOrganization()).isEqualTo("org1");
+        Assertions.assertThat(statistics.getPermittedRequests()).isEqualTo(2);
+        Assertions.assertThat(statistics.getPermittedBytes()).isEqualTo(30);
+        Assertions.assertThat(statistics.getDelayedRequests()).isEqualTo(1);
+        Assertions.assertThat(statistics.getRejectedRequests()).isEqualTo(1);
+        Assertions.assertThat(statistics.getTotalDelay()).isEqualTo(100);
+
+        Assertions.assertThat(limiter.getStatistics()).containsOnlyKeys("org1");
+    }
+
+    @Test
+    void organizationRequired() {
+
+        RateLimiter limiter = createLimiter(RateLimitOptions.builder().requestsPerSecond(1));
+
+        Assertions.assertThatThrownBy(() -> limiter.acquire("", 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expecting a non-empty string for organization");
+    }
+
+    private RateLimiter createLimiter(final RateLimitOptions.Builder options) {
+        return new RateLimiter(options.build(), clock::get);
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core.metrics;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class DefaultMetricsRegistryTest {
+
+    @Test
+    void counter() {
+
+        DefaultMetricsRegistry registry = new DefaultMetricsRegistry();
+
+        Counter counter = registry.counter("requests", "status", "204");
+        counter.increment();
+        counter.increment(5);
+
+        Assertions.assertThat(counter.count()).isEqualTo(6);
+
+        // same name and tags => same counter
+        Assertions.assertThat(registry.counter("requests", "status", "204")).isSameAs(counter);
+        Assertions.assertThat(registry.counter("requests", "status", "500").count()).isEqualTo(0);
+    }
+
+    @Test
+    void histogram() {
+
+        DefaultMetricsRegistry registry = new DefaultMetricsRegistry();
+
+        DefaultMetricsRegistry.DefaultHistogram histogram = registry.histogram("rows");
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        histogram.record(-1);
+
+        Assertions.assertThat(histogram.count()).isEqualTo(100);
+        Assertions.assertThat(histogram.total()).isEqualTo(5050);
+        Assertions.assertThat(histogram.max()).isEqualTo(100);
+
+        // power-of-two buckets: 50 is in [32, 63], 99 is in [64, 127]
+        Assertions.assertThat(histogram.valueAtPercentile(0.5)).isEqualTo(63);
+        Assertions.assertThat(histogram.valueAtPercentile(0.99)).isEqualTo(100);
+        Assertions.assertThat(histogram.valueAtPercentile(0.01)).isEqualTo(1);
+    }
+
+    @Test
+    void histogramEmpty() {
+
+        DefaultMetricsRegistry.DefaultHistogram histogram = new DefaultMetricsRegistry().histogram("rows");
+
+        Assertions.assertThat(histogram.count()).isEqualTo(0);
+        Assertions.assertThat(histogram.max()).isEqualTo(0);
+        Assertions.assertThat(histogram.valueAtPercentile(0.99)).isEqualTo(0);
+    }
+
+    @Test
+    void percentileRange() {
+
+        DefaultMetricsRegistry.DefaultHistogram histogram = new DefaultMetricsRegistry().histogram("rows");
+
+        Assertions.assertThatThrownBy(() -> histogram.valueAtPercentile(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expecting a percentile in range (0, 1]");
+
+        Assertions.assertThatThrownBy(() -> histogram.valueAtPercentile(1.5))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expecting a percentile in range (0, 1]");
+    }
+
+    @Test
+    void gauge() {
+
+        DefaultMetricsRegistry registry = new DefaultMetricsRegistry();
+
+        AtomicLong value = new AtomicLong(5);
+        registry.gauge("buffer", value::get, "client", "write");
+
+        Assertions.assertThat(registry.getGauge("buffer", "client", "write")).isEqualTo(5);
+
+        value.set(10);
+        Assertions.assertThat(registry.getGauge("buffer", "client", "write")).isEqualTo(10);
+        Assertions.assertThat(registry.getGauge("buffer")).isNull();
+
+        // replaced
+        registry.gauge("buffer", () -> 20, "client", "write");
+        Assertions.assertThat(registry.getGauge("buffer", "client", "write")).isEqualTo(20);
+    }
+
+    @Test
+    void tagsArePairs() {
+
+        DefaultMetricsRegistry registry = new DefaultMetricsRegistry();
+
+        Assertions.assertThatThrownBy(() -> registry.counter("requests", "status"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expecting the key/value pairs of tags");
+    }
+
+    @Test
+    void snapshot() {
+
+        DefaultMetricsRegistry registry = new DefaultMetricsRegistry();
+
+        registry.counter("requests", "client", "flux", "status", "200").increment(2);
+        registry.histogram("rows").record(10);
+        registry.gauge("buffer", () -> 3);
+
+        Map<String, Long> snapshot = registry.snapshot();
+
+        Assertions.assertThat(snapshot)
+                .containsEntry("requests{client=flux,status=200}", 2L)
+                .containsEntry("rows.count{}", 1L)
+                .containsEntry("rows.total{}", 10L)
+                .containsEntry("rows.max{}", 10L)
+                .containsEntry("rows.p50{}", 10L)
+                .containsEntry("rows.p99{}", 10L)
+                .containsEntry("buffer{}", 3L);
+    }
+
+    @Test
+    void noop() {
+
+        MetricsRegistry registry = MetricsRegistry.noop();
+
+        registry.counter("requests").increment();
+        registry.histogram("rows").record(10);
+        registry.gauge("buffer", () -> 3);
+
+        Assertions.assertThat(registry.counter("requests").count()).isEqualTo(0);
+        Assertions.assertThat(registry.histogram("rows").count()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core.metrics;
+
+import java.io.IOException;
+import javax.annotation.Nonnull;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class MetricsInterceptorTest {
+
+    private MockWebServer server;
+    private DefaultMetricsRegistry registry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+
+        registry = new DefaultMetricsRegistry();
+    }
+
+    @AfterEach
+    void after() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void statusCodes() throws IOException {
+
+        server.enqueue(new MockResponse());
+        server.enqueue(new MockResponse());
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        OkHttpClient client = createClient();
+
+        Assertions.assertThat(execute(client).code()).isEqualTo(200);
+        Assertions.assertThat(execute(client).code()).isEqualTo(200);
+        Assertions.assertThat(execute(client).code()).isEqualTo(503);
+
+        Assertions.assertThat(registry.counter(ClientMetrics.HTTP_RESPONSES, "client", "flux", "status", "200")
+                .count()).isEqualTo(2);
+        Assertions.assertThat(registry.counter(ClientMetrics.HTTP_RESPONSES, "client", "flux", "status", "503")
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void ioError() {
+
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+
+        OkHttpClient client = createClient();
+
+        Assertions.assertThatThrownBy(() -> execute(client)).isInstanceOf(IOException.class);
+
+        Assertions.assertThat(registry.counter(ClientMetrics.HTTP_RESPONSES, "client", "flux", "status", "IO_ERROR")
+                .count()).isEqualTo(1);
+    }
+
+    @Nonnull
+    private Response execute(@Nonnull final OkHttpClient client) throws IOException {
+
+        Response response = client
+                .newCall(new Request.Builder().url(server.url("/")).build())
+                .execute();
+        response.close();
+
+        return response;
+    }
+
+    @Nonnull
+    private OkHttpClient createClient() {
+        return new OkHttpClient.Builder()
+                .retryOnConnectionFailure(false)
+                .addInterceptor(new MetricsInterceptor(registry, "flux"))
+                .build();
+    }
+}
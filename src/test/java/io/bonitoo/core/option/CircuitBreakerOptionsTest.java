@@ -0,0 +1,116 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core.option;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class CircuitBreakerOptionsTest {
+
+    @Test
+    void defaults() {
+
+        CircuitBreakerOptions options = CircuitBreakerOptions.builder().build();
+
+        Assertions.assertThat(options.getFailureRateThreshold()).isEqualTo(0.5);
+        Assertions.assertThat(options.getSlowCallDuration()).isEqualTo(10_000);
+        Assertions.assertThat(options.getSlowCallRateThreshold()).isEqualTo(1.0);
+        Assertions.assertThat(options.getWindowSize()).isEqualTo(100);
+        Assertions.assertThat(options.getMinimumCalls()).isEqualTo(10);
+        Assertions.assertThat(options.getOpenDuration()).isEqualTo(30_000);
+        Assertions.assertThat(options.getHalfOpenCalls()).isEqualTo(5);
+    }
+
+    @Test
+    void configure() {
+
+        CircuitBreakerOptions options = CircuitBreakerOptions.builder()
+                .failureRateThreshold(0.3)
+                .slowCallDuration(1_000)
+                .slowCallRateThreshold(0.8)
+                .windowSize(50)
+                .minimumCalls(20)
+                .openDuration(5_000)
+                .halfOpenCalls(2)
+                .build();
+
+        Assertions.assertThat(options.getFailureRateThreshold()).isEqualTo(0.3);
+        Assertions.assertThat(options.getSlowCallDuration()).isEqualTo(1_000);
+        Assertions.assertThat(options.getSlowCallRateThreshold()).isEqualTo(0.8);
+        Assertions.assertThat(options.getWindowSize()).isEqualTo(50);
+        Assertions.assertThat(options.getMinimumCalls()).isEqualTo(20);
+        Assertions.assertThat(options.getOpenDuration()).isEqualTo(5_000);
+        Assertions.assertThat(options.getHalfOpenCalls()).isEqualTo(2);
+    }
+
+    @Test
+    void failureRateThresholdPositive() {
+
+        Assertions.assertThatThrownBy(() -> CircuitBreakerOptions.builder().failureRateThreshold(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expecting a positive number for failureRateThreshold");
+    }
+
+    @Test
+    void failureRateThresholdLessOrEqualToOne() {
+
+        Assertions.assertThatThrownBy(() -> CircuitBreakerOptions.builder().failureRateThreshold(1.5))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expecting a number less or equal to 1 for failureRateThreshold");
+    }
+
+    @Test
+    void slowCallRateThresholdLessOrEqualToOne() {
+
+        Assertions.assertThatThrownBy(() -> CircuitBreakerOptions.builder().slowCallRateThreshold(2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expecting a number less or equal to 1 for slowCallRateThreshold");
+    }
+
+    @Test
+    void windowSizePositive() {
+
+        Assertions.assertThatThrownBy(() -> CircuitBreakerOptions.builder().windowSize(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expecting a positive number for windowSize");
+    }
+
+    @Test
+    void openDurationPositive() {
+
+        Assertions.assertThatThrownBy(() -> CircuitBreakerOptions.builder().openDuration(-1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expecting a positive number for openDuration");
+    }
+
+    @Test
+    void minimumCallsGreaterThanWindowSize() {
+
+        Assertions.assertThatThrownBy(() -> CircuitBreakerOptions.builder().windowSize(10).minimumCalls(20).build())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("The minimumCalls has to be less or equal to windowSize.");
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core.option;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class ConcurrencyLimitOptionsTest {
+
+    @Test
+    void defaults() {
+
+        ConcurrencyLimitOptions options = ConcurrencyLimitOptions.builder().build();
+
+        Assertions.assertThat(options.getInitialLimit()).isEqualTo(20);
+        Assertions.assertThat(options.getMinLimit()).isEqualTo(1);
+        Assertions.assertThat(options.getMaxLimit()).isEqualTo(200);
+        Assertions.assertThat(options.getTolerance()).isEqualTo(2.0);
+        Assertions.assertThat(options.getSmoothing()).isEqualTo(0.2);
+    }
+
+    @Test
+    void configure() {
+
+        ConcurrencyLimitOptions options = ConcurrencyLimitOptions.builder()
+                .initialLimit(10)
+                .minLimit(2)
+                .maxLimit(50)
+                .tolerance(1.5)
+                .smoothing(1)
+                .build();
+
+        Assertions.assertThat(options.getInitialLimit()).isEqualTo(10);
+        Assertions.assertThat(options.getMinLimit()).isEqualTo(2);
+        Assertions.assertThat(options.getMaxLimit()).isEqualTo(50);
+        Assertions.assertThat(options.getTolerance()).isEqualTo(1.5);
+        Assertions.assertThat(options.getSmoothing()).isEqualTo(1);
+    }
+
+    @Test
+    void initialLimitPositive() {
+
+        Assertions.assertThatThrownBy(() -> ConcurrencyLimitOptions.builder().initialLimit(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expecting a positive number for initialLimit");
+    }
+
+    @Test
+    void toleranceGreaterOrEqualToOne() {
+
+        Assertions.assertThatThrownBy(() -> ConcurrencyLimitOptions.builder().tolerance(0.5))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expecting a number greater or equal to 1 for tolerance");
+    }
+
+    @Test
+    void smoothingLessOrEqualToOne() {
+
+        Assertions.assertThatThrownBy(() -> ConcurrencyLimitOptions.builder().smoothing(1.1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expecting a number less or equal to 1 for smoothing");
+    }
+
+    @Test
+    void minLimitGreaterThanMaxLimit() {
+
+        Assertions.assertThatThrownBy(() -> ConcurrencyLimitOptions.builder().minLimit(20).maxLimit(10).build())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("The minLimit has to be less or equal to maxLimit.");
+    }
+
+    @Test
+    void initialLimitOutOfRange() {
+
+        Assertions.assertThatThrownBy(() -> ConcurrencyLimitOptions.builder().initialLimit(500).build())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("The initialLimit has to be in range [minLimit, maxLimit].");
+    }
+}
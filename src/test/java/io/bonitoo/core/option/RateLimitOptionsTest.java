@@ -0,0 +1,115 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.core.option;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class RateLimitOptionsTest {
+
+    @Test
+    void defaults() {
+
+        RateLimitOptions options = RateLimitOptions.builder().requestsPerSecond(2.5).build();
+
+        Assertions.assertThat(options.getRequestsPerSecond()).isEqualTo(2.5);
+        Assertions.assertThat(options.getRequestsBurst()).isEqualTo(3);
+        Assertions.assertThat(options.getBytesPerSecond()).isEqualTo(0);
+        Assertions.assertThat(options.getBytesBurst()).isEqualTo(0);
+        Assertions.assertThat(options.getPolicy()).isEqualTo(RateLimitOptions.Policy.REJECT);
+        Assertions.assertThat(options.getMaxDelay()).isEqualTo(1_000);
+    }
+
+    @Test
+    void defaultBytesBurst() {
+
+        RateLimitOptions options = RateLimitOptions.builder().bytesPerSecond(1024).build();
+
+        Assertions.assertThat(options.getRequestsPerSecond()).isEqualTo(0);
+        Assertions.assertThat(options.getBytesPerSecond()).isEqualTo(1024);
+        Assertions.assertThat(options.getBytesBurst()).isEqualTo(1024);
+    }
+
+    @Test
+    void configure() {
+
+        RateLimitOptions options = RateLimitOptions.builder()
+                .requestsPerSecond(10)
+                .requestsBurst(20)
+                .bytesPerSecond(1024)
+                .bytesBurst(4096)
+                .policy(RateLimitOptions.Policy.QUEUE)
+                .maxDelay(500)
+                .build();
+
+        Assertions.assertThat(options.getRequestsPerSecond()).isEqualTo(10);
+        Assertions.assertThat(options.getRequestsBurst()).isEqualTo(20);
+        Assertions.assertThat(options.getBytesPerSecond()).isEqualTo(1024);
+        Assertions.assertThat(options.getBytesBurst()).isEqualTo(4096);
+        Assertions.assertThat(options.getPolicy()).isEqualTo(RateLimitOptions.Policy.QUEUE);
+        Assertions.assertThat(options.getMaxDelay()).isEqualTo(500);
+    }
+
+    @Test
+    void requestsPerSecondPositive() {
+
+        Assertions.assertThatThrownBy(() -> RateLimitOptions.builder().requestsPerSecond(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expecting a positive number for requestsPerSecond");
+    }
+
+    @Test
+    void bytesBurstPositive() {
+
+        Assertions.assertThatThrownBy(() -> RateLimitOptions.builder().bytesBurst(-1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expecting a positive number for bytesBurst");
+    }
+
+    @Test
+    void policyRequired() {
+
+        Assertions.assertThatThrownBy(() -> RateLimitOptions.builder().policy(null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Policy is required");
+    }
+
+    @Test
+    void limitRequired() {
+
+        Assertions.assertThatThrownBy(() -> RateLimitOptions.builder().build())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("The requestsPerSecond or bytesPerSecond has to be defined.");
+    }
+
+    @Test
+    void burstRequiresRate() {
+
+        Assertions.assertThatThrownBy(() -> RateLimitOptions.builder().bytesPerSecond(1024).requestsBurst(5).build())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("The requestsBurst requires the requestsPerSecond.");
+    }
+}
@@ -23,13 +23,25 @@
 package io.bonitoo.flux;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
+import io.bonitoo.core.CircuitBreaker;
 import io.bonitoo.core.InfluxException;
+import io.bonitoo.core.RequestRejectedException;
+import io.bonitoo.core.event.AbstractInfluxEvent;
+import io.bonitoo.core.event.CircuitBreakerEvent;
 import io.bonitoo.core.event.UnhandledErrorEvent;
+import io.bonitoo.core.option.CircuitBreakerOptions;
 import io.bonitoo.flux.event.FluxErrorEvent;
 import io.bonitoo.flux.event.FluxSuccessEvent;
+import io.bonitoo.flux.impl.FluxClientImpl;
 import io.bonitoo.flux.impl.FluxResultMapperException;
+import io.bonitoo.flux.option.FluxConnectionOptions;
 import io.bonitoo.flux.option.FluxOptions;
 import io.bonitoo.flux.option.query.NowOption;
 
@@ -177,4 +189,113 @@ class FluxClientEventTest extends AbstractFluxClientTest {
 
         Assertions.assertThat(countDownLatch.getCount()).isEqualTo(1L);
     }
-}
\ No newline at end of file
+
+    @Test
+    void circuitBreakerEvent() {
+
+        fluxServer.enqueue(createErrorResponse("Service Unavailable"));
+        fluxServer.enqueue(createErrorResponse("Service Unavailable"));
+
+        FluxConnectionOptions options = FluxConnectionOptions.builder()
+                .url(fluxServer.url("/").url().toString())
+                .orgID("0")
+                .circuitBreaker(CircuitBreakerOptions.builder().windowSize(2).minimumCalls(2).build())
+                .build();
+
+        FluxClient client = new FluxClientImpl(options);
+
+        client.subscribeEvents(CircuitBreakerEvent.class, event -> {
+
+            Assertions.assertThat(event.getPreviousState()).isEqualTo(CircuitBreaker.State.CLOSED);
+            Assertions.assertThat(event.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+            countDownLatch.countDown();
+        });
+
+        Assertions.assertThatThrownBy(() -> client.flux("from(db:\"telegraf\")"))
+                .isInstanceOf(InfluxException.class)
+                .hasMessage("Service Unavailable");
+        Assertions.assertThatThrownBy(() -> client.flux("from(db:\"telegraf\")"))
+                .isInstanceOf(InfluxException.class)
+                .hasMessage("Service Unavailable");
+
+        waitToCallback();
+
+        // rejected without reaching the server
+        Assertions.assertThatThrownBy(() -> client.flux("from(db:\"telegraf\")"))
+                .isInstanceOf(InfluxException.class)
+                .hasCauseInstanceOf(RequestRejectedException.class);
+
+        Assertions.assertThat(fluxServer.getRequestCount()).isEqualTo(2);
+
+        client.close();
+    }
+
+    @Test
+    void dispatchBySuperType() {
+
+        fluxServer.enqueue(createResponse());
+        fluxServer.enqueue(createResponse());
+
+        List<AbstractInfluxEvent> events = new CopyOnWriteArrayList<>();
+        Consumer<AbstractInfluxEvent> listener = events::add;
+
+        fluxClient.subscribeEvents(AbstractInfluxEvent.class, listener);
+
+        fluxClient.flux("from(db:\"telegraf\")");
+
+        Assertions.assertThat(events).hasSize(1);
+        Assertions.assertThat(events.get(0)).isInstanceOf(FluxSuccessEvent.class);
+
+        // the dispatch table is rebuilt
+        fluxClient.unsubscribeEvents(listener);
+
+        fluxClient.flux("from(db:\"telegraf\")");
+
+        Assertions.assertThat(events).hasSize(1);
+    }
+
+    @Test
+    void eventExecutor() throws InterruptedException {
+
+        fluxServer.enqueue(createResponse());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "flux-events"));
+
+        FluxConnectionOptions options = FluxConnectionOptions.builder()
+                .url(fluxServer.url("/").url().toString())
+                .orgID("0")
+                .eventExecutor(executor)
+                .build();
+
+        FluxClient client = new FluxClientImpl(options);
+
+        List<String> threads = new CopyOnWriteArrayList<>();
+        client.subscribeEvents(FluxSuccessEvent.class, event -> {
+
+            threads.add(Thread.currentThread().getName());
+
+            // the slow listener doesn't block the query
+            try {
+                Thread.sleep(2_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            countDownLatch.countDown();
+        });
+
+        long started = System.nanoTime();
+
+        Assertions.assertThat(client.flux("from(db:\"telegraf\")")).hasSize(1);
+        Assertions.assertThat(System.nanoTime() - started).isLessThan(TimeUnit.SECONDS.toNanos(2));
+
+        waitToCallback();
+
+        Assertions.assertThat(threads).containsExactly("flux-events");
+
+        client.close();
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
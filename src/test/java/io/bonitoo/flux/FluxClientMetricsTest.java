@@ -0,0 +1,126 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.flux;
+
+import io.bonitoo.core.InfluxException;
+import io.bonitoo.core.metrics.ClientMetrics;
+import io.bonitoo.core.metrics.DefaultMetricsRegistry;
+import io.bonitoo.flux.impl.FluxClientImpl;
+import io.bonitoo.flux.option.FluxConnectionOptions;
+
+import okhttp3.mockwebserver.MockResponse;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class FluxClientMetricsTest extends AbstractFluxClientTest {
+
+    private DefaultMetricsRegistry metrics;
+    private FluxClient client;
+
+    @BeforeEach
+    void setUpMetrics() {
+
+        metrics = new DefaultMetricsRegistry();
+
+        FluxConnectionOptions options = FluxConnectionOptions.builder()
+                .url(fluxServer.url("/").url().toString())
+                .orgID("0")
+                .metrics(metrics)
+                .build();
+
+        client = new FluxClientImpl(options);
+    }
+
+    @Test
+    void query() {
+
+        fluxServer.enqueue(createResponse());
+
+        Assertions.assertThat(client.flux("from(db:\"telegraf\")")).hasSize(1);
+
+        Assertions.assertThat(metrics.histogram(ClientMetrics.QUERY_TIME_TO_FIRST_BYTE).count()).isEqualTo(1);
+        Assertions.assertThat(metrics.histogram(ClientMetrics.QUERY_PARSE).count()).isEqualTo(1);
+        Assertions.assertThat(metrics.histogram(ClientMetrics.QUERY_DURATION).count()).isEqualTo(1);
+        Assertions.assertThat(metrics.histogram(ClientMetrics.QUERY_DURATION).total())
+                .isGreaterThanOrEqualTo(metrics.histogram(ClientMetrics.QUERY_TIME_TO_FIRST_BYTE).total());
+        Assertions.assertThat(metrics.histogram(ClientMetrics.QUERY_ROWS).total()).isEqualTo(4);
+        Assertions.assertThat(metrics.histogram(ClientMetrics.QUERY_BYTES).total()).isGreaterThan(0);
+        Assertions.assertThat(metrics.counter(ClientMetrics.QUERY_ERRORS).count()).isEqualTo(0);
+        Assertions.assertThat(metrics.counter(ClientMetrics.HTTP_RESPONSES, "client", "flux", "status", "200")
+                .count()).isEqualTo(1);
+
+        client.close();
+    }
+
+    @Test
+    void queryAsync() {
+
+        fluxServer.enqueue(createResponse());
+
+        client.flux("from(db:\"telegraf\")", (cancellable, record) -> {
+        }, () -> countDownLatch.countDown());
+
+        waitToCallback();
+
+        Assertions.assertThat(metrics.histogram(ClientMetrics.QUERY_TIME_TO_FIRST_BYTE).count()).isEqualTo(1);
+        Assertions.assertThat(metrics.histogram(ClientMetrics.QUERY_ROWS).total()).isEqualTo(4);
+
+        client.close();
+    }
+
+    @Test
+    void error() {
+
+        fluxServer.enqueue(createErrorResponse("Flux query is not valid"));
+
+        Assertions.assertThatThrownBy(() -> client.flux("from(db:\"telegraf\")"))
+                .isInstanceOf(InfluxException.class);
+
+        Assertions.assertThat(metrics.counter(ClientMetrics.QUERY_ERRORS).count()).isEqualTo(1);
+        Assertions.assertThat(metrics.histogram(ClientMetrics.QUERY_DURATION).count()).isEqualTo(0);
+        Assertions.assertThat(metrics.counter(ClientMetrics.HTTP_RESPONSES, "client", "flux", "status", "500")
+                .count()).isEqualTo(1);
+
+        client.close();
+    }
+
+    @Test
+    void errorAsync() {
+
+        fluxServer.enqueue(new MockResponse().setResponseCode(503));
+
+        client.flux("from(db:\"telegraf\")", (cancellable, record) -> {
+        }, () -> {
+        }, throwable -> countDownLatch.countDown());
+
+        waitToCallback();
+
+        Assertions.assertThat(metrics.counter(ClientMetrics.QUERY_ERRORS).count()).isEqualTo(1);
+
+        client.close();
+    }
+}
@@ -59,4 +59,40 @@ class FluxClientPingTest extends AbstractFluxClientTest {
 
         Assertions.assertThat(fluxClient.ping()).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    void warmUp() {
+
+        fluxServer.enqueue(new MockResponse().setResponseCode(204));
+        fluxServer.enqueue(new MockResponse().setResponseCode(204));
+        fluxServer.enqueue(new MockResponse().setResponseCode(204));
+
+        Assertions.assertThat(fluxClient.warmUp(3)).isTrue();
+        Assertions.assertThat(fluxServer.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    void warmUpServerError() {
+
+        fluxServer.enqueue(new MockResponse().setResponseCode(204));
+        fluxServer.enqueue(createErrorResponse(""));
+
+        Assertions.assertThat(fluxClient.warmUp(2)).isFalse();
+    }
+
+    @Test
+    void warmUpNotRunningServer() throws IOException {
+
+        fluxServer.shutdown();
+
+        Assertions.assertThat(fluxClient.warmUp(2)).isFalse();
+    }
+
+    @Test
+    void warmUpPositiveConnections() {
+
+        Assertions.assertThatThrownBy(() -> fluxClient.warmUp(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expecting a positive number for connections");
+    }
+}
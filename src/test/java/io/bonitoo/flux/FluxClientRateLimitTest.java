@@ -0,0 +1,166 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.flux;
+
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+
+import io.bonitoo.core.InfluxException;
+import io.bonitoo.core.RateLimitStatistics;
+import io.bonitoo.core.RateLimiter;
+import io.bonitoo.core.RequestRejectedException;
+import io.bonitoo.core.option.RateLimitOptions;
+import io.bonitoo.flux.impl.FluxClientImpl;
+import io.bonitoo.flux.option.FluxConnectionOptions;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class FluxClientRateLimitTest extends AbstractFluxClientTest {
+
+    @Test
+    void reject() {
+
+        fluxServer.enqueue(createResponse());
+        fluxServer.enqueue(createResponse());
+
+        RateLimiter limiter = new RateLimiter(RateLimitOptions.builder().requestsPerSecond(1).build());
+        FluxClient client = createClient(limiter);
+
+        Assertions.assertThat(client.flux("from(db:\"telegraf\")")).hasSize(1);
+
+        Assertions.assertThatThrownBy(() -> client.flux("from(db:\"telegraf\")"))
+                .isInstanceOf(InfluxException.class)
+                .hasCauseInstanceOf(RequestRejectedException.class);
+
+        // rejected without reaching the server
+        Assertions.assertThat(fluxServer.getRequestCount()).isEqualTo(1);
+
+        RateLimitStatistics statistics = limiter.getStatistics("0");
+        Assertions.assertThat(statistics).isNotNull();
+        Assertions.assertThat(statistics.getPermittedRequests()).isEqualTo(1);
+        Assertions.assertThat(statistics.getRejectedRequests()).isEqualTo(1);
+
+        client.close();
+    }
+
+    @Test
+    void rejectAsync() {
+
+        RateLimiter limiter = new RateLimiter(RateLimitOptions.builder().requestsPerSecond(1).build());
+
+        fluxServer.enqueue(createResponse());
+
+        FluxClient client = createClient(limiter);
+        client.flux("from(db:\"telegraf\")");
+
+        client.flux("from(db:\"telegraf\")", (cancellable, record) -> {
+        }, () -> {
+        }, throwable -> {
+
+            Assertions.assertThat(throwable).isInstanceOf(RequestRejectedException.class);
+
+            countDownLatch.countDown();
+        });
+
+        waitToCallback();
+
+        Assertions.assertThat(fluxServer.getRequestCount()).isEqualTo(1);
+
+        client.close();
+    }
+
+    @Test
+    void queue() {
+
+        fluxServer.enqueue(createResponse());
+        fluxServer.enqueue(createResponse());
+
+        RateLimiter limiter = new RateLimiter(RateLimitOptions.builder()
+                .requestsPerSecond(2)
+                .requestsBurst(1)
+                .policy(RateLimitOptions.Policy.QUEUE)
+                .build());
+
+        FluxClient client = createClient(limiter);
+
+        long started = System.nanoTime();
+
+        Assertions.assertThat(client.flux("from(db:\"telegraf\")")).hasSize(1);
+        Assertions.assertThat(client.flux("from(db:\"telegraf\")")).hasSize(1);
+
+        // the second query waits for the token
+        Assertions.assertThat(System.nanoTime() - started).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(400));
+
+        RateLimitStatistics statistics = limiter.getStatistics("0");
+        Assertions.assertThat(statistics).isNotNull();
+        Assertions.assertThat(statistics.getDelayedRequests()).isEqualTo(1);
+
+        client.close();
+    }
+
+    @Test
+    void queueAsync() {
+
+        fluxServer.enqueue(createResponse());
+        fluxServer.enqueue(createResponse());
+
+        RateLimiter limiter = new RateLimiter(RateLimitOptions.builder()
+                .requestsPerSecond(1)
+                .requestsBurst(1)
+                .policy(RateLimitOptions.Policy.QUEUE)
+                .build());
+
+        FluxClient client = createClient(limiter);
+        client.flux("from(db:\"telegraf\")");
+
+        long started = System.nanoTime();
+
+        client.flux("from(db:\"telegraf\")", (cancellable, record) -> {
+        }, () -> countDownLatch.countDown());
+
+        // the caller isn't blocked
+        Assertions.assertThat(System.nanoTime() - started).isLessThan(TimeUnit.MILLISECONDS.toNanos(500));
+
+        waitToCallback();
+
+        Assertions.assertThat(fluxServer.getRequestCount()).isEqualTo(2);
+
+        client.close();
+    }
+
+    @Nonnull
+    private FluxClient createClient(@Nonnull final RateLimiter limiter) {
+
+        FluxConnectionOptions options = FluxConnectionOptions.builder()
+                .url(fluxServer.url("/").url().toString())
+                .orgID("0")
+                .rateLimiter(limiter)
+                .build();
+
+        return new FluxClientImpl(options);
+    }
+}
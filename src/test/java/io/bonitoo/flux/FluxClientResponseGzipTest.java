@@ -0,0 +1,256 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.flux;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+import javax.annotation.Nonnull;
+
+import io.bonitoo.flux.dto.FluxTable;
+import io.bonitoo.flux.event.FluxSuccessEvent;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class FluxClientResponseGzipTest extends AbstractFluxClientTest {
+
+    private static final Logger LOG = Logger.getLogger(FluxClientResponseGzipTest.class.getName());
+
+    private static final String HEADER = "#datatype,string,long,dateTime:RFC3339,long,string,string\n"
+            + "#group,false,false,false,false,false,true\n"
+            + "#default,_result,,,,,\n"
+            + ",result,table,_time,_value,_field,host\n";
+
+    private static final String RECORD = ",,0,1970-01-01T00:00:10Z,%d,free,A\n";
+
+    @Test
+    void disabledByDefault() {
+
+        Assertions.assertThat(fluxClient.isResponseGzipEnabled()).isFalse();
+    }
+
+    @Test
+    void enableDisable() {
+
+        Assertions.assertThat(fluxClient.enableResponseGzip()).isEqualTo(fluxClient);
+        Assertions.assertThat(fluxClient.isResponseGzipEnabled()).isTrue();
+
+        Assertions.assertThat(fluxClient.disableResponseGzip()).isEqualTo(fluxClient);
+        Assertions.assertThat(fluxClient.isResponseGzipEnabled()).isFalse();
+    }
+
+    @Test
+    void gzipResponse() throws InterruptedException, IOException {
+
+        String data = csv(1_000);
+        fluxServer.enqueue(gzipResponse(data));
+
+        AtomicReference<FluxSuccessEvent> event = new AtomicReference<>();
+        fluxClient.subscribeEvents(FluxSuccessEvent.class, event::set);
+
+        List<FluxTable> tables = fluxClient.enableResponseGzip().flux("from(bucket:\"telegraf\")");
+
+        Assertions.assertThat(tables).hasSize(1);
+        Assertions.assertThat(tables.get(0).getRecords()).hasSize(1_000);
+        Assertions.assertThat(tables.get(0).getRecords().get(999).getValue()).isEqualTo(999L);
+
+        RecordedRequest request = fluxServer.takeRequest();
+        Assertions.assertThat(request.getHeader("Accept-Encoding")).isEqualTo("gzip");
+
+        Assertions.assertThat(event.get()).isNotNull();
+        Assertions.assertThat(event.get().getDecodedBytes()).isEqualTo(data.length());
+        Assertions.assertThat(event.get().getWireBytes()).isEqualTo(gzip(data).size());
+        Assertions.assertThat(event.get().getWireBytes()).isLessThan(event.get().getDecodedBytes());
+    }
+
+    @Test
+    void gzipResponseAsync() throws IOException {
+
+        String data = csv(1_000);
+        fluxServer.enqueue(gzipResponse(data));
+
+        AtomicReference<FluxSuccessEvent> event = new AtomicReference<>();
+        fluxClient.subscribeEvents(FluxSuccessEvent.class, event::set);
+
+        AtomicLong records = new AtomicLong();
+        fluxClient.enableResponseGzip().flux("from(bucket:\"telegraf\")",
+                (cancellable, record) -> records.incrementAndGet(),
+                () -> countDownLatch.countDown());
+
+        waitToCallback();
+
+        Assertions.assertThat(records.get()).isEqualTo(1_000);
+        Assertions.assertThat(event.get().getDecodedBytes()).isEqualTo(data.length());
+        Assertions.assertThat(event.get().getWireBytes()).isEqualTo(gzip(data).size());
+    }
+
+    @Test
+    void uncompressedResponse() {
+
+        String data = csv(10);
+        fluxServer.enqueue(createResponse(data));
+
+        AtomicReference<FluxSuccessEvent> event = new AtomicReference<>();
+        fluxClient.subscribeEvents(FluxSuccessEvent.class, event::set);
+
+        List<FluxTable> tables = fluxClient.enableResponseGzip().flux("from(bucket:\"telegraf\")");
+
+        Assertions.assertThat(tables.get(0).getRecords()).hasSize(10);
+        Assertions.assertThat(event.get().getDecodedBytes()).isEqualTo(data.length());
+        Assertions.assertThat(event.get().getWireBytes()).isEqualTo(data.length());
+    }
+
+    @Test
+    void transparentlyDecodedResponse() {
+
+        String data = csv(10);
+        fluxServer.enqueue(createResponse(data));
+
+        AtomicReference<FluxSuccessEvent> event = new AtomicReference<>();
+        fluxClient.subscribeEvents(FluxSuccessEvent.class, event::set);
+
+        List<FluxTable> tables = fluxClient.flux("from(bucket:\"telegraf\")");
+
+        Assertions.assertThat(tables.get(0).getRecords()).hasSize(10);
+        Assertions.assertThat(event.get().getDecodedBytes()).isEqualTo(data.length());
+        Assertions.assertThat(event.get().getWireBytes()).isEqualTo(-1);
+    }
+
+    @Test
+    void rawQueryIsNotAffected() throws IOException {
+
+        String data = csv(10);
+        fluxServer.enqueue(createResponse(data));
+
+        String body = fluxClient.enableResponseGzip().fluxRaw("from(bucket:\"telegraf\")").body().string();
+
+        Assertions.assertThat(body).isEqualTo(data);
+    }
+
+    /**
+     * The end-to-end latency of the large result over the throttled (WAN) link:
+     * <pre>
+     * mvn test -Dtest=FluxClientResponseGzipTest#benchmark -DBENCHMARK=true -DBENCHMARK_SIZE_MB=200
+     * </pre>
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "BENCHMARK", matches = "true")
+    void benchmark() throws IOException {
+
+        long size = Long.getLong("BENCHMARK_SIZE_MB", 200L) * 1024 * 1024;
+
+        // ~ 100 Mbit/s
+        long bytesPerPeriod = 128 * 1024;
+        long period = 10;
+
+        for (boolean gzip : new boolean[]{false, true}) {
+
+            Buffer body = new Buffer();
+            long records = 0;
+            try (BufferedSink sink = gzip ? Okio.buffer(new GzipSink(body)) : body) {
+                long written = 0;
+                sink.writeUtf8(HEADER);
+                while (written < size) {
+                    String record = String.format(RECORD, records++);
+                    sink.writeUtf8(record);
+                    written += record.length();
+                }
+            }
+
+            MockResponse response = new MockResponse()
+                    .setHeader("Content-Type", "text/csv; charset=utf-8")
+                    .setBody(body)
+                    .throttleBody(bytesPerPeriod, period, TimeUnit.MILLISECONDS);
+            if (gzip) {
+                response.setHeader("Content-Encoding", "gzip");
+                fluxClient.enableResponseGzip();
+            } else {
+                fluxClient.disableResponseGzip();
+            }
+            fluxServer.enqueue(response);
+
+            AtomicReference<FluxSuccessEvent> event = new AtomicReference<>();
+            fluxClient.subscribeEvents(FluxSuccessEvent.class, event::set);
+
+            CountDownLatch latch = new CountDownLatch(1);
+            AtomicLong parsed = new AtomicLong();
+
+            long start = System.nanoTime();
+            fluxClient.flux("from(bucket:\"telegraf\")",
+                    (cancellable, record) -> parsed.incrementAndGet(), latch::countDown);
+            waitToCallback(latch, 600);
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            LOG.info(String.format("gzip: %5s, records: %d, wire: %d bytes, decoded: %d bytes, latency: %d ms",
+                    gzip, parsed.get(), event.get().getWireBytes(), event.get().getDecodedBytes(), elapsed));
+
+            Assertions.assertThat(parsed.get()).isEqualTo(records);
+        }
+    }
+
+    @Nonnull
+    private String csv(final int records) {
+
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < records; i++) {
+            csv.append(String.format(RECORD, i));
+        }
+
+        return csv.toString();
+    }
+
+    @Nonnull
+    private MockResponse gzipResponse(@Nonnull final String data) throws IOException {
+
+        return new MockResponse()
+                .setHeader("Content-Type", "text/csv; charset=utf-8")
+                .setHeader("Content-Encoding", "gzip")
+                .setBody(gzip(data));
+    }
+
+    @Nonnull
+    private Buffer gzip(@Nonnull final String data) throws IOException {
+
+        Buffer buffer = new Buffer();
+        try (BufferedSink sink = Okio.buffer(new GzipSink(buffer))) {
+            sink.writeUtf8(data);
+        }
+
+        return buffer;
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.flux;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import io.bonitoo.core.InfluxException;
+import io.bonitoo.flux.dto.FluxTable;
+import io.bonitoo.flux.impl.FluxClientImpl;
+import io.bonitoo.flux.option.FluxConnectionOptions;
+import io.bonitoo.flux.option.HedgingOptions;
+
+import okhttp3.mockwebserver.MockWebServer;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class FluxClientRoutingTest extends AbstractFluxClientTest {
+
+    private MockWebServer fluxServer2;
+
+    @BeforeEach
+    @Override
+    protected void setUp() {
+        super.setUp();
+
+        fluxServer2 = new MockWebServer();
+        try {
+            fluxServer2.start();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @AfterEach
+    @Override
+    protected void after() throws IOException {
+        super.after();
+
+        fluxServer2.shutdown();
+    }
+
+    @Test
+    void roundRobin() {
+
+        fluxServer.enqueue(createResponse());
+        fluxServer2.enqueue(createResponse());
+
+        FluxClient client = createClient(null);
+
+        Assertions.assertThat(client.flux("from(db:\"telegraf\")")).hasSize(1);
+        Assertions.assertThat(client.flux("from(db:\"telegraf\")")).hasSize(1);
+
+        Assertions.assertThat(fluxServer.getRequestCount()).isEqualTo(1);
+        Assertions.assertThat(fluxServer2.getRequestCount()).isEqualTo(1);
+
+        client.close();
+    }
+
+    @Test
+    void leastOutstandingRequests() {
+
+        // the first node is slow
+        fluxServer.enqueue(createResponse().setHeadersDelay(1, TimeUnit.SECONDS));
+        fluxServer2.enqueue(createResponse());
+        fluxServer2.enqueue(createResponse());
+
+        FluxClient client = createClient(null);
+
+        // to the first node
+        client.flux("from(db:\"telegraf\")", (cancellable, record) -> {
+        });
+
+        // the first node has outstanding request => both to the second node
+        Assertions.assertThat(client.flux("from(db:\"telegraf\")")).hasSize(1);
+        Assertions.assertThat(client.flux("from(db:\"telegraf\")")).hasSize(1);
+
+        Assertions.assertThat(fluxServer.getRequestCount()).isEqualTo(1);
+        Assertions.assertThat(fluxServer2.getRequestCount()).isEqualTo(2);
+
+        client.close();
+    }
+
+    @Test
+    void failover() throws IOException {
+
+        for (int i = 0; i < 6; i++) {
+            fluxServer.enqueue(createResponse());
+        }
+
+        // the second node is down
+        fluxServer2.shutdown();
+
+        FluxClient client = createClient(null);
+
+        for (int i = 0; i < 6; i++) {
+            Assertions.assertThat(client.flux("from(db:\"telegraf\")")).hasSize(1);
+        }
+
+        // all queries are answered by the available node
+        Assertions.assertThat(fluxServer.getRequestCount()).isEqualTo(6);
+
+        client.close();
+    }
+
+    @Test
+    void hedging() {
+
+        // the first node is slow
+        fluxServer.enqueue(createResponse().setHeadersDelay(2, TimeUnit.SECONDS));
+        fluxServer2.enqueue(createResponse());
+
+        FluxClient client = createClient(HedgingOptions.builder().minDelay(100).build());
+
+        long started = System.nanoTime();
+        List<FluxTable> tables = client.flux("from(db:\"telegraf\")");
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        Assertions.assertThat(tables).hasSize(1);
+        Assertions.assertThat(elapsed).isLessThan(2_000);
+
+        // the query was hedged to the second node
+        Assertions.assertThat(fluxServer.getRequestCount()).isEqualTo(1);
+        Assertions.assertThat(fluxServer2.getRequestCount()).isEqualTo(1);
+
+        client.close();
+    }
+
+    @Test
+    void hedgingNotNeeded() {
+
+        fluxServer.enqueue(createResponse());
+
+        FluxClient client = createClient(HedgingOptions.builder().minDelay(1_000).build());
+
+        Assertions.assertThat(client.flux("from(db:\"telegraf\")")).hasSize(1);
+
+        Assertions.assertThat(fluxServer.getRequestCount()).isEqualTo(1);
+        Assertions.assertThat(fluxServer2.getRequestCount()).isEqualTo(0);
+
+        client.close();
+    }
+
+    @Test
+    void hedgingBothFailed() {
+
+        fluxServer.enqueue(createErrorResponse("Failed to parse query").setHeadersDelay(500, TimeUnit.MILLISECONDS));
+        fluxServer2.enqueue(createErrorResponse("Failed to parse query"));
+
+        FluxClient client = createClient(HedgingOptions.builder().minDelay(100).build());
+
+        Assertions.assertThatThrownBy(() -> client.flux("from(db:\"telegraf\")"))
+                .isInstanceOf(InfluxException.class)
+                .hasMessage("Failed to parse query");
+
+        client.close();
+    }
+
+    @Nonnull
+    private FluxClient createClient(@Nullable final HedgingOptions hedging) {
+
+        FluxConnectionOptions options = FluxConnectionOptions.builder()
+                .urls(Arrays.asList(fluxServer.url("/").url().toString(), fluxServer2.url("/").url().toString()))
+                .orgID("0")
+                .hedging(hedging)
+                .build();
+
+        return new FluxClientImpl(options);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.flux;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import io.bonitoo.core.InfluxException;
+import io.bonitoo.flux.option.FluxOptions;
+
+import okhttp3.mockwebserver.MockResponse;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class FluxClientTimeoutTest extends AbstractFluxClientTest {
+
+    @Test
+    void timeout() {
+
+        fluxServer.enqueue(createResponse().setHeadersDelay(2, TimeUnit.SECONDS));
+
+        FluxOptions options = FluxOptions.builder().timeout(200).build();
+
+        long started = System.nanoTime();
+
+        Assertions.assertThatThrownBy(() -> fluxClient.flux("from(db:\"telegraf\")", options))
+                .isInstanceOf(FluxQueryTimeoutException.class)
+                .hasMessage("The query has exceeded the timeout of 200 ms.");
+
+        Assertions.assertThat(System.nanoTime() - started).isLessThan(TimeUnit.SECONDS.toNanos(2));
+    }
+
+    @Test
+    void notExceeded() {
+
+        fluxServer.enqueue(createResponse());
+
+        FluxOptions options = FluxOptions.builder().timeout(5_000).build();
+
+        List<FluxTable> tables = fluxClient.flux("from(db:\"telegraf\")", options);
+
+        Assertions.assertThat(tables).hasSize(1);
+    }
+
+    @Test
+    void timeoutAsync() {
+
+        fluxServer.enqueue(createResponse().setHeadersDelay(2, TimeUnit.SECONDS));
+
+        FluxOptions options = FluxOptions.builder().timeout(200).build();
+
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+
+        fluxClient.flux("from(db:\"telegraf\")", options, (cancellable, record) -> {
+        }, () -> Assertions.fail("Unreachable"), throwable -> {
+
+            errors.add(throwable);
+            countDownLatch.countDown();
+        });
+
+        waitToCallback();
+
+        Assertions.assertThat(errors).hasSize(1);
+        Assertions.assertThat(errors.get(0))
+                .isInstanceOf(InfluxException.class)
+                .isInstanceOf(FluxQueryTimeoutException.class);
+    }
+
+    @Test
+    void timeoutDuringStreaming() {
+
+        MockResponse response = createResponse()
+                .throttleBody(64, 100, TimeUnit.MILLISECONDS);
+        fluxServer.enqueue(response);
+
+        FluxOptions options = FluxOptions.builder().timeout(150).build();
+
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+
+        fluxClient.flux("from(db:\"telegraf\")", options, (cancellable, record) -> {
+        }, () -> Assertions.fail("Unreachable"), throwable -> {
+
+            errors.add(throwable);
+            countDownLatch.countDown();
+        });
+
+        waitToCallback();
+
+        Assertions.assertThat(errors).hasSize(1);
+        Assertions.assertThat(errors.get(0)).isInstanceOf(FluxQueryTimeoutException.class);
+    }
+
+    @Test
+    void cancelAbortsRequest() throws InterruptedException {
+
+        String data = "#datatype,string,long,dateTime:RFC3339,dateTime:RFC3339,dateTime:RFC3339,"
+                + "long,string,string,string\n"
+                + "#group,false,false,false,false,false,false,false,false,true\n"
+                + "#default,_result,,,,,,,,\n"
+                + ",result,table,_start,_stop,_time,_value,_field,_measurement,host\n"
+                + ",,0,1970-01-01T00:00:10Z,1970-01-01T00:00:20Z,1970-01-01T00:00:10Z,10,free,mem,A\n"
+                + ",,0,1970-01-01T00:00:10Z,1970-01-01T00:00:20Z,1970-01-01T00:00:10Z,11,free,mem,A\n"
+                + ",,0,1970-01-01T00:00:10Z,1970-01-01T00:00:20Z,1970-01-01T00:00:10Z,12,free,mem,A\n";
+
+        fluxServer.enqueue(createResponse(data).throttleBody(128, 200, TimeUnit.MILLISECONDS));
+
+        List<FluxRecord> records = new CopyOnWriteArrayList<>();
+
+        fluxClient.flux("from(db:\"telegraf\")", FluxOptions.DEFAULTS, (cancellable, record) -> {
+
+            records.add(record);
+            cancellable.cancel();
+            countDownLatch.countDown();
+
+        }, () -> Assertions.fail("Unreachable"), throwable -> Assertions.fail("Unreachable"));
+
+        waitToCallback();
+
+        // wait to possibly next records
+        Thread.sleep(500);
+
+        Assertions.assertThat(records).hasSize(1);
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.flux;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import io.bonitoo.core.InfluxException;
+import io.bonitoo.flux.event.FluxErrorEvent;
+import io.bonitoo.flux.event.FluxSuccessEvent;
+import io.bonitoo.flux.impl.FluxClientImpl;
+import io.bonitoo.flux.option.FluxConnectionOptions;
+import io.bonitoo.flux.trace.QuerySpan;
+import io.bonitoo.flux.trace.QueryTrace;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class FluxClientTraceTest extends AbstractFluxClientTest {
+
+    private List<String> events;
+    private List<QueryTrace> ended;
+    private List<Throwable> errors;
+    private FluxClient client;
+
+    @BeforeEach
+    void setUpTracer() {
+
+        events = new CopyOnWriteArrayList<>();
+        ended = new CopyOnWriteArrayList<>();
+        errors = new CopyOnWriteArrayList<>();
+
+        FluxConnectionOptions options = FluxConnectionOptions.builder()
+                .url(fluxServer.url("/").url().toString())
+                .orgID("0")
+                .tracer(connectionOptions -> new QuerySpan() {
+                    @Override
+                    public void addEvent(@Nonnull final String name) {
+                        events.add(name);
+                    }
+
+                    @Override
+                    public void end(@Nonnull final QueryTrace trace, @Nullable final Throwable error) {
+                        ended.add(trace);
+                        if (error != null) {
+                            errors.add(error);
+                        }
+                    }
+                })
+                .build();
+
+        client = new FluxClientImpl(options);
+    }
+
+    @Test
+    void successEvent() {
+
+        fluxServer.enqueue(createResponse());
+
+        List<FluxSuccessEvent> successEvents = new CopyOnWriteArrayList<>();
+        client.subscribeEvents(FluxSuccessEvent.class, successEvents::add);
+
+        client.flux("from(db:\"telegraf\")");
+
+        Assertions.assertThat(successEvents).hasSize(1);
+
+        QueryTrace trace = successEvents.get(0).getTrace();
+        Assertions.assertThat(trace).isNotNull();
+        Assertions.assertThat(trace.getQuery()).isEqualTo("from(db:\"telegraf\")");
+        Assertions.assertThat(trace.getTables()).isEqualTo(1);
+        Assertions.assertThat(trace.getRecords()).isEqualTo(4);
+        Assertions.assertThat(trace.getBytes()).isGreaterThan(0);
+        Assertions.assertThat(trace.getRendered()).isGreaterThanOrEqualTo(0);
+        Assertions.assertThat(trace.getRequestBuilt()).isGreaterThanOrEqualTo(trace.getRendered());
+        Assertions.assertThat(trace.getConnected()).isGreaterThanOrEqualTo(trace.getRequestBuilt());
+        Assertions.assertThat(trace.getHeadersReceived()).isGreaterThanOrEqualTo(trace.getConnected());
+        Assertions.assertThat(trace.getFirstRecord()).isGreaterThanOrEqualTo(trace.getHeadersReceived());
+        Assertions.assertThat(trace.getLastRecord()).isGreaterThanOrEqualTo(trace.getFirstRecord());
+        Assertions.assertThat(trace.getDuration()).isGreaterThanOrEqualTo(trace.getLastRecord());
+
+        client.close();
+    }
+
+    @Test
+    void successEventAsync() {
+
+        fluxServer.enqueue(createResponse());
+
+        List<FluxSuccessEvent> successEvents = new CopyOnWriteArrayList<>();
+        client.subscribeEvents(FluxSuccessEvent.class, event -> {
+            successEvents.add(event);
+            countDownLatch.countDown();
+        });
+
+        client.flux("from(db:\"telegraf\")", (cancellable, record) -> {
+        });
+
+        waitToCallback();
+
+        QueryTrace trace = successEvents.get(0).getTrace();
+        Assertions.assertThat(trace).isNotNull();
+        Assertions.assertThat(trace.getTables()).isEqualTo(1);
+        Assertions.assertThat(trace.getRecords()).isEqualTo(4);
+        Assertions.assertThat(trace.getLastRecord()).isGreaterThanOrEqualTo(trace.getFirstRecord());
+
+        client.close();
+    }
+
+    @Test
+    void errorEvent() {
+
+        fluxServer.enqueue(createErrorResponse("Flux query is not valid"));
+
+        List<FluxErrorEvent> errorEvents = new CopyOnWriteArrayList<>();
+        client.subscribeEvents(FluxErrorEvent.class, errorEvents::add);
+
+        Assertions.assertThatThrownBy(() -> client.flux("from(db:\"telegraf\")"))
+                .isInstanceOf(InfluxException.class);
+
+        Assertions.assertThat(errorEvents).hasSize(1);
+
+        QueryTrace trace = errorEvents.get(0).getTrace();
+        Assertions.assertThat(trace).isNotNull();
+        Assertions.assertThat(trace.getHeadersReceived()).isGreaterThanOrEqualTo(0);
+        Assertions.assertThat(trace.getFirstRecord()).isEqualTo(-1);
+        Assertions.assertThat(trace.getLastRecord()).isEqualTo(-1);
+        Assertions.assertThat(trace.getRecords()).isEqualTo(0);
+        Assertions.assertThat(trace.getBytes()).isEqualTo(-1);
+
+        client.close();
+    }
+
+    @Test
+    void span() {
+
+        fluxServer.enqueue(createResponse());
+
+        client.flux("from(db:\"telegraf\")");
+
+        Assertions.assertThat(events).containsExactly(QuerySpan.RENDERED, QuerySpan.REQUEST_BUILT,
+                QuerySpan.CONNECTED, QuerySpan.HEADERS_RECEIVED, QuerySpan.FIRST_RECORD, QuerySpan.LAST_RECORD);
+        Assertions.assertThat(ended).hasSize(1);
+        Assertions.assertThat(ended.get(0).getRecords()).isEqualTo(4);
+        Assertions.assertThat(errors).isEmpty();
+
+        client.close();
+    }
+
+    @Test
+    void spanError() {
+
+        fluxServer.enqueue(createErrorResponse("Flux query is not valid"));
+
+        Assertions.assertThatThrownBy(() -> client.flux("from(db:\"telegraf\")"))
+                .isInstanceOf(InfluxException.class);
+
+        Assertions.assertThat(events).doesNotContain(QuerySpan.FIRST_RECORD, QuerySpan.LAST_RECORD);
+        Assertions.assertThat(ended).hasSize(1);
+        Assertions.assertThat(errors).hasSize(1);
+        Assertions.assertThat(errors.get(0)).hasMessage("Flux query is not valid");
+
+        client.close();
+    }
+
+    @Test
+    void spanFailure() {
+
+        fluxServer.enqueue(createResponse());
+
+        FluxConnectionOptions options = FluxConnectionOptions.builder()
+                .url(fluxServer.url("/").url().toString())
+                .orgID("0")
+                .tracer(connectionOptions -> {
+                    throw new IllegalStateException("tracer is not available");
+                })
+                .build();
+
+        FluxClient fluxClient = new FluxClientImpl(options);
+
+        Assertions.assertThat(fluxClient.flux("from(db:\"telegraf\")")).hasSize(1);
+
+        fluxClient.close();
+    }
+}
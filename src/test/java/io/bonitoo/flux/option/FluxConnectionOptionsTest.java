@@ -22,6 +22,23 @@
  */
 package io.bonitoo.flux.option;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Executor;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import io.bonitoo.core.ClientRuntime;
+import io.bonitoo.core.HttpProtocol;
+import io.bonitoo.core.RateLimiter;
+import io.bonitoo.core.metrics.DefaultMetricsRegistry;
+import io.bonitoo.core.option.CircuitBreakerOptions;
+import io.bonitoo.core.option.ConcurrencyLimitOptions;
+import io.bonitoo.core.option.RateLimitOptions;
+import io.bonitoo.flux.trace.QuerySpan;
+import io.bonitoo.flux.trace.QueryTrace;
+import io.bonitoo.flux.trace.QueryTracer;
+
 import okhttp3.OkHttpClient;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -79,4 +96,166 @@ class FluxConnectionOptionsTest {
 
         Assertions.assertThat(fluxConnectionOptions.getOkHttpClient()).isEqualTo(okHttpClient);
     }
-}
\ No newline at end of file
+
+    @Test
+    void urls() {
+
+        FluxConnectionOptions fluxConnectionOptions = FluxConnectionOptions.builder()
+                .urls(Arrays.asList("http://node1:8093", "http://node2:8093"))
+                .orgID("00")
+                .hedging(HedgingOptions.DEFAULTS)
+                .build();
+
+        Assertions.assertThat(fluxConnectionOptions.getUrl()).isEqualTo("http://node1:8093");
+        Assertions.assertThat(fluxConnectionOptions.getUrls()).containsExactly("http://node1:8093", "http://node2:8093");
+        Assertions.assertThat(fluxConnectionOptions.getHedging()).isEqualTo(HedgingOptions.DEFAULTS);
+    }
+
+    @Test
+    void urlsEmpty() {
+
+        Assertions.assertThatThrownBy(() -> FluxConnectionOptions.builder().urls(Collections.emptyList()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expecting at least one url");
+    }
+
+    @Test
+    void hedgingRequiresTwoUrls() {
+
+        FluxConnectionOptions.Builder fluxConnectionOptions = FluxConnectionOptions.builder()
+                .url("http://localhost:8093")
+                .orgID("00")
+                .hedging(HedgingOptions.DEFAULTS);
+
+        Assertions.assertThatThrownBy(fluxConnectionOptions::build)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("The hedged queries require at least two urls of Flux nodes.");
+    }
+
+    @Test
+    void runtime() {
+
+        ClientRuntime runtime = ClientRuntime.create();
+        FluxConnectionOptions fluxConnectionOptions = FluxConnectionOptions.builder()
+                .url("http://localhost:8093")
+                .orgID("00")
+                .runtime(runtime)
+                .build();
+
+        Assertions.assertThat(fluxConnectionOptions.getRuntime()).isEqualTo(runtime);
+
+        runtime.close();
+    }
+
+    @Test
+    void protocol() {
+
+        FluxConnectionOptions options = FluxConnectionOptions.builder()
+                .url("http://localhost:8093")
+                .orgID("00")
+                .protocol(HttpProtocol.HTTP_2)
+                .build();
+
+        Assertions.assertThat(options.getProtocol()).isEqualTo(HttpProtocol.HTTP_2);
+    }
+
+    @Test
+    void overloadProtection() {
+
+        FluxConnectionOptions options = FluxConnectionOptions.builder()
+                .url("http://localhost:8093")
+                .orgID("00")
+                .circuitBreaker(CircuitBreakerOptions.DEFAULTS)
+                .concurrencyLimit(ConcurrencyLimitOptions.DEFAULTS)
+                .build();
+
+        Assertions.assertThat(options.getCircuitBreaker()).isEqualTo(CircuitBreakerOptions.DEFAULTS);
+        Assertions.assertThat(options.getConcurrencyLimit()).isEqualTo(ConcurrencyLimitOptions.DEFAULTS);
+    }
+
+    @Test
+    void overloadProtectionDisabled() {
+
+        FluxConnectionOptions options = FluxConnectionOptions.builder()
+                .url("http://localhost:8093")
+                .orgID("00")
+                .build();
+
+        Assertions.assertThat(options.getCircuitBreaker()).isNull();
+        Assertions.assertThat(options.getConcurrencyLimit()).isNull();
+    }
+
+    @Test
+    void rateLimiter() {
+
+        RateLimiter rateLimiter = new RateLimiter(RateLimitOptions.builder().requestsPerSecond(10).build());
+
+        FluxConnectionOptions options = FluxConnectionOptions.builder()
+                .url("http://localhost:8093")
+                .orgID("00")
+                .rateLimiter(rateLimiter)
+                .build();
+
+        Assertions.assertThat(options.getRateLimiter()).isEqualTo(rateLimiter);
+    }
+
+    @Test
+    void metrics() {
+
+        DefaultMetricsRegistry metrics = new DefaultMetricsRegistry();
+
+        FluxConnectionOptions options = FluxConnectionOptions.builder()
+                .url("http://localhost:8093")
+                .orgID("00")
+                .metrics(metrics)
+                .build();
+
+        Assertions.assertThat(options.getMetrics()).isEqualTo(metrics);
+    }
+
+    @Test
+    void eventExecutor() {
+
+        Executor executor = Runnable::run;
+
+        FluxConnectionOptions options = FluxConnectionOptions.builder()
+                .url("http://localhost:8093")
+                .orgID("00")
+                .eventExecutor(executor)
+                .build();
+
+        Assertions.assertThat(options.getEventExecutor()).isEqualTo(executor);
+        Assertions.assertThat(FluxConnectionOptions.builder()
+                .url("http://localhost:8093")
+                .orgID("00")
+                .build()
+                .getEventExecutor()).isNull();
+    }
+
+    @Test
+    void tracer() {
+
+        QueryTracer tracer = connectionOptions -> new QuerySpan() {
+            @Override
+            public void addEvent(@Nonnull final String name) {
+            }
+
+            @Override
+            public void end(@Nonnull final QueryTrace trace, @Nullable final Throwable error) {
+            }
+        };
+
+        FluxConnectionOptions options = FluxConnectionOptions.builder()
+                .url("http://localhost:8093")
+                .orgID("00")
+                .tracer(tracer)
+                .build();
+
+        Assertions.assertThat(options.getTracer()).isEqualTo(tracer);
+        Assertions.assertThat(FluxConnectionOptions.builder()
+                .url("http://localhost:8093")
+                .orgID("00")
+                .build()
+                .getTracer()).isNull();
+    }
+}
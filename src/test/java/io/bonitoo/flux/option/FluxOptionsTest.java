@@ -38,6 +38,8 @@ class FluxOptionsTest {
 
         Assertions.assertThat(FluxOptions.DEFAULTS.getDialect())
                 .isNotNull();
+        Assertions.assertThat(FluxOptions.DEFAULTS.getTimeout())
+                .isEqualTo(0);
     }
 
     @Test
@@ -53,4 +55,23 @@ class FluxOptionsTest {
         Assertions.assertThat(queryOptions.getDialect())
                 .isEqualTo(fluxDialect);
     }
-}
\ No newline at end of file
+
+    @Test
+    void timeout() {
+
+        FluxOptions queryOptions = FluxOptions
+                .builder()
+                .timeout(5_000)
+                .build();
+
+        Assertions.assertThat(queryOptions.getTimeout()).isEqualTo(5_000);
+    }
+
+    @Test
+    void timeoutPositive() {
+
+        Assertions.assertThatThrownBy(() -> FluxOptions.builder().timeout(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expecting a positive number for timeout");
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.flux.option;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class HedgingOptionsTest {
+
+    @Test
+    void defaults() {
+
+        HedgingOptions options = HedgingOptions.builder().build();
+
+        Assertions.assertThat(options.getPercentile()).isEqualTo(0.95);
+        Assertions.assertThat(options.getMinDelay()).isEqualTo(50);
+    }
+
+    @Test
+    void configure() {
+
+        HedgingOptions options = HedgingOptions.builder()
+                .percentile(0.99)
+                .minDelay(10)
+                .build();
+
+        Assertions.assertThat(options.getPercentile()).isEqualTo(0.99);
+        Assertions.assertThat(options.getMinDelay()).isEqualTo(10);
+    }
+
+    @Test
+    void percentilePositive() {
+
+        Assertions.assertThatThrownBy(() -> HedgingOptions.builder().percentile(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expecting a positive number for percentile");
+    }
+
+    @Test
+    void percentileLessThanOne() {
+
+        Assertions.assertThatThrownBy(() -> HedgingOptions.builder().percentile(1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expecting a number less than 1 for percentile");
+    }
+
+    @Test
+    void minDelayNotNegative() {
+
+        Assertions.assertThatThrownBy(() -> HedgingOptions.builder().minDelay(-1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expecting a positive or zero number for minDelay");
+    }
+}
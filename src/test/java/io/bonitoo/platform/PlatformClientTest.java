@@ -22,7 +22,12 @@
  */
 package io.bonitoo.platform;
 
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import io.bonitoo.core.ClientRuntime;
 import io.bonitoo.platform.impl.AbstractPlatformClientTest;
+import io.bonitoo.platform.option.PlatformOptions;
 import io.bonitoo.platform.option.WriteOptions;
 
 import okhttp3.logging.HttpLoggingInterceptor;
@@ -87,4 +92,45 @@ class PlatformClientTest extends AbstractPlatformClientTest {
         Assertions.assertThat(platformClient.createWriteClient()).isNotNull();
         Assertions.assertThat(platformClient.createWriteClient(WriteOptions.DEFAULTS)).isNotNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    void warmUp() throws InterruptedException {
+
+        platformServer.enqueue(createResponse("{\"name\":\"platform\",\"status\":\"pass\"}"));
+        platformServer.enqueue(createResponse("{\"name\":\"platform\",\"status\":\"pass\"}"));
+
+        Assertions.assertThat(platformClient.warmUp(2)).isTrue();
+        Assertions.assertThat(platformServer.getRequestCount()).isEqualTo(2);
+        Assertions.assertThat(platformServer.takeRequest().getPath()).isEqualTo("/healthz");
+    }
+
+    @Test
+    void warmUpPooledConnections() {
+
+        // the concurrent checks
+        for (int i = 0; i < 3; i++) {
+            platformServer.enqueue(createResponse("{\"name\":\"platform\",\"status\":\"pass\"}")
+                    .setHeadersDelay(200, TimeUnit.MILLISECONDS));
+        }
+
+        try (ClientRuntime runtime = ClientRuntime.create()) {
+
+            PlatformClient client = PlatformClientFactory.connect(PlatformOptions.builder()
+                    .url(platformServer.url("/").url().toString())
+                    .runtime(runtime)
+                    .build());
+
+            Assertions.assertThat(client.warmUp(3)).isTrue();
+            Assertions.assertThat(runtime.getConnectionCount()).isEqualTo(3);
+            Assertions.assertThat(runtime.getIdleConnectionCount()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void warmUpNotRunningServer() throws IOException {
+
+        platformServer.shutdown();
+
+        Assertions.assertThat(platformClient.warmUp(2)).isFalse();
+    }
+}
@@ -22,22 +22,47 @@
  */
 package io.bonitoo.platform;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 
+import io.bonitoo.core.CircuitBreaker;
 import io.bonitoo.core.GzipRequestInterceptor;
 import io.bonitoo.core.InfluxException;
+import io.bonitoo.core.RateLimitStatistics;
+import io.bonitoo.core.RateLimiter;
+import io.bonitoo.core.RequestRejectedException;
+import io.bonitoo.core.event.CircuitBreakerEvent;
 import io.bonitoo.core.event.UnhandledErrorEvent;
+import io.bonitoo.core.metrics.ClientMetrics;
+import io.bonitoo.core.metrics.DefaultMetricsRegistry;
+import io.bonitoo.core.option.CircuitBreakerOptions;
+import io.bonitoo.core.option.RateLimitOptions;
+import io.bonitoo.platform.dto.WriteStatistics;
 import io.bonitoo.platform.event.BackpressureEvent;
+import io.bonitoo.platform.event.DuplicatesCoalescedEvent;
 import io.bonitoo.platform.event.WriteSuccessEvent;
 import io.bonitoo.platform.impl.AbstractPlatformClientTest;
+import io.bonitoo.platform.option.AggregationOptions;
+import io.bonitoo.platform.option.DiskBufferOptions;
+import io.bonitoo.platform.option.PlatformOptions;
 import io.bonitoo.platform.option.WriteOptions;
 
+import io.reactivex.Completable;
 import io.reactivex.Flowable;
 import io.reactivex.observers.TestObserver;
+import io.reactivex.processors.PublishProcessor;
 import io.reactivex.schedulers.Schedulers;
 import io.reactivex.schedulers.TestScheduler;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.RecordedRequest;
 import org.assertj.core.api.Assertions;
@@ -57,6 +82,7 @@ class WriteClientTest extends AbstractPlatformClientTest {
     private WriteClient writeClient;
     private TestScheduler batchScheduler;
     private TestScheduler jitterScheduler;
+    private TestScheduler retryScheduler;
 
     @BeforeEach
     protected void setUp() {
@@ -64,6 +90,7 @@ class WriteClientTest extends AbstractPlatformClientTest {
 
         batchScheduler = new TestScheduler();
         jitterScheduler = new TestScheduler();
+        retryScheduler = new TestScheduler();
     }
 
     @AfterEach
@@ -197,6 +224,43 @@ class WriteClientTest extends AbstractPlatformClientTest {
         Assertions.assertThat(body2).isEqualTo(record3 + "\n" + record4);
     }
 
+    @Test
+    void batchingByBytes() {
+
+        platformServer.enqueue(createResponse("{}"));
+        platformServer.enqueue(createResponse("{}"));
+        platformServer.enqueue(createResponse("{}"));
+
+        String record1 = "h2o_feet,location=coyote_creek level\\ description=\"feet 1\",water_level=1.0 1";
+        String record2 = "h2o_feet,location=coyote_creek level\\ description=\"feet 2\",water_level=2.0 2";
+        String record3 = "h2o_feet,location=coyote_creek level\\ description=\"feet 3\",water_level=3.0 3";
+        String record4 = "h2o_feet,location=coyote_creek level\\ description=\"feet ž\",water_level=4.0 4";
+
+        // two records + new line
+        int maxBatchBytes = 2 * record1.length() + 1;
+
+        writeClient = createWriteClient(WriteOptions.builder().batchSize(10).maxBatchBytes(maxBatchBytes).build());
+
+        writeClient.write("b1", "org1", "token1", record1);
+        writeClient.write("b1", "org1", "token1", record2);
+        writeClient.write("b1", "org1", "token1", record3);
+        writeClient.write("b1", "org1", "token1", record4);
+
+        String body1 = getRequestBody(platformServer);
+        Assertions.assertThat(body1).isEqualTo(record1 + "\n" + record2);
+
+        // record4 has same length in chars, but is encoded by more bytes => doesn't fit
+        String body2 = getRequestBody(platformServer);
+        Assertions.assertThat(body2).isEqualTo(record3);
+
+        Assertions.assertThat(platformServer.getRequestCount()).isEqualTo(2);
+
+        batchScheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        String body3 = getRequestBody(platformServer);
+        Assertions.assertThat(body3).isEqualTo(record4);
+    }
+
     @Test
     void batchingDisabled() {
 
@@ -261,6 +325,302 @@ class WriteClientTest extends AbstractPlatformClientTest {
         Assertions.assertThat(body4).isEqualTo(record4);
     }
 
+    @Test
+    void writeIterableInChunks() {
+
+        platformServer.enqueue(createResponse("{}"));
+        platformServer.enqueue(createResponse("{}"));
+
+        writeClient = createWriteClient(WriteOptions.builder().batchSize(2).build());
+
+        String record1 = "h2o_feet,location=coyote_creek level\\ description=\"feet 1\",water_level=1.0 1";
+        String record2 = "h2o_feet,location=coyote_creek level\\ description=\"feet 2\",water_level=2.0 2";
+        String record3 = "h2o_feet,location=coyote_creek level\\ description=\"feet 3\",water_level=3.0 3";
+
+        Iterable<String> records = Lists.list(record1, "", record2, record3);
+        writeClient.write("b1", "org1", "token1", records);
+
+        Assertions.assertThat(getRequestBody(platformServer)).isEqualTo(record1 + "\n" + record2);
+
+        // rest of records is written by flush interval
+        Assertions.assertThat(platformServer.getRequestCount()).isEqualTo(1);
+        batchScheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        Assertions.assertThat(getRequestBody(platformServer)).isEqualTo(record3);
+    }
+
+    @Test
+    void writeStream() throws InterruptedException {
+
+        platformServer.enqueue(createResponse("{}"));
+        platformServer.enqueue(createResponse("{}"));
+
+        writeClient = createWriteClient(WriteOptions.builder().batchSize(2).build());
+
+        Stream<String> records = Stream.of(1, 2, 3, 4)
+                .map(index -> String.format("h2o_feet,location=coyote_creek water_level=%s.0 %s", index, index));
+
+        writeClient.write("b1", "org1", "token1", TimeUnit.SECONDS, records);
+
+        RecordedRequest request = platformServer.takeRequest();
+        Assertions.assertThat(request.getRequestUrl().queryParameter("precision")).isEqualTo("s");
+        Assertions.assertThat(request.getBody().readUtf8()).isEqualTo(
+                "h2o_feet,location=coyote_creek water_level=1.0 1\n"
+                        + "h2o_feet,location=coyote_creek water_level=2.0 2");
+
+        Assertions.assertThat(getRequestBody(platformServer)).isEqualTo(
+                "h2o_feet,location=coyote_creek water_level=3.0 3\n"
+                        + "h2o_feet,location=coyote_creek water_level=4.0 4");
+    }
+
+    @Test
+    void writeStreamValidation() {
+
+        writeClient = createWriteClient(WriteOptions.builder().batchSize(2).build());
+
+        Assertions.assertThatThrownBy(() -> writeClient.write("b1", "org1", "token1", TimeUnit.HOURS, Stream.of("")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Precision must be one of: [NANOSECONDS, MICROSECONDS, MILLISECONDS, SECONDS]");
+    }
+
+    @Test
+    void writePublisherRespectsBackpressure() {
+
+        for (int i = 0; i < 50; i++) {
+            platformServer.enqueue(createResponse("{}"));
+        }
+
+        writeClient = createWriteClient(WriteOptions.builder().batchSize(10).build());
+
+        List<Long> requested = new ArrayList<>();
+        Flowable<String> records = Flowable
+                .range(0, 500)
+                .map(index -> String.format("h2o_feet,location=coyote_creek water_level=%s.0 %s", index, index))
+                .doOnRequest(requested::add);
+
+        writeClient.write("b1", "org1", "token1", records).blockingAwait(10, TimeUnit.SECONDS);
+
+        Assertions.assertThat(platformServer.getRequestCount()).isEqualTo(50);
+        Assertions.assertThat(requested).isNotEmpty();
+        Assertions.assertThat(requested).allMatch(count -> count < Long.MAX_VALUE);
+    }
+
+    @Test
+    void writePublisherFlushInterval() {
+
+        platformServer.enqueue(createResponse("{}"));
+
+        writeClient = createWriteClient(WriteOptions.builder().batchSize(10).build());
+
+        PublishProcessor<String> records = PublishProcessor.create();
+
+        TestObserver<Void> written = writeClient.write("b1", "org1", "token1", records).test();
+
+        records.onNext("h2o_feet,location=coyote_creek water_level=1.0 1");
+        records.onNext("h2o_feet,location=coyote_creek water_level=2.0 2");
+
+        // the records of slow source are written by flush interval
+        Assertions.assertThat(platformServer.getRequestCount()).isEqualTo(0);
+        batchScheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        Assertions.assertThat(getRequestBody(platformServer)).isEqualTo(
+                "h2o_feet,location=coyote_creek water_level=1.0 1\n"
+                        + "h2o_feet,location=coyote_creek water_level=2.0 2");
+
+        written.assertNotComplete();
+        written.dispose();
+    }
+
+    @Test
+    void writePublisherError() {
+
+        platformServer.enqueue(createErrorResponse("database not found"));
+
+        writeClient = createWriteClient(WriteOptions.builder().batchSize(10).build());
+
+        Flowable<String> records = Flowable
+                .range(0, 20)
+                .map(index -> String.format("h2o_feet,location=coyote_creek water_level=%s.0 %s", index, index));
+
+        Throwable throwable = writeClient.write("b1", "org1", "token1", records).blockingGet();
+
+        Assertions.assertThat(throwable).isInstanceOf(InfluxException.class).hasMessage("database not found");
+        // the remaining records are not written
+        Assertions.assertThat(platformServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void writePublisherIsCold() throws InterruptedException {
+
+        platformServer.enqueue(createResponse("{}"));
+
+        writeClient = createWriteClient(WriteOptions.builder().batchSize(10).build());
+
+        Completable written = writeClient.write("b1", "org1", "token1",
+                Flowable.just("h2o_feet,location=coyote_creek water_level=1.0 1"));
+
+        Assertions.assertThat(platformServer.takeRequest(100, TimeUnit.MILLISECONDS)).isNull();
+
+        written.blockingAwait(10, TimeUnit.SECONDS);
+
+        Assertions.assertThat(platformServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void writeSync() {
+
+        platformServer.enqueue(createResponse("{}"));
+
+        writeClient = createWriteClient();
+
+        TestObserver<WriteSuccessEvent> listener = writeClient.listenEvents(WriteSuccessEvent.class).test();
+
+        writeClient.writeSync("b1", "org1", "token1", Lists.newArrayList(
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 1\",water_level=1.0 1",
+                "",
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 2\",water_level=2.0 2"));
+
+        // acknowledged before return
+        Assertions.assertThat(platformServer.getRequestCount()).isEqualTo(1);
+        listener.assertValueCount(1);
+
+        String expected = "h2o_feet,location=coyote_creek level\\ description=\"feet 1\",water_level=1.0 1\n"
+                + "h2o_feet,location=coyote_creek level\\ description=\"feet 2\",water_level=2.0 2";
+        Assertions.assertThat(getRequestBody(platformServer)).isEqualTo(expected);
+    }
+
+    @Test
+    void writeSyncError() {
+
+        platformServer.enqueue(createErrorResponse("database not found"));
+
+        writeClient = createWriteClient(WriteOptions.builder().maxRetries(3).build());
+
+        TestObserver<UnhandledErrorEvent> listener = writeClient.listenEvents(UnhandledErrorEvent.class).test();
+
+        Assertions.assertThatThrownBy(() -> writeClient.writeSync("b1", "org1", "token1",
+                Lists.newArrayList("h2o_feet,location=coyote_creek water_level=1.0 1")))
+                .isInstanceOf(InfluxException.class)
+                .hasMessage("database not found");
+
+        // not retry-worth
+        Assertions.assertThat(platformServer.getRequestCount()).isEqualTo(1);
+        listener.assertNoValues();
+    }
+
+    @Test
+    void circuitBreakerEvent() {
+
+        platformServer.enqueue(createErrorResponse("database not found"));
+        platformServer.enqueue(createErrorResponse("database not found"));
+
+        PlatformOptions platformOptions = PlatformOptions.builder()
+                .url(platformServer.url("/").url().toString())
+                .circuitBreaker(CircuitBreakerOptions.builder().windowSize(2).minimumCalls(2).build())
+                .build();
+
+        PlatformClient client = PlatformClientFactory.connect(platformOptions);
+        writeClient = client.createWriteClient(WriteOptions.DISABLED_BATCHING);
+
+        TestObserver<CircuitBreakerEvent> listener = writeClient.listenEvents(CircuitBreakerEvent.class).test();
+
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertThatThrownBy(() -> writeClient.writeSync("b1", "org1", "token1",
+                    Lists.newArrayList("h2o_feet,location=coyote_creek water_level=1.0 1")))
+                    .isInstanceOf(InfluxException.class)
+                    .hasMessage("database not found");
+        }
+
+        listener.awaitCount(1);
+        listener.assertValueCount(1);
+        Assertions.assertThat(listener.values().get(0).getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void rateLimit() {
+
+        platformServer.enqueue(createResponse("{}"));
+
+        RateLimiter rateLimiter = new RateLimiter(RateLimitOptions.builder().requestsPerSecond(1).build());
+
+        PlatformOptions platformOptions = PlatformOptions.builder()
+                .url(platformServer.url("/").url().toString())
+                .rateLimiter(rateLimiter)
+                .build();
+
+        writeClient = PlatformClientFactory.connect(platformOptions).createWriteClient(WriteOptions.DISABLED_BATCHING);
+
+        writeClient.writeSync("b1", "org1", "token1",
+                Lists.newArrayList("h2o_feet,location=coyote_creek water_level=1.0 1"));
+
+        Assertions.assertThatThrownBy(() -> writeClient.writeSync("b1", "org1", "token1",
+                Lists.newArrayList("h2o_feet,location=coyote_creek water_level=2.0 2")))
+                .isInstanceOf(InfluxException.class)
+                .hasCauseInstanceOf(RequestRejectedException.class);
+
+        // rejected without reaching the server
+        Assertions.assertThat(platformServer.getRequestCount()).isEqualTo(1);
+
+        RateLimitStatistics statistics = rateLimiter.getStatistics("org1");
+        Assertions.assertThat(statistics).isNotNull();
+        Assertions.assertThat(statistics.getPermittedRequests()).isEqualTo(1);
+        Assertions.assertThat(statistics.getPermittedBytes()).isEqualTo(48);
+        Assertions.assertThat(statistics.getRejectedRequests()).isEqualTo(1);
+    }
+
+    @Test
+    void metrics() {
+
+        platformServer.enqueue(createResponse("{}"));
+
+        DefaultMetricsRegistry metrics = new DefaultMetricsRegistry();
+
+        PlatformOptions platformOptions = PlatformOptions.builder()
+                .url(platformServer.url("/").url().toString())
+                .metrics(metrics)
+                .build();
+
+        writeClient = PlatformClientFactory.connect(platformOptions).createWriteClient(WriteOptions.DISABLED_BATCHING);
+
+        writeClient.writeSync("b1", "org1", "token1",
+                Lists.newArrayList("h2o_feet,location=coyote_creek water_level=1.0 1"));
+
+        Assertions.assertThat(metrics.histogram(ClientMetrics.WRITE_BATCH_RECORDS).total()).isEqualTo(1);
+        Assertions.assertThat(metrics.histogram(ClientMetrics.WRITE_BATCH_BYTES).total()).isEqualTo(48);
+        Assertions.assertThat(metrics.histogram(ClientMetrics.WRITE_DURATION).count()).isEqualTo(1);
+        Assertions.assertThat(metrics.getGauge(ClientMetrics.WRITE_BUFFER_RECORDS)).isEqualTo(0);
+        Assertions.assertThat(metrics.counter(ClientMetrics.WRITE_RETRIES).count()).isEqualTo(0);
+        Assertions.assertThat(metrics.counter(ClientMetrics.HTTP_RESPONSES, "client", "platform", "status", "200")
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void writeAsyncRetry() throws Exception {
+
+        platformServer.enqueue(new MockResponse().setResponseCode(503));
+        platformServer.enqueue(createResponse("{}"));
+
+        writeClient = createWriteClient(WriteOptions.builder().retryInterval(1_000).maxRetries(1).build());
+
+        CompletableFuture<Void> future = writeClient.writeAsync("b1", "org1", "token1", TimeUnit.SECONDS,
+                Lists.newArrayList("h2o_feet,location=coyote_creek water_level=1.0 1"));
+
+        // failed request
+        Assertions.assertThat(getRequestBody(platformServer))
+                .isEqualTo("h2o_feet,location=coyote_creek water_level=1.0 1");
+        Assertions.assertThat(future).isNotDone();
+
+        // retry
+        holdTheProcessing();
+        retryScheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        future.get(10, TimeUnit.SECONDS);
+
+        RecordedRequest request = platformServer.takeRequest(10L, TimeUnit.SECONDS);
+        Assertions.assertThat(request.getRequestUrl().queryParameter("precision")).isEqualTo("s");
+        Assertions.assertThat(future).isCompleted();
+    }
+
     @Test
     void flushByDuration() {
 
@@ -335,6 +695,119 @@ class WriteClientTest extends AbstractPlatformClientTest {
         Assertions.assertThat(platformServer.getRequestCount()).isEqualTo(1);
     }
 
+    @Test
+    void flush() {
+
+        platformServer.enqueue(createResponse("{}"));
+
+        writeClient = createWriteClient();
+
+        String record1 = "h2o_feet,location=coyote_creek level\\ description=\"feet 1\",water_level=1.0 1";
+        String record2 = "h2o_feet,location=coyote_creek level\\ description=\"feet 2\",water_level=2.0 2";
+
+        writeClient.write("b1", "org1", "token1", record1);
+        writeClient.write("b1", "org1", "token1", record2);
+
+        Assertions.assertThat(platformServer.getRequestCount()).isEqualTo(0);
+
+        writeClient.flush();
+
+        // written before return
+        Assertions.assertThat(platformServer.getRequestCount()).isEqualTo(1);
+        Assertions.assertThat(getRequestBody(platformServer)).isEqualTo(record1 + "\n" + record2);
+    }
+
+    @Test
+    void flushWithTimeout() {
+
+        platformServer.enqueue(createResponse("{}"));
+
+        writeClient = createWriteClient();
+
+        writeClient.write("b1", "org1", "token1",
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 1\",water_level=1.0 1");
+
+        boolean flushed = writeClient.flush(Duration.ofSeconds(10));
+
+        Assertions.assertThat(flushed).isTrue();
+        Assertions.assertThat(platformServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void flushWithTimeoutElapsed() {
+
+        writeClient = createWriteClient(WriteOptions.builder().jitterInterval(1_000).build());
+
+        writeClient.write("b1", "org1", "token1",
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 1\",water_level=1.0 1");
+
+        // the batch waits for jitter
+        boolean flushed = writeClient.flush(Duration.ofMillis(100));
+
+        Assertions.assertThat(flushed).isFalse();
+        Assertions.assertThat(platformServer.getRequestCount()).isEqualTo(0);
+    }
+
+    @Test
+    void flushFromEventListener() {
+
+        platformServer.enqueue(createResponse("{}"));
+
+        writeClient = createWriteClient();
+
+        List<Throwable> errors = new ArrayList<>();
+        writeClient.listenEvents(WriteSuccessEvent.class).subscribe(event -> {
+            try {
+                writeClient.flush();
+            } catch (IllegalStateException e) {
+                errors.add(e);
+            }
+        });
+
+        writeClient.write("b1", "org1", "token1",
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 1\",water_level=1.0 1");
+        writeClient.flush();
+
+        Assertions.assertThat(errors).hasSize(1);
+        Assertions.assertThat(errors.get(0))
+                .hasMessage("The flush can't be called from the write pipeline or event listener.");
+    }
+
+    @Test
+    void closeWithTimeout() {
+
+        platformServer.enqueue(createResponse("{}"));
+
+        writeClient = createWriteClient();
+
+        writeClient.write("b1", "org1", "token1",
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 1\",water_level=1.0 1");
+        writeClient.write("b1", "org1", "token1",
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 2\",water_level=2.0 2");
+
+        long lost = writeClient.close(Duration.ofSeconds(10));
+
+        Assertions.assertThat(lost).isEqualTo(0);
+        Assertions.assertThat(platformServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void closeWithTimeoutLostRecords() {
+
+        writeClient = createWriteClient(WriteOptions.builder().jitterInterval(1_000).build());
+
+        writeClient.write("b1", "org1", "token1",
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 1\",water_level=1.0 1");
+        writeClient.write("b1", "org1", "token1",
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 2\",water_level=2.0 2");
+
+        // the batch waits for jitter
+        long lost = writeClient.close(Duration.ofMillis(100));
+
+        Assertions.assertThat(lost).isEqualTo(2);
+        Assertions.assertThat(platformServer.getRequestCount()).isEqualTo(0);
+    }
+
     @Test
     void eventWriteSuccessEvent() {
 
@@ -357,6 +830,12 @@ class WriteClientTest extends AbstractPlatformClientTest {
                     Assertions.assertThat(event.getOrganization()).isEqualTo("org1");
                     Assertions.assertThat(event.getToken()).isEqualTo("token1");
                     Assertions.assertThat(event.getLineProtocol()).isEqualTo("h2o_feet,location=coyote_creek level\\ description=\"feet 1\",water_level=1.0 1");
+                    Assertions.assertThat(event.getRecords()).isEqualTo(1);
+                    Assertions.assertThat(event.getBytes()).isEqualTo(event.getLineProtocol().length());
+                    Assertions.assertThat(event.getCompressedBytes()).isEqualTo(event.getBytes());
+                    Assertions.assertThat(event.getQueueingDelay()).isGreaterThanOrEqualTo(0);
+                    Assertions.assertThat(event.getLatency()).isGreaterThanOrEqualTo(0);
+                    Assertions.assertThat(event.getRetries()).isEqualTo(0);
 
                     return true;
                 })
@@ -364,6 +843,92 @@ class WriteClientTest extends AbstractPlatformClientTest {
                 .assertNotComplete();
     }
 
+    @Test
+    void eventWriteSuccessEventWithoutLineProtocol() {
+
+        platformServer.enqueue(createResponse("{}"));
+
+        writeClient = createWriteClient(WriteOptions.disabled().attachLineProtocol(false).build());
+        TestObserver<WriteSuccessEvent> listener = writeClient.listenEvents(WriteSuccessEvent.class).test();
+
+        writeClient.write("b1", "org1", "token1", "h2o_feet,location=coyote_creek water_level=1.0 1");
+
+        // wait for request
+        getRequestBody(platformServer);
+
+        listener
+                .assertValue(event -> {
+
+                    Assertions.assertThat(event.getLineProtocol()).isNull();
+                    Assertions.assertThat(event.getRecords()).isEqualTo(1);
+                    Assertions.assertThat(event.getBytes()).isEqualTo(47);
+
+                    return true;
+                });
+    }
+
+    @Test
+    void eventWriteSuccessEventCompressed() throws InterruptedException, IOException {
+
+        platformServer.enqueue(createResponse("{}"));
+
+        GzipRequestInterceptor interceptor = new GzipRequestInterceptor();
+        interceptor.enable();
+
+        writeClient = createWriteClient(WriteOptions.builder().batchSize(100).build(), interceptor,
+                batchScheduler, jitterScheduler, retryScheduler);
+        TestObserver<WriteSuccessEvent> listener = writeClient.listenEvents(WriteSuccessEvent.class).test();
+
+        for (int i = 0; i < 100; i++) {
+            writeClient.write("b1", "org1", "token1", "h2o_feet,location=coyote_creek water_level=1.0 " + i);
+        }
+
+        RecordedRequest request = platformServer.takeRequest(10L, TimeUnit.SECONDS);
+        Assertions.assertThat(request.getHeader("Content-Encoding")).isEqualTo("gzip");
+
+        listener
+                .awaitCount(1)
+                .assertValue(event -> {
+
+                    Assertions.assertThat(event.getRecords()).isEqualTo(100);
+                    Assertions.assertThat(event.getCompressedBytes()).isEqualTo(request.getBodySize());
+                    Assertions.assertThat(event.getCompressedBytes()).isLessThan(event.getBytes());
+
+                    return true;
+                });
+    }
+
+    @Test
+    void eventWriteSuccessEventRetries() throws Exception {
+
+        platformServer.enqueue(new MockResponse().setResponseCode(503));
+        platformServer.enqueue(createResponse("{}"));
+
+        writeClient = createWriteClient(WriteOptions.builder().retryInterval(1_000).maxRetries(1).build());
+        TestObserver<WriteSuccessEvent> listener = writeClient.listenEvents(WriteSuccessEvent.class).test();
+
+        CompletableFuture<Void> future = writeClient.writeAsync("b1", "org1", "token1",
+                Lists.newArrayList("h2o_feet,location=coyote_creek water_level=1.0 1"));
+
+        // failed request
+        getRequestBody(platformServer);
+
+        // retry
+        holdTheProcessing();
+        retryScheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        future.get(10, TimeUnit.SECONDS);
+
+        listener
+                .awaitCount(1)
+                .assertValue(event -> {
+
+                    Assertions.assertThat(event.getRetries()).isEqualTo(1);
+
+                    return true;
+                });
+    }
+
     @Test
     void eventUnhandledErrorEvent() {
 
@@ -414,9 +979,481 @@ class WriteClientTest extends AbstractPlatformClientTest {
                 .awaitCount(1)
                 .assertValueAt(0, event -> {
                     Assertions.assertThat(event).isNotNull();
+                    Assertions.assertThat(event.getOrganization()).isEqualTo("org1");
+                    Assertions.assertThat(event.getBucket()).isEqualTo("b1");
+                    Assertions.assertThat(event.getDroppedRecords()).isGreaterThan(0);
+                    Assertions.assertThat(event.getDroppedBytes()).isGreaterThan(0);
+                    Assertions.assertThat(event.getTotalDroppedRecords()).isGreaterThanOrEqualTo(event.getDroppedRecords());
                     return true;
                 });
 
+        WriteStatistics statistics = writeClient.getStatistics();
+
+        Assertions.assertThat(statistics.getDroppedRecords()).isGreaterThan(0);
+        Assertions.assertThat(statistics.getDroppedBytes()).isGreaterThan(0);
+        Assertions.assertThat(statistics.getDroppedRecordsByBucket()).containsKey("b1");
+        Assertions.assertThat(statistics.getDroppedBytesByBucket()).containsKey("b1");
+    }
+
+    @Test
+    void statistics() {
+
+        platformServer.enqueue(createResponse("{}"));
+
+        writeClient = createWriteClient(WriteOptions.builder().batchSize(3).build());
+
+        String record = "h2o_feet,location=coyote_creek water_level=1.0 1";
+
+        writeClient.write("b1", "org1", "token1", record);
+        writeClient.write("b1", "org1", "token1", record);
+        writeClient.write("b1", "org1", "token1", record);
+
+        String body = getRequestBody(platformServer);
+        Assertions.assertThat(body).isEqualTo(record + "\n" + record + "\n" + record);
+
+        WriteStatistics statistics = writeClient.getStatistics();
+
+        Assertions.assertThat(statistics.getBufferedRecords()).isEqualTo(0);
+        Assertions.assertThat(statistics.getBufferedBytes()).isEqualTo(0);
+        Assertions.assertThat(statistics.getDroppedRecords()).isEqualTo(0);
+        Assertions.assertThat(statistics.getDroppedBytes()).isEqualTo(0);
+        Assertions.assertThat(statistics.getDroppedRecordsByBucket()).isEmpty();
+        Assertions.assertThat(statistics.getBufferTimeBounds()).hasSize(statistics.getBufferTimeCounts().length - 1);
+        Assertions.assertThat(Arrays.stream(statistics.getBufferTimeCounts()).sum()).isEqualTo(3);
+    }
+
+    @Test
+    void diskBufferSpillAndReplay() throws IOException {
+
+        platformServer.enqueue(new MockResponse().setResponseCode(503));
+        platformServer.enqueue(createResponse("{}"));
+        platformServer.enqueue(createResponse("{}"));
+
+        DiskBufferOptions diskBuffer = DiskBufferOptions
+                .builder(Files.createTempDirectory("disk-buffer"))
+                .build();
+
+        writeClient = createWriteClient(WriteOptions.disabled().retryInterval(1_000).diskBuffer(diskBuffer).build());
+
+        TestObserver<WriteSuccessEvent> successListener = writeClient.listenEvents(WriteSuccessEvent.class).test();
+        TestObserver<UnhandledErrorEvent> errorListener = writeClient.listenEvents(UnhandledErrorEvent.class).test();
+
+        writeClient.write("b1", "org1", "token1",
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 1\",water_level=1.0 1");
+
+        // failed request => spill to disk
+        Assertions.assertThat(getRequestBody(platformServer))
+                .isEqualTo("h2o_feet,location=coyote_creek level\\ description=\"feet 1\",water_level=1.0 1");
+
+        // disk buffer is not empty => preserve order
+        writeClient.write("b1", "org1", "token1",
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 2\",water_level=2.0 2");
+
+        Assertions.assertThat(platformServer.getRequestCount()).isEqualTo(1);
+        successListener.assertNoValues();
+        errorListener.assertNoValues();
+
+        // replay
+        retryScheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        Assertions.assertThat(getRequestBody(platformServer))
+                .isEqualTo("h2o_feet,location=coyote_creek level\\ description=\"feet 1\",water_level=1.0 1");
+        Assertions.assertThat(getRequestBody(platformServer))
+                .isEqualTo("h2o_feet,location=coyote_creek level\\ description=\"feet 2\",water_level=2.0 2");
+
+        successListener.assertValueCount(2);
+        errorListener.assertNoValues();
+    }
+
+    @Test
+    void diskBufferReplayDiscardsRejectedBatch() throws IOException {
+
+        platformServer.enqueue(new MockResponse().setResponseCode(503));
+        platformServer.enqueue(createErrorResponse("unable to parse points"));
+        platformServer.enqueue(createResponse("{}"));
+        platformServer.enqueue(createResponse("{}"));
+
+        DiskBufferOptions diskBuffer = DiskBufferOptions
+                .builder(Files.createTempDirectory("disk-buffer"))
+                .build();
+
+        writeClient = createWriteClient(WriteOptions.disabled().retryInterval(1_000).diskBuffer(diskBuffer).build());
+
+        TestObserver<UnhandledErrorEvent> errorListener = writeClient.listenEvents(UnhandledErrorEvent.class).test();
+
+        writeClient.write("b1", "org1", "token1", "h2o_feet water_level=1.0 1");
+        writeClient.write("b1", "org1", "token1", "h2o_feet water_level=2.0 2");
+
+        Assertions.assertThat(getRequestBody(platformServer)).isEqualTo("h2o_feet water_level=1.0 1");
+
+        // replay => the rejected batch is discarded and the replay continues
+        retryScheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        Assertions.assertThat(getRequestBody(platformServer)).isEqualTo("h2o_feet water_level=1.0 1");
+        Assertions.assertThat(getRequestBody(platformServer)).isEqualTo("h2o_feet water_level=2.0 2");
+
+        errorListener.assertValueCount(1);
+
+        // disk buffer is empty => written directly
+        writeClient.write("b1", "org1", "token1", "h2o_feet water_level=3.0 3");
+
+        Assertions.assertThat(getRequestBody(platformServer)).isEqualTo("h2o_feet water_level=3.0 3");
+    }
+
+    @Test
+    void diskBufferReplayJoinsUpToBatchSize() throws IOException {
+
+        platformServer.enqueue(new MockResponse().setResponseCode(503));
+        platformServer.enqueue(createResponse("{}"));
+        platformServer.enqueue(createResponse("{}"));
+
+        DiskBufferOptions diskBuffer = DiskBufferOptions
+                .builder(Files.createTempDirectory("disk-buffer"))
+                .build();
+
+        writeClient = createWriteClient(WriteOptions.builder().batchSize(2).retryInterval(1_000)
+                .diskBuffer(diskBuffer).build());
+
+        TestObserver<WriteSuccessEvent> successListener = writeClient.listenEvents(WriteSuccessEvent.class).test();
+
+        writeClient.write("b1", "org1", "token1",
+                Arrays.asList("h2o_feet water_level=1.0 1", "h2o_feet water_level=2.0 2"));
+
+        // failed request => spill to disk
+        Assertions.assertThat(getRequestBody(platformServer))
+                .isEqualTo("h2o_feet water_level=1.0 1\nh2o_feet water_level=2.0 2");
+
+        writeClient.write("b1", "org1", "token1",
+                Arrays.asList("h2o_feet water_level=3.0 3", "h2o_feet water_level=4.0 4"));
+
+        // replay => two batches of two records, not one of four
+        retryScheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+        Assertions.assertThat(getRequestBody(platformServer))
+                .isEqualTo("h2o_feet water_level=1.0 1\nh2o_feet water_level=2.0 2");
+        Assertions.assertThat(getRequestBody(platformServer))
+                .isEqualTo("h2o_feet water_level=3.0 3\nh2o_feet water_level=4.0 4");
+
+        successListener.assertValueCount(2);
+        successListener.values().forEach(event -> Assertions.assertThat(event.getRecords()).isEqualTo(2));
+    }
+
+    @Test
+    void maxInFlightRequests() throws InterruptedException {
+
+        platformServer.enqueue(createResponse("{}").setHeadersDelay(1, TimeUnit.SECONDS));
+        platformServer.enqueue(createResponse("{}").setHeadersDelay(1, TimeUnit.SECONDS));
+        platformServer.enqueue(createResponse("{}"));
+
+        WriteOptions writeOptions = WriteOptions.disabled()
+                .maxInFlightRequests(2)
+                .writeScheduler(Schedulers.io())
+                .build();
+
+        writeClient = createWriteClient(writeOptions);
+
+        TestObserver<WriteSuccessEvent> listener = writeClient.listenEvents(WriteSuccessEvent.class).test();
+
+        // the lane hashes of "b1" and "b2" differs by 31 * 31 => always different lanes
+        writeClient.write("b1", "org1", "token1",
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 1\",water_level=1.0 1");
+        writeClient.write("b2", "org1", "token1",
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 2\",water_level=2.0 2");
+        writeClient.write("b1", "org1", "token1",
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 3\",water_level=3.0 3");
+
+        // both destinations are in flight before the first response
+        RecordedRequest request1 = platformServer.takeRequest(500, TimeUnit.MILLISECONDS);
+        RecordedRequest request2 = platformServer.takeRequest(500, TimeUnit.MILLISECONDS);
+
+        Assertions.assertThat(request1).isNotNull();
+        Assertions.assertThat(request2).isNotNull();
+        Assertions.assertThat(Lists.newArrayList(
+                request1.getRequestUrl().queryParameter("bucket"),
+                request2.getRequestUrl().queryParameter("bucket")))
+                .containsExactlyInAnyOrder("b1", "b2");
+
+        // same destination is written in order
+        RecordedRequest request3 = platformServer.takeRequest(10, TimeUnit.SECONDS);
+        Assertions.assertThat(request3).isNotNull();
+        Assertions.assertThat(request3.getRequestUrl().queryParameter("bucket")).isEqualTo("b1");
+        Assertions.assertThat(request3.getBody().readUtf8())
+                .isEqualTo("h2o_feet,location=coyote_creek level\\ description=\"feet 3\",water_level=3.0 3");
+
+        listener.awaitCount(3);
+        listener.assertValueCount(3);
+    }
+
+    @Test
+    void coalesceDuplicates() {
+
+        platformServer.enqueue(createResponse("{}"));
+
+        writeClient = createWriteClient(WriteOptions.builder().coalesceDuplicates(true).build());
+
+        TestObserver<DuplicatesCoalescedEvent> listener = writeClient
+                .listenEvents(DuplicatesCoalescedEvent.class)
+                .test();
+
+        writeClient.write("b1", "org1", "token1",
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 1\",water_level=1.0 1");
+        writeClient.write("b1", "org1", "token1",
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 2\",water_level=2.0 2");
+        // duplicate
+        writeClient.write("b1", "org1", "token1",
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 3\",water_level=3.0 1");
+        // without timestamp
+        writeClient.write("b1", "org1", "token1",
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 4\",water_level=4.0");
+        writeClient.write("b1", "org1", "token1",
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 5\",water_level=5.0");
+
+        writeClient.flush();
+
+        Assertions.assertThat(getRequestBody(platformServer)).isEqualTo(
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 3\",water_level=3.0 1\n"
+                        + "h2o_feet,location=coyote_creek level\\ description=\"feet 2\",water_level=2.0 2\n"
+                        + "h2o_feet,location=coyote_creek level\\ description=\"feet 4\",water_level=4.0\n"
+                        + "h2o_feet,location=coyote_creek level\\ description=\"feet 5\",water_level=5.0");
+
+        listener.assertValueCount(1).assertValueAt(0, event -> {
+
+            Assertions.assertThat(event.getBucket()).isEqualTo("b1");
+            Assertions.assertThat(event.getDroppedPoints()).isEqualTo(1);
+            Assertions.assertThat(event.getTotalDroppedPoints()).isEqualTo(1);
+
+            return true;
+        });
+
+        // dropped duplicates are not lost
+        Assertions.assertThat(writeClient.close(Duration.ofSeconds(10))).isEqualTo(0);
+    }
+
+    @Test
+    void coalesceDuplicatesDisabled() {
+
+        platformServer.enqueue(createResponse("{}"));
+
+        writeClient = createWriteClient();
+
+        writeClient.write("b1", "org1", "token1", "h2o_feet,location=coyote_creek water_level=1.0 1");
+        writeClient.write("b1", "org1", "token1", "h2o_feet,location=coyote_creek water_level=2.0 1");
+
+        writeClient.flush();
+
+        Assertions.assertThat(getRequestBody(platformServer)).isEqualTo(
+                "h2o_feet,location=coyote_creek water_level=1.0 1\n"
+                        + "h2o_feet,location=coyote_creek water_level=2.0 1");
+    }
+
+    @Test
+    void groupBySeries() {
+
+        platformServer.enqueue(createResponse("{}"));
+
+        writeClient = createWriteClient(WriteOptions.builder().groupBySeries(true).build());
+
+        writeClient.write("b1", "org1", "token1", "mem,host=b used=1i 1");
+        writeClient.write("b1", "org1", "token1", "cpu,host=a usage=1.0 1");
+        writeClient.write("b1", "org1", "token1", Lists.newArrayList("mem,host=a used=2i 1", "cpu,host=a usage=2.0 2"));
+        writeClient.write("b1", "org1", "token1", "mem,host=b used=3i 2");
+
+        writeClient.flush();
+
+        Assertions.assertThat(getRequestBody(platformServer)).isEqualTo(
+                "cpu,host=a usage=1.0 1\n"
+                        + "cpu,host=a usage=2.0 2\n"
+                        + "mem,host=a used=2i 1\n"
+                        + "mem,host=b used=1i 1\n"
+                        + "mem,host=b used=3i 2");
+    }
+
+    @Test
+    void aggregation() {
+
+        platformServer.enqueue(createResponse("{}"));
+        platformServer.enqueue(createResponse("{}"));
+
+        AggregationOptions aggregation = AggregationOptions.builder().measurement("cpu").window(10_000).build();
+
+        writeClient = createWriteClient(WriteOptions.builder().aggregation(aggregation).build());
+
+        writeClient.write("b1", "org1", "token1", TimeUnit.SECONDS, "cpu,host=a usage=1.5,cores=2i 1");
+        writeClient.write("b1", "org1", "token1", TimeUnit.SECONDS, "mem,host=a used=10i 2");
+        writeClient.write("b1", "org1", "token1", TimeUnit.SECONDS, "cpu,host=a usage=0.5,cores=4i 3");
+        writeClient.write("b1", "org1", "token1", TimeUnit.SECONDS, "cpu,host=a usage=3.0,cores=4i 4");
+        writeClient.write("b1", "org1", "token1", TimeUnit.SECONDS, "cpu,host=a usage 5");
+
+        writeClient.flush();
+
+        // the open window is not written by flush, the not parsable point is written as it is
+        Assertions.assertThat(getRequestBody(platformServer)).isEqualTo("mem,host=a used=10i 2\n"
+                + "cpu,host=a usage 5");
+
+        // aggregated records are not lost
+        Assertions.assertThat(writeClient.close(Duration.ofSeconds(10))).isEqualTo(0);
+
+        Assertions.assertThat(getRequestBody(platformServer)).isEqualTo(
+                "cpu,host=a usage_min=0.5,usage_max=3.0,usage_sum=5.0,usage_count=3i,usage_last=3.0,"
+                + "cores_min=2i,cores_max=4i,cores_sum=10i,cores_count=3i,cores_last=4i 0");
+    }
+
+    @Test
+    void aggregationWindowBoundary() {
+
+        platformServer.enqueue(createResponse("{}"));
+        platformServer.enqueue(createResponse("{}"));
+
+        AggregationOptions aggregation = AggregationOptions.builder()
+                .measurement("cpu")
+                .window(10_000)
+                .aggregates(AggregationOptions.Aggregate.MAX)
+                .build();
+
+        writeClient = createWriteClient(WriteOptions.builder().aggregation(aggregation).build());
+
+        writeClient.write("b1", "org1", "token1", TimeUnit.SECONDS, "cpu,host=a usage=1.5 1");
+        writeClient.write("b1", "org1", "token1", TimeUnit.SECONDS, "cpu,host=a usage=2.5 9");
+        writeClient.write("b1", "org1", "token1", TimeUnit.SECONDS, "cpu,host=a usage=0.5 12");
+
+        // window is not closed
+        batchScheduler.advanceTimeBy(5, TimeUnit.SECONDS);
+        Assertions.assertThat(platformServer.getRequestCount()).isEqualTo(0);
+
+        // window [0, 10) is closed and written by flush interval
+        batchScheduler.advanceTimeBy(6, TimeUnit.SECONDS);
+        Assertions.assertThat(getRequestBody(platformServer)).isEqualTo("cpu,host=a usage_max=2.5 0");
+    }
+
+    @Test
+    void destinationIsolation() throws InterruptedException {
+
+        platformServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(final RecordedRequest request) {
+
+                // slow bucket
+                if ("b1".equals(request.getRequestUrl().queryParameter("bucket"))) {
+                    return createResponse("{}").setHeadersDelay(2, TimeUnit.SECONDS);
+                }
+
+                return createResponse("{}");
+            }
+        });
+
+        // the slow destination holds only one of the requests in flight
+        WriteOptions writeOptions = WriteOptions.disabled()
+                .destinationQueueLimit(10)
+                .maxInFlightRequests(2)
+                .writeScheduler(Schedulers.io())
+                .build();
+
+        writeClient = createWriteClient(writeOptions);
+
+        writeClient.write("b1", "org1", "token1",
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 1\",water_level=1.0 1");
+        writeClient.write("b1", "org1", "token1",
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 2\",water_level=2.0 2");
+        writeClient.write("b2", "org1", "token1",
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 3\",water_level=3.0 3");
+        writeClient.write("b2", "org1", "token1",
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 4\",water_level=4.0 4");
+
+        List<String> buckets = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            RecordedRequest request = platformServer.takeRequest(1, TimeUnit.SECONDS);
+            Assertions.assertThat(request).isNotNull();
+            buckets.add(request.getRequestUrl().queryParameter("bucket"));
+        }
+
+        // the slow bucket doesn't block the other bucket
+        Assertions.assertThat(buckets).containsExactlyInAnyOrder("b1", "b2", "b2");
+
+        writeClient.flush();
+
+        Assertions.assertThat(platformServer.getRequestCount()).isEqualTo(4);
+    }
+
+    @Test
+    void destinationRoundRobin() throws InterruptedException {
+
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        platformServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(final RecordedRequest request) throws InterruptedException {
+
+                maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                Thread.sleep(200);
+                concurrent.decrementAndGet();
+
+                return createResponse("{}");
+            }
+        });
+
+        // the destinations share the default one request in flight
+        WriteOptions writeOptions = WriteOptions.disabled()
+                .destinationQueueLimit(10)
+                .writeScheduler(Schedulers.io())
+                .build();
+
+        writeClient = createWriteClient(writeOptions);
+
+        writeClient.write("b1", "org1", "token1", "h2o_feet,location=coyote_creek water_level=1.0 1");
+        writeClient.write("b1", "org1", "token1", "h2o_feet,location=coyote_creek water_level=2.0 2");
+        writeClient.write("b1", "org1", "token1", "h2o_feet,location=coyote_creek water_level=3.0 3");
+        writeClient.write("b2", "org1", "token1", "h2o_feet,location=coyote_creek water_level=4.0 4");
+
+        List<String> buckets = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            RecordedRequest request = platformServer.takeRequest(2, TimeUnit.SECONDS);
+            Assertions.assertThat(request).isNotNull();
+            buckets.add(request.getRequestUrl().queryParameter("bucket"));
+        }
+
+        // the waiting destination is served before the next batch of the same destination
+        Assertions.assertThat(buckets).containsExactly("b1", "b2", "b1", "b1");
+        Assertions.assertThat(maxConcurrent.get()).isEqualTo(1);
+    }
+
+    @Test
+    void destinationQueueOverflow() {
+
+        platformServer.enqueue(createResponse("{}").setHeadersDelay(500, TimeUnit.MILLISECONDS));
+        platformServer.enqueue(createResponse("{}"));
+        platformServer.enqueue(createResponse("{}"));
+
+        WriteOptions writeOptions = WriteOptions.disabled()
+                .destinationQueueLimit(1)
+                .build();
+
+        writeClient = createWriteClient(writeOptions);
+
+        TestObserver<BackpressureEvent> listener = writeClient.listenEvents(BackpressureEvent.class).test();
+
+        writeClient.write("b1", "org1", "token1",
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 1\",water_level=1.0 1");
+
+        // in flight
+        Assertions.assertThat(getRequestBody(platformServer))
+                .isEqualTo("h2o_feet,location=coyote_creek level\\ description=\"feet 1\",water_level=1.0 1");
+
+        writeClient.write("b1", "org1", "token1",
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 2\",water_level=2.0 2");
+        // drop oldest
+        writeClient.write("b1", "org1", "token1",
+                "h2o_feet,location=coyote_creek level\\ description=\"feet 3\",water_level=3.0 3");
+
+        writeClient.flush();
+
+        Assertions.assertThat(getRequestBody(platformServer))
+                .isEqualTo("h2o_feet,location=coyote_creek level\\ description=\"feet 3\",water_level=3.0 3");
+        Assertions.assertThat(platformServer.getRequestCount()).isEqualTo(2);
+
+        listener.assertValueCount(1);
+
+        // dropped records are settled
+        Assertions.assertThat(writeClient.close(Duration.ofSeconds(10))).isEqualTo(0);
     }
 
     @Nonnull
@@ -426,6 +1463,6 @@ class WriteClientTest extends AbstractPlatformClientTest {
 
     @Nonnull
     private WriteClient createWriteClient(WriteOptions writeOptions) {
-        return createWriteClient(writeOptions, new GzipRequestInterceptor(), batchScheduler, jitterScheduler, new TestScheduler());
+        return createWriteClient(writeOptions, new GzipRequestInterceptor(), batchScheduler, jitterScheduler, retryScheduler);
     }
 }
\ No newline at end of file
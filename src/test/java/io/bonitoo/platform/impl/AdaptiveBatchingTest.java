@@ -0,0 +1,136 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.impl;
+
+import io.bonitoo.platform.event.BatchingAdjustedEvent;
+import io.bonitoo.platform.option.AdaptiveBatchingOptions;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class AdaptiveBatchingTest {
+
+    private AdaptiveBatching adaptiveBatching;
+
+    @BeforeEach
+    void setUp() {
+
+        AdaptiveBatchingOptions options = AdaptiveBatchingOptions.builder()
+                .batchSize(10, 100)
+                .flushInterval(100, 1_000)
+                .targetLatency(200)
+                .batchSizeIncrease(10)
+                .decreaseFactor(0.5)
+                .build();
+
+        adaptiveBatching = new AdaptiveBatching(options, 50, 500);
+    }
+
+    @Test
+    void initialValuesAreRestricted() {
+
+        AdaptiveBatching batching = new AdaptiveBatching(AdaptiveBatchingOptions.DEFAULTS, 1, 100_000);
+
+        Assertions.assertThat(batching.getBatchSize()).isEqualTo(100);
+        Assertions.assertThat(batching.getFlushInterval()).isEqualTo(5_000);
+    }
+
+    @Test
+    void additiveIncrease() {
+
+        BatchingAdjustedEvent event = adaptiveBatching.onSuccess(50, 50, 0.3);
+
+        Assertions.assertThat(event).isNotNull();
+        Assertions.assertThat(event.getReason()).isEqualTo(BatchingAdjustedEvent.Reason.LATENCY_UNDER_TARGET);
+        Assertions.assertThat(event.getBatchSize()).isEqualTo(60);
+        Assertions.assertThat(adaptiveBatching.getBatchSize()).isEqualTo(60);
+    }
+
+    @Test
+    void notFullBatchIsNotIncreased() {
+
+        BatchingAdjustedEvent event = adaptiveBatching.onSuccess(50, 20, 0.3);
+
+        Assertions.assertThat(event).isNull();
+        Assertions.assertThat(adaptiveBatching.getBatchSize()).isEqualTo(50);
+        Assertions.assertThat(adaptiveBatching.getFlushInterval()).isEqualTo(500);
+    }
+
+    @Test
+    void multiplicativeDecrease() {
+
+        BatchingAdjustedEvent event = adaptiveBatching.onSuccess(500, 50, 0.3);
+
+        Assertions.assertThat(event).isNotNull();
+        Assertions.assertThat(event.getReason()).isEqualTo(BatchingAdjustedEvent.Reason.LATENCY_OVER_TARGET);
+        Assertions.assertThat(adaptiveBatching.getBatchSize()).isEqualTo(25);
+    }
+
+    @Test
+    void throttled() {
+
+        BatchingAdjustedEvent event = adaptiveBatching.onThrottle();
+
+        Assertions.assertThat(event).isNotNull();
+        Assertions.assertThat(event.getReason()).isEqualTo(BatchingAdjustedEvent.Reason.THROTTLED);
+        Assertions.assertThat(adaptiveBatching.getBatchSize()).isEqualTo(25);
+        Assertions.assertThat(adaptiveBatching.getFlushInterval()).isEqualTo(1_000);
+    }
+
+    @Test
+    void bounds() {
+
+        for (int i = 0; i < 20; i++) {
+            adaptiveBatching.onThrottle();
+        }
+
+        Assertions.assertThat(adaptiveBatching.getBatchSize()).isEqualTo(10);
+        Assertions.assertThat(adaptiveBatching.getFlushInterval()).isEqualTo(1_000);
+        Assertions.assertThat(adaptiveBatching.onThrottle()).isNull();
+
+        for (int i = 0; i < 20; i++) {
+            adaptiveBatching.onSuccess(50, adaptiveBatching.getBatchSize(), 0.0);
+        }
+
+        Assertions.assertThat(adaptiveBatching.getBatchSize()).isEqualTo(100);
+        Assertions.assertThat(adaptiveBatching.getFlushInterval()).isEqualTo(100);
+    }
+
+    @Test
+    void bufferFill() {
+
+        // peak => collect more data
+        adaptiveBatching.onSuccess(50, 20, 0.8);
+        Assertions.assertThat(adaptiveBatching.getFlushInterval()).isEqualTo(600);
+
+        // off-peak => lower latency
+        BatchingAdjustedEvent event = adaptiveBatching.onSuccess(50, 20, 0.0);
+        Assertions.assertThat(event).isNotNull();
+        Assertions.assertThat(event.getReason()).isEqualTo(BatchingAdjustedEvent.Reason.BUFFER_FILL);
+        Assertions.assertThat(adaptiveBatching.getFlushInterval()).isEqualTo(300);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.impl;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class ConsistentHashRingTest {
+
+    @Test
+    void singleNode() {
+
+        ConsistentHashRing ring = new ConsistentHashRing(Collections.singletonList("http://a:9999"), 16);
+
+        Assertions.assertThat(ring.node(hash("cpu,host=a"), node -> true)).isEqualTo(0);
+        Assertions.assertThat(ring.node(hash("cpu,host=b"), node -> false)).isEqualTo(0);
+    }
+
+    @Test
+    void distribution() {
+
+        ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList("http://a:9999", "http://b:9999",
+                "http://c:9999"), 128);
+
+        int[] counts = new int[3];
+        for (int i = 0; i < 30_000; i++) {
+            counts[ring.node(hash("cpu,host=server" + i), node -> true)]++;
+        }
+
+        for (int count : counts) {
+            Assertions.assertThat(count).isBetween(7_000, 13_000);
+        }
+    }
+
+    @Test
+    void stableWhenAddNode() {
+
+        ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList("http://a:9999", "http://b:9999"), 128);
+        ConsistentHashRing extended = new ConsistentHashRing(Arrays.asList("http://a:9999", "http://b:9999",
+                "http://c:9999"), 128);
+
+        int moved = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long hash = hash("cpu,host=server" + i);
+
+            int node = extended.node(hash, index -> true);
+            if (node != 2) {
+                // only the records for the new node are moved
+                Assertions.assertThat(node).isEqualTo(ring.node(hash, index -> true));
+            } else {
+                moved++;
+            }
+        }
+
+        Assertions.assertThat(moved).isBetween(2_000, 5_000);
+    }
+
+    @Test
+    void failover() {
+
+        ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList("http://a:9999", "http://b:9999",
+                "http://c:9999"), 128);
+
+        for (int i = 0; i < 1_000; i++) {
+            long hash = hash("cpu,host=server" + i);
+
+            int owner = ring.node(hash, node -> true);
+            int failover = ring.node(hash, node -> node != owner);
+
+            Assertions.assertThat(failover).isNotEqualTo(owner);
+            // the failover is stable
+            Assertions.assertThat(ring.node(hash, node -> node != owner)).isEqualTo(failover);
+        }
+    }
+
+    @Test
+    void hashOfRange() {
+
+        String record = "cpu,host=a usage=1 1";
+
+        Assertions.assertThat(ConsistentHashRing.hash(record, 0, 10)).isEqualTo(hash("cpu,host=a"));
+        Assertions.assertThat(ConsistentHashRing.hash(record, 0, 10)).isNotEqualTo(hash("cpu,host=b"));
+    }
+
+    private long hash(final String value) {
+        return ConsistentHashRing.hash(value, 0, value.length());
+    }
+}
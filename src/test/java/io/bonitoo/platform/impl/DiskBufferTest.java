@@ -0,0 +1,259 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.impl;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+
+import io.bonitoo.platform.option.DiskBufferOptions;
+
+import io.reactivex.BackpressureOverflowStrategy;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class DiskBufferTest {
+
+    private Path directory;
+    private DiskBuffer diskBuffer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("disk-buffer");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+
+        if (diskBuffer != null) {
+            diskBuffer.close();
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void appendPeekRemove() {
+
+        diskBuffer = new DiskBuffer(DiskBufferOptions.builder(directory).build());
+
+        Assertions.assertThat(diskBuffer.isEmpty()).isTrue();
+
+        Assertions.assertThat(diskBuffer.append(bytes("record_1"))).isTrue();
+        Assertions.assertThat(diskBuffer.append(bytes("record_2"))).isTrue();
+        Assertions.assertThat(diskBuffer.append(bytes("record_3"))).isTrue();
+
+        Assertions.assertThat(diskBuffer.getPendingRecords()).isEqualTo(3);
+
+        List<DiskBuffer.Record> records = diskBuffer.peek(2);
+        Assertions.assertThat(records).hasSize(2);
+        Assertions.assertThat(string(records.get(0))).isEqualTo("record_1");
+        Assertions.assertThat(string(records.get(1))).isEqualTo("record_2");
+
+        // peek is not consuming
+        Assertions.assertThat(diskBuffer.peek(2)).hasSize(2);
+
+        diskBuffer.remove(records);
+
+        records = diskBuffer.peek(10);
+        Assertions.assertThat(records).hasSize(1);
+        Assertions.assertThat(string(records.get(0))).isEqualTo("record_3");
+
+        diskBuffer.remove(records);
+
+        Assertions.assertThat(diskBuffer.isEmpty()).isTrue();
+        Assertions.assertThat(diskBuffer.peek(10)).isEmpty();
+    }
+
+    @Test
+    void rollSegments() throws IOException {
+
+        diskBuffer = new DiskBuffer(DiskBufferOptions.builder(directory).segmentSize(64).maxSize(1024).build());
+
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertThat(diskBuffer.append(bytes("record_" + i))).isTrue();
+        }
+
+        Assertions.assertThat(segments()).isGreaterThan(1);
+
+        diskBuffer.remove(diskBuffer.peek(10));
+
+        // keep the tail segment
+        Assertions.assertThat(segments()).isEqualTo(1);
+        Assertions.assertThat(diskBuffer.isEmpty()).isTrue();
+    }
+
+    @Test
+    void recover() {
+
+        diskBuffer = new DiskBuffer(DiskBufferOptions.builder(directory).segmentSize(64).maxSize(1024).build());
+
+        for (int i = 0; i < 10; i++) {
+            diskBuffer.append(bytes("record_" + i));
+        }
+        diskBuffer.remove(diskBuffer.peek(3));
+        diskBuffer.close();
+
+        diskBuffer = new DiskBuffer(DiskBufferOptions.builder(directory).segmentSize(64).maxSize(1024).build());
+
+        Assertions.assertThat(diskBuffer.getPendingRecords()).isEqualTo(7);
+
+        List<DiskBuffer.Record> records = diskBuffer.peek(10);
+        Assertions.assertThat(records).hasSize(7);
+        Assertions.assertThat(string(records.get(0))).isEqualTo("record_3");
+        Assertions.assertThat(string(records.get(6))).isEqualTo("record_9");
+
+        // append after recovery
+        diskBuffer.append(bytes("record_10"));
+        Assertions.assertThat(string(diskBuffer.peek(10).get(7))).isEqualTo("record_10");
+    }
+
+    @Test
+    void removeAfterClose() {
+
+        diskBuffer = new DiskBuffer(DiskBufferOptions.builder(directory).build());
+
+        diskBuffer.append(bytes("record_1"));
+        List<DiskBuffer.Record> records = diskBuffer.peek(1);
+        diskBuffer.close();
+
+        // the replay finished after close
+        diskBuffer.remove(records);
+
+        diskBuffer = new DiskBuffer(DiskBufferOptions.builder(directory).build());
+
+        Assertions.assertThat(diskBuffer.getPendingRecords()).isEqualTo(1);
+        Assertions.assertThat(string(diskBuffer.peek(1).get(0))).isEqualTo("record_1");
+    }
+
+    @Test
+    void segmentReadableByOwner() throws IOException {
+
+        Assumptions.assumeTrue(directory.getFileSystem().supportedFileAttributeViews().contains("posix"));
+
+        diskBuffer = new DiskBuffer(DiskBufferOptions.builder(directory).build());
+        diskBuffer.append(bytes("record_1"));
+
+        // the records contain the write tokens
+        try (Stream<Path> files = Files.list(directory)) {
+            Path segment = files.findFirst().orElseThrow(IllegalStateException::new);
+            Assertions.assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(segment)))
+                    .isEqualTo("rw-------");
+        }
+    }
+
+    @Test
+    void recoverTornRecord() throws IOException {
+
+        diskBuffer = new DiskBuffer(DiskBufferOptions.builder(directory).build());
+        diskBuffer.append(bytes("record_1"));
+        diskBuffer.append(bytes("record_2"));
+        diskBuffer.close();
+
+        // corrupt payload of second record
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.findFirst().orElseThrow(IllegalStateException::new);
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(2L * DiskBuffer.HEADER_SIZE + "record_1".length() + 1);
+            file.write('X');
+        }
+
+        diskBuffer = new DiskBuffer(DiskBufferOptions.builder(directory).build());
+
+        List<DiskBuffer.Record> records = diskBuffer.peek(10);
+        Assertions.assertThat(records).hasSize(1);
+        Assertions.assertThat(string(records.get(0))).isEqualTo("record_1");
+    }
+
+    @Test
+    void evictionDropOldest() {
+
+        diskBuffer = new DiskBuffer(DiskBufferOptions.builder(directory).segmentSize(64).maxSize(128).build());
+
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertThat(diskBuffer.append(bytes("record_" + i))).isTrue();
+        }
+
+        Assertions.assertThat(diskBuffer.getSize()).isLessThanOrEqualTo(128);
+        Assertions.assertThat(diskBuffer.getDroppedRecords()).isGreaterThan(0);
+        Assertions.assertThat(diskBuffer.getPendingRecords() + diskBuffer.getDroppedRecords()).isEqualTo(20);
+
+        List<DiskBuffer.Record> records = diskBuffer.peek(20);
+        Assertions.assertThat(string(records.get(records.size() - 1))).isEqualTo("record_19");
+    }
+
+    @Test
+    void evictionDropLatest() {
+
+        diskBuffer = new DiskBuffer(DiskBufferOptions.builder(directory)
+                .segmentSize(64)
+                .maxSize(128)
+                .evictionPolicy(BackpressureOverflowStrategy.DROP_LATEST)
+                .build());
+
+        boolean rejected = false;
+        for (int i = 0; i < 20; i++) {
+            rejected |= !diskBuffer.append(bytes("record_" + i));
+        }
+
+        Assertions.assertThat(rejected).isTrue();
+        Assertions.assertThat(diskBuffer.getSize()).isLessThanOrEqualTo(128);
+        Assertions.assertThat(string(diskBuffer.peek(1).get(0))).isEqualTo("record_0");
+    }
+
+    private long segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    @Nonnull
+    private byte[] bytes(@Nonnull final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Nonnull
+    private String string(@Nonnull final DiskBuffer.Record record) {
+        return new String(record.getPayload(), StandardCharsets.UTF_8);
+    }
+}
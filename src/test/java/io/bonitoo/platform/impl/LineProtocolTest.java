@@ -0,0 +1,106 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.impl;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class LineProtocolTest {
+
+    @Test
+    void seriesKey() {
+
+        String record = "h2o_feet,location=coyote_creek water_level=1.0 1";
+
+        Assertions.assertThat(record.substring(0, LineProtocol.seriesKeyEnd(record)))
+                .isEqualTo("h2o_feet,location=coyote_creek");
+    }
+
+    @Test
+    void seriesKeyEscapedSpace() {
+
+        String record = "h2o\\ feet,location=coyote\\ creek water_level=1.0 1";
+
+        Assertions.assertThat(record.substring(0, LineProtocol.seriesKeyEnd(record)))
+                .isEqualTo("h2o\\ feet,location=coyote\\ creek");
+    }
+
+    @Test
+    void seriesKeyEscapedBackslash() {
+
+        String record = "h2o_feet,location=coyote\\\\ water_level=1.0 1";
+
+        Assertions.assertThat(record.substring(0, LineProtocol.seriesKeyEnd(record)))
+                .isEqualTo("h2o_feet,location=coyote\\\\");
+    }
+
+    @Test
+    void timestamp() {
+
+        String record = "h2o_feet,location=coyote_creek water_level=1.0 1440046800";
+
+        int timestampStart = LineProtocol.timestampStart(record, LineProtocol.seriesKeyEnd(record));
+
+        Assertions.assertThat(record.substring(timestampStart)).isEqualTo("1440046800");
+    }
+
+    @Test
+    void timestampQuotedField() {
+
+        String record = "h2o_feet,location=coyote_creek description=\"feet \\\" 1\",level=1.0 1440046800";
+
+        int timestampStart = LineProtocol.timestampStart(record, LineProtocol.seriesKeyEnd(record));
+
+        Assertions.assertThat(record.substring(timestampStart)).isEqualTo("1440046800");
+    }
+
+    @Test
+    void withoutTimestamp() {
+
+        String record = "h2o_feet,location=coyote_creek description=\"feet 1\",level=1.0";
+
+        Assertions.assertThat(LineProtocol.timestampStart(record, LineProtocol.seriesKeyEnd(record))).isEqualTo(-1);
+    }
+
+    @Test
+    void withoutFields() {
+
+        String record = "h2o_feet,location=coyote_creek";
+
+        Assertions.assertThat(LineProtocol.seriesKeyEnd(record)).isEqualTo(record.length());
+    }
+
+    @Test
+    void compareSeriesKeys() {
+
+        Assertions.assertThat(LineProtocol.compareSeriesKeys("cpu,host=a usage=1 1", "cpu,host=a usage=2 2")).isEqualTo(0);
+        Assertions.assertThat(LineProtocol.compareSeriesKeys("cpu,host=a usage=1 1", "cpu,host=b usage=1 1")).isLessThan(0);
+        Assertions.assertThat(LineProtocol.compareSeriesKeys("mem,host=a used=1i", "cpu,host=a usage=1")).isGreaterThan(0);
+        Assertions.assertThat(LineProtocol.compareSeriesKeys("cpu usage=1", "cpu,host=a usage=1")).isLessThan(0);
+        Assertions.assertThat(LineProtocol.compareSeriesKeys("cpu,host=a\\ b usage=1", "cpu,host=a\\ b usage=2"))
+                .isEqualTo(0);
+    }
+}
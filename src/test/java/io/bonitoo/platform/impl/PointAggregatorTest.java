@@ -0,0 +1,205 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.bonitoo.platform.option.AggregationOptions;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class PointAggregatorTest {
+
+    private final List<String> emitted = new ArrayList<>();
+
+    @Test
+    void notConfiguredMeasurement() {
+
+        PointAggregator<String> aggregator = createAggregator();
+
+        Assertions.assertThat(aggregator.add("b1", TimeUnit.SECONDS, "mem,host=a used=1i 1", 0)).isFalse();
+        Assertions.assertThat(aggregator.add("b1", TimeUnit.SECONDS, "cpu_total,host=a used=1i 1", 0)).isFalse();
+        Assertions.assertThat(aggregator.size()).isEqualTo(0);
+    }
+
+    @Test
+    void notParsablePoint() {
+
+        PointAggregator<String> aggregator = createAggregator();
+
+        Assertions.assertThat(aggregator.add("b1", TimeUnit.SECONDS, "cpu,host=a 1", 0)).isFalse();
+        Assertions.assertThat(aggregator.add("b1", TimeUnit.SECONDS, "cpu,host=a usage 1", 0)).isFalse();
+        Assertions.assertThat(aggregator.add("b1", TimeUnit.SECONDS, "cpu,host=a usage= 1", 0)).isFalse();
+        Assertions.assertThat(aggregator.add("b1", TimeUnit.SECONDS, "cpu,host=a usage=1.0, 1", 0)).isFalse();
+        Assertions.assertThat(aggregator.add("b1", TimeUnit.SECONDS, "cpu,host=a usage=1.0,=2.0 1", 0)).isFalse();
+        Assertions.assertThat(aggregator.add("b1", TimeUnit.SECONDS, "cpu,host=a usage=1.0 1a", 0)).isFalse();
+        Assertions.assertThat(aggregator.size()).isEqualTo(0);
+    }
+
+    @Test
+    void aggregateSeries() {
+
+        PointAggregator<String> aggregator = createAggregator();
+
+        Assertions.assertThat(aggregator.add("b1", TimeUnit.SECONDS, "cpu,host=a usage=1.0 1", 0)).isTrue();
+        Assertions.assertThat(aggregator.add("b1", TimeUnit.SECONDS, "cpu,host=b usage=5.0 2", 0)).isTrue();
+        Assertions.assertThat(aggregator.add("b1", TimeUnit.SECONDS, "cpu,host=a usage=3.0 3", 0)).isTrue();
+        Assertions.assertThat(aggregator.add("b2", TimeUnit.SECONDS, "cpu,host=a usage=7.0 3", 0)).isTrue();
+
+        Assertions.assertThat(aggregator.size()).isEqualTo(3);
+
+        aggregator.emit(0, true, (destination, lineProtocol) -> emitted.add(destination + ":" + lineProtocol));
+
+        Assertions.assertThat(emitted).containsExactly(
+                "b1:cpu,host=a usage_min=1.0,usage_max=3.0,usage_sum=4.0,usage_count=2i,usage_last=3.0 0",
+                "b1:cpu,host=b usage_min=5.0,usage_max=5.0,usage_sum=5.0,usage_count=1i,usage_last=5.0 0",
+                "b2:cpu,host=a usage_min=7.0,usage_max=7.0,usage_sum=7.0,usage_count=1i,usage_last=7.0 0");
+        Assertions.assertThat(aggregator.size()).isEqualTo(0);
+    }
+
+    @Test
+    void fieldTypes() {
+
+        PointAggregator<String> aggregator = createAggregator(AggregationOptions.Aggregate.SUM,
+                AggregationOptions.Aggregate.LAST);
+
+        aggregator.add("b1", TimeUnit.SECONDS, "cpu,host=a i=1i,u=2u,s=\"a, b\",b=true 1", 0);
+        aggregator.add("b1", TimeUnit.SECONDS, "cpu,host=a i=3i,u=4u,s=\"c d\",b=false 2", 0);
+
+        aggregator.emit(0, true, (destination, lineProtocol) -> emitted.add(lineProtocol));
+
+        Assertions.assertThat(emitted).containsExactly(
+                "cpu,host=a i_sum=4i,i_last=3i,u_sum=6u,u_last=4u,s_last=\"c d\",b_last=false 0");
+    }
+
+    @Test
+    void countOfAllTypes() {
+
+        PointAggregator<String> aggregator = createAggregator(AggregationOptions.Aggregate.COUNT);
+
+        aggregator.add("b1", TimeUnit.SECONDS, "cpu,host=a s=\"a\",b=true 1", 0);
+        aggregator.add("b1", TimeUnit.SECONDS, "cpu,host=a s=\"b\",b=false 2", 0);
+
+        aggregator.emit(0, true, (destination, lineProtocol) -> emitted.add(lineProtocol));
+
+        Assertions.assertThat(emitted).containsExactly("cpu,host=a s_count=2i,b_count=2i 0");
+    }
+
+    @Test
+    void integersWithoutPrecisionLoss() {
+
+        PointAggregator<String> aggregator = createAggregator(AggregationOptions.Aggregate.MAX,
+                AggregationOptions.Aggregate.SUM);
+
+        aggregator.add("b1", TimeUnit.SECONDS, "cpu,host=a i=9007199254740993i,u=18446744073709551615u 1", 0);
+        aggregator.add("b1", TimeUnit.SECONDS, "cpu,host=a i=2i,u=0u 2", 0);
+
+        aggregator.emit(0, true, (destination, lineProtocol) -> emitted.add(lineProtocol));
+
+        Assertions.assertThat(emitted).containsExactly("cpu,host=a i_max=9007199254740993i,i_sum=9007199254740995i,"
+                + "u_max=18446744073709551615u,u_sum=18446744073709551615u 0");
+    }
+
+    @Test
+    void gracePeriod() {
+
+        AggregationOptions options = AggregationOptions.builder()
+                .measurement("cpu")
+                .aggregates(AggregationOptions.Aggregate.COUNT)
+                .gracePeriod(1_000)
+                .build();
+
+        PointAggregator<String> aggregator = new PointAggregator<>(options);
+
+        aggregator.add("b1", TimeUnit.MILLISECONDS, "cpu,host=a usage=1.0 9999", 0);
+
+        // window is ended, but the late points are still accepted
+        aggregator.emit(10_000, false, (destination, lineProtocol) -> emitted.add(lineProtocol));
+        Assertions.assertThat(emitted).isEmpty();
+
+        aggregator.add("b1", TimeUnit.MILLISECONDS, "cpu,host=a usage=1.0 9000", 0);
+
+        aggregator.emit(11_000, false, (destination, lineProtocol) -> emitted.add(lineProtocol));
+        Assertions.assertThat(emitted).containsExactly("cpu,host=a usage_count=2i 0");
+    }
+
+    @Test
+    void windows() {
+
+        PointAggregator<String> aggregator = createAggregator(AggregationOptions.Aggregate.COUNT);
+
+        aggregator.add("b1", TimeUnit.MILLISECONDS, "cpu,host=a usage=1.0 9999", 0);
+        aggregator.add("b1", TimeUnit.MILLISECONDS, "cpu,host=a usage=1.0 10000", 0);
+        aggregator.add("b1", TimeUnit.MILLISECONDS, "cpu,host=a usage=1.0 10001", 0);
+
+        // open windows
+        aggregator.emit(9_999, false, (destination, lineProtocol) -> emitted.add(lineProtocol));
+        Assertions.assertThat(emitted).isEmpty();
+
+        // first window is closed
+        aggregator.emit(10_000, false, (destination, lineProtocol) -> emitted.add(lineProtocol));
+        Assertions.assertThat(emitted).containsExactly("cpu,host=a usage_count=1i 0");
+
+        // the rest of series is still indexed
+        aggregator.add("b1", TimeUnit.MILLISECONDS, "cpu,host=a usage=1.0 19999", 0);
+        Assertions.assertThat(aggregator.size()).isEqualTo(1);
+
+        aggregator.emit(20_000, false, (destination, lineProtocol) -> emitted.add(lineProtocol));
+        Assertions.assertThat(emitted).containsExactly("cpu,host=a usage_count=1i 0",
+                "cpu,host=a usage_count=3i 10000");
+    }
+
+    @Test
+    void withoutTimestamp() {
+
+        PointAggregator<String> aggregator = createAggregator(AggregationOptions.Aggregate.MAX);
+
+        aggregator.add("b1", TimeUnit.NANOSECONDS, "cpu,host=a usage=1.0", 25_000);
+        aggregator.add("b1", TimeUnit.NANOSECONDS, "cpu,host=a usage=2.0", 29_000);
+
+        aggregator.emit(30_000, false, (destination, lineProtocol) -> emitted.add(lineProtocol));
+
+        Assertions.assertThat(emitted).containsExactly("cpu,host=a usage_max=2.0 20000000000");
+    }
+
+    private PointAggregator<String> createAggregator() {
+        return new PointAggregator<>(AggregationOptions.builder().measurement("cpu").build());
+    }
+
+    private PointAggregator<String> createAggregator(final AggregationOptions.Aggregate aggregate,
+                                                     final AggregationOptions.Aggregate... aggregates) {
+
+        AggregationOptions options = AggregationOptions.builder()
+                .measurement("cpu")
+                .aggregates(aggregate, aggregates)
+                .build();
+
+        return new PointAggregator<>(options);
+    }
+}
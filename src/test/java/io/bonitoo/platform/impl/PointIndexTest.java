@@ -0,0 +1,84 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.impl;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class PointIndexTest {
+
+    @Test
+    void putAndGet() {
+
+        PointIndex index = new PointIndex();
+        index.put(10L, 0);
+        index.put(20L, 1);
+
+        Assertions.assertThat(index.get(10L, position -> true)).isEqualTo(0);
+        Assertions.assertThat(index.get(20L, position -> true)).isEqualTo(1);
+        Assertions.assertThat(index.get(30L, position -> true)).isEqualTo(-1);
+        Assertions.assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void hashCollision() {
+
+        PointIndex index = new PointIndex();
+        index.put(10L, 0);
+        index.put(10L, 1);
+
+        Assertions.assertThat(index.get(10L, position -> position == 1)).isEqualTo(1);
+        Assertions.assertThat(index.get(10L, position -> position == 0)).isEqualTo(0);
+        Assertions.assertThat(index.get(10L, position -> false)).isEqualTo(-1);
+    }
+
+    @Test
+    void grow() {
+
+        PointIndex index = new PointIndex();
+        for (int i = 0; i < 10_000; i++) {
+            index.put(i * 31L, i);
+        }
+
+        Assertions.assertThat(index.size()).isEqualTo(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            int expected = i;
+            Assertions.assertThat(index.get(i * 31L, position -> position == expected)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void clear() {
+
+        PointIndex index = new PointIndex();
+        index.put(10L, 0);
+
+        index.clear();
+
+        Assertions.assertThat(index.size()).isEqualTo(0);
+        Assertions.assertThat(index.get(10L, position -> true)).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.impl;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+
+import io.bonitoo.AbstractTest;
+import io.bonitoo.core.InfluxException;
+import io.bonitoo.platform.dto.ShardStatistics;
+import io.bonitoo.platform.option.ShardingOptions;
+
+import io.reactivex.schedulers.TestScheduler;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class ShardedWriteClientImplTest extends AbstractTest {
+
+    private MockWebServer server1;
+    private MockWebServer server2;
+    private TestScheduler healthCheckScheduler;
+
+    private ShardedWriteClientImpl writeClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+
+        server1 = new MockWebServer();
+        server1.start();
+        server2 = new MockWebServer();
+        server2.start();
+
+        healthCheckScheduler = new TestScheduler();
+    }
+
+    @AfterEach
+    void after() throws IOException {
+
+        if (writeClient != null) {
+            writeClient.close();
+        }
+
+        server1.shutdown();
+        server2.shutdown();
+    }
+
+    @Test
+    void routeBySeries() {
+
+        for (int i = 0; i < 2; i++) {
+            server1.enqueue(createResponse());
+            server2.enqueue(createResponse());
+        }
+
+        writeClient = createWriteClient(ShardingOptions.builder()
+                .addShard(server1.url("/").url().toString())
+                .addShard(server2.url("/").url().toString()));
+
+        for (int i = 0; i < 100; i++) {
+            writeClient.write("b1", "org1", "token1", "cpu,host=server" + i + " usage=1 1");
+        }
+        writeClient.flush();
+
+        List<ShardStatistics> statistics = writeClient.getShardStatistics();
+        Assertions.assertThat(statistics.get(0).getRoutedRecords()).isGreaterThan(0);
+        Assertions.assertThat(statistics.get(1).getRoutedRecords()).isGreaterThan(0);
+        Assertions.assertThat(statistics.get(0).getRoutedRecords() + statistics.get(1).getRoutedRecords())
+                .isEqualTo(100);
+
+        Assertions.assertThat(server1.getRequestCount()).isEqualTo(1);
+        Assertions.assertThat(server2.getRequestCount()).isEqualTo(1);
+
+        String body1 = getRequestBody(server1);
+        String body2 = getRequestBody(server2);
+
+        // the same series is always routed to the same shard
+        writeClient.write("b1", "org1", "token1", "cpu,host=server0 usage=2 2");
+        writeClient.flush();
+
+        String expected = body1.contains("cpu,host=server0 ") ? body1 : body2;
+        MockWebServer server = body1.contains("cpu,host=server0 ") ? server1 : server2;
+
+        Assertions.assertThat(expected).contains("cpu,host=server0 usage=1 1");
+        Assertions.assertThat(getRequestBody(server)).isEqualTo("cpu,host=server0 usage=2 2");
+    }
+
+    @Test
+    void routeByBucket() {
+
+        server1.enqueue(createResponse());
+        server2.enqueue(createResponse());
+
+        writeClient = createWriteClient(ShardingOptions.builder()
+                .addShard(server1.url("/").url().toString())
+                .addShard(server2.url("/").url().toString())
+                .shardKey(ShardingOptions.ShardKey.BUCKET));
+
+        for (int i = 0; i < 100; i++) {
+            writeClient.write("b1", "org1", "token1", "cpu,host=server" + i + " usage=1 1");
+        }
+        writeClient.flush();
+
+        Assertions.assertThat(server1.getRequestCount() + server2.getRequestCount()).isEqualTo(1);
+
+        List<ShardStatistics> statistics = writeClient.getShardStatistics();
+        Assertions.assertThat(statistics).extracting(ShardStatistics::getRoutedRecords).contains(100L, 0L);
+    }
+
+    @Test
+    void failover() throws IOException {
+
+        for (int i = 0; i < 200; i++) {
+            server2.enqueue(createResponse());
+        }
+
+        // unavailable shard
+        String unavailable = server1.url("/").url().toString();
+        server1.shutdown();
+
+        writeClient = createWriteClient(ShardingOptions.builder()
+                .addShard(unavailable)
+                .addShard(server2.url("/").url().toString())
+                .failureThreshold(1));
+
+        for (int i = 0; writeClient.getShardStatistics().get(0).isHealthy(); i++) {
+            writeClient.write("b1", "org1", "token1", "cpu,host=server" + i + " usage=1 1");
+            writeClient.flush();
+
+            Assertions.assertThat(i).isLessThan(100);
+        }
+
+        ShardStatistics statistics = writeClient.getShardStatistics().get(0);
+        Assertions.assertThat(statistics.isHealthy()).isFalse();
+        Assertions.assertThat(statistics.getFailedBatches()).isEqualTo(1);
+
+        int requestCount = server2.getRequestCount();
+
+        for (int i = 0; i < 100; i++) {
+            writeClient.write("b1", "org1", "token1", "cpu,host=server" + i + " usage=2 2");
+        }
+        writeClient.flush();
+
+        // all records are routed to the healthy shard
+        Assertions.assertThat(server2.getRequestCount()).isEqualTo(requestCount + 1);
+        Assertions.assertThat(writeClient.getShardStatistics().get(0).getRoutedRecords()).isEqualTo(1);
+
+        // health check doesn't recover unavailable shard
+        healthCheckScheduler.advanceTimeBy(10, TimeUnit.SECONDS);
+        Assertions.assertThat(writeClient.getShardStatistics().get(0).isHealthy()).isFalse();
+    }
+
+    @Test
+    void rejectedDataKeepShardHealthy() {
+
+        server1.enqueue(createErrorResponse("unable to parse points"));
+        server2.enqueue(createErrorResponse("unable to parse points"));
+
+        writeClient = createWriteClient(ShardingOptions.builder()
+                .addShard(server1.url("/").url().toString())
+                .addShard(server2.url("/").url().toString())
+                .shardKey(ShardingOptions.ShardKey.BUCKET)
+                .failureThreshold(1));
+
+        writeClient.write("b1", "org1", "token1", "cpu,host=server1 usage=1 1");
+        writeClient.flush();
+
+        // the server is available => the rejected data are not failure of shard
+        List<ShardStatistics> statistics = writeClient.getShardStatistics();
+        Assertions.assertThat(statistics).extracting(ShardStatistics::getFailedBatches).contains(1L, 0L);
+        Assertions.assertThat(statistics).allMatch(ShardStatistics::isHealthy);
+    }
+
+    @Test
+    void failoverBySyncWrite() throws IOException {
+
+        for (int i = 0; i < 200; i++) {
+            server2.enqueue(createResponse());
+        }
+
+        // unavailable shard
+        String unavailable = server1.url("/").url().toString();
+        server1.shutdown();
+
+        writeClient = createWriteClient(ShardingOptions.builder()
+                .addShard(unavailable)
+                .addShard(server2.url("/").url().toString())
+                .failureThreshold(1));
+
+        for (int i = 0; writeClient.getShardStatistics().get(0).isHealthy(); i++) {
+            try {
+                writeClient.writeSync("b1", "org1", "token1",
+                        Collections.singletonList("cpu,host=server" + i + " usage=1 1"));
+            } catch (InfluxException e) {
+                // expected for unavailable shard
+            }
+
+            Assertions.assertThat(i).isLessThan(100);
+        }
+
+        ShardStatistics statistics = writeClient.getShardStatistics().get(0);
+        Assertions.assertThat(statistics.isHealthy()).isFalse();
+        Assertions.assertThat(statistics.getFailedBatches()).isEqualTo(1);
+    }
+
+    @Nonnull
+    private MockResponse createResponse() {
+        return createResponse("{}", "application/json", false);
+    }
+
+    @Nonnull
+    private ShardedWriteClientImpl createWriteClient(final ShardingOptions.Builder builder) {
+        return new ShardedWriteClientImpl(builder.build(), healthCheckScheduler);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class StripedMpscQueueTest {
+
+    @Test
+    void offerDrain() throws Exception {
+
+        StripedMpscQueue<String> queue = new StripedMpscQueue<>(100);
+
+        Assertions.assertThat(queue.isEmpty()).isTrue();
+
+        Assertions.assertThat(queue.offer("record_1")).isTrue();
+        Assertions.assertThat(queue.offer("record_2")).isTrue();
+
+        Assertions.assertThat(queue.isEmpty()).isFalse();
+
+        List<String> drained = new ArrayList<>();
+        Assertions.assertThat(queue.drain(drained::add)).isEqualTo(2);
+        Assertions.assertThat(drained).containsExactly("record_1", "record_2");
+
+        Assertions.assertThat(queue.isEmpty()).isTrue();
+        Assertions.assertThat(queue.drain(drained::add)).isEqualTo(0);
+    }
+
+    @Test
+    void bounded() throws Exception {
+
+        StripedMpscQueue<Integer> queue = new StripedMpscQueue<>(0);
+
+        // one producer uses one stripe with minimal capacity
+        int offered = 0;
+        while (queue.offer(offered)) {
+            offered++;
+        }
+
+        Assertions.assertThat(offered).isEqualTo(16);
+
+        // free slots
+        queue.drain(value -> {
+        });
+
+        Assertions.assertThat(queue.offer(offered)).isTrue();
+    }
+
+    @Test
+    void concurrentProducers() throws Exception {
+
+        int producers = 8;
+        int records = 50_000;
+
+        StripedMpscQueue<long[]> queue = new StripedMpscQueue<>(1_024);
+
+        long[] last = new long[producers];
+        Arrays.fill(last, -1);
+        long[] received = new long[1];
+
+        AtomicBoolean produced = new AtomicBoolean(false);
+        Thread consumer = new Thread(() -> {
+            try {
+                while (!produced.get() || !queue.isEmpty()) {
+                    queue.drain(record -> {
+                        int producer = (int) record[0];
+
+                        // order per producer
+                        Assertions.assertThat(record[1]).isEqualTo(last[producer] + 1);
+
+                        last[producer] = record[1];
+                        received[0]++;
+                    });
+                }
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        consumer.start();
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < producers; i++) {
+            int producer = i;
+            futures.add(executor.submit(() -> {
+                for (long index = 0; index < records; index++) {
+                    long[] record = {producer, index};
+                    while (!queue.offer(record)) {
+                        Thread.yield();
+                    }
+                }
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        produced.set(true);
+        consumer.join(TimeUnit.SECONDS.toMillis(30));
+        executor.shutdown();
+
+        Assertions.assertThat(received[0]).isEqualTo((long) producers * records);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import io.bonitoo.platform.dto.WriteStatistics;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class WriteStatisticsCountersTest {
+
+    @Test
+    void bufferedAndReleased() {
+
+        WriteStatisticsCounters counters = new WriteStatisticsCounters();
+        counters.buffered(2, 100);
+        counters.buffered(1, 50);
+        counters.released(2, 100, TimeUnit.MILLISECONDS.toNanos(3));
+
+        WriteStatistics statistics = counters.snapshot();
+
+        Assertions.assertThat(statistics.getBufferedRecords()).isEqualTo(1);
+        Assertions.assertThat(statistics.getBufferedBytes()).isEqualTo(50);
+        Assertions.assertThat(statistics.getBufferTimeBounds()).startsWith(1, 5, 10);
+        Assertions.assertThat(statistics.getBufferTimeCounts()[0]).isEqualTo(0);
+        Assertions.assertThat(statistics.getBufferTimeCounts()[1]).isEqualTo(1);
+    }
+
+    @Test
+    void releasedWithoutTime() {
+
+        WriteStatisticsCounters counters = new WriteStatisticsCounters();
+        counters.buffered(1, 50);
+        counters.released(1, 50, -1);
+
+        WriteStatistics statistics = counters.snapshot();
+
+        Assertions.assertThat(statistics.getBufferedRecords()).isEqualTo(0);
+        Assertions.assertThat(statistics.getBufferTimeCounts()).containsOnly(0);
+    }
+
+    @Test
+    void overflowBucket() {
+
+        WriteStatisticsCounters counters = new WriteStatisticsCounters();
+        counters.released(0, 0, TimeUnit.MINUTES.toNanos(5));
+
+        long[] counts = counters.snapshot().getBufferTimeCounts();
+
+        Assertions.assertThat(counts[counts.length - 1]).isEqualTo(1);
+    }
+
+    @Test
+    void droppedByBucket() {
+
+        WriteStatisticsCounters counters = new WriteStatisticsCounters();
+        counters.dropped("b1", 2, 100);
+        counters.dropped("b2", 1, 40);
+        counters.dropped("b1", 1, 50);
+
+        WriteStatistics statistics = counters.snapshot();
+
+        Assertions.assertThat(statistics.getDroppedRecords()).isEqualTo(4);
+        Assertions.assertThat(statistics.getDroppedBytes()).isEqualTo(190);
+        Assertions.assertThat(statistics.getDroppedRecordsByBucket())
+                .hasSize(2)
+                .containsEntry("b1", 3L)
+                .containsEntry("b2", 1L);
+        Assertions.assertThat(statistics.getDroppedBytesByBucket())
+                .containsEntry("b1", 150L)
+                .containsEntry("b2", 40L);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.option;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class AdaptiveBatchingOptionsTest {
+
+    @Test
+    void defaults() {
+
+        AdaptiveBatchingOptions options = AdaptiveBatchingOptions.builder().build();
+
+        Assertions.assertThat(options.getMinBatchSize()).isEqualTo(100);
+        Assertions.assertThat(options.getMaxBatchSize()).isEqualTo(10_000);
+        Assertions.assertThat(options.getMinFlushInterval()).isEqualTo(100);
+        Assertions.assertThat(options.getMaxFlushInterval()).isEqualTo(5_000);
+        Assertions.assertThat(options.getTargetLatency()).isEqualTo(500);
+        Assertions.assertThat(options.getBatchSizeIncrease()).isEqualTo(100);
+        Assertions.assertThat(options.getDecreaseFactor()).isEqualTo(0.5);
+
+        Assertions.assertThat(WriteOptions.DEFAULTS.getAdaptiveBatching()).isNull();
+    }
+
+    @Test
+    void configure() {
+
+        AdaptiveBatchingOptions options = AdaptiveBatchingOptions.builder()
+                .batchSize(10, 50)
+                .flushInterval(20, 200)
+                .targetLatency(100)
+                .batchSizeIncrease(5)
+                .decreaseFactor(0.7)
+                .build();
+
+        Assertions.assertThat(options.getMinBatchSize()).isEqualTo(10);
+        Assertions.assertThat(options.getMaxBatchSize()).isEqualTo(50);
+        Assertions.assertThat(options.getMinFlushInterval()).isEqualTo(20);
+        Assertions.assertThat(options.getMaxFlushInterval()).isEqualTo(200);
+        Assertions.assertThat(options.getTargetLatency()).isEqualTo(100);
+        Assertions.assertThat(options.getBatchSizeIncrease()).isEqualTo(5);
+        Assertions.assertThat(options.getDecreaseFactor()).isEqualTo(0.7);
+
+        WriteOptions writeOptions = WriteOptions.builder().adaptiveBatching(options).build();
+        Assertions.assertThat(writeOptions.getAdaptiveBatching()).isEqualTo(options);
+    }
+
+    @Test
+    void invalidBounds() {
+
+        Assertions.assertThatThrownBy(() -> AdaptiveBatchingOptions.builder().batchSize(100, 10).build())
+                .isInstanceOf(IllegalStateException.class);
+
+        Assertions.assertThatThrownBy(() -> AdaptiveBatchingOptions.builder().flushInterval(100, 10).build())
+                .isInstanceOf(IllegalStateException.class);
+
+        Assertions.assertThatThrownBy(() -> AdaptiveBatchingOptions.builder().decreaseFactor(1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
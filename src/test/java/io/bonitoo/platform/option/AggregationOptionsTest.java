@@ -0,0 +1,76 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.option;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class AggregationOptionsTest {
+
+    @Test
+    void defaults() {
+
+        AggregationOptions options = AggregationOptions.builder().measurement("cpu").build();
+
+        Assertions.assertThat(options.getMeasurements()).containsExactly("cpu");
+        Assertions.assertThat(options.getWindow()).isEqualTo(10_000);
+        Assertions.assertThat(options.getAggregates()).containsExactly(AggregationOptions.Aggregate.values());
+    }
+
+    @Test
+    void configure() {
+
+        AggregationOptions options = AggregationOptions.builder()
+                .measurement("cpu")
+                .measurement("mem")
+                .window(60_000)
+                .aggregates(AggregationOptions.Aggregate.MAX, AggregationOptions.Aggregate.COUNT)
+                .build();
+
+        Assertions.assertThat(options.getMeasurements()).containsExactly("cpu", "mem");
+        Assertions.assertThat(options.getWindow()).isEqualTo(60_000);
+        Assertions.assertThat(options.getAggregates())
+                .containsExactly(AggregationOptions.Aggregate.MAX, AggregationOptions.Aggregate.COUNT);
+    }
+
+    @Test
+    void measurementIsRequired() {
+
+        AggregationOptions.Builder builder = AggregationOptions.builder();
+
+        Assertions.assertThatThrownBy(builder::build)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("At least one measurement has to be defined.");
+    }
+
+    @Test
+    void windowPositive() {
+
+        Assertions.assertThatThrownBy(() -> AggregationOptions.builder().window(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expecting a positive number for window");
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.option;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import io.reactivex.BackpressureOverflowStrategy;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class DiskBufferOptionsTest {
+
+    private final Path directory = Paths.get("target", "disk-buffer");
+
+    @Test
+    void defaults() {
+
+        DiskBufferOptions options = DiskBufferOptions.builder(directory).build();
+
+        Assertions.assertThat(options.getDirectory()).isEqualTo(directory);
+        Assertions.assertThat(options.getMaxSize()).isEqualTo(512L * 1024 * 1024);
+        Assertions.assertThat(options.getSegmentSize()).isEqualTo(16 * 1024 * 1024);
+        Assertions.assertThat(options.getFsyncPolicy()).isEqualTo(DiskBufferOptions.FsyncPolicy.SEGMENT_ROLL);
+        Assertions.assertThat(options.getEvictionPolicy()).isEqualTo(BackpressureOverflowStrategy.DROP_OLDEST);
+    }
+
+    @Test
+    void configure() {
+
+        DiskBufferOptions options = DiskBufferOptions.builder(directory)
+                .maxSize(1024)
+                .segmentSize(256)
+                .fsyncPolicy(DiskBufferOptions.FsyncPolicy.EVERY_RECORD)
+                .evictionPolicy(BackpressureOverflowStrategy.ERROR)
+                .build();
+
+        Assertions.assertThat(options.getMaxSize()).isEqualTo(1024);
+        Assertions.assertThat(options.getSegmentSize()).isEqualTo(256);
+        Assertions.assertThat(options.getFsyncPolicy()).isEqualTo(DiskBufferOptions.FsyncPolicy.EVERY_RECORD);
+        Assertions.assertThat(options.getEvictionPolicy()).isEqualTo(BackpressureOverflowStrategy.ERROR);
+    }
+
+    @Test
+    void segmentGreaterThanMaxSize() {
+
+        DiskBufferOptions.Builder builder = DiskBufferOptions.builder(directory)
+                .maxSize(1024)
+                .segmentSize(2048);
+
+        Assertions.assertThatThrownBy(builder::build)
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void writeOptions() {
+
+        Assertions.assertThat(WriteOptions.DEFAULTS.getDiskBuffer()).isNull();
+
+        DiskBufferOptions diskBuffer = DiskBufferOptions.builder(directory).build();
+        WriteOptions writeOptions = WriteOptions.builder().diskBuffer(diskBuffer).build();
+
+        Assertions.assertThat(writeOptions.getDiskBuffer()).isEqualTo(diskBuffer);
+    }
+}
@@ -22,6 +22,15 @@
  */
 package io.bonitoo.platform.option;
 
+import io.bonitoo.core.ClientRuntime;
+import io.bonitoo.core.HttpProtocol;
+import io.bonitoo.core.GzipCodec;
+import io.bonitoo.core.RateLimiter;
+import io.bonitoo.core.metrics.DefaultMetricsRegistry;
+import io.bonitoo.core.option.CircuitBreakerOptions;
+import io.bonitoo.core.option.ConcurrencyLimitOptions;
+import io.bonitoo.core.option.RateLimitOptions;
+
 import okhttp3.OkHttpClient;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -41,6 +50,30 @@ class PlatformOptionsTest {
 
         Assertions.assertThat(options.getUrl()).isEqualTo("http://localhost:9999");
         Assertions.assertThat(options.getOkHttpClient()).isNotNull();
+        Assertions.assertThat(options.getCompressionCodec()).isEqualTo(GzipCodec.DEFAULT);
+        Assertions.assertThat(options.getCompressionThreshold()).isEqualTo(0);
+        Assertions.assertThat(options.getRuntime()).isNull();
+    }
+
+    @Test
+    void compression() {
+
+        GzipCodec codec = new GzipCodec(1);
+        PlatformOptions options = PlatformOptions.builder()
+                .url("http://localhost:9999")
+                .compressionCodec(codec)
+                .compressionThreshold(1024)
+                .build();
+
+        Assertions.assertThat(options.getCompressionCodec()).isEqualTo(codec);
+        Assertions.assertThat(options.getCompressionThreshold()).isEqualTo(1024);
+    }
+
+    @Test
+    void compressionThresholdNotNegative() {
+
+        Assertions.assertThatThrownBy(() -> PlatformOptions.builder().compressionThreshold(-1))
+                .isInstanceOf(IllegalArgumentException.class);
     }
 
     @Test
@@ -61,4 +94,79 @@ class PlatformOptionsTest {
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessage("The url to connect to Platform has to be defined.");
     }
-}
\ No newline at end of file
+
+    @Test
+    void runtime() {
+
+        ClientRuntime runtime = ClientRuntime.create();
+        PlatformOptions options = PlatformOptions.builder()
+                .url("http://localhost:9999")
+                .runtime(runtime)
+                .build();
+
+        Assertions.assertThat(options.getRuntime()).isEqualTo(runtime);
+
+        runtime.close();
+    }
+
+    @Test
+    void protocol() {
+
+        PlatformOptions options = PlatformOptions.builder()
+                .url("http://localhost:9999")
+                .protocol(HttpProtocol.HTTP_2)
+                .build();
+
+        Assertions.assertThat(options.getProtocol()).isEqualTo(HttpProtocol.HTTP_2);
+    }
+
+    @Test
+    void overloadProtection() {
+
+        PlatformOptions options = PlatformOptions.builder()
+                .url("http://localhost:9999")
+                .circuitBreaker(CircuitBreakerOptions.DEFAULTS)
+                .concurrencyLimit(ConcurrencyLimitOptions.DEFAULTS)
+                .build();
+
+        Assertions.assertThat(options.getCircuitBreaker()).isEqualTo(CircuitBreakerOptions.DEFAULTS);
+        Assertions.assertThat(options.getConcurrencyLimit()).isEqualTo(ConcurrencyLimitOptions.DEFAULTS);
+    }
+
+    @Test
+    void overloadProtectionDisabled() {
+
+        PlatformOptions options = PlatformOptions.builder()
+                .url("http://localhost:9999")
+                .build();
+
+        Assertions.assertThat(options.getCircuitBreaker()).isNull();
+        Assertions.assertThat(options.getConcurrencyLimit()).isNull();
+    }
+
+    @Test
+    void rateLimiter() {
+
+        RateLimiter rateLimiter = new RateLimiter(RateLimitOptions.builder().requestsPerSecond(10).build());
+
+        PlatformOptions options = PlatformOptions.builder()
+                .url("http://localhost:9999")
+                .rateLimiter(rateLimiter)
+                .build();
+
+        Assertions.assertThat(options.getRateLimiter()).isEqualTo(rateLimiter);
+    }
+
+    @Test
+    void metrics() {
+
+        DefaultMetricsRegistry metrics = new DefaultMetricsRegistry();
+
+        PlatformOptions options = PlatformOptions.builder()
+                .url("http://localhost:9999")
+                .metrics(metrics)
+                .build();
+
+        Assertions.assertThat(options.getMetrics()).isEqualTo(metrics);
+    }
+}
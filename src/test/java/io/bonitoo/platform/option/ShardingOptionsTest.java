@@ -0,0 +1,109 @@
+/*
+ * The MIT License
+ * Copyright © 2018
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package io.bonitoo.platform.option;
+
+import java.nio.file.Paths;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.runner.JUnitPlatform;
+import org.junit.runner.RunWith;
+
+@RunWith(JUnitPlatform.class)
+class ShardingOptionsTest {
+
+    @Test
+    void defaults() {
+
+        ShardingOptions shardingOptions = ShardingOptions.builder()
+                .addShard("http://localhost:9999")
+                .build();
+
+        Assertions.assertThat(shardingOptions.getShards()).hasSize(1);
+        Assertions.assertThat(shardingOptions.getShards().get(0).getUrl()).isEqualTo("http://localhost:9999");
+        Assertions.assertThat(shardingOptions.getWriteOptions()).isEqualTo(WriteOptions.DEFAULTS);
+        Assertions.assertThat(shardingOptions.getShardKey()).isEqualTo(ShardingOptions.ShardKey.SERIES);
+        Assertions.assertThat(shardingOptions.getVirtualNodes()).isEqualTo(128);
+        Assertions.assertThat(shardingOptions.getFailureThreshold()).isEqualTo(3);
+        Assertions.assertThat(shardingOptions.getHealthCheckInterval()).isEqualTo(10_000);
+    }
+
+    @Test
+    void configure() {
+
+        WriteOptions writeOptions = WriteOptions.builder().batchSize(100).build();
+
+        ShardingOptions shardingOptions = ShardingOptions.builder()
+                .addShard("http://localhost:9999")
+                .addShard(PlatformOptions.builder().url("http://localhost:9998").build())
+                .writeOptions(writeOptions)
+                .shardKey(ShardingOptions.ShardKey.BUCKET)
+                .virtualNodes(64)
+                .failureThreshold(5)
+                .healthCheckInterval(1_000)
+                .build();
+
+        Assertions.assertThat(shardingOptions.getShards()).hasSize(2);
+        Assertions.assertThat(shardingOptions.getShards().get(1).getUrl()).isEqualTo("http://localhost:9998");
+        Assertions.assertThat(shardingOptions.getWriteOptions()).isEqualTo(writeOptions);
+        Assertions.assertThat(shardingOptions.getShardKey()).isEqualTo(ShardingOptions.ShardKey.BUCKET);
+        Assertions.assertThat(shardingOptions.getVirtualNodes()).isEqualTo(64);
+        Assertions.assertThat(shardingOptions.getFailureThreshold()).isEqualTo(5);
+        Assertions.assertThat(shardingOptions.getHealthCheckInterval()).isEqualTo(1_000);
+    }
+
+    @Test
+    void shardsAreRequired() {
+
+        ShardingOptions.Builder builder = ShardingOptions.builder();
+
+        Assertions.assertThatThrownBy(builder::build)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("At least one shard has to be defined.");
+    }
+
+    @Test
+    void diskBufferIsNotShareable() {
+
+        WriteOptions writeOptions = WriteOptions.builder()
+                .diskBuffer(DiskBufferOptions.builder(Paths.get("target", "shards")).build())
+                .build();
+
+        ShardingOptions.Builder builder = ShardingOptions.builder()
+                .addShard("http://localhost:9999")
+                .addShard("http://localhost:9998")
+                .writeOptions(writeOptions);
+
+        Assertions.assertThatThrownBy(builder::build)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("The shards are not able to share the disk buffer.");
+    }
+
+    @Test
+    void virtualNodesPositive() {
+
+        Assertions.assertThatThrownBy(() -> ShardingOptions.builder().virtualNodes(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expecting a positive number for virtualNodes");
+    }
+}
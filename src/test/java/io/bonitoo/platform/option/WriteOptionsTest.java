@@ -41,9 +41,17 @@ class WriteOptionsTest {
         WriteOptions writeOptions = WriteOptions.builder().build();
 
         Assertions.assertThat(writeOptions.getBatchSize()).isEqualTo(1000);
+        Assertions.assertThat(writeOptions.getMaxBatchBytes()).isEqualTo(0);
         Assertions.assertThat(writeOptions.getBufferLimit()).isEqualTo(10000);
         Assertions.assertThat(writeOptions.getFlushInterval()).isEqualTo(1000);
         Assertions.assertThat(writeOptions.getJitterInterval()).isEqualTo(0);
+        Assertions.assertThat(writeOptions.getMaxRetries()).isEqualTo(0);
+        Assertions.assertThat(writeOptions.getMaxInFlightRequests()).isEqualTo(1);
+        Assertions.assertThat(writeOptions.getDestinationQueueLimit()).isEqualTo(0);
+        Assertions.assertThat(writeOptions.isCoalesceDuplicates()).isFalse();
+        Assertions.assertThat(writeOptions.isGroupBySeries()).isFalse();
+        Assertions.assertThat(writeOptions.isAttachLineProtocol()).isTrue();
+        Assertions.assertThat(writeOptions.getAggregation()).isNull();
         Assertions.assertThat(writeOptions.getWriteScheduler()).isEqualTo(Schedulers.trampoline());
         Assertions.assertThat(writeOptions.getBackpressureStrategy()).isEqualTo(BackpressureOverflowStrategy.DROP_OLDEST);
     }
@@ -53,23 +61,44 @@ class WriteOptionsTest {
 
         WriteOptions writeOptions = WriteOptions.builder()
                 .batchSize(10_000)
+                .maxBatchBytes(1_048_576)
                 .bufferLimit(500)
                 .flushInterval(500)
                 .jitterInterval(1_000)
                 .retryInterval(2_000)
+                .maxRetries(3)
+                .maxInFlightRequests(4)
+                .destinationQueueLimit(100)
+                .coalesceDuplicates(true)
+                .groupBySeries(true)
+                .attachLineProtocol(false)
                 .writeScheduler(Schedulers.computation())
                 .backpressureStrategy(BackpressureOverflowStrategy.ERROR)
                 .build();
 
         Assertions.assertThat(writeOptions.getBatchSize()).isEqualTo(10_000);
+        Assertions.assertThat(writeOptions.getMaxBatchBytes()).isEqualTo(1_048_576);
         Assertions.assertThat(writeOptions.getBufferLimit()).isEqualTo(500);
         Assertions.assertThat(writeOptions.getFlushInterval()).isEqualTo(500);
         Assertions.assertThat(writeOptions.getJitterInterval()).isEqualTo(1_000);
         Assertions.assertThat(writeOptions.getRetryInterval()).isEqualTo(2_000);
+        Assertions.assertThat(writeOptions.getMaxRetries()).isEqualTo(3);
+        Assertions.assertThat(writeOptions.getMaxInFlightRequests()).isEqualTo(4);
+        Assertions.assertThat(writeOptions.getDestinationQueueLimit()).isEqualTo(100);
+        Assertions.assertThat(writeOptions.isCoalesceDuplicates()).isTrue();
+        Assertions.assertThat(writeOptions.isGroupBySeries()).isTrue();
+        Assertions.assertThat(writeOptions.isAttachLineProtocol()).isFalse();
         Assertions.assertThat(writeOptions.getWriteScheduler()).isEqualTo(Schedulers.computation());
         Assertions.assertThat(writeOptions.getBackpressureStrategy()).isEqualTo(BackpressureOverflowStrategy.ERROR);
     }
 
+    @Test
+    void maxInFlightRequestsPositive() {
+
+        Assertions.assertThatThrownBy(() -> WriteOptions.builder().maxInFlightRequests(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     void disabledBatching() {
 